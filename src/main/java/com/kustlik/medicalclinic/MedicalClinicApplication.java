@@ -1,11 +1,14 @@
 package com.kustlik.medicalclinic;
 
+import com.kustlik.medicalclinic.repository.NaturalIdJpaRepository;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
 @SpringBootApplication
 @EnableFeignClients
+@EnableJpaRepositories(repositoryBaseClass = NaturalIdJpaRepository.class)
 public class MedicalClinicApplication {
 
     public static void main(String[] args) {
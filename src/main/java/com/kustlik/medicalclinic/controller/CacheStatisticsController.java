@@ -0,0 +1,30 @@
+package com.kustlik.medicalclinic.controller;
+
+import com.kustlik.medicalclinic.model.dto.cache.CacheRegionStatisticsDTO;
+import com.kustlik.medicalclinic.model.dto.cache.ResponseCacheStatisticsDTO;
+import com.kustlik.medicalclinic.remote.client.CachingSchoolClient;
+import com.kustlik.medicalclinic.service.cache.SecondLevelCacheStatistics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/cache_statistics")
+public class CacheStatisticsController {
+    private final SecondLevelCacheStatistics secondLevelCacheStatistics;
+    private final CachingSchoolClient cachingSchoolClient;
+
+    @GetMapping
+    public List<CacheRegionStatisticsDTO> getCacheRegionStatistics() {
+        return secondLevelCacheStatistics.getRegionStatistics();
+    }
+
+    @GetMapping("/remote")
+    public List<ResponseCacheStatisticsDTO> getRemoteCacheStatistics() {
+        return cachingSchoolClient.getCacheStatistics();
+    }
+}
@@ -1,16 +1,29 @@
 package com.kustlik.medicalclinic.controller;
 
+import com.kustlik.medicalclinic.controller.header.TotalCountHeader;
+import com.kustlik.medicalclinic.model.cursor.CursorPaging;
+import com.kustlik.medicalclinic.model.cursor.IdCursor;
+import com.kustlik.medicalclinic.model.dto.doctor.DoctorAssignmentDTO;
+import com.kustlik.medicalclinic.model.dto.doctor.DoctorAssignmentSummaryDTO;
 import com.kustlik.medicalclinic.model.dto.doctor.DoctorCreationDTO;
 import com.kustlik.medicalclinic.model.dto.doctor.DoctorDTO;
+import com.kustlik.medicalclinic.model.dto.page.CursorPageDTO;
 import com.kustlik.medicalclinic.model.entity.Doctor;
+import com.kustlik.medicalclinic.model.fields.FieldSelection;
+import com.kustlik.medicalclinic.model.fields.ResourceFields;
 import com.kustlik.medicalclinic.model.mapper.DoctorMapper;
+import com.kustlik.medicalclinic.model.projection.DoctorSummary;
 import com.kustlik.medicalclinic.service.DoctorService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 @RestController
 @RequiredArgsConstructor
@@ -20,10 +33,30 @@ public class DoctorController {
     private final DoctorMapper doctorMapper;
 
     @GetMapping
-    public List<DoctorDTO> getDoctors(Pageable pageable) {
-        return doctorService.getDoctors(pageable).stream()
-                .map(doctorMapper::toDto)
+    public ResponseEntity<List<DoctorDTO>> getDoctors(@RequestParam(value = "withTotal", defaultValue = "false") boolean withTotal,
+                                                      Pageable pageable) {
+        Slice<DoctorSummary> page = doctorService.getDoctors(pageable);
+        List<DoctorDTO> doctors = page.stream()
+                .map(toDto(page))
                 .toList();
+        return TotalCountHeader.respond(doctors, withTotal, doctorService::countDoctors);
+    }
+
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getDoctorFields(@RequestParam("fields") String fields,
+                                                                     @RequestParam(value = "withTotal", defaultValue = "false") boolean withTotal,
+                                                                     Pageable pageable) {
+        FieldSelection selection = FieldSelection.parse(ResourceFields.DOCTOR, fields);
+        List<Map<String, Object>> doctors = doctorService.getDoctorFields(selection, pageable).getContent();
+        return TotalCountHeader.respond(doctors, withTotal, doctorService::countDoctors);
+    }
+
+    @GetMapping("/scroll")
+    public CursorPageDTO<DoctorDTO> scrollDoctors(@RequestParam(value = "cursor", required = false) String cursor,
+                                                  @RequestParam(value = "size", defaultValue = "10") int size) {
+        IdCursor after = cursor == null ? null : IdCursor.decode(cursor);
+        Slice<DoctorSummary> page = doctorService.getDoctors(after, size);
+        return CursorPaging.toPage(page, toDto(page), doctor -> new IdCursor(doctor.getId()).encode());
     }
 
     @GetMapping("/{email}")
@@ -45,4 +78,19 @@ public class DoctorController {
         Doctor doctor = doctorService.assignDoctorToMedicalFacility(doctorID, medicalFacilityID);
         return doctorMapper.toDto(doctor);
     }
+
+    @PostMapping("/assignments")
+    @ResponseStatus(HttpStatus.CREATED)
+    public DoctorAssignmentSummaryDTO createDoctorAssignments(@RequestBody List<DoctorAssignmentDTO> assignments) {
+        return doctorService.assignDoctorsToMedicalFacilities(assignments);
+    }
+
+    private Function<DoctorSummary, DoctorDTO> toDto(Slice<DoctorSummary> doctors) {
+        List<Long> doctorIDs = doctors.map(DoctorSummary::getId).toList();
+        Map<Long, List<Long>> medicalFacilityIds = doctorService.getMedicalFacilityIds(doctorIDs);
+        Map<Long, List<Long>> visitIds = doctorService.getVisitIds(doctorIDs);
+        return doctor -> doctorMapper.toDto(doctor,
+                medicalFacilityIds.getOrDefault(doctor.getId(), List.of()),
+                visitIds.getOrDefault(doctor.getId(), List.of()));
+    }
 }
@@ -1,15 +1,26 @@
 package com.kustlik.medicalclinic.controller;
 
+import com.kustlik.medicalclinic.controller.header.TotalCountHeader;
+import com.kustlik.medicalclinic.model.cursor.CursorPaging;
+import com.kustlik.medicalclinic.model.cursor.IdCursor;
 import com.kustlik.medicalclinic.model.dto.medical_facility.MedicalFacilityDTO;
+import com.kustlik.medicalclinic.model.dto.page.CursorPageDTO;
 import com.kustlik.medicalclinic.model.entity.MedicalFacility;
+import com.kustlik.medicalclinic.model.fields.FieldSelection;
+import com.kustlik.medicalclinic.model.fields.ResourceFields;
 import com.kustlik.medicalclinic.model.mapper.MedicalFacilityMapper;
+import com.kustlik.medicalclinic.model.projection.MedicalFacilitySummary;
 import com.kustlik.medicalclinic.service.MedicalFacilityService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 @RestController
 @RequiredArgsConstructor
@@ -19,10 +30,30 @@ public class MedicalFacilityController {
     private final MedicalFacilityMapper medicalFacilityMapper;
 
     @GetMapping
-    public List<MedicalFacilityDTO> getMedicalFacilities(Pageable pageable) {
-        return medicalFacilityService.getMedicalFacilities(pageable).stream()
-                .map(medicalFacilityMapper::toDto)
+    public ResponseEntity<List<MedicalFacilityDTO>> getMedicalFacilities(@RequestParam(value = "withTotal", defaultValue = "false") boolean withTotal,
+                                                                         Pageable pageable) {
+        Slice<MedicalFacilitySummary> page = medicalFacilityService.getMedicalFacilities(pageable);
+        List<MedicalFacilityDTO> medicalFacilities = page.stream()
+                .map(toDto(page))
                 .toList();
+        return TotalCountHeader.respond(medicalFacilities, withTotal, medicalFacilityService::countMedicalFacilities);
+    }
+
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getMedicalFacilityFields(@RequestParam("fields") String fields,
+                                                                              @RequestParam(value = "withTotal", defaultValue = "false") boolean withTotal,
+                                                                              Pageable pageable) {
+        FieldSelection selection = FieldSelection.parse(ResourceFields.MEDICAL_FACILITY, fields);
+        List<Map<String, Object>> medicalFacilities = medicalFacilityService.getMedicalFacilityFields(selection, pageable).getContent();
+        return TotalCountHeader.respond(medicalFacilities, withTotal, medicalFacilityService::countMedicalFacilities);
+    }
+
+    @GetMapping("/scroll")
+    public CursorPageDTO<MedicalFacilityDTO> scrollMedicalFacilities(@RequestParam(value = "cursor", required = false) String cursor,
+                                                                     @RequestParam(value = "size", defaultValue = "10") int size) {
+        IdCursor after = cursor == null ? null : IdCursor.decode(cursor);
+        Slice<MedicalFacilitySummary> page = medicalFacilityService.getMedicalFacilities(after, size);
+        return CursorPaging.toPage(page, toDto(page), medicalFacility -> new IdCursor(medicalFacility.getId()).encode());
     }
 
     @GetMapping("/{id}")
@@ -44,4 +75,11 @@ public class MedicalFacilityController {
         MedicalFacility medicalFacility = medicalFacilityService.assignMedicalFacilityToDoctor(medicalFacilityID, doctorID);
         return medicalFacilityMapper.toDto(medicalFacility);
     }
+
+    private Function<MedicalFacilitySummary, MedicalFacilityDTO> toDto(Slice<MedicalFacilitySummary> medicalFacilities) {
+        Map<Long, List<Long>> doctorIds = medicalFacilityService.getDoctorIds(
+                medicalFacilities.map(MedicalFacilitySummary::getId).toList());
+        return medicalFacility -> medicalFacilityMapper.toDto(medicalFacility,
+                doctorIds.getOrDefault(medicalFacility.getId(), List.of()));
+    }
 }
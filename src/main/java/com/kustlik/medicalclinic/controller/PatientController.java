@@ -1,20 +1,40 @@
 package com.kustlik.medicalclinic.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kustlik.medicalclinic.controller.header.TotalCountHeader;
+import com.kustlik.medicalclinic.controller.imports.ImportFormat;
+import com.kustlik.medicalclinic.controller.imports.PatientImportReader;
+import com.kustlik.medicalclinic.controller.imports.PatientImportReportWriter;
+import com.kustlik.medicalclinic.exception.InvalidFieldSelectionException;
+import com.kustlik.medicalclinic.model.cursor.CursorPaging;
+import com.kustlik.medicalclinic.model.cursor.IdCursor;
+import com.kustlik.medicalclinic.model.dto.page.CursorPageDTO;
 import com.kustlik.medicalclinic.model.dto.patient.PatientCreationDTO;
 import com.kustlik.medicalclinic.model.dto.patient.PatientDTO;
+import com.kustlik.medicalclinic.model.dto.patient.PatientImportSummaryDTO;
 import com.kustlik.medicalclinic.model.dto.patient.PatientPasswordDTO;
 import com.kustlik.medicalclinic.model.entity.Patient;
-import com.kustlik.medicalclinic.model.entity.Visit;
+import com.kustlik.medicalclinic.model.fields.FieldSelection;
+import com.kustlik.medicalclinic.model.fields.ResourceFields;
 import com.kustlik.medicalclinic.model.mapper.PatientMapper;
+import com.kustlik.medicalclinic.model.projection.PatientSummary;
 import com.kustlik.medicalclinic.service.PatientService;
 import com.kustlik.medicalclinic.service.VisitService;
+import com.kustlik.medicalclinic.service.imports.PatientImporter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 @RestController
 @RequiredArgsConstructor
@@ -24,22 +44,49 @@ public class PatientController {
     private final PatientService patientService;
     private final VisitService visitService;
     private final PatientMapper patientMapper;
+    private final PatientImporter patientImporter;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
-    public List<PatientDTO> getPatients(@RequestParam(required = false) LocalDate visitDate, Pageable pageable) {
+    public ResponseEntity<List<PatientDTO>> getPatients(@RequestParam(required = false) LocalDate visitDate,
+                                                        @RequestParam(value = "withTotal", defaultValue = "false") boolean withTotal,
+                                                        Pageable pageable) {
         if (visitDate == null) {
-            return patientService.getPatients(pageable).stream()
-                    .map(patientMapper::toDto)
+            Slice<PatientSummary> page = patientService.getPatients(pageable);
+            List<PatientDTO> patients = page.stream()
+                    .map(toDto(page))
                     .toList();
+            return TotalCountHeader.respond(patients, withTotal, patientService::countPatients);
         } else {
-            return visitService.getVisits(pageable, visitDate).stream()
-                    .map(Visit::getPatient)
-                    .map(patientMapper::toDto)
-                    .distinct()
+            Slice<PatientSummary> page = patientService.getPatientsWithVisits(visitDate, visitDate, pageable);
+            List<PatientDTO> patients = page.stream()
+                    .map(toDto(page))
                     .toList();
+            return TotalCountHeader.respond(patients, withTotal, () -> visitService.countPatientsWithVisits(visitDate));
         }
     }
 
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getPatientFields(@RequestParam("fields") String fields,
+                                                                      @RequestParam(required = false) LocalDate visitDate,
+                                                                      @RequestParam(value = "withTotal", defaultValue = "false") boolean withTotal,
+                                                                      Pageable pageable) {
+        if (visitDate != null) {
+            throw new InvalidFieldSelectionException("Field selection is not supported together with visitDate.");
+        }
+        FieldSelection selection = FieldSelection.parse(ResourceFields.PATIENT, fields);
+        List<Map<String, Object>> patients = patientService.getPatientFields(selection, pageable).getContent();
+        return TotalCountHeader.respond(patients, withTotal, patientService::countPatients);
+    }
+
+    @GetMapping("/scroll")
+    public CursorPageDTO<PatientDTO> scrollPatients(@RequestParam(value = "cursor", required = false) String cursor,
+                                                    @RequestParam(value = "size", defaultValue = "10") int size) {
+        IdCursor after = cursor == null ? null : IdCursor.decode(cursor);
+        Slice<PatientSummary> page = patientService.getPatients(after, size);
+        return CursorPaging.toPage(page, toDto(page), patient -> new IdCursor(patient.getId()).encode());
+    }
+
     @GetMapping("/{email}")
     public PatientDTO getPatient(@PathVariable("email") String email) {
         return patientMapper.toDto(patientService.getPatient(email));
@@ -58,6 +105,16 @@ public class PatientController {
         return patientMapper.toDto(patient);
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importPatientsFromNdjson(InputStream inputStream) {
+        return importPatients(ImportFormat.NDJSON, inputStream);
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<StreamingResponseBody> importPatientsFromCsv(InputStream inputStream) {
+        return importPatients(ImportFormat.CSV, inputStream);
+    }
+
     @DeleteMapping("/{email}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deletePatient(@PathVariable("email") String email) {
@@ -75,4 +132,22 @@ public class PatientController {
     public void editPatientPassword(@PathVariable("email") String email, @RequestBody PatientPasswordDTO newPatientDataDTO) {
         patientService.editPatientPassword(email, patientMapper.toPatient(newPatientDataDTO));
     }
+
+    private ResponseEntity<StreamingResponseBody> importPatients(ImportFormat format, InputStream inputStream) {
+        StreamingResponseBody body = outputStream -> {
+            PatientImportReportWriter writer = new PatientImportReportWriter(objectMapper, outputStream);
+            PatientImportSummaryDTO summary = patientImporter.importPatients(
+                    new PatientImportReader(format, objectMapper, patientMapper, inputStream), writer::writeChunk);
+            writer.write(summary);
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private Function<PatientSummary, PatientDTO> toDto(Slice<PatientSummary> patients) {
+        Map<Long, List<Long>> visitIds = patientService.getVisitIds(patients.map(PatientSummary::getId).toList());
+        return patient -> patientMapper.toDto(patient, visitIds.getOrDefault(patient.getId(), List.of()));
+    }
 }
@@ -0,0 +1,20 @@
+package com.kustlik.medicalclinic.controller;
+
+import com.kustlik.medicalclinic.model.dto.resilience.ResilienceStatusDTO;
+import com.kustlik.medicalclinic.remote.resilience.ResilienceStatistics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/remote_status")
+public class RemoteStatusController {
+    private final ResilienceStatistics resilienceStatistics;
+
+    @GetMapping("/school_client")
+    public ResilienceStatusDTO getSchoolClientStatus() {
+        return resilienceStatistics.getStatus();
+    }
+}
@@ -1,18 +1,41 @@
 package com.kustlik.medicalclinic.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kustlik.medicalclinic.controller.export.ExportFormat;
+import com.kustlik.medicalclinic.controller.export.VisitExportWriter;
+import com.kustlik.medicalclinic.controller.header.TotalCountHeader;
 import com.kustlik.medicalclinic.controller.status.VisitStatus;
 import com.kustlik.medicalclinic.exception.NoSuchOptionException;
+import com.kustlik.medicalclinic.model.cursor.CursorPaging;
+import com.kustlik.medicalclinic.model.cursor.VisitCursor;
+import com.kustlik.medicalclinic.model.dto.page.CursorPageDTO;
 import com.kustlik.medicalclinic.model.dto.visit.VisitCreationDTO;
 import com.kustlik.medicalclinic.model.dto.visit.VisitDTO;
+import com.kustlik.medicalclinic.model.dto.visit.VisitScheduleDTO;
+import com.kustlik.medicalclinic.model.dto.visit.VisitScheduleSummaryDTO;
+import com.kustlik.medicalclinic.model.dto.waitlist.WaitlistEntryCreationDTO;
+import com.kustlik.medicalclinic.model.dto.waitlist.WaitlistEntryDTO;
 import com.kustlik.medicalclinic.model.entity.Visit;
+import com.kustlik.medicalclinic.model.entity.WaitlistEntry;
+import com.kustlik.medicalclinic.model.fields.FieldSelection;
+import com.kustlik.medicalclinic.model.fields.ResourceFields;
+import com.kustlik.medicalclinic.model.filter.VisitExportFilter;
 import com.kustlik.medicalclinic.model.mapper.VisitMapper;
+import com.kustlik.medicalclinic.model.mapper.WaitlistEntryMapper;
 import com.kustlik.medicalclinic.service.VisitService;
+import com.kustlik.medicalclinic.service.export.VisitExporter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequiredArgsConstructor
@@ -20,24 +43,93 @@ import java.util.List;
 public class VisitController {
     private final VisitService visitService;
     private final VisitMapper visitMapper;
+    private final WaitlistEntryMapper waitlistEntryMapper;
+    private final VisitExporter visitExporter;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
-    public List<VisitDTO> getVisits(@RequestParam("status") VisitStatus status, Pageable pageable) {
+    public ResponseEntity<List<VisitDTO>> getVisits(@RequestParam("status") VisitStatus status,
+                                                    @RequestParam(value = "withTotal", defaultValue = "false") boolean withTotal,
+                                                    Pageable pageable) {
         switch (status) {
             case ALL -> {
-                return visitService.getVisits(pageable).stream()
+                List<VisitDTO> visits = visitService.getVisits(pageable).stream()
                         .map(visitMapper::toDto)
                         .toList();
+                return TotalCountHeader.respond(visits, withTotal, visitService::countVisits);
             }
             case AVAILABLE -> {
-                return visitService.getFreeVisits(pageable).stream()
+                List<VisitDTO> visits = visitService.getFreeVisits(pageable).stream()
                         .map(visitMapper::toDto)
                         .toList();
+                return TotalCountHeader.respond(visits, withTotal, visitService::countFreeVisits);
             }
             default -> throw new NoSuchOptionException("No such option.");
         }
     }
 
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getVisitFields(@RequestParam("status") VisitStatus status,
+                                                                    @RequestParam("fields") String fields,
+                                                                    @RequestParam(value = "withTotal", defaultValue = "false") boolean withTotal,
+                                                                    Pageable pageable) {
+        FieldSelection selection = FieldSelection.parse(ResourceFields.VISIT, fields);
+        switch (status) {
+            case ALL -> {
+                List<Map<String, Object>> visits = visitService.getVisitFields(selection, pageable).getContent();
+                return TotalCountHeader.respond(visits, withTotal, visitService::countVisits);
+            }
+            case AVAILABLE -> {
+                List<Map<String, Object>> visits = visitService.getFreeVisitFields(selection, pageable).getContent();
+                return TotalCountHeader.respond(visits, withTotal, visitService::countFreeVisits);
+            }
+            default -> throw new NoSuchOptionException("No such option.");
+        }
+    }
+
+    @GetMapping("/scroll")
+    public CursorPageDTO<VisitDTO> scrollVisits(@RequestParam("status") VisitStatus status,
+                                                @RequestParam(value = "cursor", required = false) String cursor,
+                                                @RequestParam(value = "size", defaultValue = "10") int size) {
+        VisitCursor after = cursor == null ? null : VisitCursor.decode(cursor);
+        switch (status) {
+            case ALL -> {
+                return CursorPaging.toPage(visitService.getVisits(after, size), visitMapper::toDto,
+                        visit -> VisitCursor.of(visit).encode());
+            }
+            case AVAILABLE -> {
+                return CursorPaging.toPage(visitService.getFreeVisits(after, size), visitMapper::toDto,
+                        visit -> VisitCursor.of(visit).encode());
+            }
+            default -> throw new NoSuchOptionException("No such option.");
+        }
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportVisits(@RequestParam("format") ExportFormat format,
+                                                              @RequestParam(value = "doctorId", required = false) Long doctorID,
+                                                              @RequestParam(value = "patientId", required = false) Long patientID,
+                                                              @RequestParam(value = "from", required = false)
+                                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                              @RequestParam(value = "to", required = false)
+                                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        VisitExportFilter filter = VisitExportFilter.builder()
+                .doctorId(doctorID)
+                .patientId(patientID)
+                .from(from)
+                .to(to)
+                .build();
+        visitExporter.validate(filter);
+        StreamingResponseBody body = outputStream -> {
+            VisitExportWriter writer = new VisitExportWriter(format, objectMapper, outputStream);
+            visitExporter.export(filter, visit -> writer.write(visitMapper.toDto(visit)));
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .body(body);
+    }
+
     @GetMapping("/doctor/{doctorId}")
     public List<VisitDTO> getVisitsByDoctor(@PathVariable("doctorId") Long doctorId,
                                             @RequestParam("status") VisitStatus status) {
@@ -63,6 +155,20 @@ public class VisitController {
                 .toList();
     }
 
+    @GetMapping("/search")
+    public CursorPageDTO<VisitDTO> searchFreeVisits(@RequestParam("specialisation") String specialisation,
+                                                    @RequestParam("city") String city,
+                                                    @RequestParam(value = "from", required = false)
+                                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                    @RequestParam(value = "to", required = false)
+                                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                    @RequestParam(value = "cursor", required = false) String cursor,
+                                                    @RequestParam(value = "size", defaultValue = "10") int size) {
+        VisitCursor after = cursor == null ? null : VisitCursor.decode(cursor);
+        Slice<Visit> visits = visitService.searchFreeVisits(specialisation, city, from, to, after, size);
+        return CursorPaging.toPage(visits, visitMapper::toDto, visit -> VisitCursor.of(visit).encode());
+    }
+
     @PostMapping("/doctor/{doctorId}")
     @ResponseStatus(HttpStatus.CREATED)
     public VisitDTO createVisit(@RequestBody VisitCreationDTO visitDTO, @PathVariable("doctorId") Long doctorID) {
@@ -71,9 +177,29 @@ public class VisitController {
         return visitMapper.toDto(visit);
     }
 
+    @PostMapping("/doctor/{doctorId}/schedule")
+    @ResponseStatus(HttpStatus.CREATED)
+    public VisitScheduleSummaryDTO createVisitSchedule(@RequestBody VisitScheduleDTO scheduleDTO, @PathVariable("doctorId") Long doctorID) {
+        return visitService.createVisitSchedule(scheduleDTO, doctorID);
+    }
+
     @PatchMapping("/patient/{patientId}")
     public VisitDTO assignVisitToPatient(@PathVariable("patientId") Long patientID, @RequestBody Long visitID) {
         Visit visit = visitService.assignVisitToPatient(visitID, patientID);
         return visitMapper.toDto(visit);
     }
-}
+
+    @PatchMapping("/patient/{patientId}/cancel")
+    public VisitDTO cancelVisit(@PathVariable("patientId") Long patientID, @RequestBody Long visitID) {
+        Visit visit = visitService.cancelVisit(visitID, patientID);
+        return visitMapper.toDto(visit);
+    }
+
+    @PostMapping("/doctor/{doctorId}/waitlist")
+    @ResponseStatus(HttpStatus.CREATED)
+    public WaitlistEntryDTO joinWaitlist(@RequestBody WaitlistEntryCreationDTO waitlistEntryDTO, @PathVariable("doctorId") Long doctorID) {
+        WaitlistEntry waitlistEntry = visitService.joinWaitlist(
+                doctorID, waitlistEntryDTO.getPatientId(), waitlistEntryDTO.getVisitDate());
+        return waitlistEntryMapper.toDto(waitlistEntry);
+    }
+}
\ No newline at end of file
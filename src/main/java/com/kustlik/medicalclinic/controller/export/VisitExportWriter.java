@@ -0,0 +1,73 @@
+package com.kustlik.medicalclinic.controller.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kustlik.medicalclinic.model.dto.visit.VisitDTO;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+public class VisitExportWriter {
+    public final static String CSV_HEADER = "id,appointmentStart,appointmentEnd,doctorId,patientId";
+    private final static int BUFFER_SIZE = 64 * 1024;
+    private final ExportFormat format;
+    private final ObjectMapper objectMapper;
+    private final Writer writer;
+
+    public VisitExportWriter(ExportFormat format, ObjectMapper objectMapper, OutputStream outputStream) {
+        this.format = format;
+        this.objectMapper = objectMapper;
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (format == ExportFormat.CSV) {
+            writeLine(CSV_HEADER);
+        }
+    }
+
+    public void write(VisitDTO visit) {
+        switch (format) {
+            case NDJSON -> writeLine(toJson(visit));
+            case CSV -> writeLine(toCsv(visit));
+        }
+    }
+
+    public void flush() {
+        try {
+            writer.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private String toJson(VisitDTO visit) {
+        try {
+            return objectMapper.writeValueAsString(visit);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static String toCsv(VisitDTO visit) {
+        return visit.getId() + "," +
+                visit.getAppointmentStart() + "," +
+                visit.getAppointmentEnd() + "," +
+                valueOrEmpty(visit.getDoctorId()) + "," +
+                valueOrEmpty(visit.getPatientId());
+    }
+
+    private static String valueOrEmpty(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private void writeLine(String line) {
+        try {
+            writer.write(line);
+            writer.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.kustlik.medicalclinic.controller.header;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+
+public final class TotalCountHeader {
+    public final static String NAME = "X-Total-Count";
+
+    private TotalCountHeader() {
+    }
+
+    public static <T> ResponseEntity<List<T>> respond(List<T> content, boolean withTotal, LongSupplier total) {
+        if (!withTotal) {
+            return ResponseEntity.ok(content);
+        }
+        return ResponseEntity.ok()
+                .header(NAME, String.valueOf(total.getAsLong()))
+                .body(content);
+    }
+}
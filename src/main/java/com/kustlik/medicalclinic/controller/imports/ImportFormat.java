@@ -0,0 +1,6 @@
+package com.kustlik.medicalclinic.controller.imports;
+
+public enum ImportFormat {
+    NDJSON,
+    CSV
+}
@@ -0,0 +1,164 @@
+package com.kustlik.medicalclinic.controller.imports;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.kustlik.medicalclinic.model.dto.patient.PatientCreationDTO;
+import com.kustlik.medicalclinic.model.mapper.PatientMapper;
+import com.kustlik.medicalclinic.service.imports.PatientImportRow;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+public class PatientImportReader implements Iterator<PatientImportRow> {
+    private final static int BUFFER_SIZE = 64 * 1024;
+    private final ImportFormat format;
+    private final ObjectReader objectReader;
+    private final PatientMapper patientMapper;
+    private final BufferedReader reader;
+    private final Map<String, Integer> csvColumnIndexes = new HashMap<>();
+    private int csvColumnCount;
+    private long lineNumber;
+    private String nextLine;
+
+    public PatientImportReader(ImportFormat format, ObjectMapper objectMapper, PatientMapper patientMapper, InputStream inputStream) {
+        this.format = format;
+        this.objectReader = objectMapper.readerFor(PatientCreationDTO.class);
+        this.patientMapper = patientMapper;
+        this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (format == ImportFormat.CSV) {
+            readCsvHeader();
+        }
+        this.nextLine = readNonBlankLine();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextLine != null;
+    }
+
+    @Override
+    public PatientImportRow next() {
+        if (nextLine == null) {
+            throw new NoSuchElementException();
+        }
+        String line = nextLine;
+        long currentLineNumber = lineNumber;
+        nextLine = readNonBlankLine();
+        PatientCreationDTO patient = switch (format) {
+            case NDJSON -> fromJson(line);
+            case CSV -> fromCsv(line);
+        };
+        return patient == null
+                ? PatientImportRow.malformed(currentLineNumber)
+                : PatientImportRow.of(currentLineNumber, patientMapper.toPatient(patient));
+    }
+
+    private PatientCreationDTO fromJson(String line) {
+        try {
+            return objectReader.readValue(line);
+        } catch (JsonProcessingException ex) {
+            return null;
+        }
+    }
+
+    private PatientCreationDTO fromCsv(String line) {
+        List<String> values = splitCsv(line);
+        if (values == null || values.size() != csvColumnCount) {
+            return null;
+        }
+        try {
+            String birthday = csvValue(values, "birthday");
+            return PatientCreationDTO.builder()
+                    .email(csvValue(values, "email"))
+                    .idCardNo(csvValue(values, "idCardNo"))
+                    .firstName(csvValue(values, "firstName"))
+                    .lastName(csvValue(values, "lastName"))
+                    .password(csvValue(values, "password"))
+                    .birthday(birthday == null ? null : LocalDate.parse(birthday))
+                    .build();
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+
+    private String csvValue(List<String> values, String column) {
+        Integer index = csvColumnIndexes.get(column);
+        return index == null ? null : values.get(index);
+    }
+
+    private void readCsvHeader() {
+        String header = readNonBlankLine();
+        List<String> columns = header == null ? null : splitCsv(header);
+        if (columns == null) {
+            return;
+        }
+        csvColumnCount = columns.size();
+        for (int i = 0; i < columns.size(); i++) {
+            csvColumnIndexes.put(columns.get(i) == null ? "" : columns.get(i).trim(), i);
+        }
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == ',') {
+                values.add(toCsvValue(value, wasQuoted));
+                value.setLength(0);
+                wasQuoted = false;
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        values.add(toCsvValue(value, wasQuoted));
+        return values;
+    }
+
+    private static String toCsvValue(StringBuilder value, boolean wasQuoted) {
+        return value.isEmpty() && !wasQuoted ? null : value.toString();
+    }
+
+    private String readNonBlankLine() {
+        try {
+            String line;
+            do {
+                line = reader.readLine();
+                lineNumber++;
+            } while (line != null && line.isBlank());
+            return line;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
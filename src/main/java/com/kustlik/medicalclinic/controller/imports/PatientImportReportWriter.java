@@ -0,0 +1,45 @@
+package com.kustlik.medicalclinic.controller.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class PatientImportReportWriter {
+    private final static int BUFFER_SIZE = 64 * 1024;
+    private final ObjectMapper objectMapper;
+    private final Writer writer;
+
+    public PatientImportReportWriter(ObjectMapper objectMapper, OutputStream outputStream) {
+        this.objectMapper = objectMapper;
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    public void write(Object reportLine) {
+        try {
+            writer.write(objectMapper.writeValueAsString(reportLine));
+            writer.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public void writeChunk(List<?> reportLines) {
+        reportLines.forEach(this::write);
+        flush();
+    }
+
+    public void flush() {
+        try {
+            writer.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
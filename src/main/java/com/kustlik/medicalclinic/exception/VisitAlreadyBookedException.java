@@ -0,0 +1,7 @@
+package com.kustlik.medicalclinic.exception;
+
+public class VisitAlreadyBookedException extends RuntimeException {
+    public VisitAlreadyBookedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.kustlik.medicalclinic.exception;
+
+public class VisitNotBookedException extends RuntimeException {
+    public VisitNotBookedException(String message) {
+        super(message);
+    }
+}
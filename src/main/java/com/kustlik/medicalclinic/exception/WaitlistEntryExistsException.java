@@ -0,0 +1,7 @@
+package com.kustlik.medicalclinic.exception;
+
+public class WaitlistEntryExistsException extends RuntimeException {
+    public WaitlistEntryExistsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,28 @@
+package com.kustlik.medicalclinic.model.cursor;
+
+import com.kustlik.medicalclinic.model.dto.page.CursorPageDTO;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.function.Function;
+
+public final class CursorPaging {
+    public final static int MAX_PAGE_SIZE = 100;
+
+    private CursorPaging() {
+    }
+
+    public static Pageable firstPage(int size) {
+        return PageRequest.ofSize(Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+    }
+
+    public static <E, T> CursorPageDTO<T> toPage(Slice<E> slice, Function<E, T> mapper, Function<E, String> cursorOf) {
+        return CursorPageDTO.<T>builder()
+                .content(slice.stream()
+                        .map(mapper)
+                        .toList())
+                .next(slice.hasNext() ? cursorOf.apply(slice.getContent().get(slice.getNumberOfElements() - 1)) : null)
+                .build();
+    }
+}
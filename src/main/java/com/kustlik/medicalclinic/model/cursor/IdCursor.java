@@ -0,0 +1,33 @@
+package com.kustlik.medicalclinic.model.cursor;
+
+import com.kustlik.medicalclinic.exception.InvalidCursorException;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+@Getter
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class IdCursor {
+    private final Long id;
+
+    public static IdCursor first() {
+        return new IdCursor(0L);
+    }
+
+    public static IdCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return new IdCursor(Long.parseLong(decoded));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException("Given cursor is invalid.");
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,46 @@
+package com.kustlik.medicalclinic.model.cursor;
+
+import com.kustlik.medicalclinic.exception.InvalidCursorException;
+import com.kustlik.medicalclinic.model.entity.Visit;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+@Getter
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class VisitCursor {
+    private static final String SEPARATOR = "|";
+    private final LocalDateTime appointmentStart;
+    private final Long id;
+
+    public static VisitCursor of(Visit visit) {
+        return new VisitCursor(visit.getAppointmentStart(), visit.getId());
+    }
+
+    public static VisitCursor before(LocalDateTime appointmentStart) {
+        return new VisitCursor(appointmentStart, 0L);
+    }
+
+    public static VisitCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            return new VisitCursor(
+                    LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+            throw new InvalidCursorException("Given cursor is invalid.");
+        }
+    }
+
+    public String encode() {
+        String raw = appointmentStart + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,14 @@
+package com.kustlik.medicalclinic.model.dto.billing;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+@Builder
+@Getter
+@EqualsAndHashCode
+public class BillingFailureDTO {
+    private final int schoolId;
+    private final int parentId;
+    private final String reason;
+}
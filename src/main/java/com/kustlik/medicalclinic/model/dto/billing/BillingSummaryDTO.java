@@ -0,0 +1,20 @@
+package com.kustlik.medicalclinic.model.dto.billing;
+
+import com.kustlik.medicalclinic.remote.model.dto.school.ParentBillingReportDto;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.List;
+
+@Builder
+@Getter
+@EqualsAndHashCode
+public class BillingSummaryDTO {
+    private final int year;
+    private final int month;
+    private final double totalFees;
+    private final int numberOfPaidHours;
+    private final List<ParentBillingReportDto> parentBillingReports;
+    private final List<BillingFailureDTO> failures;
+}
@@ -0,0 +1,18 @@
+package com.kustlik.medicalclinic.model.dto.billing;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+@Builder
+@Getter
+@EqualsAndHashCode
+public class SchoolBillingTotalsDTO {
+    private final int schoolId;
+    private final int year;
+    private final int month;
+    private final int numberOfParents;
+    private final int numberOfChildren;
+    private final int numberOfPaidHours;
+    private final double totalFees;
+}
@@ -0,0 +1,21 @@
+package com.kustlik.medicalclinic.model.dto.cache;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+@Builder
+@Getter
+@EqualsAndHashCode
+public class ResponseCacheStatisticsDTO {
+    private final String name;
+    private final long hitCount;
+    private final long missCount;
+    private final double hitRate;
+    private final long loadCount;
+    private final long loadFailureCount;
+    private final long evictionCount;
+    private final long size;
+    private final double averageLoadTimeMillis;
+    private final double averageRequestTimeMillis;
+}
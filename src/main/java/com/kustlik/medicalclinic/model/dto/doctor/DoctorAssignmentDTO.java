@@ -0,0 +1,13 @@
+package com.kustlik.medicalclinic.model.dto.doctor;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+@Builder
+@Getter
+@EqualsAndHashCode
+public class DoctorAssignmentDTO {
+    private final Long doctorId;
+    private final Long medicalFacilityId;
+}
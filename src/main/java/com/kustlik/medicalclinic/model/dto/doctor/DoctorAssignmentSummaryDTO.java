@@ -0,0 +1,16 @@
+package com.kustlik.medicalclinic.model.dto.doctor;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.List;
+
+@Builder
+@Getter
+@EqualsAndHashCode
+public class DoctorAssignmentSummaryDTO {
+    private final int createdCount;
+    private final int rejectedCount;
+    private final List<RejectedDoctorAssignmentDTO> rejectedAssignments;
+}
@@ -0,0 +1,14 @@
+package com.kustlik.medicalclinic.model.dto.doctor;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+@Builder
+@Getter
+@EqualsAndHashCode
+public class RejectedDoctorAssignmentDTO {
+    private final Long doctorId;
+    private final Long medicalFacilityId;
+    private final String reason;
+}
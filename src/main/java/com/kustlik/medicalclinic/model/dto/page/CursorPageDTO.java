@@ -0,0 +1,15 @@
+package com.kustlik.medicalclinic.model.dto.page;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.List;
+
+@Builder
+@Getter
+@EqualsAndHashCode
+public class CursorPageDTO<T> {
+    private final List<T> content;
+    private final String next;
+}
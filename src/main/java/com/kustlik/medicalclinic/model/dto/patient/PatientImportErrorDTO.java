@@ -0,0 +1,14 @@
+package com.kustlik.medicalclinic.model.dto.patient;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+@Builder
+@Getter
+@EqualsAndHashCode
+public class PatientImportErrorDTO {
+    private final long line;
+    private final String email;
+    private final String reason;
+}
@@ -0,0 +1,13 @@
+package com.kustlik.medicalclinic.model.dto.patient;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+@Builder
+@Getter
+@EqualsAndHashCode
+public class PatientImportSummaryDTO {
+    private final long importedCount;
+    private final long rejectedCount;
+}
@@ -0,0 +1,17 @@
+package com.kustlik.medicalclinic.model.dto.resilience;
+
+import com.kustlik.medicalclinic.remote.resilience.CircuitBreaker;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Builder
+@Getter
+@EqualsAndHashCode
+public class CircuitBreakerTransitionDTO {
+    private final CircuitBreaker.State from;
+    private final CircuitBreaker.State to;
+    private final Instant at;
+}
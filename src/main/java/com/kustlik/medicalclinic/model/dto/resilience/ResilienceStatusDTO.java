@@ -0,0 +1,20 @@
+package com.kustlik.medicalclinic.model.dto.resilience;
+
+import com.kustlik.medicalclinic.remote.resilience.CircuitBreaker;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.List;
+
+@Builder
+@Getter
+@EqualsAndHashCode
+public class ResilienceStatusDTO {
+    private final CircuitBreaker.State circuitBreakerState;
+    private final int consecutiveFailures;
+    private final long circuitBreakerRejectedCount;
+    private final List<CircuitBreakerTransitionDTO> circuitBreakerTransitions;
+    private final int availableConcurrentCalls;
+    private final long bulkheadRejectedCount;
+}
@@ -0,0 +1,16 @@
+package com.kustlik.medicalclinic.model.dto.visit;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Builder
+@Getter
+@EqualsAndHashCode
+public class RejectedVisitDTO {
+    private final LocalDateTime appointmentStart;
+    private final LocalDateTime appointmentEnd;
+    private final String reason;
+}
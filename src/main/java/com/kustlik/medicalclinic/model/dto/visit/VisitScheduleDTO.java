@@ -0,0 +1,22 @@
+package com.kustlik.medicalclinic.model.dto.visit;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+@Builder
+@Getter
+@EqualsAndHashCode
+public class VisitScheduleDTO {
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final Set<DayOfWeek> daysOfWeek;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+    private final Integer slotDurationInMinutes;
+}
@@ -0,0 +1,15 @@
+package com.kustlik.medicalclinic.model.dto.waitlist;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+@Builder
+@Getter
+@EqualsAndHashCode
+public class WaitlistEntryCreationDTO {
+    private final Long patientId;
+    private final LocalDate visitDate;
+}
@@ -0,0 +1,19 @@
+package com.kustlik.medicalclinic.model.dto.waitlist;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Builder
+@Getter
+@EqualsAndHashCode
+public class WaitlistEntryDTO {
+    private final Long id;
+    private final Long doctorId;
+    private final Long patientId;
+    private final LocalDate visitDate;
+    private final LocalDateTime createdAt;
+}
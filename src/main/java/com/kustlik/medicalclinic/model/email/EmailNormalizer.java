@@ -0,0 +1,12 @@
+package com.kustlik.medicalclinic.model.email;
+
+import java.util.Locale;
+
+public final class EmailNormalizer {
+    private EmailNormalizer() {
+    }
+
+    public static String normalize(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,11 +1,18 @@
 package com.kustlik.medicalclinic.model.entity;
 
+import com.kustlik.medicalclinic.model.email.EmailNormalizer;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 @Builder
 @Entity
@@ -13,13 +20,19 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @ToString
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "doctor")
+@NaturalIdCache(region = "doctor-natural-id")
 public class Doctor {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "doctor_seq")
+    @SequenceGenerator(name = "doctor_seq", sequenceName = "doctor_seq", allocationSize = 50)
     @Column(nullable = false)
     private Long id;
-    @Column(unique = true)
+    @Column(updatable = false)
     private String email;
+    @NaturalId
+    @Column(unique = true, updatable = false)
+    private String normalizedEmail;
     private String firstName;
     private String lastName;
     private String password;
@@ -31,11 +44,18 @@ public class Doctor {
             joinColumns = @JoinColumn(name = "doctor_id"),
             inverseJoinColumns = @JoinColumn(name = "medical_facility_id")
     )
-    private List<MedicalFacility> medicalFacilities;
+    @OrderBy("id")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "doctor-medical-facilities")
+    private Set<MedicalFacility> medicalFacilities;
     @OnDelete(action = OnDeleteAction.CASCADE)
     @OneToMany(mappedBy = "doctor", cascade = {CascadeType.MERGE, CascadeType.REMOVE}, orphanRemoval = true)
     private List<Visit> visits;
 
+    @PrePersist
+    private void normalizeEmail() {
+        this.normalizedEmail = EmailNormalizer.normalize(email);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -49,6 +69,6 @@ public class Doctor {
 
     @Override
     public int hashCode() {
-        return getClass().hashCode();
+        return Objects.hashCode(email);
     }
 }
@@ -2,8 +2,13 @@ package com.kustlik.medicalclinic.model.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
-import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 @Builder
 @Entity
@@ -11,12 +16,16 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @ToString
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "medical-facility")
+@NaturalIdCache(region = "medical-facility-natural-id")
 public class MedicalFacility {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "medical_facility_seq")
+    @SequenceGenerator(name = "medical_facility_seq", sequenceName = "medical_facility_seq", allocationSize = 50)
     @Column(nullable = false)
     private Long id;
-    @Column(unique = true)
+    @NaturalId
+    @Column(unique = true, updatable = false)
     private String name;
     private String city;
     private String zipCode;
@@ -24,7 +33,9 @@ public class MedicalFacility {
     private String buildingNumber;
     @ToString.Exclude
     @ManyToMany(mappedBy = "medicalFacilities", cascade = {CascadeType.PERSIST, CascadeType.MERGE})
-    private List<Doctor> doctors;
+    @OrderBy("id")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "medical-facility-doctors")
+    private Set<Doctor> doctors;
 
     @Override
     public boolean equals(Object o) {
@@ -39,6 +50,6 @@ public class MedicalFacility {
 
     @Override
     public int hashCode() {
-        return getClass().hashCode();
+        return Objects.hashCode(name);
     }
 }
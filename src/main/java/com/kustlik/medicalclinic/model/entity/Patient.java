@@ -1,27 +1,35 @@
 package com.kustlik.medicalclinic.model.entity;
 
+import com.kustlik.medicalclinic.model.email.EmailNormalizer;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Objects;
 
 @Builder
 @Entity
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
+@NaturalIdCache(region = "patient-natural-id")
 public class Patient {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "patient_seq")
+    @SequenceGenerator(name = "patient_seq", sequenceName = "patient_seq", allocationSize = 50)
     @Column(nullable = false)
     private Long id;
-    @Column(unique = true)
     private String email;
+    @NaturalId(mutable = true)
     @Column(unique = true)
+    private String normalizedEmail;
+    @Column(unique = true, updatable = false)
     private String idCardNo;
     private String firstName;
     private String lastName;
@@ -32,11 +40,18 @@ public class Patient {
 
     public void update(Patient newPatientData) {
         this.email = newPatientData.getEmail();
+        this.normalizedEmail = EmailNormalizer.normalize(newPatientData.getEmail());
         this.firstName = newPatientData.getFirstName();
         this.lastName = newPatientData.getLastName();
         this.birthday = newPatientData.getBirthday();
     }
 
+    @PrePersist
+    @PreUpdate
+    private void normalizeEmail() {
+        this.normalizedEmail = EmailNormalizer.normalize(email);
+    }
+
 
     @Override
     public boolean equals(Object o) {
@@ -51,7 +66,7 @@ public class Patient {
 
     @Override
     public int hashCode() {
-        return getClass().hashCode();
+        return Objects.hashCode(idCardNo);
     }
 
 }
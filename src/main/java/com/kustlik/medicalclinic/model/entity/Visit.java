@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDateTime;
+import java.util.Objects;
 
 @Builder
 @Entity
@@ -13,13 +14,15 @@ import java.time.LocalDateTime;
 @ToString
 public class Visit {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "visit_seq")
+    @SequenceGenerator(name = "visit_seq", sequenceName = "visit_seq", allocationSize = 50)
     @Column(nullable = false)
     private Long id;
+    @Column(updatable = false)
     private LocalDateTime appointmentStart;
     private LocalDateTime appointmentEnd;
     @ManyToOne()
-    @JoinColumn(name = "doctor_id")
+    @JoinColumn(name = "doctor_id", updatable = false)
     private Doctor doctor;
     @ManyToOne(cascade = CascadeType.MERGE)
     @JoinColumn(name = "patient_id")
@@ -38,6 +41,6 @@ public class Visit {
 
     @Override
     public int hashCode() {
-        return getClass().hashCode();
+        return Objects.hash(doctor == null ? null : doctor.getId(), appointmentStart);
     }
 }
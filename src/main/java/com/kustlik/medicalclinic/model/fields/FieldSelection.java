@@ -0,0 +1,62 @@
+package com.kustlik.medicalclinic.model.fields;
+
+import com.kustlik.medicalclinic.exception.InvalidFieldSelectionException;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Getter
+@EqualsAndHashCode
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class FieldSelection {
+    private final ResourceFields resource;
+    private final Set<String> fields;
+
+    public static FieldSelection parse(ResourceFields resource, String fields) {
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!resource.isField(name)) {
+                throw new InvalidFieldSelectionException("Unknown field: " + name + ".");
+            }
+            selected.add(name);
+        }
+        if (selected.isEmpty()) {
+            throw new InvalidFieldSelectionException("No fields selected.");
+        }
+        return new FieldSelection(resource, selected);
+    }
+
+    public boolean contains(String field) {
+        return fields.contains(field);
+    }
+
+    public Map<String, String> getColumns() {
+        Map<String, String> columns = new LinkedHashMap<>();
+        columns.put(ResourceFields.ID, ResourceFields.ID);
+        fields.stream()
+                .filter(resource.getColumns()::containsKey)
+                .forEach(field -> columns.put(field, resource.getColumns().get(field)));
+        return columns;
+    }
+
+    public Map<String, Object> select(Map<String, Object> row, Map<String, Map<Long, List<Long>>> associations) {
+        Long id = (Long) row.get(ResourceFields.ID);
+        Map<String, Object> selected = new LinkedHashMap<>();
+        for (String field : fields) {
+            Map<Long, List<Long>> ids = associations.get(field);
+            selected.put(field, ids == null ? row.get(field) : ids.getOrDefault(id, List.of()));
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,54 @@
+package com.kustlik.medicalclinic.model.fields;
+
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+@Getter
+public enum ResourceFields {
+    DOCTOR(columns("email", "email", "firstName", "firstName", "lastName", "lastName",
+            "specialisation", "specialisation"),
+            Set.of("medicalFacilityIds", "visitIds")),
+    PATIENT(columns("email", "email", "firstName", "firstName", "lastName", "lastName",
+            "birthday", "birthday"),
+            Set.of("visitIds")),
+    MEDICAL_FACILITY(columns("name", "name", "city", "city", "zipCode", "zipCode", "street", "street",
+            "buildingNumber", "buildingNumber"),
+            Set.of("doctorIds")),
+    VISIT(columns("id", "id", "appointmentStart", "appointmentStart", "appointmentEnd", "appointmentEnd",
+            "doctorId", "doctor.id", "patientId", "patient.id"),
+            Set.of());
+
+    public final static String ID = "id";
+
+    private final Map<String, String> columns;
+    private final Set<String> associations;
+    private final Set<String> sortableFields;
+
+    ResourceFields(Map<String, String> columns, Set<String> associations) {
+        this.columns = columns;
+        this.associations = associations;
+        Set<String> sortableFields = new LinkedHashSet<>(columns.keySet());
+        sortableFields.add(ID);
+        this.sortableFields = Set.copyOf(sortableFields);
+    }
+
+    public boolean isField(String field) {
+        return columns.containsKey(field) || associations.contains(field);
+    }
+
+    public String pathOf(String field) {
+        return columns.getOrDefault(field, field);
+    }
+
+    private static Map<String, String> columns(String... fieldsAndPaths) {
+        Map<String, String> columns = new LinkedHashMap<>();
+        for (int i = 0; i < fieldsAndPaths.length; i += 2) {
+            columns.put(fieldsAndPaths[i], fieldsAndPaths[i + 1]);
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,17 @@
+package com.kustlik.medicalclinic.model.filter;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Builder
+@Getter
+@EqualsAndHashCode
+public class VisitExportFilter {
+    private final Long doctorId;
+    private final Long patientId;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+}
@@ -5,18 +5,20 @@ import com.kustlik.medicalclinic.model.dto.doctor.DoctorDTO;
 import com.kustlik.medicalclinic.model.entity.Doctor;
 import com.kustlik.medicalclinic.model.entity.MedicalFacility;
 import com.kustlik.medicalclinic.model.entity.Visit;
+import com.kustlik.medicalclinic.model.projection.DoctorSummary;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Mapper(componentModel = "spring")
 public interface DoctorMapper {
     @Named("facilityListToIdList")
-    static List<Long> facilityListToIdList(List<MedicalFacility> medicalFacilities) {
+    static List<Long> facilityListToIdList(Collection<MedicalFacility> medicalFacilities) {
         if (medicalFacilities == null) {
             return new ArrayList<>();
         }
@@ -35,5 +37,9 @@ public interface DoctorMapper {
     @Mapping(source = "visits", target = "visitIds", qualifiedByName = "visitListToIdList")
     DoctorDTO toDto(Doctor doctor);
 
+    @Mapping(source = "medicalFacilityIds", target = "medicalFacilityIds")
+    @Mapping(source = "visitIds", target = "visitIds")
+    DoctorDTO toDto(DoctorSummary doctor, List<Long> medicalFacilityIds, List<Long> visitIds);
+
     Doctor toDoctor(DoctorCreationDTO doctorDTO);
 }
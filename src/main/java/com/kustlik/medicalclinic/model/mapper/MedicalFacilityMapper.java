@@ -3,18 +3,20 @@ package com.kustlik.medicalclinic.model.mapper;
 import com.kustlik.medicalclinic.model.dto.medical_facility.MedicalFacilityDTO;
 import com.kustlik.medicalclinic.model.entity.Doctor;
 import com.kustlik.medicalclinic.model.entity.MedicalFacility;
+import com.kustlik.medicalclinic.model.projection.MedicalFacilitySummary;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Mapper(componentModel = "spring")
 public interface MedicalFacilityMapper {
     @Named("doctorListToIdList")
-    static List<Long> doctorListToIdList(List<Doctor> doctors) {
+    static List<Long> doctorListToIdList(Collection<Doctor> doctors) {
         if (doctors == null) {
             return new ArrayList<>();
         }
@@ -24,5 +26,8 @@ public interface MedicalFacilityMapper {
     @Mapping(source = "doctors", target = "doctorIds", qualifiedByName = "doctorListToIdList")
     MedicalFacilityDTO toDto(MedicalFacility medicalFacility);
 
+    @Mapping(source = "doctorIds", target = "doctorIds")
+    MedicalFacilityDTO toDto(MedicalFacilitySummary medicalFacility, List<Long> doctorIds);
+
     MedicalFacility toMedicalFacility(MedicalFacilityDTO medicalFacilityDTO);
 }
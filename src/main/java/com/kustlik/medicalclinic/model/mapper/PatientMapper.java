@@ -5,6 +5,7 @@ import com.kustlik.medicalclinic.model.dto.patient.PatientDTO;
 import com.kustlik.medicalclinic.model.dto.patient.PatientPasswordDTO;
 import com.kustlik.medicalclinic.model.entity.Patient;
 import com.kustlik.medicalclinic.model.entity.Visit;
+import com.kustlik.medicalclinic.model.projection.PatientSummary;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
@@ -26,6 +27,9 @@ public interface PatientMapper {
     @Mapping(source = "visits", target = "visitIds", qualifiedByName = "visitListToIdList")
     PatientDTO toDto(Patient patient);
 
+    @Mapping(source = "visitIds", target = "visitIds")
+    PatientDTO toDto(PatientSummary patient, List<Long> visitIds);
+
     Patient toPatient(PatientCreationDTO patientDTO);
 
     Patient toPatient(PatientDTO patientDTO);
@@ -0,0 +1,13 @@
+package com.kustlik.medicalclinic.model.projection;
+
+public interface DoctorSummary {
+    Long getId();
+
+    String getEmail();
+
+    String getFirstName();
+
+    String getLastName();
+
+    String getSpecialisation();
+}
@@ -0,0 +1,15 @@
+package com.kustlik.medicalclinic.model.projection;
+
+public interface MedicalFacilitySummary {
+    Long getId();
+
+    String getName();
+
+    String getCity();
+
+    String getZipCode();
+
+    String getStreet();
+
+    String getBuildingNumber();
+}
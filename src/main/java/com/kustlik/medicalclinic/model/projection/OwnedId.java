@@ -0,0 +1,17 @@
+package com.kustlik.medicalclinic.model.projection;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public interface OwnedId {
+    Long getOwnerId();
+
+    Long getId();
+
+    static Map<Long, List<Long>> groupByOwner(List<OwnedId> ownedIds) {
+        return ownedIds.stream()
+                .collect(Collectors.groupingBy(OwnedId::getOwnerId,
+                        Collectors.mapping(OwnedId::getId, Collectors.toList())));
+    }
+}
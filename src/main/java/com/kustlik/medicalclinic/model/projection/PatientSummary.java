@@ -0,0 +1,15 @@
+package com.kustlik.medicalclinic.model.projection;
+
+import java.time.LocalDate;
+
+public interface PatientSummary {
+    Long getId();
+
+    String getEmail();
+
+    String getFirstName();
+
+    String getLastName();
+
+    LocalDate getBirthday();
+}
@@ -0,0 +1,9 @@
+package com.kustlik.medicalclinic.model.projection;
+
+import java.time.LocalDateTime;
+
+public interface VisitTimeframe {
+    LocalDateTime getAppointmentStart();
+
+    LocalDateTime getAppointmentEnd();
+}
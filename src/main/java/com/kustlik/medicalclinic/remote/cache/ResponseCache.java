@@ -0,0 +1,186 @@
+package com.kustlik.medicalclinic.remote.cache;
+
+import com.kustlik.medicalclinic.model.dto.cache.ResponseCacheStatisticsDTO;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+public class ResponseCache<K, V> {
+    private final String name;
+    private final LongSupplier ticker;
+    private final Map<K, CachedResponse<V>> responses;
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder loadCount = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder loadTimeInNanos = new LongAdder();
+    private final LongAdder requestTimeInNanos = new LongAdder();
+
+    public ResponseCache(String name, int maximumSize) {
+        this(name, maximumSize, System::nanoTime);
+    }
+
+    ResponseCache(String name, int maximumSize, LongSupplier ticker) {
+        this.name = name;
+        this.ticker = ticker;
+        this.responses = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CachedResponse<V>> eldest) {
+                if (size() > maximumSize) {
+                    evictionCount.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public V get(K key, Duration timeToLive, Supplier<V> loader) {
+        long start = ticker.getAsLong();
+        try {
+            CachedResponse<V> cached = lookup(key, start);
+            if (cached != null) {
+                hitCount.increment();
+                return cached.value;
+            }
+            missCount.increment();
+            return load(key, timeToLive, loader);
+        } finally {
+            requestTimeInNanos.add(ticker.getAsLong() - start);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (responses) {
+            responses.clear();
+        }
+    }
+
+    public ResponseCacheStatisticsDTO getStatistics() {
+        long hits = hitCount.sum();
+        long misses = missCount.sum();
+        long loads = loadCount.sum() + loadFailureCount.sum();
+        return ResponseCacheStatisticsDTO.builder()
+                .name(name)
+                .hitCount(hits)
+                .missCount(misses)
+                .hitRate(hits + misses == 0 ? 0 : (double) hits / (hits + misses))
+                .loadCount(loadCount.sum())
+                .loadFailureCount(loadFailureCount.sum())
+                .evictionCount(evictionCount.sum())
+                .size(size())
+                .averageLoadTimeMillis(averageMillis(loadTimeInNanos.sum(), loads))
+                .averageRequestTimeMillis(averageMillis(requestTimeInNanos.sum(), hits + misses))
+                .build();
+    }
+
+    private V load(K key, Duration timeToLive, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            CachedResponse<V> cached = lookup(key, ticker.getAsLong());
+            if (cached != null) {
+                flight.complete(cached.value);
+                return cached.value;
+            }
+            long start = ticker.getAsLong();
+            V value;
+            try {
+                value = loader.get();
+            } finally {
+                loadTimeInNanos.add(ticker.getAsLong() - start);
+            }
+            loadCount.increment();
+            if (value != null) {
+                store(key, new CachedResponse<>(value, ticker.getAsLong(), toNanos(timeToLive)));
+            }
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            loadFailureCount.increment();
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private CachedResponse<V> lookup(K key, long now) {
+        synchronized (responses) {
+            CachedResponse<V> cached = responses.get(key);
+            if (cached != null && cached.isExpired(now)) {
+                responses.remove(key);
+                return null;
+            }
+            return cached;
+        }
+    }
+
+    private void store(K key, CachedResponse<V> response) {
+        synchronized (responses) {
+            responses.put(key, response);
+        }
+    }
+
+    private int size() {
+        synchronized (responses) {
+            return responses.size();
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static long toNanos(Duration timeToLive) {
+        try {
+            return timeToLive.toNanos();
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private static double averageMillis(long totalNanos, long count) {
+        return count == 0 ? 0 : (double) totalNanos / count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static class CachedResponse<V> {
+        private final V value;
+        private final long loadedAt;
+        private final long timeToLiveInNanos;
+
+        private CachedResponse(V value, long loadedAt, long timeToLiveInNanos) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+            this.timeToLiveInNanos = timeToLiveInNanos;
+        }
+
+        private boolean isExpired(long now) {
+            return now - loadedAt >= timeToLiveInNanos;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.kustlik.medicalclinic.remote.client;
+
+import com.kustlik.medicalclinic.model.dto.cache.ResponseCacheStatisticsDTO;
+import com.kustlik.medicalclinic.remote.cache.ResponseCache;
+import com.kustlik.medicalclinic.remote.model.dto.school.ParentBillingReportDto;
+import com.kustlik.medicalclinic.remote.model.dto.school.SchoolBillingReportDto;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Component
+@Primary
+public class CachingSchoolClient implements SchoolClient {
+    private static final Duration CLOSED_MONTH_TTL = ChronoUnit.FOREVER.getDuration();
+    private final SchoolClient schoolClient;
+    private final Duration currentMonthTtl;
+    private final ResponseCache<ParentBillingKey, ParentBillingReportDto> parentBillingCache;
+    private final ResponseCache<SchoolBillingKey, SchoolBillingReportDto> schoolBillingCache;
+
+    public CachingSchoolClient(@Qualifier("remoteSchoolClient") SchoolClient schoolClient,
+                               @Value("${medical-clinic.school-billing-cache.current-month-ttl:1m}") Duration currentMonthTtl,
+                               @Value("${medical-clinic.school-billing-cache.parent-report-maximum-size:1000}") int parentReportMaximumSize,
+                               @Value("${medical-clinic.school-billing-cache.school-report-maximum-size:16}") int schoolReportMaximumSize) {
+        this.schoolClient = schoolClient;
+        this.currentMonthTtl = currentMonthTtl;
+        this.parentBillingCache = new ResponseCache<>("parent-billing", parentReportMaximumSize);
+        this.schoolBillingCache = new ResponseCache<>("school-billing", schoolReportMaximumSize);
+    }
+
+    @Override
+    public ParentBillingReportDto getSchoolBilling(int id, int parentId, int year, int month) {
+        return parentBillingCache.get(new ParentBillingKey(id, parentId, year, month), timeToLive(year, month),
+                () -> schoolClient.getSchoolBilling(id, parentId, year, month));
+    }
+
+    @Override
+    public SchoolBillingReportDto getSchoolBilling_1(int id, int year, int month) {
+        return schoolBillingCache.get(new SchoolBillingKey(id, year, month), timeToLive(year, month),
+                () -> schoolClient.getSchoolBilling_1(id, year, month));
+    }
+
+    @Override
+    public Stream<ParentBillingReportDto> streamSchoolBilling(int id, int year, int month) {
+        return schoolClient.streamSchoolBilling(id, year, month);
+    }
+
+    public List<ResponseCacheStatisticsDTO> getCacheStatistics() {
+        return List.of(parentBillingCache.getStatistics(), schoolBillingCache.getStatistics());
+    }
+
+    public void invalidateAll() {
+        parentBillingCache.invalidateAll();
+        schoolBillingCache.invalidateAll();
+    }
+
+    private Duration timeToLive(int year, int month) {
+        YearMonth now = YearMonth.now();
+        long requested = year * 12L + month;
+        long current = now.getYear() * 12L + now.getMonthValue();
+        return requested < current ? CLOSED_MONTH_TTL : currentMonthTtl;
+    }
+
+    private record ParentBillingKey(int schoolId, int parentId, int year, int month) {
+    }
+
+    private record SchoolBillingKey(int schoolId, int year, int month) {
+    }
+}
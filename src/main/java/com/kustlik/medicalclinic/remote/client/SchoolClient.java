@@ -1,5 +1,6 @@
 package com.kustlik.medicalclinic.remote.client;
 
+import com.kustlik.medicalclinic.remote.config.SchoolClientConfiguration;
 import com.kustlik.medicalclinic.remote.model.dto.school.ParentBillingReportDto;
 import com.kustlik.medicalclinic.remote.model.dto.school.SchoolBillingReportDto;
 import org.springframework.cloud.openfeign.FeignClient;
@@ -7,9 +8,14 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.stream.Stream;
+
 @FeignClient(
         name = "schoolClient",
-        url = "http://localhost:8080"
+        url = "${medical-clinic.school-client.url}",
+        configuration = SchoolClientConfiguration.class,
+        qualifiers = "remoteSchoolClient",
+        primary = false
 )
 public interface SchoolClient {
 
@@ -25,4 +31,10 @@ public interface SchoolClient {
             @PathVariable("id") int id,
             @RequestParam("year") int year,
             @RequestParam("month") int month);
+
+    @GetMapping(value = "school/{id}/billing")
+    Stream<ParentBillingReportDto> streamSchoolBilling(
+            @PathVariable("id") int id,
+            @RequestParam("year") int year,
+            @RequestParam("month") int month);
 }
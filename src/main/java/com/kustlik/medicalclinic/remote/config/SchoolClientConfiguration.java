@@ -0,0 +1,72 @@
+package com.kustlik.medicalclinic.remote.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kustlik.medicalclinic.remote.error.RetreiveMessageErrorDecoder;
+import com.kustlik.medicalclinic.remote.resilience.Bulkhead;
+import com.kustlik.medicalclinic.remote.resilience.CircuitBreaker;
+import com.kustlik.medicalclinic.remote.resilience.ResilientClient;
+import com.kustlik.medicalclinic.remote.resilience.RetryAfterAwareRetryer;
+import com.kustlik.medicalclinic.remote.stream.StreamingSchoolBillingDecoder;
+import com.kustlik.medicalclinic.remote.transport.PooledHttpClient;
+import feign.Client;
+import feign.Feign;
+import feign.Request;
+import feign.Retryer;
+import feign.codec.Decoder;
+import feign.codec.ErrorDecoder;
+import feign.optionals.OptionalDecoder;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.cloud.openfeign.FeignBuilderCustomizer;
+import org.springframework.cloud.openfeign.support.HttpMessageConverterCustomizer;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.context.annotation.Bean;
+
+public class SchoolClientConfiguration {
+
+    @Bean
+    public ErrorDecoder errorDecoder() {
+        return new RetreiveMessageErrorDecoder();
+    }
+
+    @Bean
+    public Decoder decoder(ObjectFactory<HttpMessageConverters> messageConverters,
+                           ObjectProvider<HttpMessageConverterCustomizer> customizers, ObjectMapper objectMapper) {
+        return new StreamingSchoolBillingDecoder(
+                new OptionalDecoder(new ResponseEntityDecoder(new SpringDecoder(messageConverters, customizers))),
+                objectMapper);
+    }
+
+    @Bean
+    public FeignBuilderCustomizer streamingResponses() {
+        return Feign.Builder::doNotCloseAfterDecode;
+    }
+
+    @Bean
+    public Retryer retryer(@Value("${medical-clinic.school-client.retry.max-attempts:3}") int maxAttempts,
+                           @Value("${medical-clinic.school-client.retry.initial-backoff:100ms}") String initialBackoff,
+                           @Value("${medical-clinic.school-client.retry.max-backoff:2s}") String maxBackoff) {
+        return new RetryAfterAwareRetryer(maxAttempts, DurationStyle.detectAndParse(initialBackoff),
+                DurationStyle.detectAndParse(maxBackoff));
+    }
+
+    @Bean
+    public Request.Options options(@Value("${medical-clinic.school-client.connect-timeout:2s}") String connectTimeout,
+                                   @Value("${medical-clinic.school-client.read-timeout:5s}") String readTimeout) {
+        return new Request.Options(DurationStyle.detectAndParse(connectTimeout), DurationStyle.detectAndParse(readTimeout),
+                true);
+    }
+
+    @Bean
+    public Client client(@Value("${medical-clinic.school-client.max-connections:20}") int maxConnections,
+                         @Value("${medical-clinic.school-client.max-connection-wait:1s}") String maxConnectionWait,
+                         @Value("${medical-clinic.school-client.connect-timeout:2s}") String connectTimeout,
+                         Bulkhead bulkhead, CircuitBreaker circuitBreaker) {
+        return new ResilientClient(new PooledHttpClient(maxConnections, DurationStyle.detectAndParse(maxConnectionWait),
+                DurationStyle.detectAndParse(connectTimeout)), bulkhead, circuitBreaker);
+    }
+}
@@ -3,9 +3,16 @@ package com.kustlik.medicalclinic.remote.error;
 import com.kustlik.medicalclinic.remote.exception.InternalServerErrorException;
 import com.kustlik.medicalclinic.remote.exception.ServiceUnavailableException;
 import feign.FeignException;
+import feign.RetryableException;
 import feign.Response;
 import feign.codec.ErrorDecoder;
 
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
 public class RetreiveMessageErrorDecoder implements ErrorDecoder {
     private final ErrorDecoder errorDecoder = new Default();
 
@@ -16,9 +23,27 @@ public class RetreiveMessageErrorDecoder implements ErrorDecoder {
         return switch (response.status()) {
             case 500 -> new InternalServerErrorException(message != null ? message :
                     "The server has encountered a situation it does not know how to handle.");
-            case 503 -> new ServiceUnavailableException(message != null ? message :
-                    "The request method is not supported by the server and cannot be handled.");
+            case 503 -> new RetryableException(response.status(), message, response.request().httpMethod(),
+                    new ServiceUnavailableException(message != null ? message :
+                            "The request method is not supported by the server and cannot be handled."),
+                    retryAfter(response), response.request());
             default -> errorDecoder.decode(methodKey, response);
         };
     }
+
+    private static Long retryAfter(Response response) {
+        Collection<String> values = response.headers().get("Retry-After");
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        String value = values.iterator().next().trim();
+        try {
+            if (value.chars().allMatch(Character::isDigit)) {
+                return System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(Long.parseLong(value));
+            }
+            return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (NumberFormatException | DateTimeParseException e) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,7 @@
+package com.kustlik.medicalclinic.remote.exception;
+
+public class BulkheadFullException extends RuntimeException {
+    public BulkheadFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.kustlik.medicalclinic.remote.exception;
+
+public class CircuitBreakerOpenException extends RuntimeException {
+    public CircuitBreakerOpenException(String message) {
+        super(message);
+    }
+}
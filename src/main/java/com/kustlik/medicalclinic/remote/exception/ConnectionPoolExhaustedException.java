@@ -0,0 +1,7 @@
+package com.kustlik.medicalclinic.remote.exception;
+
+public class ConnectionPoolExhaustedException extends RuntimeException {
+    public ConnectionPoolExhaustedException(String message) {
+        super(message);
+    }
+}
@@ -3,11 +3,13 @@ package com.kustlik.medicalclinic.remote.model.dto.school;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 
 import java.time.LocalDate;
 
 @Builder
 @Getter
+@RequiredArgsConstructor
 @EqualsAndHashCode
 public class ChildAttendanceDto {
     private final LocalDate entryDate;
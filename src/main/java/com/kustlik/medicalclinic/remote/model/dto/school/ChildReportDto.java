@@ -3,11 +3,13 @@ package com.kustlik.medicalclinic.remote.model.dto.school;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 
 import java.util.List;
 
 @Builder
 @Getter
+@RequiredArgsConstructor
 @EqualsAndHashCode
 public class ChildReportDto {
     private final int childId;
@@ -0,0 +1,54 @@
+package com.kustlik.medicalclinic.remote.resilience;
+
+import com.kustlik.medicalclinic.remote.exception.BulkheadFullException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class Bulkhead {
+    private final Semaphore permits;
+    private final long maxWaitInNanos;
+    private final LongAdder rejectedCount = new LongAdder();
+
+    public Bulkhead(@Value("${medical-clinic.school-client.bulkhead.max-concurrent-calls:20}") int maxConcurrentCalls,
+                    @Value("${medical-clinic.school-client.bulkhead.max-wait:0s}") Duration maxWait) {
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+        this.maxWaitInNanos = maxWait.toNanos();
+    }
+
+    public void acquire() {
+        if (!tryAcquire()) {
+            rejectedCount.increment();
+            throw new BulkheadFullException("Too many concurrent calls to the school service.");
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int getAvailableConcurrentCalls() {
+        return permits.availablePermits();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    private boolean tryAcquire() {
+        if (maxWaitInNanos == 0) {
+            return permits.tryAcquire();
+        }
+        try {
+            return permits.tryAcquire(maxWaitInNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
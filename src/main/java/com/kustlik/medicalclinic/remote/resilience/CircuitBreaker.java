@@ -0,0 +1,122 @@
+package com.kustlik.medicalclinic.remote.resilience;
+
+import com.kustlik.medicalclinic.model.dto.resilience.CircuitBreakerTransitionDTO;
+import com.kustlik.medicalclinic.remote.exception.CircuitBreakerOpenException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+@Component
+public class CircuitBreaker {
+    private static final int TRANSITION_HISTORY_SIZE = 50;
+    private final int failureThreshold;
+    private final long openDurationInNanos;
+    private final LongSupplier ticker;
+    private final Deque<CircuitBreakerTransitionDTO> transitions = new ArrayDeque<>();
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialCallInFlight;
+    private long rejectedCount;
+
+    @Autowired
+    public CircuitBreaker(@Value("${medical-clinic.school-client.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                          @Value("${medical-clinic.school-client.circuit-breaker.open-duration:30s}") Duration openDuration) {
+        this(failureThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier ticker) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationInNanos = openDuration.toNanos();
+        this.ticker = ticker;
+    }
+
+    public synchronized void acquirePermission() {
+        if (state == State.OPEN && ticker.getAsLong() - openedAt >= openDurationInNanos) {
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.OPEN || (state == State.HALF_OPEN && trialCallInFlight)) {
+            rejectedCount++;
+            throw new CircuitBreakerOpenException("School service is unavailable, calls are temporarily suspended.");
+        }
+        if (state == State.HALF_OPEN) {
+            trialCallInFlight = true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        if (state == State.HALF_OPEN) {
+            trialCallInFlight = false;
+            transitionTo(State.CLOSED);
+        }
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN) {
+            trialCallInFlight = false;
+            open();
+        } else if (state == State.CLOSED && consecutiveFailures >= failureThreshold) {
+            open();
+        }
+    }
+
+    public synchronized void releasePermission() {
+        if (state == State.HALF_OPEN) {
+            trialCallInFlight = false;
+        }
+    }
+
+    public synchronized void reset() {
+        consecutiveFailures = 0;
+        trialCallInFlight = false;
+        if (state != State.CLOSED) {
+            transitionTo(State.CLOSED);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    public synchronized long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    public synchronized List<CircuitBreakerTransitionDTO> getTransitions() {
+        return List.copyOf(transitions);
+    }
+
+    private void open() {
+        openedAt = ticker.getAsLong();
+        transitionTo(State.OPEN);
+    }
+
+    private void transitionTo(State target) {
+        if (transitions.size() == TRANSITION_HISTORY_SIZE) {
+            transitions.removeFirst();
+        }
+        transitions.addLast(CircuitBreakerTransitionDTO.builder()
+                .from(state)
+                .to(target)
+                .at(Instant.now())
+                .build());
+        state = target;
+    }
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+}
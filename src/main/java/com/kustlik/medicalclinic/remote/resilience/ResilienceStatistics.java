@@ -0,0 +1,23 @@
+package com.kustlik.medicalclinic.remote.resilience;
+
+import com.kustlik.medicalclinic.model.dto.resilience.ResilienceStatusDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ResilienceStatistics {
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+
+    public ResilienceStatusDTO getStatus() {
+        return ResilienceStatusDTO.builder()
+                .circuitBreakerState(circuitBreaker.getState())
+                .consecutiveFailures(circuitBreaker.getConsecutiveFailures())
+                .circuitBreakerRejectedCount(circuitBreaker.getRejectedCount())
+                .circuitBreakerTransitions(circuitBreaker.getTransitions())
+                .availableConcurrentCalls(bulkhead.getAvailableConcurrentCalls())
+                .bulkheadRejectedCount(bulkhead.getRejectedCount())
+                .build();
+    }
+}
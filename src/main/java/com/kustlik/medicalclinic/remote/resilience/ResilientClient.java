@@ -0,0 +1,48 @@
+package com.kustlik.medicalclinic.remote.resilience;
+
+import com.kustlik.medicalclinic.remote.exception.ConnectionPoolExhaustedException;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+
+public class ResilientClient implements Client {
+    private final Client delegate;
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+
+    public ResilientClient(Client delegate, Bulkhead bulkhead, CircuitBreaker circuitBreaker) {
+        this.delegate = delegate;
+        this.bulkhead = bulkhead;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        bulkhead.acquire();
+        try {
+            circuitBreaker.acquirePermission();
+            boolean successful = false;
+            boolean reachedUpstream = true;
+            try {
+                Response response = delegate.execute(request, options);
+                successful = response.status() < 500;
+                return response;
+            } catch (ConnectionPoolExhaustedException e) {
+                reachedUpstream = false;
+                throw e;
+            } finally {
+                if (!reachedUpstream) {
+                    circuitBreaker.releasePermission();
+                } else if (successful) {
+                    circuitBreaker.onSuccess();
+                } else {
+                    circuitBreaker.onFailure();
+                }
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+}
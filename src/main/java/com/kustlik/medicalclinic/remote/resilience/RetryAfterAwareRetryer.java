@@ -0,0 +1,52 @@
+package com.kustlik.medicalclinic.remote.resilience;
+
+import feign.RetryableException;
+import feign.Retryer;
+
+import java.time.Duration;
+
+public class RetryAfterAwareRetryer implements Retryer {
+    private final int maxAttempts;
+    private final long initialBackoffInMillis;
+    private final long maxBackoffInMillis;
+    private int attempt = 1;
+
+    public RetryAfterAwareRetryer(int maxAttempts, Duration initialBackoff, Duration maxBackoff) {
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffInMillis = initialBackoff.toMillis();
+        this.maxBackoffInMillis = maxBackoff.toMillis();
+    }
+
+    @Override
+    public void continueOrPropagate(RetryableException e) {
+        long backoff = backoff(e);
+        if (attempt >= maxAttempts || backoff > maxBackoffInMillis) {
+            throw propagated(e);
+        }
+        attempt++;
+        try {
+            Thread.sleep(backoff);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw propagated(e);
+        }
+    }
+
+    @Override
+    public Retryer clone() {
+        return new RetryAfterAwareRetryer(maxAttempts, Duration.ofMillis(initialBackoffInMillis),
+                Duration.ofMillis(maxBackoffInMillis));
+    }
+
+    private long backoff(RetryableException e) {
+        if (e.retryAfter() != null) {
+            return Math.max(0, e.retryAfter() - System.currentTimeMillis());
+        }
+        long exponential = initialBackoffInMillis << Math.min(attempt - 1, 30);
+        return Math.min(exponential, maxBackoffInMillis);
+    }
+
+    private static RuntimeException propagated(RetryableException e) {
+        return e.getCause() instanceof RuntimeException cause ? cause : e;
+    }
+}
@@ -0,0 +1,110 @@
+package com.kustlik.medicalclinic.remote.stream;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.kustlik.medicalclinic.remote.model.dto.school.ParentBillingReportDto;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public class ParentBillingReportReader implements Iterator<ParentBillingReportDto>, Closeable {
+    private static final String PARENT_BILLING_REPORTS_FIELD = "parentBillingReports";
+    private final ObjectReader objectReader;
+    private final InputStream inputStream;
+    private final JsonParser parser;
+    private ParentBillingReportDto next;
+    private boolean closed;
+
+    public ParentBillingReportReader(ObjectMapper objectMapper, InputStream inputStream) throws IOException {
+        this.objectReader = objectMapper.readerFor(ParentBillingReportDto.class);
+        this.inputStream = inputStream;
+        this.parser = objectMapper.getFactory().createParser(inputStream);
+        try {
+            if (moveToParentBillingReports()) {
+                this.next = readNext();
+            } else {
+                close();
+            }
+        } catch (IOException | RuntimeException ex) {
+            close();
+            throw ex;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    @Override
+    public ParentBillingReportDto next() {
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+        ParentBillingReportDto current = next;
+        try {
+            next = readNext();
+        } catch (IOException ex) {
+            closeQuietly();
+            throw new UncheckedIOException(ex);
+        }
+        return current;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            parser.close();
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    public void closeQuietly() {
+        try {
+            close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private boolean moveToParentBillingReports() throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return false;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (PARENT_BILLING_REPORTS_FIELD.equals(field) && value == JsonToken.START_ARRAY) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    private ParentBillingReportDto readNext() throws IOException {
+        JsonToken token;
+        do {
+            token = parser.nextToken();
+        } while (token == JsonToken.VALUE_NULL);
+        if (token == JsonToken.END_ARRAY) {
+            close();
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected parent billing report object but found " + token);
+        }
+        return objectReader.readValue(parser);
+    }
+}
@@ -0,0 +1,48 @@
+package com.kustlik.medicalclinic.remote.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kustlik.medicalclinic.remote.model.dto.school.ParentBillingReportDto;
+import feign.Response;
+import feign.Util;
+import feign.codec.Decoder;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class StreamingSchoolBillingDecoder implements Decoder {
+    private final Decoder delegate;
+    private final ObjectMapper objectMapper;
+
+    public StreamingSchoolBillingDecoder(Decoder delegate, ObjectMapper objectMapper) {
+        this.delegate = delegate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Object decode(Response response, Type type) throws IOException {
+        if (!isParentBillingReportStream(type)) {
+            try {
+                return delegate.decode(response, type);
+            } finally {
+                Util.ensureClosed(response.body());
+            }
+        }
+        if (response.body() == null) {
+            return Stream.empty();
+        }
+        ParentBillingReportReader reader = new ParentBillingReportReader(objectMapper, response.body().asInputStream());
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(reader, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(reader::closeQuietly);
+    }
+
+    private static boolean isParentBillingReportStream(Type type) {
+        return type instanceof ParameterizedType parameterizedType
+                && parameterizedType.getRawType() == Stream.class
+                && parameterizedType.getActualTypeArguments()[0] == ParentBillingReportDto.class;
+    }
+}
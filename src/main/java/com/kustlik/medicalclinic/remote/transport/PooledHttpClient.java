@@ -0,0 +1,235 @@
+package com.kustlik.medicalclinic.remote.transport;
+
+import com.kustlik.medicalclinic.remote.exception.ConnectionPoolExhaustedException;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+
+public class PooledHttpClient implements Client {
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade");
+    private static final int DRAIN_BUFFER_SIZE = 8192;
+    private static final long MAX_DRAINED_BYTES = 64 * 1024;
+    private static final ScheduledThreadPoolExecutor READ_WATCHDOG = readWatchdog();
+    private final HttpClient httpClient;
+    private final Semaphore connections;
+    private final long maxConnectionWaitInMillis;
+
+    public PooledHttpClient(int maxConnections, Duration maxConnectionWait, Duration connectTimeout) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        this.connections = new Semaphore(maxConnections, true);
+        this.maxConnectionWaitInMillis = maxConnectionWait.toMillis();
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        acquireConnection();
+        boolean released = false;
+        try {
+            HttpResponse<InputStream> response = httpClient.send(toHttpRequest(request, options),
+                    HttpResponse.BodyHandlers.ofInputStream());
+            Response converted = toResponse(request, response, options.readTimeoutMillis());
+            released = true;
+            return converted;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while calling " + request.url());
+        } finally {
+            if (!released) {
+                connections.release();
+            }
+        }
+    }
+
+    private void acquireConnection() throws IOException {
+        try {
+            if (!connections.tryAcquire(maxConnectionWaitInMillis, TimeUnit.MILLISECONDS)) {
+                throw new ConnectionPoolExhaustedException("Timed out waiting for a pooled connection.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a pooled connection.");
+        }
+    }
+
+    private static HttpRequest toHttpRequest(Request request, Request.Options options) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(request.url()))
+                .timeout(Duration.ofMillis(options.readTimeoutMillis()))
+                .method(request.httpMethod().name(), request.body() == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(request.body()));
+        request.headers().forEach((name, values) -> {
+            if (!RESTRICTED_HEADERS.contains(name.toLowerCase())) {
+                values.forEach(value -> builder.header(name, value));
+            }
+        });
+        if (!request.headers().containsKey("Accept-Encoding")) {
+            builder.header("Accept-Encoding", "gzip");
+        }
+        return builder.build();
+    }
+
+    private Response toResponse(Request request, HttpResponse<InputStream> response, long readTimeoutInMillis) throws IOException {
+        Map<String, Collection<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        response.headers().map().forEach((name, values) -> {
+            if (!name.startsWith(":")) {
+                headers.put(name, values);
+            }
+        });
+        InputStream raw = new ReadTimeoutInputStream(response.body(), readTimeoutInMillis);
+        InputStream body = raw;
+        Integer length = response.headers().firstValueAsLong("Content-Length")
+                .stream().mapToObj(Math::toIntExact).findFirst().orElse(null);
+        boolean gzipped = response.headers().firstValue("Content-Encoding").filter("gzip"::equalsIgnoreCase).isPresent();
+        if (gzipped && (length == null || length > 0)) {
+            try {
+                body = new GZIPInputStream(body);
+            } catch (IOException e) {
+                raw.close();
+                throw e;
+            }
+            headers.remove("Content-Encoding");
+            headers.remove("Content-Length");
+            length = null;
+        }
+        return Response.builder()
+                .status(response.statusCode())
+                .request(request)
+                .protocolVersion(Request.ProtocolVersion.HTTP_1_1)
+                .headers(headers)
+                .body(new ConnectionReleasingInputStream(body, raw), length)
+                .build();
+    }
+
+    private class ConnectionReleasingInputStream extends FilterInputStream {
+        private final InputStream raw;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private ConnectionReleasingInputStream(InputStream in, InputStream raw) {
+            super(in);
+            this.raw = raw;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                drain();
+                super.close();
+            } finally {
+                if (closed.compareAndSet(false, true)) {
+                    connections.release();
+                }
+            }
+        }
+
+        private void drain() {
+            byte[] buffer = new byte[DRAIN_BUFFER_SIZE];
+            try {
+                long drained = 0;
+                int read;
+                while (drained < MAX_DRAINED_BYTES && (read = raw.read(buffer)) != -1) {
+                    drained += read;
+                }
+            } catch (IOException e) {
+                // The connection is discarded instead of being returned to the pool.
+            }
+        }
+    }
+
+    private static ScheduledThreadPoolExecutor readWatchdog() {
+        ScheduledThreadPoolExecutor watchdog = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "school-client-read-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watchdog.setRemoveOnCancelPolicy(true);
+        return watchdog;
+    }
+
+    private static class ReadTimeoutInputStream extends FilterInputStream {
+        private final long readTimeoutInMillis;
+        private volatile boolean timedOut;
+
+        private ReadTimeoutInputStream(InputStream in, long readTimeoutInMillis) {
+            super(in);
+            this.readTimeoutInMillis = readTimeoutInMillis;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return guarded(in::read);
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            return guarded(() -> in.read(buffer, offset, length));
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            return guarded(() -> in.skip(n));
+        }
+
+        private <T> T guarded(BodyRead<T> read) throws IOException {
+            if (timedOut) {
+                throw new SocketTimeoutException("Read timed out.");
+            }
+            if (readTimeoutInMillis <= 0) {
+                return read.read();
+            }
+            ScheduledFuture<?> watchdog = READ_WATCHDOG.schedule(this::abort, readTimeoutInMillis, TimeUnit.MILLISECONDS);
+            try {
+                T result = read.read();
+                if (timedOut) {
+                    throw new SocketTimeoutException("Read timed out.");
+                }
+                return result;
+            } catch (IOException e) {
+                if (timedOut && !(e instanceof SocketTimeoutException)) {
+                    throw new SocketTimeoutException("Read timed out.");
+                }
+                throw e;
+            } finally {
+                watchdog.cancel(false);
+            }
+        }
+
+        private void abort() {
+            timedOut = true;
+            try {
+                in.close();
+            } catch (IOException e) {
+                // The blocked read fails on its own once the response is cancelled.
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface BodyRead<T> {
+        T read() throws IOException;
+    }
+}
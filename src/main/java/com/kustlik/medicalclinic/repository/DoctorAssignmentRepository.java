@@ -0,0 +1,9 @@
+package com.kustlik.medicalclinic.repository;
+
+import com.kustlik.medicalclinic.model.dto.doctor.DoctorAssignmentDTO;
+
+import java.util.List;
+
+public interface DoctorAssignmentRepository {
+    int[] insertAllIfAbsent(List<DoctorAssignmentDTO> assignments);
+}
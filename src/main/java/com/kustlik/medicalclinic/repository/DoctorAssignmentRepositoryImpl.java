@@ -0,0 +1,67 @@
+package com.kustlik.medicalclinic.repository;
+
+import com.kustlik.medicalclinic.model.dto.doctor.DoctorAssignmentDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.BatchUpdateException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class DoctorAssignmentRepositoryImpl implements DoctorAssignmentRepository {
+    private static final int BATCH_SIZE = 500;
+    private static final String INSERT_ASSIGNMENT_IF_ABSENT =
+            "INSERT INTO doctor_medical_facility (doctor_id, medical_facility_id) " +
+                    "SELECT d.id, f.id FROM doctor d, medical_facility f " +
+                    "WHERE d.id = ? AND f.id = ? AND NOT EXISTS (" +
+                    "SELECT 1 FROM doctor_medical_facility a WHERE a.doctor_id = d.id AND a.medical_facility_id = f.id)";
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] insertAllIfAbsent(List<DoctorAssignmentDTO> assignments) {
+        int[] insertedRows = new int[assignments.size()];
+        for (int from = 0; from < assignments.size(); from += BATCH_SIZE) {
+            List<DoctorAssignmentDTO> batch = assignments.subList(from, Math.min(from + BATCH_SIZE, assignments.size()));
+            int[] batchRows = jdbcTemplate.execute((ConnectionCallback<int[]>) connection -> insertBatchIfAbsent(connection.prepareStatement(INSERT_ASSIGNMENT_IF_ABSENT), batch));
+            System.arraycopy(batchRows, 0, insertedRows, from, batchRows.length);
+        }
+        return insertedRows;
+    }
+
+    private int[] insertBatchIfAbsent(PreparedStatement statement, List<DoctorAssignmentDTO> batch) throws SQLException {
+        int[] updateCounts;
+        try (statement) {
+            for (DoctorAssignmentDTO assignment : batch) {
+                statement.setLong(1, assignment.getDoctorId());
+                statement.setLong(2, assignment.getMedicalFacilityId());
+                statement.addBatch();
+            }
+            return statement.executeBatch();
+        } catch (BatchUpdateException ex) {
+            if (!UniqueViolation.isCausedBy(ex)) {
+                throw ex;
+            }
+            updateCounts = ex.getUpdateCounts();
+        }
+        int[] insertedRows = new int[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            insertedRows[i] = i < updateCounts.length && updateCounts[i] != Statement.EXECUTE_FAILED
+                    ? updateCounts[i]
+                    : insertIfAbsent(batch.get(i));
+        }
+        return insertedRows;
+    }
+
+    private int insertIfAbsent(DoctorAssignmentDTO assignment) {
+        try {
+            return jdbcTemplate.update(INSERT_ASSIGNMENT_IF_ABSENT, assignment.getDoctorId(), assignment.getMedicalFacilityId());
+        } catch (DuplicateKeyException ex) {
+            return 0;
+        }
+    }
+}
@@ -1,12 +1,48 @@
 package com.kustlik.medicalclinic.repository;
 
 import com.kustlik.medicalclinic.model.entity.Doctor;
-import org.springframework.data.jpa.repository.JpaRepository;
+import com.kustlik.medicalclinic.model.projection.DoctorSummary;
+import com.kustlik.medicalclinic.model.projection.OwnedId;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
-public interface DoctorRepository extends JpaRepository<Doctor, Long> {
-    Optional<Doctor> findByEmail(String email);
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+public interface DoctorRepository extends NaturalIdRepository<Doctor, Long>, DoctorAssignmentRepository {
+    boolean existsByNormalizedEmail(String normalizedEmail);
 
     Optional<Doctor> findById(Long id);
+
+    Slice<DoctorSummary> findSummariesBy(Pageable pageable);
+
+    Slice<DoctorSummary> findSummariesByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("SELECT d.id AS ownerId, f.id AS id " +
+            "FROM Doctor d JOIN d.medicalFacilities f " +
+            "WHERE d.id IN :doctorIDs " +
+            "ORDER BY f.id")
+    List<OwnedId> findMedicalFacilityIdsByDoctorIds(@Param("doctorIDs") Collection<Long> doctorIDs);
+
+    @Query("SELECT d.id " +
+            "FROM Doctor d " +
+            "WHERE d.id IN :doctorIDs")
+    Set<Long> findExistingIds(@Param("doctorIDs") Collection<Long> doctorIDs);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT d.normalizedEmail " +
+            "FROM Doctor d")
+    Stream<String> streamAllNormalizedEmails();
 }
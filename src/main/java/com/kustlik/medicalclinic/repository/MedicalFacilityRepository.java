@@ -1,12 +1,33 @@
 package com.kustlik.medicalclinic.repository;
 
 import com.kustlik.medicalclinic.model.entity.MedicalFacility;
-import org.springframework.data.jpa.repository.JpaRepository;
+import com.kustlik.medicalclinic.model.projection.MedicalFacilitySummary;
+import com.kustlik.medicalclinic.model.projection.OwnedId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
-public interface MedicalFacilityRepository extends JpaRepository<MedicalFacility, Long> {
+public interface MedicalFacilityRepository extends NaturalIdRepository<MedicalFacility, Long> {
     Optional<MedicalFacility> findById(Long id);
 
-    Optional<MedicalFacility> findByName(String name);
+    Slice<MedicalFacilitySummary> findSummariesBy(Pageable pageable);
+
+    Slice<MedicalFacilitySummary> findSummariesByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("SELECT f.id AS ownerId, d.id AS id " +
+            "FROM MedicalFacility f JOIN f.doctors d " +
+            "WHERE f.id IN :medicalFacilityIDs " +
+            "ORDER BY d.id")
+    List<OwnedId> findDoctorIdsByMedicalFacilityIds(@Param("medicalFacilityIDs") Collection<Long> medicalFacilityIDs);
+
+    @Query("SELECT f.id " +
+            "FROM MedicalFacility f " +
+            "WHERE f.id IN :medicalFacilityIDs")
+    Set<Long> findExistingIds(@Param("medicalFacilityIDs") Collection<Long> medicalFacilityIDs);
 }
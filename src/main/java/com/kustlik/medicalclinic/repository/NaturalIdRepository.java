@@ -0,0 +1,11 @@
+package com.kustlik.medicalclinic.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.util.Optional;
+
+@NoRepositoryBean
+public interface NaturalIdRepository<T, ID> extends JpaRepository<T, ID> {
+    Optional<T> findBySimpleNaturalId(Object naturalId);
+}
@@ -0,0 +1,9 @@
+package com.kustlik.medicalclinic.repository;
+
+import com.kustlik.medicalclinic.model.entity.Patient;
+
+import java.util.List;
+
+public interface PatientBatchRepository {
+    int[] insertAll(List<Patient> patients);
+}
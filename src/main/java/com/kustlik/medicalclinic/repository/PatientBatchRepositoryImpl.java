@@ -0,0 +1,88 @@
+package com.kustlik.medicalclinic.repository;
+
+import com.kustlik.medicalclinic.model.email.EmailNormalizer;
+import com.kustlik.medicalclinic.model.entity.Patient;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.BatchUpdateException;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class PatientBatchRepositoryImpl implements PatientBatchRepository {
+    private static final int BATCH_SIZE = 500;
+    private static final int ID_ALLOCATION_SIZE = 50;
+    private static final String NEXT_ID_BLOCK = "SELECT NEXT VALUE FOR patient_seq";
+    private static final String INSERT_PATIENT =
+            "INSERT INTO patient (id, email, normalized_email, id_card_no, first_name, last_name, password, birthday) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] insertAll(List<Patient> patients) {
+        long nextID = 0;
+        long lastID = -1;
+        for (Patient patient : patients) {
+            if (nextID > lastID) {
+                lastID = jdbcTemplate.queryForObject(NEXT_ID_BLOCK, Long.class);
+                nextID = Math.max(lastID - ID_ALLOCATION_SIZE + 1, 1);
+            }
+            patient.setId(nextID++);
+        }
+        int[] insertedRows = new int[patients.size()];
+        for (int from = 0; from < patients.size(); from += BATCH_SIZE) {
+            List<Patient> batch = patients.subList(from, Math.min(from + BATCH_SIZE, patients.size()));
+            int[] batchRows = jdbcTemplate.execute((ConnectionCallback<int[]>) connection -> insertBatch(connection.prepareStatement(INSERT_PATIENT), batch));
+            System.arraycopy(batchRows, 0, insertedRows, from, batchRows.length);
+        }
+        return insertedRows;
+    }
+
+    private int[] insertBatch(PreparedStatement statement, List<Patient> batch) throws SQLException {
+        int[] updateCounts;
+        try (statement) {
+            for (Patient patient : batch) {
+                bind(statement, patient);
+                statement.addBatch();
+            }
+            return statement.executeBatch();
+        } catch (BatchUpdateException ex) {
+            if (!UniqueViolation.isCausedBy(ex)) {
+                throw ex;
+            }
+            updateCounts = ex.getUpdateCounts();
+        }
+        int[] insertedRows = new int[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            insertedRows[i] = i < updateCounts.length && updateCounts[i] != Statement.EXECUTE_FAILED
+                    ? updateCounts[i]
+                    : insert(batch.get(i));
+        }
+        return insertedRows;
+    }
+
+    private int insert(Patient patient) {
+        try {
+            return jdbcTemplate.update(INSERT_PATIENT, statement -> bind(statement, patient));
+        } catch (DuplicateKeyException ex) {
+            return 0;
+        }
+    }
+
+    private static void bind(PreparedStatement statement, Patient patient) throws SQLException {
+        statement.setLong(1, patient.getId());
+        statement.setString(2, patient.getEmail());
+        statement.setString(3, EmailNormalizer.normalize(patient.getEmail()));
+        statement.setString(4, patient.getIdCardNo());
+        statement.setString(5, patient.getFirstName());
+        statement.setString(6, patient.getLastName());
+        statement.setString(7, patient.getPassword());
+        statement.setDate(8, Date.valueOf(patient.getBirthday()));
+    }
+}
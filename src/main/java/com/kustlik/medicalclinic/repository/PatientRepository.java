@@ -1,12 +1,54 @@
 package com.kustlik.medicalclinic.repository;
 
 import com.kustlik.medicalclinic.model.entity.Patient;
-import org.springframework.data.jpa.repository.JpaRepository;
+import com.kustlik.medicalclinic.model.projection.PatientSummary;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
-public interface PatientRepository extends JpaRepository<Patient, Long> {
-    Optional<Patient> findByEmail(String email);
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+public interface PatientRepository extends NaturalIdRepository<Patient, Long>, PatientBatchRepository {
+    boolean existsByNormalizedEmail(String normalizedEmail);
 
     Optional<Patient> findById(Long id);
+
+    @Query("SELECT p.normalizedEmail " +
+            "FROM Patient p " +
+            "WHERE p.normalizedEmail IN :normalizedEmails")
+    Set<String> findExistingNormalizedEmails(@Param("normalizedEmails") Collection<String> normalizedEmails);
+
+    @Query("SELECT p.idCardNo " +
+            "FROM Patient p " +
+            "WHERE p.idCardNo IN :idCardNos")
+    Set<String> findExistingIdCardNos(@Param("idCardNos") Collection<String> idCardNos);
+
+    Slice<PatientSummary> findSummariesBy(Pageable pageable);
+
+    Slice<PatientSummary> findSummariesByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("SELECT DISTINCT p.id AS id, p.email AS email, p.firstName AS firstName, p.lastName AS lastName, p.birthday AS birthday " +
+            "FROM Patient p JOIN p.visits v " +
+            "WHERE v.appointmentStart >= :startDate AND v.appointmentStart < :endDate")
+    Slice<PatientSummary> findSummariesWithVisitsBetween(
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT p.normalizedEmail " +
+            "FROM Patient p")
+    Stream<String> streamAllNormalizedEmails();
 }
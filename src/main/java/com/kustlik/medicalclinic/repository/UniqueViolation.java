@@ -0,0 +1,22 @@
+package com.kustlik.medicalclinic.repository;
+
+import java.sql.SQLException;
+
+final class UniqueViolation {
+    private static final String UNIQUE_VIOLATION_SQL_STATE = "23505";
+
+    private UniqueViolation() {
+    }
+
+    static boolean isCausedBy(SQLException ex) {
+        for (SQLException current = ex; current != null; current = current.getNextException()) {
+            if (UNIQUE_VIOLATION_SQL_STATE.equals(current.getSQLState())) {
+                return true;
+            }
+            if (current.getCause() instanceof SQLException cause && UNIQUE_VIOLATION_SQL_STATE.equals(cause.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
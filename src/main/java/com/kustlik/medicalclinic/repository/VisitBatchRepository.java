@@ -0,0 +1,9 @@
+package com.kustlik.medicalclinic.repository;
+
+import com.kustlik.medicalclinic.model.entity.Visit;
+
+import java.util.List;
+
+public interface VisitBatchRepository {
+    void insertAll(Long doctorID, List<Visit> visits);
+}
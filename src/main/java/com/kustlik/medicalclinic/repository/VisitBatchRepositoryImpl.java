@@ -0,0 +1,37 @@
+package com.kustlik.medicalclinic.repository;
+
+import com.kustlik.medicalclinic.model.entity.Visit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class VisitBatchRepositoryImpl implements VisitBatchRepository {
+    private static final int BATCH_SIZE = 500;
+    private static final int ID_ALLOCATION_SIZE = 50;
+    private static final String NEXT_ID_BLOCK = "SELECT NEXT VALUE FOR visit_seq";
+    private static final String INSERT_VISIT =
+            "INSERT INTO visit (id, appointment_start, appointment_end, doctor_id) VALUES (?, ?, ?, ?)";
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(Long doctorID, List<Visit> visits) {
+        long nextID = 0;
+        long lastID = -1;
+        for (Visit visit : visits) {
+            if (nextID > lastID) {
+                lastID = jdbcTemplate.queryForObject(NEXT_ID_BLOCK, Long.class);
+                nextID = Math.max(lastID - ID_ALLOCATION_SIZE + 1, 1);
+            }
+            visit.setId(nextID++);
+        }
+        jdbcTemplate.batchUpdate(INSERT_VISIT, visits, BATCH_SIZE, (statement, visit) -> {
+            statement.setLong(1, visit.getId());
+            statement.setTimestamp(2, Timestamp.valueOf(visit.getAppointmentStart()));
+            statement.setTimestamp(3, Timestamp.valueOf(visit.getAppointmentEnd()));
+            statement.setLong(4, doctorID);
+        });
+    }
+}
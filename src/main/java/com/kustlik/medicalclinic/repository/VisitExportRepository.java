@@ -0,0 +1,10 @@
+package com.kustlik.medicalclinic.repository;
+
+import com.kustlik.medicalclinic.model.entity.Visit;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+public interface VisitExportRepository {
+    Stream<Visit> streamForExport(Long doctorID, Long patientID, LocalDateTime from, LocalDateTime to);
+}
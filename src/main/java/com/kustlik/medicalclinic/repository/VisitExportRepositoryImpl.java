@@ -0,0 +1,57 @@
+package com.kustlik.medicalclinic.repository;
+
+import com.kustlik.medicalclinic.model.entity.Doctor;
+import com.kustlik.medicalclinic.model.entity.Patient;
+import com.kustlik.medicalclinic.model.entity.Visit;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+@RequiredArgsConstructor
+public class VisitExportRepositoryImpl implements VisitExportRepository {
+    private static final int FETCH_SIZE = 500;
+    private final EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Stream<Visit> streamForExport(Long doctorID, Long patientID, LocalDateTime from, LocalDateTime to) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Visit> query = builder.createQuery(Visit.class);
+        Root<Visit> visit = query.from(Visit.class);
+        Join<Visit, Doctor> doctor = (Join<Visit, Doctor>) visit.<Visit, Doctor>fetch("doctor", JoinType.INNER);
+        Join<Visit, Patient> patient = (Join<Visit, Patient>) visit.<Visit, Patient>fetch("patient", JoinType.LEFT);
+        List<Predicate> predicates = new ArrayList<>();
+        if (doctorID != null) {
+            predicates.add(builder.equal(doctor.get("id"), doctorID));
+        }
+        if (patientID != null) {
+            predicates.add(builder.equal(patient.get("id"), patientID));
+        }
+        if (from != null) {
+            predicates.add(builder.greaterThanOrEqualTo(visit.get("appointmentStart"), from));
+        }
+        if (to != null) {
+            predicates.add(builder.lessThan(visit.get("appointmentStart"), to));
+        }
+        query.select(visit)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(builder.asc(visit.get("appointmentStart")), builder.asc(visit.get("id")));
+        return entityManager.createQuery(query)
+                .setHint(HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+}
@@ -1,37 +1,157 @@
 package com.kustlik.medicalclinic.repository;
 
+import com.kustlik.medicalclinic.model.entity.Patient;
 import com.kustlik.medicalclinic.model.entity.Visit;
-import org.springframework.data.domain.Page;
+import com.kustlik.medicalclinic.model.projection.OwnedId;
+import com.kustlik.medicalclinic.model.projection.VisitTimeframe;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface VisitRepository extends JpaRepository<Visit, Long> {
+public interface VisitRepository extends JpaRepository<Visit, Long>, VisitBatchRepository, VisitExportRepository {
     Optional<Visit> findById(Long id);
 
-    List<Visit> findByDoctorId(Long id);
+    @Query("SELECT v " +
+            "FROM Visit v " +
+            "WHERE v.doctor.id = :doctorID " +
+            "ORDER BY v.id")
+    List<Visit> findByDoctorId(@Param("doctorID") Long id);
 
-    List<Visit> findByDoctorIdAndPatientIdIsNull(Long doctor);
+    @Query("SELECT v " +
+            "FROM Visit v " +
+            "WHERE v.doctor.id = :doctorID AND v.patient IS NULL " +
+            "ORDER BY v.id")
+    List<Visit> findByDoctorIdAndPatientIdIsNull(@Param("doctorID") Long doctor);
 
-    Page<Visit> findByPatientIdIsNull(Pageable pageable);
+    Slice<Visit> findAllBy(Pageable pageable);
 
-    Page<Visit> findByPatientIdIsNotNullAndAppointmentStartGreaterThanEqualAndAppointmentStartLessThan
-            (Pageable pageable, LocalDateTime startDate, LocalDateTime endDate);
+    @Query("SELECT v " +
+            "FROM Visit v " +
+            "WHERE v.patient IS NULL")
+    Slice<Visit> findByPatientIdIsNull(Pageable pageable);
+
+    @Query("SELECT COUNT(v) " +
+            "FROM Visit v " +
+            "WHERE v.patient IS NULL")
+    long countByPatientIdIsNull();
 
+    @Query("SELECT COUNT(DISTINCT v.patient.id) " +
+            "FROM Visit v " +
+            "WHERE v.patient IS NOT NULL " +
+            "AND v.appointmentStart >= :startDate AND v.appointmentStart < :endDate")
+    long countDistinctPatients(
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
+    @Query("SELECT v " +
+            "FROM Visit v " +
+            "WHERE v.patient.id = :patientID " +
+            "ORDER BY v.id")
+    List<Visit> findByPatientId(@Param("patientID") Long id);
+
+    @Query("SELECT v.doctor.id AS ownerId, v.id AS id " +
+            "FROM Visit v " +
+            "WHERE v.doctor.id IN :doctorIDs " +
+            "ORDER BY v.id")
+    List<OwnedId> findIdsByDoctorIds(@Param("doctorIDs") Collection<Long> doctorIDs);
+
+    @Query("SELECT v.patient.id AS ownerId, v.id AS id " +
+            "FROM Visit v " +
+            "WHERE v.patient.id IN :patientIDs " +
+            "ORDER BY v.id")
+    List<OwnedId> findIdsByPatientIds(@Param("patientIDs") Collection<Long> patientIDs);
 
-    List<Visit> findByPatientId(Long id);
+    Slice<Visit> findAllByOrderByAppointmentStartAscIdAsc(Pageable pageable);
 
     @Query("SELECT v " +
+            "FROM Visit v " +
+            "WHERE v.patient IS NULL " +
+            "ORDER BY v.appointmentStart, v.id")
+    Slice<Visit> findByPatientIdIsNullOrderByAppointmentStartAscIdAsc(Pageable pageable);
+
+    @Query("SELECT v " +
+            "FROM Visit v " +
+            "WHERE v.appointmentStart >= :afterStart " +
+            "AND (v.appointmentStart > :afterStart OR v.id > :afterId) " +
+            "ORDER BY v.appointmentStart, v.id")
+    Slice<Visit> findAllAfter(
+            @Param("afterStart") LocalDateTime afterStart,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    @Query("SELECT v " +
+            "FROM Visit v " +
+            "WHERE v.patient IS NULL " +
+            "AND v.appointmentStart >= :afterStart " +
+            "AND (v.appointmentStart > :afterStart OR v.id > :afterId) " +
+            "ORDER BY v.appointmentStart, v.id")
+    Slice<Visit> findFreeAfter(
+            @Param("afterStart") LocalDateTime afterStart,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    @Query("SELECT COUNT(v) > 0 " +
+            "FROM Visit v " +
+            "WHERE v.doctor.id = :doctorID AND v.patient IS NULL " +
+            "AND v.appointmentStart >= :startDate AND v.appointmentStart < :endDate")
+    boolean existsByDoctorIdAndPatientIdIsNullAndAppointmentStartGreaterThanEqualAndAppointmentStartLessThan
+            (@Param("doctorID") Long doctorID, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+
+    @Query("SELECT v.appointmentStart AS appointmentStart, v.appointmentEnd AS appointmentEnd " +
+            "FROM Visit v " +
+            "WHERE v.doctor.id = :doctorID AND v.appointmentEnd >= :from")
+    List<VisitTimeframe> findByDoctorIdAndAppointmentEndGreaterThanEqual(
+            @Param("doctorID") Long doctorID,
+            @Param("from") LocalDateTime from);
+
+    @Query("SELECT COUNT(v) > 0 " +
             "FROM Visit v " +
             "WHERE v.doctor.id = :doctorID " +
-            "AND v.appointmentStart <= :endTime AND v.appointmentEnd >= :startTime")
-    List<Visit> findAllOverlapping(
+            "AND v.appointmentStart < :endTime AND v.appointmentEnd > :startTime")
+    boolean existsOverlapping(
             @Param("startTime") LocalDateTime startTime,
             @Param("endTime") LocalDateTime endTime,
             @Param("doctorID") Long doctorID);
-}
+
+    @Query("SELECT v " +
+            "FROM Visit v JOIN FETCH v.doctor d " +
+            "WHERE v.patient IS NULL " +
+            "AND d.specialisation = :specialisation " +
+            "AND EXISTS (SELECT 1 FROM MedicalFacility f JOIN f.doctors fd WHERE fd.id = d.id AND f.city = :city) " +
+            "AND v.appointmentStart < :to " +
+            "AND (v.appointmentStart > :afterStart OR (v.appointmentStart = :afterStart AND v.id > :afterId)) " +
+            "ORDER BY v.appointmentStart, v.id")
+    List<Visit> findFreeBySpecialisationAndCity(
+            @Param("specialisation") String specialisation,
+            @Param("city") String city,
+            @Param("afterStart") LocalDateTime afterStart,
+            @Param("afterId") Long afterId,
+            @Param("to") LocalDateTime to,
+            Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Visit v " +
+            "SET v.patient = :patient " +
+            "WHERE v.id = :visitID AND v.patient IS NULL AND v.appointmentStart > :now")
+    int assignPatientIfFree(
+            @Param("visitID") Long visitID,
+            @Param("patient") Patient patient,
+            @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Visit v " +
+            "SET v.patient = NULL " +
+            "WHERE v.id = :visitID AND v.patient.id = :patientID AND v.appointmentStart > :now")
+    int releasePatient(
+            @Param("visitID") Long visitID,
+            @Param("patientID") Long patientID,
+            @Param("now") LocalDateTime now);
+}
\ No newline at end of file
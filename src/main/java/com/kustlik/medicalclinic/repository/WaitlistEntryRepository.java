@@ -0,0 +1,27 @@
+package com.kustlik.medicalclinic.repository;
+
+import com.kustlik.medicalclinic.model.entity.WaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+    @Query("SELECT COUNT(w) > 0 " +
+            "FROM WaitlistEntry w " +
+            "WHERE w.doctor.id = :doctorID AND w.visitDate = :visitDate AND w.patient.id = :patientID")
+    boolean existsByDoctorIdAndPatientIdAndVisitDate(
+            @Param("doctorID") Long doctorID,
+            @Param("patientID") Long patientID,
+            @Param("visitDate") LocalDate visitDate);
+
+    @Query("SELECT w.id " +
+            "FROM WaitlistEntry w " +
+            "WHERE w.doctor.id = :doctorID AND w.visitDate = :visitDate " +
+            "ORDER BY w.id")
+    List<Long> findIdsByDoctorIdAndVisitDate(
+            @Param("doctorID") Long doctorID,
+            @Param("visitDate") LocalDate visitDate);
+}
@@ -1,15 +1,36 @@
 package com.kustlik.medicalclinic.service;
 
+import com.kustlik.medicalclinic.model.cursor.IdCursor;
+import com.kustlik.medicalclinic.model.dto.doctor.DoctorAssignmentDTO;
+import com.kustlik.medicalclinic.model.dto.doctor.DoctorAssignmentSummaryDTO;
 import com.kustlik.medicalclinic.model.entity.Doctor;
-import org.springframework.data.domain.Page;
+import com.kustlik.medicalclinic.model.fields.FieldSelection;
+import com.kustlik.medicalclinic.model.projection.DoctorSummary;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 public interface DoctorService {
-    Page<Doctor> getDoctors(Pageable pageable);
+    Slice<DoctorSummary> getDoctors(Pageable pageable);
+
+    Slice<Map<String, Object>> getDoctorFields(FieldSelection fields, Pageable pageable);
+
+    long countDoctors();
+
+    Slice<DoctorSummary> getDoctors(IdCursor after, int size);
+
+    Map<Long, List<Long>> getMedicalFacilityIds(Collection<Long> doctorIDs);
+
+    Map<Long, List<Long>> getVisitIds(Collection<Long> doctorIDs);
 
     Doctor getDoctor(String email);
 
     Doctor createDoctor(Doctor doctor);
 
     Doctor assignDoctorToMedicalFacility(Long doctorID, Long medicalFacilityID);
+
+    DoctorAssignmentSummaryDTO assignDoctorsToMedicalFacilities(List<DoctorAssignmentDTO> assignments);
 }
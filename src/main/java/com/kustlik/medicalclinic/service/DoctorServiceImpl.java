@@ -1,25 +1,92 @@
 package com.kustlik.medicalclinic.service;
 
+import com.kustlik.medicalclinic.exception.DoctorDoesNotExistException;
+import com.kustlik.medicalclinic.exception.EmptyFieldException;
+import com.kustlik.medicalclinic.exception.MedicalFacilityDoesNotExistException;
+import com.kustlik.medicalclinic.model.cursor.CursorPaging;
+import com.kustlik.medicalclinic.model.cursor.IdCursor;
+import com.kustlik.medicalclinic.model.dto.doctor.DoctorAssignmentDTO;
+import com.kustlik.medicalclinic.model.dto.doctor.DoctorAssignmentSummaryDTO;
+import com.kustlik.medicalclinic.model.dto.doctor.RejectedDoctorAssignmentDTO;
 import com.kustlik.medicalclinic.model.entity.Doctor;
 import com.kustlik.medicalclinic.model.entity.MedicalFacility;
+import com.kustlik.medicalclinic.model.fields.FieldSelection;
+import com.kustlik.medicalclinic.model.projection.DoctorSummary;
+import com.kustlik.medicalclinic.model.projection.OwnedId;
 import com.kustlik.medicalclinic.repository.DoctorRepository;
+import com.kustlik.medicalclinic.repository.VisitRepository;
+import com.kustlik.medicalclinic.service.cache.DoctorAssignmentCacheEvictor;
+import com.kustlik.medicalclinic.service.count.CountCache;
+import com.kustlik.medicalclinic.service.fields.SparseFieldReader;
+import com.kustlik.medicalclinic.service.filter.DoctorEmailFilter;
+import com.kustlik.medicalclinic.service.paging.StablePageable;
 import com.kustlik.medicalclinic.service.validator.DoctorValidator;
 import com.kustlik.medicalclinic.service.validator.MedicalFacilityValidator;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
 @Service
 @RequiredArgsConstructor
 public class DoctorServiceImpl implements DoctorService {
     private final DoctorRepository doctorRepository;
+    private final VisitRepository visitRepository;
     private final DoctorValidator doctorValidator;
     private final MedicalFacilityValidator medicalFacilityValidator;
+    private final CountCache countCache;
+    private final SparseFieldReader sparseFieldReader;
+    private final DoctorAssignmentCacheEvictor doctorAssignmentCacheEvictor;
+    private final DoctorEmailFilter doctorEmailFilter;
+
+    public Slice<DoctorSummary> getDoctors(Pageable pageable) {
+        return doctorRepository.findSummariesBy(StablePageable.of(pageable));
+    }
+
+    public Slice<Map<String, Object>> getDoctorFields(FieldSelection fields, Pageable pageable) {
+        Slice<Map<String, Object>> rows = sparseFieldReader.read(Doctor.class, fields, null, pageable);
+        List<Long> doctorIDs = rows.map(row -> (Long) row.get("id")).toList();
+        Map<String, Map<Long, List<Long>>> associations = new HashMap<>();
+        if (fields.contains("medicalFacilityIds")) {
+            associations.put("medicalFacilityIds", getMedicalFacilityIds(doctorIDs));
+        }
+        if (fields.contains("visitIds")) {
+            associations.put("visitIds", getVisitIds(doctorIDs));
+        }
+        return rows.map(row -> fields.select(row, associations));
+    }
+
+    public long countDoctors() {
+        return countCache.count("doctor", doctorRepository::count);
+    }
+
+    public Slice<DoctorSummary> getDoctors(IdCursor after, int size) {
+        IdCursor position = after == null ? IdCursor.first() : after;
+        return doctorRepository.findSummariesByIdGreaterThanOrderByIdAsc(position.getId(), CursorPaging.firstPage(size));
+    }
 
-    public Page<Doctor> getDoctors(Pageable pageable) {
-        return doctorRepository.findAll(pageable);
+    public Map<Long, List<Long>> getMedicalFacilityIds(Collection<Long> doctorIDs) {
+        if (doctorIDs.isEmpty()) {
+            return Map.of();
+        }
+        return OwnedId.groupByOwner(doctorRepository.findMedicalFacilityIdsByDoctorIds(doctorIDs));
+    }
+
+    public Map<Long, List<Long>> getVisitIds(Collection<Long> doctorIDs) {
+        if (doctorIDs.isEmpty()) {
+            return Map.of();
+        }
+        return OwnedId.groupByOwner(visitRepository.findIdsByDoctorIds(doctorIDs));
     }
 
     public Doctor getDoctor(String email) {
@@ -29,7 +96,9 @@ public class DoctorServiceImpl implements DoctorService {
     @Transactional
     public Doctor createDoctor(Doctor doctor) {
         doctorValidator.validateDoctorCreation(doctor);
-        return doctorRepository.save(doctor);
+        Doctor createdDoctor = doctorRepository.save(doctor);
+        doctorEmailFilter.register(createdDoctor.getEmail());
+        return createdDoctor;
     }
 
     @Transactional
@@ -38,6 +107,54 @@ public class DoctorServiceImpl implements DoctorService {
         MedicalFacility medicalFacility = medicalFacilityValidator.medicalFacilityExists(medicalFacilityID);
         doctorValidator.validateDoctorToMedicalFacilityAssignment(doctor, medicalFacility);
         doctor.getMedicalFacilities().add(medicalFacility);
+        doctorAssignmentCacheEvictor.evict(doctorID, medicalFacilityID);
         return doctorRepository.save(doctor);
     }
+
+    @Transactional
+    public DoctorAssignmentSummaryDTO assignDoctorsToMedicalFacilities(List<DoctorAssignmentDTO> assignments) {
+        Set<Long> doctorIDs = doctorValidator.doctorsExist(assignments.stream()
+                .filter(Objects::nonNull)
+                .map(DoctorAssignmentDTO::getDoctorId)
+                .toList());
+        Set<Long> medicalFacilityIDs = medicalFacilityValidator.medicalFacilitiesExist(assignments.stream()
+                .filter(Objects::nonNull)
+                .map(DoctorAssignmentDTO::getMedicalFacilityId)
+                .toList());
+        List<DoctorAssignmentDTO> acceptedAssignments = new ArrayList<>();
+        List<RejectedDoctorAssignmentDTO> rejectedAssignments = new ArrayList<>();
+        for (DoctorAssignmentDTO assignment : assignments) {
+            try {
+                doctorValidator.validateDoctorToMedicalFacilityAssignment(assignment, doctorIDs, medicalFacilityIDs);
+                acceptedAssignments.add(assignment);
+            } catch (EmptyFieldException | DoctorDoesNotExistException | MedicalFacilityDoesNotExistException ex) {
+                rejectedAssignments.add(rejectAssignment(assignment, ex.getMessage()));
+            }
+        }
+        List<DoctorAssignmentDTO> createdAssignments = new ArrayList<>();
+        int[] insertedRows = acceptedAssignments.isEmpty() ? new int[0] : doctorRepository.insertAllIfAbsent(acceptedAssignments);
+        for (int i = 0; i < insertedRows.length; i++) {
+            if (insertedRows[i] > 0 || insertedRows[i] == Statement.SUCCESS_NO_INFO) {
+                createdAssignments.add(acceptedAssignments.get(i));
+            } else {
+                rejectedAssignments.add(rejectAssignment(acceptedAssignments.get(i), "Doctor is already assigned to this facility."));
+            }
+        }
+        doctorAssignmentCacheEvictor.evict(
+                createdAssignments.stream().map(DoctorAssignmentDTO::getDoctorId).distinct().toList(),
+                createdAssignments.stream().map(DoctorAssignmentDTO::getMedicalFacilityId).distinct().toList());
+        return DoctorAssignmentSummaryDTO.builder()
+                .createdCount(createdAssignments.size())
+                .rejectedCount(rejectedAssignments.size())
+                .rejectedAssignments(rejectedAssignments)
+                .build();
+    }
+
+    private RejectedDoctorAssignmentDTO rejectAssignment(DoctorAssignmentDTO assignment, String reason) {
+        return RejectedDoctorAssignmentDTO.builder()
+                .doctorId(assignment == null ? null : assignment.getDoctorId())
+                .medicalFacilityId(assignment == null ? null : assignment.getMedicalFacilityId())
+                .reason(reason)
+                .build();
+    }
 }
@@ -1,11 +1,26 @@
 package com.kustlik.medicalclinic.service;
 
 import com.kustlik.medicalclinic.model.entity.MedicalFacility;
-import org.springframework.data.domain.Page;
+import com.kustlik.medicalclinic.model.cursor.IdCursor;
+import com.kustlik.medicalclinic.model.fields.FieldSelection;
+import com.kustlik.medicalclinic.model.projection.MedicalFacilitySummary;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 public interface MedicalFacilityService {
-    Page<MedicalFacility> getMedicalFacilities(Pageable pageable);
+    Slice<MedicalFacilitySummary> getMedicalFacilities(Pageable pageable);
+
+    Slice<Map<String, Object>> getMedicalFacilityFields(FieldSelection fields, Pageable pageable);
+
+    long countMedicalFacilities();
+
+    Slice<MedicalFacilitySummary> getMedicalFacilities(IdCursor after, int size);
+
+    Map<Long, List<Long>> getDoctorIds(Collection<Long> medicalFacilityIDs);
 
     MedicalFacility getMedicalFacility(Long id);
 
@@ -1,17 +1,30 @@
 package com.kustlik.medicalclinic.service;
 
+import com.kustlik.medicalclinic.model.cursor.CursorPaging;
+import com.kustlik.medicalclinic.model.cursor.IdCursor;
 import com.kustlik.medicalclinic.model.entity.Doctor;
 import com.kustlik.medicalclinic.model.entity.MedicalFacility;
+import com.kustlik.medicalclinic.model.fields.FieldSelection;
+import com.kustlik.medicalclinic.model.projection.MedicalFacilitySummary;
+import com.kustlik.medicalclinic.model.projection.OwnedId;
 import com.kustlik.medicalclinic.repository.DoctorRepository;
 import com.kustlik.medicalclinic.repository.MedicalFacilityRepository;
+import com.kustlik.medicalclinic.service.cache.DoctorAssignmentCacheEvictor;
+import com.kustlik.medicalclinic.service.count.CountCache;
+import com.kustlik.medicalclinic.service.fields.SparseFieldReader;
+import com.kustlik.medicalclinic.service.paging.StablePageable;
 import com.kustlik.medicalclinic.service.validator.DoctorValidator;
 import com.kustlik.medicalclinic.service.validator.MedicalFacilityValidator;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 @Service
 @RequiredArgsConstructor
 public class MedicalFacilityServiceImpl implements MedicalFacilityService {
@@ -19,9 +32,36 @@ public class MedicalFacilityServiceImpl implements MedicalFacilityService {
     private final MedicalFacilityValidator medicalFacilityValidator;
     private final DoctorRepository doctorRepository;
     private final DoctorValidator doctorValidator;
+    private final CountCache countCache;
+    private final SparseFieldReader sparseFieldReader;
+    private final DoctorAssignmentCacheEvictor doctorAssignmentCacheEvictor;
+
+    public Slice<MedicalFacilitySummary> getMedicalFacilities(Pageable pageable) {
+        return medicalFacilityRepository.findSummariesBy(StablePageable.of(pageable));
+    }
+
+    public Slice<Map<String, Object>> getMedicalFacilityFields(FieldSelection fields, Pageable pageable) {
+        Slice<Map<String, Object>> rows = sparseFieldReader.read(MedicalFacility.class, fields, null, pageable);
+        Map<String, Map<Long, List<Long>>> associations = fields.contains("doctorIds")
+                ? Map.of("doctorIds", getDoctorIds(rows.map(row -> (Long) row.get("id")).toList()))
+                : Map.of();
+        return rows.map(row -> fields.select(row, associations));
+    }
+
+    public long countMedicalFacilities() {
+        return countCache.count("medicalFacility", medicalFacilityRepository::count);
+    }
+
+    public Slice<MedicalFacilitySummary> getMedicalFacilities(IdCursor after, int size) {
+        IdCursor position = after == null ? IdCursor.first() : after;
+        return medicalFacilityRepository.findSummariesByIdGreaterThanOrderByIdAsc(position.getId(), CursorPaging.firstPage(size));
+    }
 
-    public Page<MedicalFacility> getMedicalFacilities(Pageable pageable) {
-        return medicalFacilityRepository.findAll(pageable);
+    public Map<Long, List<Long>> getDoctorIds(Collection<Long> medicalFacilityIDs) {
+        if (medicalFacilityIDs.isEmpty()) {
+            return Map.of();
+        }
+        return OwnedId.groupByOwner(medicalFacilityRepository.findDoctorIdsByMedicalFacilityIds(medicalFacilityIDs));
     }
 
     public MedicalFacility getMedicalFacility(Long id) {
@@ -40,6 +80,7 @@ public class MedicalFacilityServiceImpl implements MedicalFacilityService {
         Doctor doctor = doctorValidator.doctorExists(doctorID);
         doctorValidator.validateDoctorToMedicalFacilityAssignment(doctor, medicalFacility);
         doctor.getMedicalFacilities().add(medicalFacility);
+        doctorAssignmentCacheEvictor.evict(doctorID, medicalFacilityID);
         doctorRepository.save(doctor);
         return medicalFacility;
     }
@@ -1,11 +1,31 @@
 package com.kustlik.medicalclinic.service;
 
 import com.kustlik.medicalclinic.model.entity.Patient;
-import org.springframework.data.domain.Page;
+import com.kustlik.medicalclinic.model.cursor.IdCursor;
+import com.kustlik.medicalclinic.model.dto.patient.PatientImportErrorDTO;
+import com.kustlik.medicalclinic.model.fields.FieldSelection;
+import com.kustlik.medicalclinic.model.projection.PatientSummary;
+import com.kustlik.medicalclinic.service.imports.PatientImportRow;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 public interface PatientService {
-    Page<Patient> getPatients(Pageable pageable);
+    Slice<PatientSummary> getPatients(Pageable pageable);
+
+    Slice<PatientSummary> getPatientsWithVisits(LocalDate from, LocalDate to, Pageable pageable);
+
+    Slice<Map<String, Object>> getPatientFields(FieldSelection fields, Pageable pageable);
+
+    long countPatients();
+
+    Slice<PatientSummary> getPatients(IdCursor after, int size);
+
+    Map<Long, List<Long>> getVisitIds(Collection<Long> patientIDs);
 
     Patient getPatient(String email);
 
@@ -18,4 +38,6 @@ public interface PatientService {
     Patient editPatient(String email, Patient newPatientData);
 
     void editPatientPassword(String email, Patient password);
+
+    List<PatientImportErrorDTO> importPatients(List<PatientImportRow> rows);
 }
@@ -1,22 +1,81 @@
 package com.kustlik.medicalclinic.service;
 
+import com.kustlik.medicalclinic.exception.EmptyFieldException;
+import com.kustlik.medicalclinic.exception.PatientExistsException;
+import com.kustlik.medicalclinic.model.cursor.CursorPaging;
+import com.kustlik.medicalclinic.model.cursor.IdCursor;
+import com.kustlik.medicalclinic.model.dto.patient.PatientImportErrorDTO;
+import com.kustlik.medicalclinic.model.email.EmailNormalizer;
 import com.kustlik.medicalclinic.model.entity.Patient;
+import com.kustlik.medicalclinic.model.fields.FieldSelection;
+import com.kustlik.medicalclinic.model.projection.OwnedId;
+import com.kustlik.medicalclinic.model.projection.PatientSummary;
 import com.kustlik.medicalclinic.repository.PatientRepository;
+import com.kustlik.medicalclinic.repository.VisitRepository;
+import com.kustlik.medicalclinic.service.count.CountCache;
+import com.kustlik.medicalclinic.service.fields.SparseFieldReader;
+import com.kustlik.medicalclinic.service.filter.PatientEmailFilter;
+import com.kustlik.medicalclinic.service.imports.PatientImportRow;
+import com.kustlik.medicalclinic.service.paging.StablePageable;
 import com.kustlik.medicalclinic.service.validator.PatientValidator;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
 @Service
 @RequiredArgsConstructor
 public class PatientServiceImpl implements PatientService {
+    private static final Set<String> SUMMARY_PROPERTIES = Set.of("id", "email", "firstName", "lastName", "birthday");
     private final PatientRepository patientRepository;
+    private final VisitRepository visitRepository;
     private final PatientValidator patientValidator;
+    private final CountCache countCache;
+    private final SparseFieldReader sparseFieldReader;
+    private final PatientEmailFilter patientEmailFilter;
+
+    public Slice<PatientSummary> getPatients(Pageable pageable) {
+        return patientRepository.findSummariesBy(StablePageable.of(pageable));
+    }
+
+    public Slice<PatientSummary> getPatientsWithVisits(LocalDate from, LocalDate to, Pageable pageable) {
+        return patientRepository.findSummariesWithVisitsBetween(from.atStartOfDay(), to.plusDays(1).atStartOfDay(), StablePageable.of(pageable, SUMMARY_PROPERTIES));
+    }
+
+    public Slice<Map<String, Object>> getPatientFields(FieldSelection fields, Pageable pageable) {
+        Slice<Map<String, Object>> rows = sparseFieldReader.read(Patient.class, fields, null, pageable);
+        Map<String, Map<Long, List<Long>>> associations = fields.contains("visitIds")
+                ? Map.of("visitIds", getVisitIds(rows.map(row -> (Long) row.get("id")).toList()))
+                : Map.of();
+        return rows.map(row -> fields.select(row, associations));
+    }
+
+    public long countPatients() {
+        return countCache.count("patient", patientRepository::count);
+    }
+
+    public Slice<PatientSummary> getPatients(IdCursor after, int size) {
+        IdCursor position = after == null ? IdCursor.first() : after;
+        return patientRepository.findSummariesByIdGreaterThanOrderByIdAsc(position.getId(), CursorPaging.firstPage(size));
+    }
 
-    public Page<Patient> getPatients(Pageable pageable) {
-        return patientRepository.findAll(pageable);
+    public Map<Long, List<Long>> getVisitIds(Collection<Long> patientIDs) {
+        if (patientIDs.isEmpty()) {
+            return Map.of();
+        }
+        return OwnedId.groupByOwner(visitRepository.findIdsByPatientIds(patientIDs));
     }
 
     public Patient getPatient(String email) {
@@ -30,7 +89,9 @@ public class PatientServiceImpl implements PatientService {
     @Transactional
     public Patient createPatient(Patient patient) {
         patientValidator.validatePatientCreation(patient);
-        return patientRepository.save(patient);
+        Patient createdPatient = patientRepository.save(patient);
+        patientEmailFilter.register(createdPatient.getEmail());
+        return createdPatient;
     }
 
     @Transactional
@@ -45,6 +106,7 @@ public class PatientServiceImpl implements PatientService {
         patientValidator.validateEditPatientData(email, newPatientData);
         toEdit.update(newPatientData);
         patientRepository.save(toEdit);
+        patientEmailFilter.register(toEdit.getEmail());
         return toEdit;
     }
 
@@ -55,4 +117,82 @@ public class PatientServiceImpl implements PatientService {
         toEdit.setPassword(newPatientData.getPassword());
         patientRepository.save(toEdit);
     }
+
+    @Transactional
+    public List<PatientImportErrorDTO> importPatients(List<PatientImportRow> rows) {
+        List<Patient> patients = rows.stream()
+                .map(PatientImportRow::getPatient)
+                .filter(Objects::nonNull)
+                .toList();
+        Set<String> normalizedEmails = new HashSet<>(patientValidator.patientEmailsExist(patients.stream()
+                .map(Patient::getEmail)
+                .toList()));
+        Set<String> idCardNos = new HashSet<>(patientValidator.patientIdCardNosExist(patients.stream()
+                .map(Patient::getIdCardNo)
+                .toList()));
+        List<PatientImportRow> acceptedRows = new ArrayList<>();
+        List<PatientImportErrorDTO> rejectedRows = new ArrayList<>();
+        for (PatientImportRow row : rows) {
+            if (row.getPatient() == null) {
+                rejectedRows.add(rejectRow(row, row.getError()));
+                continue;
+            }
+            try {
+                patientValidator.validatePatientImport(row.getPatient(), normalizedEmails, idCardNos);
+                normalizedEmails.add(EmailNormalizer.normalize(row.getPatient().getEmail()));
+                idCardNos.add(row.getPatient().getIdCardNo());
+                acceptedRows.add(row);
+            } catch (EmptyFieldException | PatientExistsException ex) {
+                rejectedRows.add(rejectRow(row, ex.getMessage()));
+            }
+        }
+        int[] insertedRows = acceptedRows.isEmpty() ? new int[0] : patientRepository.insertAll(acceptedRows.stream()
+                .map(PatientImportRow::getPatient)
+                .toList());
+        List<PatientImportRow> racedRows = new ArrayList<>();
+        for (int i = 0; i < insertedRows.length; i++) {
+            PatientImportRow row = acceptedRows.get(i);
+            if (insertedRows[i] > 0 || insertedRows[i] == Statement.SUCCESS_NO_INFO) {
+                patientEmailFilter.register(row.getPatient().getEmail());
+            } else {
+                racedRows.add(row);
+            }
+        }
+        rejectedRows.addAll(rejectRacedRows(racedRows));
+        rejectedRows.sort(Comparator.comparingLong(PatientImportErrorDTO::getLine));
+        return rejectedRows;
+    }
+
+    private List<PatientImportErrorDTO> rejectRacedRows(List<PatientImportRow> racedRows) {
+        if (racedRows.isEmpty()) {
+            return List.of();
+        }
+        Set<String> takenEmails = patientValidator.patientEmailsExist(racedRows.stream()
+                .map(row -> row.getPatient().getEmail())
+                .toList());
+        Set<String> takenIdCardNos = patientValidator.patientIdCardNosExist(racedRows.stream()
+                .map(row -> row.getPatient().getIdCardNo())
+                .toList());
+        return racedRows.stream()
+                .map(row -> rejectRow(row, conflictReason(row.getPatient(), takenEmails, takenIdCardNos)))
+                .toList();
+    }
+
+    private static String conflictReason(Patient patient, Set<String> takenEmails, Set<String> takenIdCardNos) {
+        // The email lookup goes through the email filter, which misses patients inserted outside this service,
+        // so a violation not explained by the ID card number is the email.
+        if (!takenEmails.contains(EmailNormalizer.normalize(patient.getEmail()))
+                && takenIdCardNos.contains(patient.getIdCardNo())) {
+            return "Patient with given ID card number exists.";
+        }
+        return "Patient with given email exists.";
+    }
+
+    private PatientImportErrorDTO rejectRow(PatientImportRow row, String reason) {
+        return PatientImportErrorDTO.builder()
+                .line(row.getLine())
+                .email(row.getPatient() == null ? null : row.getPatient().getEmail())
+                .reason(reason)
+                .build();
+    }
 }
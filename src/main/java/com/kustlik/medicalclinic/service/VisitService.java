@@ -1,18 +1,37 @@
 package com.kustlik.medicalclinic.service;
 
+import com.kustlik.medicalclinic.model.cursor.VisitCursor;
+import com.kustlik.medicalclinic.model.dto.visit.VisitScheduleDTO;
+import com.kustlik.medicalclinic.model.dto.visit.VisitScheduleSummaryDTO;
 import com.kustlik.medicalclinic.model.entity.Visit;
-import org.springframework.data.domain.Page;
+import com.kustlik.medicalclinic.model.entity.WaitlistEntry;
+import com.kustlik.medicalclinic.model.fields.FieldSelection;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 public interface VisitService {
-    Page<Visit> getVisits(Pageable pageable);
+    Slice<Visit> getVisits(Pageable pageable);
 
-    Page<Visit> getVisits(Pageable pageable, LocalDate localDate);
+    Slice<Visit> getFreeVisits(Pageable pageable);
 
-    Page<Visit> getFreeVisits(Pageable pageable);
+    Slice<Map<String, Object>> getVisitFields(FieldSelection fields, Pageable pageable);
+
+    Slice<Map<String, Object>> getFreeVisitFields(FieldSelection fields, Pageable pageable);
+
+    long countVisits();
+
+    long countFreeVisits();
+
+    long countPatientsWithVisits(LocalDate visitDate);
+
+    Slice<Visit> getVisits(VisitCursor after, int size);
+
+    Slice<Visit> getFreeVisits(VisitCursor after, int size);
 
     List<Visit> getVisitsByDoctor(Long doctorID);
 
@@ -20,7 +39,15 @@ public interface VisitService {
 
     List<Visit> getVisitsByPatient(Long patientID);
 
+    Slice<Visit> searchFreeVisits(String specialisation, String city, LocalDateTime from, LocalDateTime to, VisitCursor after, int size);
+
     Visit createVisit(Visit visit, Long doctorID);
 
+    VisitScheduleSummaryDTO createVisitSchedule(VisitScheduleDTO schedule, Long doctorID);
+
     Visit assignVisitToPatient(Long visitID, Long patientID);
+
+    Visit cancelVisit(Long visitID, Long patientID);
+
+    WaitlistEntry joinWaitlist(Long doctorID, Long patientID, LocalDate visitDate);
 }
@@ -1,43 +1,104 @@
 package com.kustlik.medicalclinic.service;
 
 import com.kustlik.medicalclinic.exception.DoctorDoesNotExistException;
+import com.kustlik.medicalclinic.exception.EmptyFieldException;
+import com.kustlik.medicalclinic.exception.InvalidDateTimeException;
 import com.kustlik.medicalclinic.exception.PatientDoesNotExistException;
+import com.kustlik.medicalclinic.exception.VisitAlreadyBookedException;
+import com.kustlik.medicalclinic.exception.VisitExistsException;
+import com.kustlik.medicalclinic.exception.VisitNotBookedException;
+import com.kustlik.medicalclinic.exception.WaitlistEntryExistsException;
+import com.kustlik.medicalclinic.model.cursor.CursorPaging;
+import com.kustlik.medicalclinic.model.cursor.VisitCursor;
+import com.kustlik.medicalclinic.model.dto.visit.RejectedVisitDTO;
+import com.kustlik.medicalclinic.model.dto.visit.VisitScheduleDTO;
+import com.kustlik.medicalclinic.model.dto.visit.VisitScheduleSummaryDTO;
 import com.kustlik.medicalclinic.model.entity.Visit;
+import com.kustlik.medicalclinic.model.entity.WaitlistEntry;
+import com.kustlik.medicalclinic.model.fields.FieldSelection;
 import com.kustlik.medicalclinic.repository.DoctorRepository;
 import com.kustlik.medicalclinic.repository.PatientRepository;
 import com.kustlik.medicalclinic.repository.VisitRepository;
+import com.kustlik.medicalclinic.service.count.CountCache;
+import com.kustlik.medicalclinic.service.fields.SparseFieldReader;
+import com.kustlik.medicalclinic.service.index.VisitIntervalIndex;
+import com.kustlik.medicalclinic.service.lock.DoctorScheduleLock;
+import com.kustlik.medicalclinic.service.paging.StablePageable;
 import com.kustlik.medicalclinic.service.validator.VisitValidator;
+import com.kustlik.medicalclinic.service.waitlist.VisitWaitlist;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class VisitServiceImpl implements VisitService {
+    public final static int DEFAULT_SEARCH_WINDOW_IN_DAYS = 30;
+    public final static int MAX_SEARCH_PAGE_SIZE = 100;
     private final DoctorRepository doctorRepository;
     private final PatientRepository patientRepository;
     private final VisitRepository visitRepository;
     private final VisitValidator visitValidator;
+    private final VisitIntervalIndex visitIntervalIndex;
+    private final DoctorScheduleLock doctorScheduleLock;
+    private final VisitWaitlist visitWaitlist;
+    private final CountCache countCache;
+    private final SparseFieldReader sparseFieldReader;
 
-    public Page<Visit> getVisits(Pageable pageable) {
-        return visitRepository.findAll(pageable);
+    public Slice<Visit> getVisits(Pageable pageable) {
+        return visitRepository.findAllBy(StablePageable.of(pageable));
     }
 
-    public Page<Visit> getVisits(Pageable pageable, LocalDate visitDate) {
-        LocalDateTime startDate = visitDate.atStartOfDay();
-        LocalDateTime endDate = visitDate.plusDays(1).atStartOfDay();
-        return visitRepository.findByPatientIdIsNotNullAndAppointmentStartGreaterThanEqualAndAppointmentStartLessThan
-                (pageable, startDate, endDate);
+    public Slice<Visit> getFreeVisits(Pageable pageable) {
+        return visitRepository.findByPatientIdIsNull(StablePageable.of(pageable));
     }
 
-    public Page<Visit> getFreeVisits(Pageable pageable) {
-        return visitRepository.findByPatientIdIsNull(pageable);
+    public Slice<Map<String, Object>> getVisitFields(FieldSelection fields, Pageable pageable) {
+        return sparseFieldReader.read(Visit.class, fields, null, pageable)
+                .map(row -> fields.select(row, Map.of()));
+    }
+
+    public Slice<Map<String, Object>> getFreeVisitFields(FieldSelection fields, Pageable pageable) {
+        return sparseFieldReader.read(Visit.class, fields,
+                        (root, query, builder) -> builder.isNull(root.get("patient")), pageable)
+                .map(row -> fields.select(row, Map.of()));
+    }
+
+    public long countVisits() {
+        return countCache.count("visit", visitRepository::count);
+    }
+
+    public long countFreeVisits() {
+        return countCache.count("visit:free", visitRepository::countByPatientIdIsNull);
+    }
+
+    public long countPatientsWithVisits(LocalDate visitDate) {
+        return countCache.count("visit:patients:" + visitDate, () -> visitRepository.countDistinctPatients(
+                visitDate.atStartOfDay(), visitDate.plusDays(1).atStartOfDay()));
+    }
+
+    public Slice<Visit> getVisits(VisitCursor after, int size) {
+        if (after == null) {
+            return visitRepository.findAllByOrderByAppointmentStartAscIdAsc(CursorPaging.firstPage(size));
+        }
+        return visitRepository.findAllAfter(after.getAppointmentStart(), after.getId(), CursorPaging.firstPage(size));
+    }
+
+    public Slice<Visit> getFreeVisits(VisitCursor after, int size) {
+        if (after == null) {
+            return visitRepository.findByPatientIdIsNullOrderByAppointmentStartAscIdAsc(CursorPaging.firstPage(size));
+        }
+        return visitRepository.findFreeAfter(after.getAppointmentStart(), after.getId(), CursorPaging.firstPage(size));
     }
 
     public List<Visit> getVisitsByDoctor(Long doctorID) {
@@ -52,14 +113,62 @@ public class VisitServiceImpl implements VisitService {
         return visitRepository.findByPatientId(patientID);
     }
 
+    public Slice<Visit> searchFreeVisits(String specialisation, String city, LocalDateTime from, LocalDateTime to, VisitCursor after, int size) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime windowStart = from == null || from.isBefore(now) ? now : from;
+        LocalDateTime windowEnd = to == null ? windowStart.plusDays(DEFAULT_SEARCH_WINDOW_IN_DAYS) : to;
+        visitValidator.validateFreeVisitSearch(specialisation, city, windowStart, windowEnd);
+        VisitCursor position = after == null || after.getAppointmentStart().isBefore(windowStart)
+                ? VisitCursor.before(windowStart) : after;
+        int pageSize = Math.min(Math.max(size, 1), MAX_SEARCH_PAGE_SIZE);
+        List<Visit> visits = visitRepository.findFreeBySpecialisationAndCity(
+                specialisation, city, position.getAppointmentStart(), position.getId(), windowEnd,
+                PageRequest.of(0, pageSize + 1));
+        boolean hasNext = visits.size() > pageSize;
+        return new SliceImpl<>(hasNext ? visits.subList(0, pageSize) : visits, PageRequest.of(0, pageSize), hasNext);
+    }
+
     @Transactional
     public Visit createVisit(Visit visit, Long doctorID) {
         var existingDoctor = doctorRepository.findById(doctorID);
         if (existingDoctor.isEmpty())
             throw new DoctorDoesNotExistException("Doctor with given ID does not exist.");
+        doctorScheduleLock.lockUntilCompletion(doctorID);
         visitValidator.validateVisitCreation(visit, doctorID);
         visit.setDoctor(existingDoctor.get());
-        return visitRepository.save(visit);
+        Visit createdVisit = visitRepository.save(visit);
+        visitIntervalIndex.register(doctorID, createdVisit.getAppointmentStart(), createdVisit.getAppointmentEnd());
+        return createdVisit;
+    }
+
+    @Transactional
+    public VisitScheduleSummaryDTO createVisitSchedule(VisitScheduleDTO schedule, Long doctorID) {
+        if (doctorRepository.findById(doctorID).isEmpty())
+            throw new DoctorDoesNotExistException("Doctor with given ID does not exist.");
+        visitValidator.validateVisitSchedule(schedule);
+        doctorScheduleLock.lockUntilCompletion(doctorID);
+        List<Visit> acceptedVisits = new ArrayList<>();
+        List<RejectedVisitDTO> rejectedVisits = new ArrayList<>();
+        for (Visit visit : generateScheduleSlots(schedule)) {
+            try {
+                visitValidator.validateVisitCreation(visit, doctorID);
+                acceptedVisits.add(visit);
+            } catch (EmptyFieldException | InvalidDateTimeException | VisitExistsException ex) {
+                rejectedVisits.add(RejectedVisitDTO.builder()
+                        .appointmentStart(visit.getAppointmentStart())
+                        .appointmentEnd(visit.getAppointmentEnd())
+                        .reason(ex.getMessage())
+                        .build());
+            }
+        }
+        visitRepository.insertAll(doctorID, acceptedVisits);
+        acceptedVisits.forEach(visit ->
+                visitIntervalIndex.register(doctorID, visit.getAppointmentStart(), visit.getAppointmentEnd()));
+        return VisitScheduleSummaryDTO.builder()
+                .createdCount(acceptedVisits.size())
+                .rejectedCount(rejectedVisits.size())
+                .rejectedVisits(rejectedVisits)
+                .build();
     }
 
     @Transactional
@@ -68,9 +177,73 @@ public class VisitServiceImpl implements VisitService {
         if (existingPatient.isEmpty()) {
             throw new PatientDoesNotExistException("Patient with given ID does not exist.");
         }
-        var existingVisit = visitValidator.visitExists(visitID);
-        visitValidator.validateVisitAssignment(existingVisit);
-        existingVisit.setPatient(existingPatient.get());
-        return visitRepository.save(existingVisit);
+        if (visitRepository.assignPatientIfFree(visitID, existingPatient.get(), LocalDateTime.now()) == 0) {
+            visitValidator.validateVisitAssignment(visitValidator.visitExists(visitID));
+            throw new VisitAlreadyBookedException("Visit is already booked by another patient.");
+        }
+        return visitValidator.visitExists(visitID);
+    }
+
+    @Transactional
+    public Visit cancelVisit(Long visitID, Long patientID) {
+        Visit visit = visitValidator.visitExists(visitID);
+        visitValidator.validateVisitCancellation(visit, patientID);
+        Long doctorID = visit.getDoctor().getId();
+        doctorScheduleLock.lockUntilCompletion(doctorID);
+        if (visitRepository.releasePatient(visitID, patientID, LocalDateTime.now()) == 0) {
+            throw new VisitNotBookedException("Visit is not booked by given patient.");
+        }
+        visitWaitlist.first(doctorID, visit.getAppointmentStart().toLocalDate()).ifPresent(entry -> {
+            if (visitRepository.assignPatientIfFree(visitID, entry.getPatient(), LocalDateTime.now()) > 0) {
+                visitWaitlist.leave(entry);
+            }
+        });
+        return visitValidator.visitExists(visitID);
+    }
+
+    @Transactional
+    public WaitlistEntry joinWaitlist(Long doctorID, Long patientID, LocalDate visitDate) {
+        var existingDoctor = doctorRepository.findById(doctorID);
+        if (existingDoctor.isEmpty())
+            throw new DoctorDoesNotExistException("Doctor with given ID does not exist.");
+        var existingPatient = patientRepository.findById(patientID);
+        if (existingPatient.isEmpty())
+            throw new PatientDoesNotExistException("Patient with given ID does not exist.");
+        WaitlistEntry waitlistEntry = WaitlistEntry.builder()
+                .doctor(existingDoctor.get())
+                .patient(existingPatient.get())
+                .visitDate(visitDate)
+                .createdAt(LocalDateTime.now())
+                .build();
+        visitValidator.validateWaitlistEntry(waitlistEntry);
+        doctorScheduleLock.lockUntilCompletion(doctorID);
+        if (visitWaitlist.contains(doctorID, patientID, visitDate))
+            throw new WaitlistEntryExistsException("Patient is already waiting for a visit on given day.");
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime dayStart = visitDate.atStartOfDay();
+        if (visitRepository.existsByDoctorIdAndPatientIdIsNullAndAppointmentStartGreaterThanEqualAndAppointmentStartLessThan
+                (doctorID, dayStart.isBefore(now) ? now : dayStart, visitDate.plusDays(1).atStartOfDay()))
+            throw new VisitExistsException("Doctor has free visits on given day, please book one of them.");
+        return visitWaitlist.join(waitlistEntry);
+    }
+
+    private List<Visit> generateScheduleSlots(VisitScheduleDTO schedule) {
+        List<Visit> slots = new ArrayList<>();
+        for (LocalDate date = schedule.getStartDate(); !date.isAfter(schedule.getEndDate()); date = date.plusDays(1)) {
+            if (!schedule.getDaysOfWeek().contains(date.getDayOfWeek()))
+                continue;
+            LocalDateTime dayEnd = date.atTime(schedule.getEndTime());
+            LocalDateTime slotStart = date.atTime(schedule.getStartTime());
+            LocalDateTime slotEnd = slotStart.plusMinutes(schedule.getSlotDurationInMinutes());
+            while (!slotEnd.isAfter(dayEnd)) {
+                slots.add(Visit.builder()
+                        .appointmentStart(slotStart)
+                        .appointmentEnd(slotEnd)
+                        .build());
+                slotStart = slotEnd;
+                slotEnd = slotStart.plusMinutes(schedule.getSlotDurationInMinutes());
+            }
+        }
+        return slots;
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,226 @@
+package com.kustlik.medicalclinic.service.billing;
+
+import com.kustlik.medicalclinic.model.dto.billing.BillingFailureDTO;
+import com.kustlik.medicalclinic.model.dto.billing.BillingSummaryDTO;
+import com.kustlik.medicalclinic.model.dto.billing.SchoolBillingTotalsDTO;
+import com.kustlik.medicalclinic.remote.client.SchoolClient;
+import com.kustlik.medicalclinic.remote.exception.BulkheadFullException;
+import com.kustlik.medicalclinic.remote.exception.CircuitBreakerOpenException;
+import com.kustlik.medicalclinic.remote.exception.ConnectionPoolExhaustedException;
+import com.kustlik.medicalclinic.remote.exception.InternalServerErrorException;
+import com.kustlik.medicalclinic.remote.exception.ServiceUnavailableException;
+import com.kustlik.medicalclinic.remote.model.dto.school.ChildAttendanceDto;
+import com.kustlik.medicalclinic.remote.model.dto.school.ChildReportDto;
+import com.kustlik.medicalclinic.remote.model.dto.school.ParentBillingReportDto;
+import feign.FeignException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+@Component
+public class SchoolBillingAggregator {
+    private final SchoolClient schoolClient;
+    private final Duration callTimeout;
+    private final ExecutorService executor;
+
+    public SchoolBillingAggregator(SchoolClient schoolClient,
+                                   @Value("${medical-clinic.school-billing.parallelism:16}") int parallelism,
+                                   @Value("${medical-clinic.school-billing.call-timeout:5s}") Duration callTimeout) {
+        this.schoolClient = schoolClient;
+        this.callTimeout = callTimeout;
+        this.executor = Executors.newFixedThreadPool(parallelism, threadFactory());
+    }
+
+    public BillingSummaryDTO aggregate(int year, int month, Map<Integer, List<Integer>> parentIdsBySchoolId) {
+        // Timed from submission, so calls queued behind the pool share the same deadline.
+        long deadline = System.nanoTime() + callTimeout.toNanos();
+        List<BillingCall> calls = new ArrayList<>();
+        parentIdsBySchoolId.forEach((schoolId, parentIds) -> parentIds.stream()
+                .distinct()
+                .forEach(parentId -> calls.add(new BillingCall(schoolId, parentId,
+                        executor.submit(() -> schoolClient.getSchoolBilling(schoolId, parentId, year, month))))));
+        Map<Integer, ParentSummary> parents = new TreeMap<>();
+        List<BillingFailureDTO> failures = new ArrayList<>();
+        try {
+            for (BillingCall call : calls) {
+                try {
+                    ParentBillingReportDto report = await(call.report(), deadline);
+                    if (report != null) {
+                        parents.computeIfAbsent(report.getParentId(), ParentSummary::new).add(report);
+                    }
+                } catch (TimeoutException e) {
+                    failures.add(failure(call, "Request timed out."));
+                } catch (ExecutionException e) {
+                    failures.add(failure(call, reason(e.getCause())));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } finally {
+            calls.forEach(call -> call.report().cancel(true));
+        }
+        List<ParentBillingReportDto> parentBillingReports = parents.values().stream()
+                .map(ParentSummary::toDto)
+                .toList();
+        return BillingSummaryDTO.builder()
+                .year(year)
+                .month(month)
+                .totalFees(parentBillingReports.stream().mapToDouble(ParentBillingReportDto::getTotalFees).sum())
+                .numberOfPaidHours(parentBillingReports.stream().mapToInt(ParentBillingReportDto::getNumberOfPaidHours).sum())
+                .parentBillingReports(parentBillingReports)
+                .failures(failures)
+                .build();
+    }
+
+    public SchoolBillingTotalsDTO summarizeSchool(int schoolId, int year, int month) {
+        SchoolTotals totals = new SchoolTotals();
+        try (Stream<ParentBillingReportDto> reports = schoolClient.streamSchoolBilling(schoolId, year, month)) {
+            reports.forEach(totals::add);
+        }
+        return SchoolBillingTotalsDTO.builder()
+                .schoolId(schoolId)
+                .year(year)
+                .month(month)
+                .numberOfParents(totals.numberOfParents)
+                .numberOfChildren(totals.numberOfChildren)
+                .numberOfPaidHours(totals.numberOfPaidHours)
+                .totalFees(totals.totalFees)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static <T> T await(Future<T> call, long deadline) throws InterruptedException, ExecutionException,
+            TimeoutException {
+        try {
+            return call.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            call.cancel(true);
+            throw e;
+        }
+    }
+
+    private static BillingFailureDTO failure(BillingCall call, String reason) {
+        return BillingFailureDTO.builder()
+                .schoolId(call.schoolId())
+                .parentId(call.parentId())
+                .reason(reason)
+                .build();
+    }
+
+    private static String reason(Throwable failure) {
+        if (failure instanceof InternalServerErrorException
+                || failure instanceof ServiceUnavailableException
+                || failure instanceof BulkheadFullException
+                || failure instanceof CircuitBreakerOpenException
+                || failure instanceof ConnectionPoolExhaustedException
+                || failure instanceof FeignException) {
+            return failure.getMessage();
+        }
+        if (failure instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        throw new CompletionException(failure);
+    }
+
+    private static ThreadFactory threadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "school-billing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record BillingCall(int schoolId, int parentId, Future<ParentBillingReportDto> report) {
+    }
+
+    private static class SchoolTotals {
+        private int numberOfParents;
+        private int numberOfChildren;
+        private int numberOfPaidHours;
+        private double totalFees;
+
+        private void add(ParentBillingReportDto report) {
+            numberOfParents++;
+            numberOfChildren += Objects.requireNonNullElse(report.getChildrenReport(), List.<ChildReportDto>of()).size();
+            numberOfPaidHours += report.getNumberOfPaidHours();
+            totalFees += report.getTotalFees();
+        }
+    }
+
+    private static class ParentSummary {
+        private final int parentId;
+        private final Map<Integer, ChildSummary> children = new LinkedHashMap<>();
+        private double totalFees;
+        private int numberOfPaidHours;
+
+        private ParentSummary(int parentId) {
+            this.parentId = parentId;
+        }
+
+        private void add(ParentBillingReportDto report) {
+            totalFees += report.getTotalFees();
+            numberOfPaidHours += report.getNumberOfPaidHours();
+            Objects.requireNonNullElse(report.getChildrenReport(), List.<ChildReportDto>of())
+                    .forEach(child -> children.computeIfAbsent(child.getChildId(), id -> new ChildSummary(child))
+                            .add(child));
+        }
+
+        private ParentBillingReportDto toDto() {
+            return ParentBillingReportDto.builder()
+                    .parentId(parentId)
+                    .totalFees(totalFees)
+                    .numberOfPaidHours(numberOfPaidHours)
+                    .childrenReport(children.values().stream().map(ChildSummary::toDto).toList())
+                    .build();
+        }
+    }
+
+    private static class ChildSummary {
+        private final ChildReportDto first;
+        private final List<ChildAttendanceDto> attendances = new ArrayList<>();
+        private int numberOfPaidHours;
+
+        private ChildSummary(ChildReportDto first) {
+            this.first = first;
+        }
+
+        private void add(ChildReportDto child) {
+            numberOfPaidHours += child.getNumberOfPaidHours();
+            attendances.addAll(Objects.requireNonNullElse(child.getAttendances(), List.of()));
+        }
+
+        private ChildReportDto toDto() {
+            return ChildReportDto.builder()
+                    .childId(first.getChildId())
+                    .firstName(first.getFirstName())
+                    .lastName(first.getLastName())
+                    .attendances(List.copyOf(attendances))
+                    .numberOfPaidHours(numberOfPaidHours)
+                    .build();
+        }
+    }
+}
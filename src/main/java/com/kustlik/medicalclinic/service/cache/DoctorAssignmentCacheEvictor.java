@@ -0,0 +1,47 @@
+package com.kustlik.medicalclinic.service.cache;
+
+import com.kustlik.medicalclinic.model.entity.Doctor;
+import com.kustlik.medicalclinic.model.entity.MedicalFacility;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+
+@Component
+public class DoctorAssignmentCacheEvictor {
+    private static final String DOCTOR_MEDICAL_FACILITIES = Doctor.class.getName() + ".medicalFacilities";
+    private static final String MEDICAL_FACILITY_DOCTORS = MedicalFacility.class.getName() + ".doctors";
+    private final Cache cache;
+
+    public DoctorAssignmentCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    public void evict(Long doctorID, Long medicalFacilityID) {
+        evict(List.of(doctorID), List.of(medicalFacilityID));
+    }
+
+    public void evict(Collection<Long> doctorIDs, Collection<Long> medicalFacilityIDs) {
+        List<Long> doctors = List.copyOf(doctorIDs);
+        List<Long> medicalFacilities = List.copyOf(medicalFacilityIDs);
+        evictNow(doctors, medicalFacilities);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(doctors, medicalFacilities);
+                }
+            });
+        }
+    }
+
+    private void evictNow(Collection<Long> doctorIDs, Collection<Long> medicalFacilityIDs) {
+        doctorIDs.forEach(id -> cache.evictCollectionData(DOCTOR_MEDICAL_FACILITIES, id));
+        medicalFacilityIDs.forEach(id -> cache.evictCollectionData(MEDICAL_FACILITY_DOCTORS, id));
+    }
+}
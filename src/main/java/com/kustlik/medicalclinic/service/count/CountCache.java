@@ -0,0 +1,61 @@
+package com.kustlik.medicalclinic.service.count;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+@Component
+public class CountCache {
+    private final long ttlInNanos;
+    private final int maximumSize;
+    private final Map<String, CachedCount> counts = new ConcurrentHashMap<>();
+
+    public CountCache(@Value("${medical-clinic.count-cache.ttl:5s}") Duration ttl,
+                      @Value("${medical-clinic.count-cache.maximum-size:1000}") int maximumSize) {
+        this.ttlInNanos = ttl.toNanos();
+        this.maximumSize = maximumSize;
+    }
+
+    public long count(String key, LongSupplier counter) {
+        CachedCount cached = counts.get(key);
+        if (cached != null && !cached.isExpired(System.nanoTime())) {
+            return cached.value;
+        }
+        long value = counter.getAsLong();
+        long now = System.nanoTime();
+        if (counts.size() >= maximumSize) {
+            counts.values().removeIf(count -> count.isExpired(now));
+        }
+        if (counts.containsKey(key) || counts.size() < maximumSize) {
+            counts.merge(key, new CachedCount(value, now + ttlInNanos),
+                    (current, fresh) -> current.expiresAt - fresh.expiresAt > 0 ? current : fresh);
+        }
+        return value;
+    }
+
+    int size() {
+        return counts.size();
+    }
+
+    public void invalidateAll() {
+        counts.clear();
+    }
+
+    private static class CachedCount {
+        private final long value;
+        private final long expiresAt;
+
+        private CachedCount(long value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
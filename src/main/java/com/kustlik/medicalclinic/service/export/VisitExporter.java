@@ -0,0 +1,44 @@
+package com.kustlik.medicalclinic.service.export;
+
+import com.kustlik.medicalclinic.model.entity.Visit;
+import com.kustlik.medicalclinic.model.filter.VisitExportFilter;
+import com.kustlik.medicalclinic.repository.VisitRepository;
+import com.kustlik.medicalclinic.service.validator.VisitValidator;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Component
+@RequiredArgsConstructor
+public class VisitExporter {
+    public final static int CLEAR_INTERVAL = 1000;
+    private final VisitRepository visitRepository;
+    private final VisitValidator visitValidator;
+    private final EntityManager entityManager;
+
+    public void validate(VisitExportFilter filter) {
+        visitValidator.validateVisitExport(filter);
+    }
+
+    @Transactional
+    public long export(VisitExportFilter filter, Consumer<Visit> consumer) {
+        validate(filter);
+        long exported = 0;
+        try (Stream<Visit> visits = visitRepository.streamForExport(
+                filter.getDoctorId(), filter.getPatientId(), filter.getFrom(), filter.getTo())) {
+            Iterator<Visit> iterator = visits.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                if (++exported % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return exported;
+    }
+}
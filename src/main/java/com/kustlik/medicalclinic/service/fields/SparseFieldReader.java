@@ -0,0 +1,84 @@
+package com.kustlik.medicalclinic.service.fields;
+
+import com.kustlik.medicalclinic.model.fields.FieldSelection;
+import com.kustlik.medicalclinic.model.fields.ResourceFields;
+import com.kustlik.medicalclinic.service.paging.StablePageable;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+public class SparseFieldReader {
+    private final EntityManager entityManager;
+
+    public <T> Slice<Map<String, Object>> read(Class<T> entity, FieldSelection fields, Specification<T> filter, Pageable requested) {
+        ResourceFields resource = fields.getResource();
+        Pageable pageable = StablePageable.of(requested, resource.getSortableFields());
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<T> root = query.from(entity);
+        Map<String, String> columns = fields.getColumns();
+        List<Selection<?>> selections = new ArrayList<>();
+        columns.forEach((field, path) -> selections.add(path(root, path).alias(field)));
+        query.multiselect(selections);
+        if (filter != null) {
+            query.where(filter.toPredicate(root, query, builder));
+        }
+        query.orderBy(pageable.getSort().isSorted()
+                ? orders(pageable.getSort(), resource, root, builder)
+                : List.of(builder.asc(root.get(ResourceFields.ID))));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize() + 1);
+        }
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : typedQuery.getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            columns.keySet().forEach(field -> row.put(field, tuple.get(field)));
+            rows.add(row);
+        }
+        boolean hasNext = pageable.isPaged() && rows.size() > pageable.getPageSize();
+        if (hasNext) {
+            rows.remove(rows.size() - 1);
+        }
+        return new SliceImpl<>(rows, pageable, hasNext);
+    }
+
+    private static List<Order> orders(Sort sort, ResourceFields resource, Root<?> root, CriteriaBuilder builder) {
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Path<Object> path = path(root, resource.pathOf(order.getProperty()));
+            orders.add(order.isAscending() ? builder.asc(path) : builder.desc(path));
+        }
+        return orders;
+    }
+
+    private static Path<Object> path(Root<?> root, String path) {
+        Path<Object> current = null;
+        for (String attribute : path.split("\\.")) {
+            current = current == null ? root.get(attribute) : current.get(attribute);
+        }
+        return current;
+    }
+}
@@ -0,0 +1,56 @@
+package com.kustlik.medicalclinic.service.filter;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class BloomFilter {
+    private static final double LN_2 = Math.log(2);
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashFunctionCount;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long expected = Math.max(1, expectedInsertions);
+        long optimalBitCount = (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (LN_2 * LN_2));
+        this.words = new AtomicLongArray(Math.toIntExact(Math.max(1, (optimalBitCount + 63) / 64)));
+        this.bitCount = words.length() * 64L;
+        this.hashFunctionCount = Math.max(1, (int) Math.round((double) bitCount / expected * LN_2));
+    }
+
+    public void put(String value) {
+        long hash = hash(value);
+        int firstHash = (int) hash;
+        int secondHash = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctionCount; i++) {
+            long bit = Math.floorMod(firstHash + (long) i * secondHash, bitCount);
+            long mask = 1L << bit;
+            words.getAndUpdate((int) (bit >>> 6), word -> word | mask);
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        int firstHash = (int) hash;
+        int secondHash = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctionCount; i++) {
+            long bit = Math.floorMod(firstHash + (long) i * secondHash, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
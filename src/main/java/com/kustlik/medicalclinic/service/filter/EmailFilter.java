@@ -0,0 +1,51 @@
+package com.kustlik.medicalclinic.service.filter;
+
+import com.kustlik.medicalclinic.model.email.EmailNormalizer;
+
+import java.util.stream.Stream;
+
+public abstract class EmailFilter {
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private volatile BloomFilter emails;
+    private volatile BloomFilter rebuilding;
+
+    protected EmailFilter(long expectedInsertions, double falsePositiveRate) {
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public boolean mightExist(String email) {
+        BloomFilter current = emails;
+        return email == null || current == null || current.mightContain(EmailNormalizer.normalize(email));
+    }
+
+    public void register(String email) {
+        if (email == null) {
+            return;
+        }
+        String normalizedEmail = EmailNormalizer.normalize(email);
+        BloomFilter current = emails;
+        BloomFilter next = rebuilding;
+        if (current != null) {
+            current.put(normalizedEmail);
+        }
+        if (next != null) {
+            next.put(normalizedEmail);
+        }
+    }
+
+    public synchronized void rebuild() {
+        BloomFilter next = new BloomFilter(Math.max(expectedInsertions, 2 * countEmails()), falsePositiveRate);
+        rebuilding = next;
+        try (Stream<String> existingEmails = streamEmails()) {
+            existingEmails.forEach(next::put);
+        }
+        emails = next;
+        rebuilding = null;
+    }
+
+    protected abstract long countEmails();
+
+    protected abstract Stream<String> streamEmails();
+}
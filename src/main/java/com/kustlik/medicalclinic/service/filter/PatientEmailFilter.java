@@ -0,0 +1,39 @@
+package com.kustlik.medicalclinic.service.filter;
+
+import com.kustlik.medicalclinic.repository.PatientRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+@Component
+public class PatientEmailFilter extends EmailFilter {
+    private final PatientRepository patientRepository;
+
+    public PatientEmailFilter(PatientRepository patientRepository,
+                              @Value("${medical-clinic.email-filter.expected-insertions:100000}") long expectedInsertions,
+                              @Value("${medical-clinic.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        super(expectedInsertions, falsePositiveRate);
+        this.patientRepository = patientRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        super.rebuild();
+    }
+
+    @Override
+    protected long countEmails() {
+        return patientRepository.count();
+    }
+
+    @Override
+    protected Stream<String> streamEmails() {
+        return patientRepository.streamAllNormalizedEmails();
+    }
+}
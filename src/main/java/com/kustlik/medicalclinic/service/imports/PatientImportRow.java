@@ -0,0 +1,22 @@
+package com.kustlik.medicalclinic.service.imports;
+
+import com.kustlik.medicalclinic.model.entity.Patient;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class PatientImportRow {
+    private final long line;
+    private final Patient patient;
+    private final String error;
+
+    public static PatientImportRow of(long line, Patient patient) {
+        return new PatientImportRow(line, patient, null);
+    }
+
+    public static PatientImportRow malformed(long line) {
+        return new PatientImportRow(line, null, "Malformed record.");
+    }
+}
@@ -0,0 +1,44 @@
+package com.kustlik.medicalclinic.service.imports;
+
+import com.kustlik.medicalclinic.model.dto.patient.PatientImportErrorDTO;
+import com.kustlik.medicalclinic.model.dto.patient.PatientImportSummaryDTO;
+import com.kustlik.medicalclinic.service.PatientService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Component
+public class PatientImporter {
+    private final PatientService patientService;
+    private final int chunkSize;
+
+    public PatientImporter(PatientService patientService,
+                           @Value("${medical-clinic.patient-import.chunk-size:1000}") int chunkSize) {
+        this.patientService = patientService;
+        this.chunkSize = chunkSize;
+    }
+
+    public PatientImportSummaryDTO importPatients(Iterator<PatientImportRow> rows, Consumer<List<PatientImportErrorDTO>> chunkErrorsConsumer) {
+        long importedCount = 0;
+        long rejectedCount = 0;
+        List<PatientImportRow> chunk = new ArrayList<>(chunkSize);
+        while (rows.hasNext()) {
+            chunk.add(rows.next());
+            if (chunk.size() == chunkSize || !rows.hasNext()) {
+                List<PatientImportErrorDTO> errors = patientService.importPatients(chunk);
+                chunkErrorsConsumer.accept(errors);
+                importedCount += chunk.size() - errors.size();
+                rejectedCount += errors.size();
+                chunk.clear();
+            }
+        }
+        return PatientImportSummaryDTO.builder()
+                .importedCount(importedCount)
+                .rejectedCount(rejectedCount)
+                .build();
+    }
+}
@@ -0,0 +1,116 @@
+package com.kustlik.medicalclinic.service.index;
+
+import com.kustlik.medicalclinic.model.projection.VisitTimeframe;
+import com.kustlik.medicalclinic.repository.VisitRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class VisitIntervalIndex {
+    private final VisitRepository visitRepository;
+    private final boolean enabled;
+    private final Map<Long, DoctorSchedule> schedules = new ConcurrentHashMap<>();
+
+    public VisitIntervalIndex(VisitRepository visitRepository,
+                              @Value("${medical-clinic.visit-index.enabled:true}") boolean enabled) {
+        this.visitRepository = visitRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isOverlapping(Long doctorID, LocalDateTime startTime, LocalDateTime endTime) {
+        if (!enabled) {
+            return visitRepository.existsOverlapping(startTime, endTime, doctorID);
+        }
+        return schedule(doctorID).isOverlapping(startTime, endTime);
+    }
+
+    public void register(Long doctorID, LocalDateTime startTime, LocalDateTime endTime) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(doctorID, startTime, endTime);
+                }
+            });
+        } else {
+            add(doctorID, startTime, endTime);
+        }
+    }
+
+    public boolean verify(Long doctorID) {
+        DoctorSchedule cached = schedules.get(doctorID);
+        if (cached == null) {
+            return true;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        boolean consistent = cached.snapshot(now).equals(load(doctorID, now).snapshot(now));
+        if (!consistent) {
+            invalidate(doctorID);
+        }
+        return consistent;
+    }
+
+    public void invalidate(Long doctorID) {
+        schedules.remove(doctorID);
+    }
+
+    public void invalidateAll() {
+        schedules.clear();
+    }
+
+    private void add(Long doctorID, LocalDateTime startTime, LocalDateTime endTime) {
+        schedules.computeIfPresent(doctorID, (id, schedule) -> {
+            schedule.add(startTime, endTime);
+            return schedule;
+        });
+    }
+
+    private DoctorSchedule schedule(Long doctorID) {
+        return schedules.computeIfAbsent(doctorID, id -> load(id, LocalDateTime.now()));
+    }
+
+    private DoctorSchedule load(Long doctorID, LocalDateTime now) {
+        List<VisitTimeframe> timeframes = visitRepository.findByDoctorIdAndAppointmentEndGreaterThanEqual(doctorID, now);
+        DoctorSchedule schedule = new DoctorSchedule();
+        timeframes.forEach(timeframe -> schedule.add(timeframe.getAppointmentStart(), timeframe.getAppointmentEnd()));
+        return schedule;
+    }
+
+    private static class DoctorSchedule {
+        private final NavigableMap<LocalDateTime, LocalDateTime> intervals = new TreeMap<>();
+        private Duration longest = Duration.ZERO;
+
+        synchronized boolean isOverlapping(LocalDateTime startTime, LocalDateTime endTime) {
+            return intervals.subMap(startTime.minus(longest), false, endTime, false).values().stream()
+                    .anyMatch(end -> end.isAfter(startTime));
+        }
+
+        synchronized void add(LocalDateTime startTime, LocalDateTime endTime) {
+            intervals.merge(startTime, endTime, (existing, added) -> existing.isAfter(added) ? existing : added);
+            Duration duration = Duration.between(startTime, endTime);
+            if (duration.compareTo(longest) > 0) {
+                longest = duration;
+            }
+            intervals.headMap(LocalDateTime.now().minus(longest)).clear();
+        }
+
+        synchronized Map<LocalDateTime, LocalDateTime> snapshot(LocalDateTime now) {
+            Map<LocalDateTime, LocalDateTime> snapshot = new TreeMap<>(intervals);
+            snapshot.values().removeIf(end -> end.isBefore(now));
+            return snapshot;
+        }
+    }
+}
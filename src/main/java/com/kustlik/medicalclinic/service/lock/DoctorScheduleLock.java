@@ -0,0 +1,38 @@
+package com.kustlik.medicalclinic.service.lock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+public class DoctorScheduleLock {
+    private final ReentrantLock[] stripes;
+
+    public DoctorScheduleLock(@Value("${medical-clinic.doctor-lock.stripes:1024}") int stripeCount) {
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public void lockUntilCompletion(Long doctorID) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Doctor schedule lock requires an active transaction.");
+        }
+        ReentrantLock lock = stripe(doctorID);
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    private ReentrantLock stripe(Long doctorID) {
+        return stripes[Math.floorMod(doctorID.hashCode(), stripes.length)];
+    }
+}
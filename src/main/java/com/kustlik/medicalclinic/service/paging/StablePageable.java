@@ -0,0 +1,35 @@
+package com.kustlik.medicalclinic.service.paging;
+
+import com.kustlik.medicalclinic.exception.InvalidSortException;
+import com.kustlik.medicalclinic.model.fields.ResourceFields;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Set;
+
+public final class StablePageable {
+    private static final Sort BY_ID = Sort.by(ResourceFields.ID);
+
+    private StablePageable() {
+    }
+
+    public static Pageable of(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return pageable;
+        }
+        Sort sort = pageable.getSort().getOrderFor(ResourceFields.ID) == null
+                ? pageable.getSort().and(BY_ID)
+                : pageable.getSort();
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
+    public static Pageable of(Pageable pageable, Set<String> sortableProperties) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!sortableProperties.contains(order.getProperty())) {
+                throw new InvalidSortException("Cannot sort by: " + order.getProperty() + ".");
+            }
+        }
+        return of(pageable);
+    }
+}
@@ -4,19 +4,27 @@ import com.kustlik.medicalclinic.exception.DoctorDoesNotExistException;
 import com.kustlik.medicalclinic.exception.DoctorExistsException;
 import com.kustlik.medicalclinic.exception.DoctorToMedicalFacilityAssignmentExistsException;
 import com.kustlik.medicalclinic.exception.EmptyFieldException;
+import com.kustlik.medicalclinic.exception.MedicalFacilityDoesNotExistException;
+import com.kustlik.medicalclinic.model.dto.doctor.DoctorAssignmentDTO;
+import com.kustlik.medicalclinic.model.email.EmailNormalizer;
 import com.kustlik.medicalclinic.model.entity.Doctor;
 import com.kustlik.medicalclinic.model.entity.MedicalFacility;
 import com.kustlik.medicalclinic.repository.DoctorRepository;
+import com.kustlik.medicalclinic.service.filter.DoctorEmailFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Component
 @RequiredArgsConstructor
 public class DoctorValidator {
     private final DoctorRepository doctorRepository;
+    private final DoctorEmailFilter doctorEmailFilter;
 
     public void validateDoctorCreation(Doctor doctor) {
         doctorHasValidFields(doctor);
@@ -27,6 +35,15 @@ public class DoctorValidator {
         doctorIsNotAssignedToSameMedicalFacility(doctor, medicalFacility);
     }
 
+    public void validateDoctorToMedicalFacilityAssignment(DoctorAssignmentDTO assignment, Set<Long> doctorIDs, Set<Long> medicalFacilityIDs) {
+        if (assignment == null || assignment.getDoctorId() == null || assignment.getMedicalFacilityId() == null)
+            throw new EmptyFieldException("Doctor ID and medical facility ID cannot be empty.");
+        if (!doctorIDs.contains(assignment.getDoctorId()))
+            throw new DoctorDoesNotExistException("Doctor with given ID does not exist.");
+        if (!medicalFacilityIDs.contains(assignment.getMedicalFacilityId()))
+            throw new MedicalFacilityDoesNotExistException("Medical facility with given ID does not exist.");
+    }
+
     public boolean validateDoctor(Doctor doctor) {
         return Stream.of(
                         doctor.getEmail(),
@@ -46,8 +63,17 @@ public class DoctorValidator {
         return existingDoctor.get();
     }
 
+    public Set<Long> doctorsExist(Collection<Long> doctorIDs) {
+        Set<Long> requestedIDs = doctorIDs.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (requestedIDs.isEmpty())
+            return Set.of();
+        return doctorRepository.findExistingIds(requestedIDs);
+    }
+
     public Doctor doctorExists(String email) {
-        return doctorRepository.findByEmail(email)
+        return doctorRepository.findBySimpleNaturalId(EmailNormalizer.normalize(email))
                 .orElseThrow(() -> new DoctorDoesNotExistException("Doctor not found."));
     }
 
@@ -57,16 +83,13 @@ public class DoctorValidator {
     }
 
     private void doctorWithSameEmailDoesNotExist(Doctor doctor) {
-        var existingDoctor = doctorRepository.findByEmail(doctor.getEmail());
-        if (existingDoctor.isPresent())
+        String normalizedEmail = EmailNormalizer.normalize(doctor.getEmail());
+        if (doctorEmailFilter.mightExist(normalizedEmail) && doctorRepository.existsByNormalizedEmail(normalizedEmail))
             throw new DoctorExistsException("Doctor with given email exists.");
     }
 
     private void doctorIsNotAssignedToSameMedicalFacility(Doctor doctor, MedicalFacility medicalFacility) {
-        var existingAssignment = doctor.getMedicalFacilities().stream()
-                .filter(x -> Objects.equals(x.getId(), medicalFacility.getId()))
-                .findFirst();
-        if (existingAssignment.isPresent())
+        if (doctor.getMedicalFacilities().contains(medicalFacility))
             throw new DoctorToMedicalFacilityAssignmentExistsException("Doctor is already assigned to this facility.");
     }
 }
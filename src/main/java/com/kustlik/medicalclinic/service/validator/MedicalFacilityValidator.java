@@ -8,7 +8,10 @@ import com.kustlik.medicalclinic.repository.MedicalFacilityRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Component
@@ -30,6 +33,15 @@ public class MedicalFacilityValidator {
         return existingMedicalFacility.get();
     }
 
+    public Set<Long> medicalFacilitiesExist(Collection<Long> medicalFacilityIDs) {
+        Set<Long> requestedIDs = medicalFacilityIDs.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (requestedIDs.isEmpty())
+            return Set.of();
+        return medicalFacilityRepository.findExistingIds(requestedIDs);
+    }
+
     public boolean validateMedicalFacility(MedicalFacility medicalFacility) {
         return Stream.of(
                         medicalFacility.getName(),
@@ -46,7 +58,7 @@ public class MedicalFacilityValidator {
     }
 
     private void medicalFacilityWithSameNameDoesNotExist(MedicalFacility medicalFacility) {
-        var existingFacility = medicalFacilityRepository.findByName(medicalFacility.getName());
+        var existingFacility = medicalFacilityRepository.findBySimpleNaturalId(medicalFacility.getName());
         if (existingFacility.isPresent())
             throw new MedicalFacilityExistsException("Medical facility with given name exists.");
     }
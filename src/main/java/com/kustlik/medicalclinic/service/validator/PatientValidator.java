@@ -3,18 +3,24 @@ package com.kustlik.medicalclinic.service.validator;
 import com.kustlik.medicalclinic.exception.EmptyFieldException;
 import com.kustlik.medicalclinic.exception.PatientDoesNotExistException;
 import com.kustlik.medicalclinic.exception.PatientExistsException;
+import com.kustlik.medicalclinic.model.email.EmailNormalizer;
 import com.kustlik.medicalclinic.model.entity.Patient;
 import com.kustlik.medicalclinic.repository.PatientRepository;
+import com.kustlik.medicalclinic.service.filter.PatientEmailFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Component
 @RequiredArgsConstructor
 public class PatientValidator {
     final private PatientRepository patientRepository;
+    final private PatientEmailFilter patientEmailFilter;
 
     public void validatePatientCreation(Patient patient) {
         patientHasValidFields(patient);
@@ -23,11 +29,19 @@ public class PatientValidator {
 
     public void validateEditPatientData(String email, Patient newPatientData) {
         patientHasValidFieldsToEdit(newPatientData);
-        if (!email.equalsIgnoreCase(newPatientData.getEmail())) {
+        if (!EmailNormalizer.normalize(email).equals(EmailNormalizer.normalize(newPatientData.getEmail()))) {
             patientWithSameEmailDoesNotExist(newPatientData);
         }
     }
 
+    public void validatePatientImport(Patient patient, Set<String> normalizedEmails, Set<String> idCardNos) {
+        patientHasValidFields(patient);
+        if (normalizedEmails.contains(EmailNormalizer.normalize(patient.getEmail())))
+            throw new PatientExistsException("Patient with given email exists.");
+        if (idCardNos.contains(patient.getIdCardNo()))
+            throw new PatientExistsException("Patient with given ID card number exists.");
+    }
+
     public void validatePasswordChange(Patient newPatientData) {
         patientPasswordIsNotNullNorBlank(newPatientData);
     }
@@ -52,8 +66,28 @@ public class PatientValidator {
                 .noneMatch(Objects::isNull);
     }
 
+    public Set<String> patientEmailsExist(Collection<String> emails) {
+        Set<String> candidates = emails.stream()
+                .map(EmailNormalizer::normalize)
+                .filter(Objects::nonNull)
+                .filter(patientEmailFilter::mightExist)
+                .collect(Collectors.toSet());
+        if (candidates.isEmpty())
+            return Set.of();
+        return patientRepository.findExistingNormalizedEmails(candidates);
+    }
+
+    public Set<String> patientIdCardNosExist(Collection<String> idCardNos) {
+        Set<String> requestedIdCardNos = idCardNos.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (requestedIdCardNos.isEmpty())
+            return Set.of();
+        return patientRepository.findExistingIdCardNos(requestedIdCardNos);
+    }
+
     public Patient patientExists(String email) {
-        return patientRepository.findByEmail(email)
+        return patientRepository.findBySimpleNaturalId(EmailNormalizer.normalize(email))
                 .orElseThrow(() -> new PatientDoesNotExistException("Patient with given email does not exist."));
     }
 
@@ -79,8 +113,8 @@ public class PatientValidator {
     }
 
     private void patientWithSameEmailDoesNotExist(Patient patient) {
-        var existingDoctor = patientRepository.findByEmail(patient.getEmail());
-        if (existingDoctor.isPresent())
+        String normalizedEmail = EmailNormalizer.normalize(patient.getEmail());
+        if (patientEmailFilter.mightExist(normalizedEmail) && patientRepository.existsByNormalizedEmail(normalizedEmail))
             throw new PatientExistsException("Patient with given email exists.");
     }
 }
@@ -2,13 +2,20 @@ package com.kustlik.medicalclinic.service.validator;
 
 import com.kustlik.medicalclinic.exception.EmptyFieldException;
 import com.kustlik.medicalclinic.exception.InvalidDateTimeException;
+import com.kustlik.medicalclinic.exception.VisitAlreadyBookedException;
 import com.kustlik.medicalclinic.exception.VisitDoesNotExistException;
 import com.kustlik.medicalclinic.exception.VisitExistsException;
+import com.kustlik.medicalclinic.exception.VisitNotBookedException;
+import com.kustlik.medicalclinic.model.dto.visit.VisitScheduleDTO;
 import com.kustlik.medicalclinic.model.entity.Visit;
+import com.kustlik.medicalclinic.model.entity.WaitlistEntry;
+import com.kustlik.medicalclinic.model.filter.VisitExportFilter;
 import com.kustlik.medicalclinic.repository.VisitRepository;
+import com.kustlik.medicalclinic.service.index.VisitIntervalIndex;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Objects;
 import java.util.stream.Stream;
@@ -18,20 +25,68 @@ import java.util.stream.Stream;
 public class VisitValidator {
     public final static int MIN_VISIT_DURATION_IN_MINUTES = 15;
     public final static int MAX_VISIT_DURATION_IN_HOURS = 1;
+    public final static int MAX_SCHEDULE_DURATION_IN_DAYS = 366;
     private final VisitRepository visitRepository;
+    private final VisitIntervalIndex visitIntervalIndex;
 
     public void validateVisitCreation(Visit visit, Long doctorID) {
+        validateVisitTimeframe(visit);
+        visitIsNotOverlappingWithExistingOne(visit, doctorID);
+    }
+
+    public void validateVisitSchedule(VisitScheduleDTO schedule) {
+        scheduleHasValidFields(schedule);
+        scheduleEndDateIsNotBeforeStartDate(schedule);
+        scheduleEndTimeIsAfterStartTime(schedule);
+        scheduleIsShorterThanMaxDuration(schedule);
+        scheduleSlotDurationIsWithinLimits(schedule);
+    }
+
+    public void validateFreeVisitSearch(String specialisation, String city, LocalDateTime from, LocalDateTime to) {
+        if (Stream.of(specialisation, city).anyMatch(value -> value == null || value.isBlank())) {
+            throw new EmptyFieldException("Specialisation and city cannot be empty.");
+        }
+        if (!to.isAfter(from)) {
+            throw new InvalidDateTimeException("Search end time should be after start time.");
+        }
+    }
+
+    public void validateVisitExport(VisitExportFilter filter) {
+        if (filter.getFrom() != null && filter.getTo() != null && !filter.getTo().isAfter(filter.getFrom())) {
+            throw new InvalidDateTimeException("Export end time should be after start time.");
+        }
+    }
+
+    public void validateVisitTimeframe(Visit visit) {
         validateVisit(visit);
         visitIsNotPast(visit);
         visitEndIsNotBeforeStart(visit);
         visitReservedInFullQuarterOfAnHour(visit);
         visitIsLongerThanMinDuration(visit);
         visitIsShorterThanMaxDuration(visit);
-        visitIsNotOverlappingWithExistingOne(visit, doctorID);
     }
 
     public void validateVisitAssignment(Visit visit) {
         visitIsNotPast(visit);
+        visitIsNotBooked(visit);
+    }
+
+    public void validateVisitCancellation(Visit visit, Long patientID) {
+        if (visit.getAppointmentStart().isBefore(LocalDateTime.now())) {
+            throw new InvalidDateTimeException("Unable to cancel a past visit.");
+        }
+        if (visit.getPatient() == null || !visit.getPatient().getId().equals(patientID)) {
+            throw new VisitNotBookedException("Visit is not booked by given patient.");
+        }
+    }
+
+    public void validateWaitlistEntry(WaitlistEntry waitlistEntry) {
+        if (waitlistEntry.getVisitDate() == null) {
+            throw new EmptyFieldException("Waitlist entry has some null fields, please fill everything correctly.");
+        }
+        if (waitlistEntry.getVisitDate().isBefore(LocalDate.now())) {
+            throw new InvalidDateTimeException("Unable to join a waitlist for past dates.");
+        }
     }
 
     public Visit visitExists(Long visitID) {
@@ -49,6 +104,12 @@ public class VisitValidator {
         }
     }
 
+    private void visitIsNotBooked(Visit visit) {
+        if (visit.getPatient() != null) {
+            throw new VisitAlreadyBookedException("Visit is already booked by another patient.");
+        }
+    }
+
     private void visitEndIsNotBeforeStart(Visit visit) {
         LocalDateTime startTime = visit.getAppointmentStart();
         LocalDateTime endTime = visit.getAppointmentEnd();
@@ -81,14 +142,53 @@ public class VisitValidator {
     }
 
     private void visitIsNotOverlappingWithExistingOne(Visit visit, Long doctorID) {
-        if (!visitRepository.findAllOverlapping(
+        if (visitIntervalIndex.isOverlapping(
+                doctorID,
                 visit.getAppointmentStart(),
-                visit.getAppointmentEnd(),
-                doctorID).isEmpty()) {
+                visit.getAppointmentEnd())) {
             throw new VisitExistsException("Visit could not be created, there will be another visit at this time.");
         }
     }
 
+    private void scheduleHasValidFields(VisitScheduleDTO schedule) {
+        if (schedule == null || Stream.of(
+                        schedule.getStartDate(),
+                        schedule.getEndDate(),
+                        schedule.getDaysOfWeek(),
+                        schedule.getStartTime(),
+                        schedule.getEndTime(),
+                        schedule.getSlotDurationInMinutes())
+                .anyMatch(Objects::isNull)) {
+            throw new EmptyFieldException("Schedule has some null fields, please fill everything correctly.");
+        }
+    }
+
+    private void scheduleEndDateIsNotBeforeStartDate(VisitScheduleDTO schedule) {
+        if (schedule.getEndDate().isBefore(schedule.getStartDate())) {
+            throw new InvalidDateTimeException("Schedule end date should not be before start date.");
+        }
+    }
+
+    private void scheduleEndTimeIsAfterStartTime(VisitScheduleDTO schedule) {
+        if (!schedule.getEndTime().isAfter(schedule.getStartTime())) {
+            throw new InvalidDateTimeException("Schedule end time should be after start time.");
+        }
+    }
+
+    private void scheduleIsShorterThanMaxDuration(VisitScheduleDTO schedule) {
+        if (schedule.getEndDate().isAfter(schedule.getStartDate().plusDays(MAX_SCHEDULE_DURATION_IN_DAYS))) {
+            throw new InvalidDateTimeException("Schedule should have maximal duration of " + MAX_SCHEDULE_DURATION_IN_DAYS + " days.");
+        }
+    }
+
+    private void scheduleSlotDurationIsWithinLimits(VisitScheduleDTO schedule) {
+        int slotDuration = schedule.getSlotDurationInMinutes();
+        if (slotDuration < MIN_VISIT_DURATION_IN_MINUTES || slotDuration > MAX_VISIT_DURATION_IN_HOURS * 60) {
+            throw new InvalidDateTimeException("Slot duration should be between " + MIN_VISIT_DURATION_IN_MINUTES +
+                    " min and " + MAX_VISIT_DURATION_IN_HOURS + " hours.");
+        }
+    }
+
     public void validateVisit(Visit visit) {
         if (Stream.of(visit.getAppointmentStart(), visit.getAppointmentEnd())
                 .anyMatch(Objects::isNull)) {
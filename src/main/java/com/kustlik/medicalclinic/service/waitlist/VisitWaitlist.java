@@ -0,0 +1,90 @@
+package com.kustlik.medicalclinic.service.waitlist;
+
+import com.kustlik.medicalclinic.model.entity.WaitlistEntry;
+import com.kustlik.medicalclinic.repository.WaitlistEntryRepository;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+@Component
+@RequiredArgsConstructor
+public class VisitWaitlist {
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final Map<QueueKey, NavigableSet<Long>> queues = new ConcurrentHashMap<>();
+
+    public WaitlistEntry join(WaitlistEntry waitlistEntry) {
+        WaitlistEntry savedEntry = waitlistEntryRepository.save(waitlistEntry);
+        QueueKey key = new QueueKey(savedEntry.getDoctor().getId(), savedEntry.getVisitDate());
+        afterCommit(() -> queues.computeIfPresent(key, (k, queue) -> {
+            queue.add(savedEntry.getId());
+            return queue;
+        }));
+        return savedEntry;
+    }
+
+    public boolean contains(Long doctorID, Long patientID, LocalDate visitDate) {
+        return waitlistEntryRepository.existsByDoctorIdAndPatientIdAndVisitDate(doctorID, patientID, visitDate);
+    }
+
+    public Optional<WaitlistEntry> first(Long doctorID, LocalDate visitDate) {
+        NavigableSet<Long> queue = queue(new QueueKey(doctorID, visitDate));
+        while (!queue.isEmpty()) {
+            Long entryID = queue.first();
+            Optional<WaitlistEntry> entry = waitlistEntryRepository.findById(entryID);
+            if (entry.isPresent()) {
+                return entry;
+            }
+            queue.remove(entryID);
+        }
+        return Optional.empty();
+    }
+
+    public void leave(WaitlistEntry waitlistEntry) {
+        waitlistEntryRepository.delete(waitlistEntry);
+        QueueKey key = new QueueKey(waitlistEntry.getDoctor().getId(), waitlistEntry.getVisitDate());
+        afterCommit(() -> queues.computeIfPresent(key, (k, queue) -> {
+            queue.remove(waitlistEntry.getId());
+            return queue;
+        }));
+    }
+
+    public void invalidateAll() {
+        queues.clear();
+    }
+
+    private NavigableSet<Long> queue(QueueKey key) {
+        LocalDate today = LocalDate.now();
+        queues.keySet().removeIf(existing -> existing.visitDate.isBefore(today));
+        return queues.computeIfAbsent(key, k -> new ConcurrentSkipListSet<>(
+                waitlistEntryRepository.findIdsByDoctorIdAndVisitDate(k.doctorID, k.visitDate)));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class QueueKey {
+        private final Long doctorID;
+        private final LocalDate visitDate;
+    }
+}
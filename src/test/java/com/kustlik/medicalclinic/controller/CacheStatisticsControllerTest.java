@@ -0,0 +1,71 @@
+package com.kustlik.medicalclinic.controller;
+
+import com.kustlik.medicalclinic.model.dto.cache.CacheRegionStatisticsDTO;
+import com.kustlik.medicalclinic.model.dto.cache.ResponseCacheStatisticsDTO;
+import com.kustlik.medicalclinic.remote.client.CachingSchoolClient;
+import com.kustlik.medicalclinic.service.cache.SecondLevelCacheStatistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class CacheStatisticsControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SecondLevelCacheStatistics secondLevelCacheStatistics;
+    @MockBean
+    private CachingSchoolClient cachingSchoolClient;
+
+    @Test
+    void getCacheRegionStatistics_RegionsExist_StatisticsPerRegionReturned() throws Exception {
+        // Given
+        CacheRegionStatisticsDTO doctorRegion = CacheRegionStatisticsDTO.builder()
+                .region("doctor")
+                .hitCount(5)
+                .missCount(2)
+                .putCount(2)
+                .elementCountInMemory(2)
+                .build();
+        when(secondLevelCacheStatistics.getRegionStatistics()).thenReturn(List.of(doctorRegion));
+        // Then
+        mockMvc.perform(get("/cache_statistics"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].region").value("doctor"))
+                .andExpect(jsonPath("$[0].hitCount").value(5))
+                .andExpect(jsonPath("$[0].missCount").value(2));
+    }
+
+    @Test
+    void getRemoteCacheStatistics_CachesExist_StatisticsPerCacheReturned() throws Exception {
+        // Given
+        ResponseCacheStatisticsDTO schoolBilling = ResponseCacheStatisticsDTO.builder()
+                .name("school-billing")
+                .hitCount(3)
+                .missCount(1)
+                .hitRate(0.75)
+                .build();
+        when(cachingSchoolClient.getCacheStatistics()).thenReturn(List.of(schoolBilling));
+        // Then
+        mockMvc.perform(get("/cache_statistics/remote"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("school-billing"))
+                .andExpect(jsonPath("$[0].hitCount").value(3))
+                .andExpect(jsonPath("$[0].hitRate").value(0.75));
+    }
+}
@@ -4,10 +4,17 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kustlik.medicalclinic.exception.*;
 import com.kustlik.medicalclinic.factory.DoctorFactory;
 import com.kustlik.medicalclinic.factory.MedicalFacilityFactory;
+import com.kustlik.medicalclinic.model.cursor.IdCursor;
+import com.kustlik.medicalclinic.model.dto.doctor.DoctorAssignmentDTO;
+import com.kustlik.medicalclinic.model.dto.doctor.DoctorAssignmentSummaryDTO;
 import com.kustlik.medicalclinic.model.dto.doctor.DoctorCreationDTO;
+import com.kustlik.medicalclinic.model.dto.doctor.RejectedDoctorAssignmentDTO;
 import com.kustlik.medicalclinic.model.entity.Doctor;
 import com.kustlik.medicalclinic.model.entity.MedicalFacility;
+import com.kustlik.medicalclinic.model.fields.FieldSelection;
+import com.kustlik.medicalclinic.model.fields.ResourceFields;
 import com.kustlik.medicalclinic.model.mapper.DoctorMapper;
+import com.kustlik.medicalclinic.model.projection.DoctorSummary;
 import com.kustlik.medicalclinic.service.DoctorService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,18 +23,25 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -49,9 +63,11 @@ public class DoctorControllerTest {
     @Test
     void getDoctors_DoctorsExists_ListOfDoctorDTOReturned() throws Exception {
         // Given
-        Doctor doctor = DoctorFactory.getDoctor();
-        Page<Doctor> doctorPage = new PageImpl<>(List.of(doctor));
+        DoctorSummary doctor = DoctorFactory.getDoctorSummary(DoctorFactory.getDoctor());
+        Page<DoctorSummary> doctorPage = new PageImpl<>(List.of(doctor));
         when(doctorService.getDoctors(any())).thenReturn(doctorPage);
+        when(doctorService.getMedicalFacilityIds(List.of(1L))).thenReturn(Map.of(1L, List.of(2L, 3L)));
+        when(doctorService.getVisitIds(List.of(1L))).thenReturn(Map.of(1L, List.of(4L)));
         // Then
         mockMvc.perform(get("/doctors")
                         .param("page", "0")
@@ -61,7 +77,37 @@ public class DoctorControllerTest {
                 .andExpect(jsonPath("$[0].email").value("jankow@gmail.com"))
                 .andExpect(jsonPath("$[0].firstName").value("Jan"))
                 .andExpect(jsonPath("$[0].lastName").value("Kowalski"))
-                .andExpect(jsonPath("$[0].specialisation").value("Psychiatra"));
+                .andExpect(jsonPath("$[0].specialisation").value("Psychiatra"))
+                .andExpect(jsonPath("$[0].medicalFacilityIds[1]").value(3))
+                .andExpect(jsonPath("$[0].visitIds[0]").value(4));
+    }
+
+    @Test
+    void getDoctorFields_FieldsGiven_OnlyRequestedFieldsReturned() throws Exception {
+        // Given
+        FieldSelection fields = FieldSelection.parse(ResourceFields.DOCTOR, "email,medicalFacilityIds");
+        when(doctorService.getDoctorFields(eq(fields), any()))
+                .thenReturn(new SliceImpl<>(List.of(Map.<String, Object>of("email", "jankow@gmail.com", "medicalFacilityIds", List.of(2L)))));
+        // Then
+        mockMvc.perform(get("/doctors")
+                        .param("fields", "email,medicalFacilityIds"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].email").value("jankow@gmail.com"))
+                .andExpect(jsonPath("$[0].medicalFacilityIds[0]").value(2))
+                .andExpect(jsonPath("$[0].firstName").doesNotExist());
+        verify(doctorService, never()).getDoctors(any());
+    }
+
+    @Test
+    void getDoctorFields_UnknownFieldGiven_ThenIsBadRequest() throws Exception {
+        // Then
+        mockMvc.perform(get("/doctors")
+                        .param("fields", "email,password"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertInstanceOf(InvalidFieldSelectionException.class, result.getResolvedException()))
+                .andExpect(result -> assertEquals("Unknown field: password.", result.getResponse().getContentAsString()));
     }
 
     @Test
@@ -207,4 +253,82 @@ public class DoctorControllerTest {
                 .andExpect(jsonPath("$.specialisation").value("Psychiatra"))
                 .andExpect(jsonPath("$.medicalFacilityIds[0]").value("1"));
     }
-}
+
+    @Test
+    void createDoctorAssignments_SomeAssignmentsArePresent_SummaryReturned() throws Exception {
+        // Given
+        List<DoctorAssignmentDTO> assignments = List.of(
+                DoctorFactory.getDoctorAssignmentDTO(1L, 1L),
+                DoctorFactory.getDoctorAssignmentDTO(1L, 2L));
+        DoctorAssignmentSummaryDTO summary = DoctorAssignmentSummaryDTO.builder()
+                .createdCount(1)
+                .rejectedCount(1)
+                .rejectedAssignments(List.of(RejectedDoctorAssignmentDTO.builder()
+                        .doctorId(1L)
+                        .medicalFacilityId(2L)
+                        .reason("Doctor is already assigned to this facility.")
+                        .build()))
+                .build();
+        when(doctorService.assignDoctorsToMedicalFacilities(assignments)).thenReturn(summary);
+        // Then
+        mockMvc.perform(post("/doctors/assignments").content(objectMapper.writeValueAsString(assignments)).contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.createdCount").value(1))
+                .andExpect(jsonPath("$.rejectedCount").value(1))
+                .andExpect(jsonPath("$.rejectedAssignments[0].medicalFacilityId").value(2))
+                .andExpect(jsonPath("$.rejectedAssignments[0].reason").value("Doctor is already assigned to this facility."));
+    }
+
+    @Test
+    void scrollDoctors_MoreElementsExist_CursorPageWithNextCursorReturned() throws Exception {
+        // Given
+        DoctorSummary doctor = DoctorFactory.getDoctorSummary(DoctorFactory.getDoctor());
+        when(doctorService.getDoctors(new IdCursor(5L), 1)).thenReturn(new SliceImpl<>(List.of(doctor), PageRequest.ofSize(1), true));
+        // Then
+        mockMvc.perform(get("/doctors/scroll")
+                        .param("cursor", new IdCursor(5L).encode())
+                        .param("size", "1"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].email").value("jankow@gmail.com"))
+                .andExpect(jsonPath("$.next").value(new IdCursor(doctor.getId()).encode()));
+    }
+
+    @Test
+    void scrollDoctors_InvalidCursorIsGiven_ThenIsBadRequest() throws Exception {
+        // Then
+        mockMvc.perform(get("/doctors/scroll")
+                        .param("cursor", "not-a-cursor"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertInstanceOf(InvalidCursorException.class, result.getResolvedException()))
+                .andExpect(result -> assertEquals("Given cursor is invalid.", result.getResponse().getContentAsString()));
+    }
+
+    @Test
+    void getDoctors_WithTotalRequested_TotalCountHeaderReturned() throws Exception {
+        // Given
+        DoctorSummary doctor = DoctorFactory.getDoctorSummary(DoctorFactory.getDoctor());
+        when(doctorService.getDoctors(any())).thenReturn(new SliceImpl<>(List.of(doctor)));
+        when(doctorService.countDoctors()).thenReturn(42L);
+        // Then
+        mockMvc.perform(get("/doctors")
+                        .param("withTotal", "true"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "42"))
+                .andExpect(jsonPath("$[0].email").value("jankow@gmail.com"));
+    }
+
+    @Test
+    void getDoctors_WithoutTotal_CountNotQueried() throws Exception {
+        // Given
+        when(doctorService.getDoctors(any())).thenReturn(new SliceImpl<>(List.of(DoctorFactory.getDoctorSummary(DoctorFactory.getDoctor()))));
+        // Then
+        mockMvc.perform(get("/doctors"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Total-Count"));
+        verify(doctorService, never()).countDoctors();
+    }
+}
\ No newline at end of file
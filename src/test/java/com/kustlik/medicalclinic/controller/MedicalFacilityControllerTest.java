@@ -4,10 +4,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kustlik.medicalclinic.exception.*;
 import com.kustlik.medicalclinic.factory.DoctorFactory;
 import com.kustlik.medicalclinic.factory.MedicalFacilityFactory;
+import com.kustlik.medicalclinic.model.cursor.IdCursor;
 import com.kustlik.medicalclinic.model.dto.medical_facility.MedicalFacilityDTO;
 import com.kustlik.medicalclinic.model.entity.Doctor;
 import com.kustlik.medicalclinic.model.entity.MedicalFacility;
 import com.kustlik.medicalclinic.model.mapper.MedicalFacilityMapper;
+import com.kustlik.medicalclinic.model.projection.MedicalFacilitySummary;
 import com.kustlik.medicalclinic.service.MedicalFacilityService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,10 +18,13 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
@@ -49,9 +54,10 @@ public class MedicalFacilityControllerTest {
     @Test
     void getMedicalFacilities_MedicalFacilitiesExists_ListOfMedicalFacilityDTOReturned() throws Exception {
         // Given
-        MedicalFacility medicalFacility = MedicalFacilityFactory.getMedicalFacility();
-        Page<MedicalFacility> medicalFacilitiesPage = new PageImpl<>(List.of(medicalFacility));
+        MedicalFacilitySummary medicalFacility = MedicalFacilityFactory.getMedicalFacilitySummary(MedicalFacilityFactory.getMedicalFacility());
+        Page<MedicalFacilitySummary> medicalFacilitiesPage = new PageImpl<>(List.of(medicalFacility));
         when(medicalFacilityService.getMedicalFacilities(any())).thenReturn(medicalFacilitiesPage);
+        when(medicalFacilityService.getDoctorIds(List.of(1L))).thenReturn(Map.of(1L, List.of(5L)));
         // Then
         mockMvc.perform(get("/medical_facilities")
                         .param("page", "0")
@@ -62,7 +68,8 @@ public class MedicalFacilityControllerTest {
                 .andExpect(jsonPath("$[0].city").value("Warszawa"))
                 .andExpect(jsonPath("$[0].name").value("Covermedi"))
                 .andExpect(jsonPath("$[0].street").value("Opolska"))
-                .andExpect(jsonPath("$[0].zipCode").value("65-346"));
+                .andExpect(jsonPath("$[0].zipCode").value("65-346"))
+                .andExpect(jsonPath("$[0].doctorIds[0]").value(5));
     }
 
     @Test
@@ -212,4 +219,19 @@ public class MedicalFacilityControllerTest {
                 .andExpect(jsonPath("$.zipCode").value("65-346"))
                 .andExpect(jsonPath("$.doctorIds.[0]").value("1"));
     }
-}
+
+    @Test
+    void scrollMedicalFacilities_MoreElementsExist_CursorPageWithNextCursorReturned() throws Exception {
+        // Given
+        MedicalFacilitySummary medicalFacility = MedicalFacilityFactory.getMedicalFacilitySummary(MedicalFacilityFactory.getMedicalFacility());
+        when(medicalFacilityService.getMedicalFacilities(new IdCursor(5L), 1)).thenReturn(new SliceImpl<>(List.of(medicalFacility), PageRequest.ofSize(1), true));
+        // Then
+        mockMvc.perform(get("/medical_facilities/scroll")
+                        .param("cursor", new IdCursor(5L).encode())
+                        .param("size", "1"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("Covermedi"))
+                .andExpect(jsonPath("$.next").value(new IdCursor(medicalFacility.getId()).encode()));
+    }
+}
\ No newline at end of file
@@ -5,13 +5,13 @@ import com.kustlik.medicalclinic.exception.EmptyFieldException;
 import com.kustlik.medicalclinic.exception.PatientDoesNotExistException;
 import com.kustlik.medicalclinic.exception.PatientExistsException;
 import com.kustlik.medicalclinic.factory.PatientFactory;
-import com.kustlik.medicalclinic.factory.VisitFactory;
+import com.kustlik.medicalclinic.model.cursor.IdCursor;
 import com.kustlik.medicalclinic.model.dto.patient.PatientCreationDTO;
 import com.kustlik.medicalclinic.model.dto.patient.PatientDTO;
 import com.kustlik.medicalclinic.model.dto.patient.PatientPasswordDTO;
 import com.kustlik.medicalclinic.model.entity.Patient;
-import com.kustlik.medicalclinic.model.entity.Visit;
 import com.kustlik.medicalclinic.model.mapper.PatientMapper;
+import com.kustlik.medicalclinic.model.projection.PatientSummary;
 import com.kustlik.medicalclinic.service.PatientService;
 import com.kustlik.medicalclinic.service.VisitService;
 import org.hamcrest.Matchers;
@@ -25,11 +25,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
@@ -60,9 +62,10 @@ public class PatientControllerTest {
     @Test
     void getPatients_PatientsExists_ListOfPatientDTOReturned() throws Exception {
         // Given
-        Patient patient = PatientFactory.getPatient();
-        Page<Patient> patientPage = new PageImpl<>(List.of(patient));
+        PatientSummary patient = PatientFactory.getPatientSummary(PatientFactory.getPatient());
+        Page<PatientSummary> patientPage = new PageImpl<>(List.of(patient));
         when(patientService.getPatients(any())).thenReturn(patientPage);
+        when(patientService.getVisitIds(List.of(1L))).thenReturn(Map.of(1L, List.of(7L)));
         // Then
         mockMvc.perform(get("/patients")
                         .param("page", "0")
@@ -73,17 +76,18 @@ public class PatientControllerTest {
                 .andExpect(jsonPath("$[0].firstName").value("Jan"))
                 .andExpect(jsonPath("$[0].lastName").value("Kowalski"))
                 .andExpect(jsonPath("$[0].birthday",
-                        Matchers.is(LocalDate.of(2000, 1, 1).toString())));
+                        Matchers.is(LocalDate.of(2000, 1, 1).toString())))
+                .andExpect(jsonPath("$[0].visitIds[0]").value(7));
     }
 
     @Test
     void getPatients_PatientsWithGivenVisitDataExists_ListOfPatientDTOReturned() throws Exception {
         // Given
-        Patient patient = PatientFactory.getPatient();
-        Visit visit = VisitFactory.getVisit();
-        visit.setPatient(patient);
-        Page<Visit> visitPage = new PageImpl<>(List.of(visit));
-        when(visitService.getVisits(any(Pageable.class), any(LocalDate.class))).thenReturn(visitPage);
+        PatientSummary patient = PatientFactory.getPatientSummary(PatientFactory.getPatient());
+        LocalDate visitDate = LocalDate.of(2029, 12, 12);
+        Page<PatientSummary> patientPage = new PageImpl<>(List.of(patient));
+        when(patientService.getPatientsWithVisits(eq(visitDate), eq(visitDate), any(Pageable.class))).thenReturn(patientPage);
+        when(patientService.getVisitIds(List.of(1L))).thenReturn(Map.of(1L, List.of(7L)));
         // Then
         mockMvc.perform(get("/patients")
                         .param("visitDate", "2029-12-12")
@@ -95,7 +99,8 @@ public class PatientControllerTest {
                 .andExpect(jsonPath("$[0].firstName").value("Jan"))
                 .andExpect(jsonPath("$[0].lastName").value("Kowalski"))
                 .andExpect(jsonPath("$[0].birthday",
-                        Matchers.is(LocalDate.of(2000, 1, 1).toString())));
+                        Matchers.is(LocalDate.of(2000, 1, 1).toString())))
+                .andExpect(jsonPath("$[0].visitIds[0]").value(7));
     }
 
     @Test
@@ -360,4 +365,19 @@ public class PatientControllerTest {
                 .andExpect(result -> Assertions.assertDoesNotThrow(() ->
                         patientService.editPatientPassword(email, patientPassword)));
     }
-}
+
+    @Test
+    void scrollPatients_MoreElementsExist_CursorPageWithNextCursorReturned() throws Exception {
+        // Given
+        PatientSummary patient = PatientFactory.getPatientSummary(PatientFactory.getPatient());
+        when(patientService.getPatients(new IdCursor(5L), 1)).thenReturn(new SliceImpl<>(List.of(patient), PageRequest.ofSize(1), true));
+        // Then
+        mockMvc.perform(get("/patients/scroll")
+                        .param("cursor", new IdCursor(5L).encode())
+                        .param("size", "1"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].email").value("jankow@gmail.com"))
+                .andExpect(jsonPath("$.next").value(new IdCursor(patient.getId()).encode()));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.kustlik.medicalclinic.controller;
+
+import com.kustlik.medicalclinic.model.dto.resilience.ResilienceStatusDTO;
+import com.kustlik.medicalclinic.remote.resilience.CircuitBreaker;
+import com.kustlik.medicalclinic.remote.resilience.ResilienceStatistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class RemoteStatusControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ResilienceStatistics resilienceStatistics;
+
+    @Test
+    void getSchoolClientStatus_CircuitOpen_StatusReturned() throws Exception {
+        // Given
+        ResilienceStatusDTO status = ResilienceStatusDTO.builder()
+                .circuitBreakerState(CircuitBreaker.State.OPEN)
+                .consecutiveFailures(5)
+                .circuitBreakerRejectedCount(7)
+                .circuitBreakerTransitions(List.of())
+                .availableConcurrentCalls(20)
+                .bulkheadRejectedCount(2)
+                .build();
+        when(resilienceStatistics.getStatus()).thenReturn(status);
+        // Then
+        mockMvc.perform(get("/remote_status/school_client"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.circuitBreakerState").value("OPEN"))
+                .andExpect(jsonPath("$.circuitBreakerRejectedCount").value(7))
+                .andExpect(jsonPath("$.bulkheadRejectedCount").value(2));
+    }
+}
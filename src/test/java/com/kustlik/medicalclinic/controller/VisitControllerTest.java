@@ -1,12 +1,22 @@
 package com.kustlik.medicalclinic.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kustlik.medicalclinic.controller.export.ExportFormat;
 import com.kustlik.medicalclinic.controller.status.VisitStatus;
 import com.kustlik.medicalclinic.exception.*;
 import com.kustlik.medicalclinic.factory.VisitFactory;
+import com.kustlik.medicalclinic.factory.WaitlistEntryFactory;
+import com.kustlik.medicalclinic.model.cursor.VisitCursor;
+import com.kustlik.medicalclinic.model.dto.visit.RejectedVisitDTO;
 import com.kustlik.medicalclinic.model.dto.visit.VisitDTO;
+import com.kustlik.medicalclinic.model.dto.visit.VisitScheduleDTO;
+import com.kustlik.medicalclinic.model.dto.visit.VisitScheduleSummaryDTO;
+import com.kustlik.medicalclinic.model.dto.waitlist.WaitlistEntryCreationDTO;
 import com.kustlik.medicalclinic.model.entity.Visit;
+import com.kustlik.medicalclinic.model.fields.FieldSelection;
+import com.kustlik.medicalclinic.model.fields.ResourceFields;
 import com.kustlik.medicalclinic.service.VisitService;
+import com.kustlik.medicalclinic.service.export.VisitExporter;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -14,19 +24,31 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -40,6 +62,9 @@ public class VisitControllerTest {
     @MockBean
     private VisitService visitService;
 
+    @MockBean
+    private VisitExporter visitExporter;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -79,6 +104,23 @@ public class VisitControllerTest {
                         YEAR + "-01-01T12:30:00"));
     }
 
+    @Test
+    void getVisitFields_WithStatusAvailable_OnlyRequestedFieldsReturned() throws Exception {
+        // Given
+        FieldSelection fields = FieldSelection.parse(ResourceFields.VISIT, "id,appointmentStart");
+        when(visitService.getFreeVisitFields(eq(fields), any()))
+                .thenReturn(new SliceImpl<>(List.of(Map.<String, Object>of("id", 1L, "appointmentStart", LocalDateTime.of(YEAR, 1, 1, 12, 0)))));
+        // Then
+        mockMvc.perform(get("/visits")
+                        .param("status", VisitStatus.AVAILABLE.toString())
+                        .param("fields", "id,appointmentStart"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].appointmentStart").value(YEAR + "-01-01T12:00:00"))
+                .andExpect(jsonPath("$[0].doctorId").doesNotExist());
+    }
+
     @Test
     void getVisitsByDoctor_WithStatusAll_ListOfVisitDTOReturned() throws Exception {
         // Given
@@ -132,6 +174,78 @@ public class VisitControllerTest {
                         YEAR + "-01-01T12:30:00"));
     }
 
+    @Test
+    void searchFreeVisits_MoreVisitsThanPageSize_PageWithNextCursorReturned() throws Exception {
+        // Given
+        Visit visit = VisitFactory.getVisit();
+        Slice<Visit> visitSlice = new SliceImpl<>(List.of(visit), PageRequest.of(0, 1), true);
+        when(visitService.searchFreeVisits(eq("Psychiatra"), eq("Warszawa"), any(), any(), any(), eq(1))).thenReturn(visitSlice);
+        // Then
+        mockMvc.perform(get("/visits/search")
+                        .param("specialisation", "Psychiatra")
+                        .param("city", "Warszawa")
+                        .param("size", "1"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].appointmentStart").value(
+                        YEAR + "-01-01T12:00:00"))
+                .andExpect(jsonPath("$.next").value(VisitCursor.of(visit).encode()));
+    }
+
+    @Test
+    void searchFreeVisits_InvalidCursorGiven_ThenIsBadRequest() throws Exception {
+        // Then
+        mockMvc.perform(get("/visits/search")
+                        .param("specialisation", "Psychiatra")
+                        .param("city", "Warszawa")
+                        .param("cursor", "%%%"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertInstanceOf(InvalidCursorException.class, result.getResolvedException()))
+                .andExpect(result -> assertEquals("Given cursor is invalid.", result.getResponse().getContentAsString()));
+    }
+
+    @Test
+    void createVisitSchedule_ValidScheduleIsGiven_SummaryReturned() throws Exception {
+        // Given
+        Long doctorId = 1L;
+        VisitScheduleDTO scheduleDTO = VisitFactory.getVisitScheduleDTO();
+        VisitScheduleSummaryDTO summary = VisitScheduleSummaryDTO.builder()
+                .createdCount(7)
+                .rejectedCount(1)
+                .rejectedVisits(List.of(RejectedVisitDTO.builder()
+                        .appointmentStart(LocalDateTime.of(YEAR, 1, 1, 9, 0))
+                        .appointmentEnd(LocalDateTime.of(YEAR, 1, 1, 9, 30))
+                        .reason("Visit already exists.")
+                        .build()))
+                .build();
+        when(visitService.createVisitSchedule(any(), any())).thenReturn(summary);
+        // Then
+        mockMvc.perform(post("/visits/doctor/{doctorId}/schedule", doctorId).content(objectMapper.writeValueAsString(scheduleDTO)).contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.createdCount").value(7))
+                .andExpect(jsonPath("$.rejectedCount").value(1))
+                .andExpect(jsonPath("$.rejectedVisits[0].appointmentStart").value(
+                        YEAR + "-01-01T09:00:00"))
+                .andExpect(jsonPath("$.rejectedVisits[0].reason").value("Visit already exists."));
+    }
+
+    @Test
+    void createVisitSchedule_DoctorWithGivenIdDoesNotExist_ThenIsNotFound() throws Exception {
+        // Given
+        Long doctorId = 1L;
+        String exceptionMsg = "Doctor does not exist.";
+        VisitScheduleDTO scheduleDTO = VisitFactory.getVisitScheduleDTO();
+        when(visitService.createVisitSchedule(any(), any())).thenThrow(new DoctorDoesNotExistException(exceptionMsg));
+        // Then
+        mockMvc.perform(post("/visits/doctor/{doctorId}/schedule", doctorId).content(objectMapper.writeValueAsString(scheduleDTO)).contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isNotFound())
+                .andExpect(result -> assertInstanceOf(DoctorDoesNotExistException.class, result.getResolvedException()))
+                .andExpect(result -> assertEquals(exceptionMsg, result.getResponse().getContentAsString()));
+    }
+
     @Test
     void createVisit_DoctorWithGivenIdDoesNotExist_ThenIsNotFound() throws Exception {
         // Given
@@ -270,4 +384,172 @@ public class VisitControllerTest {
                 .andExpect(jsonPath("$.appointmentEnd").value(
                         YEAR + "-01-01T12:30:00"));
     }
-}
+
+    @Test
+    void assignVisitToPatient_VisitIsAlreadyBooked_ThenIsConflict() throws Exception {
+        // Given
+        String exceptionMsg = "Visit is already booked by another patient.";
+        Long visitId = 1L;
+        Long patientId = 1L;
+        when(visitService.assignVisitToPatient(any(), any())).thenThrow(new VisitAlreadyBookedException(exceptionMsg));
+        // Then
+        mockMvc.perform(patch("/visits/patient/{patientId}", patientId).content(objectMapper.writeValueAsString(visitId)).contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isConflict())
+                .andExpect(result -> assertInstanceOf(VisitAlreadyBookedException.class, result.getResolvedException()))
+                .andExpect(result -> assertEquals(exceptionMsg, result.getResponse().getContentAsString()));
+    }
+
+    @Test
+    void cancelVisit_VisitBookedByPatient_VisitDTOReturned() throws Exception {
+        // Given
+        Visit visit = VisitFactory.getVisit();
+        Long patientId = 1L;
+        when(visitService.cancelVisit(visit.getId(), patientId)).thenReturn(visit);
+        // Then
+        mockMvc.perform(patch("/visits/patient/{patientId}/cancel", patientId).content(objectMapper.writeValueAsString(visit.getId())).contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(visit.getId()))
+                .andExpect(jsonPath("$.patientId").doesNotExist());
+    }
+
+    @Test
+    void cancelVisit_VisitNotBookedByPatient_ThenIsBadRequest() throws Exception {
+        // Given
+        String exceptionMsg = "Visit is not booked by given patient.";
+        Long visitId = 1L;
+        Long patientId = 1L;
+        when(visitService.cancelVisit(any(), any())).thenThrow(new VisitNotBookedException(exceptionMsg));
+        // Then
+        mockMvc.perform(patch("/visits/patient/{patientId}/cancel", patientId).content(objectMapper.writeValueAsString(visitId)).contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertInstanceOf(VisitNotBookedException.class, result.getResolvedException()))
+                .andExpect(result -> assertEquals(exceptionMsg, result.getResponse().getContentAsString()));
+    }
+
+    @Test
+    void joinWaitlist_DoctorIsFullyBooked_WaitlistEntryDTOReturned() throws Exception {
+        // Given
+        var waitlistEntry = WaitlistEntryFactory.getWaitlistEntry();
+        WaitlistEntryCreationDTO waitlistEntryCreationDTO = WaitlistEntryFactory.getWaitlistEntryCreationDTO();
+        when(visitService.joinWaitlist(1L, waitlistEntryCreationDTO.getPatientId(), waitlistEntryCreationDTO.getVisitDate()))
+                .thenReturn(waitlistEntry);
+        // Then
+        mockMvc.perform(post("/visits/doctor/{doctorId}/waitlist", 1L).content(objectMapper.writeValueAsString(waitlistEntryCreationDTO)).contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.doctorId").value(1))
+                .andExpect(jsonPath("$.patientId").value(1))
+                .andExpect(jsonPath("$.visitDate").value(waitlistEntry.getVisitDate().toString()));
+    }
+
+    @Test
+    void joinWaitlist_PatientAlreadyWaiting_ThenIsBadRequest() throws Exception {
+        // Given
+        String exceptionMsg = "Patient is already waiting for a visit on given day.";
+        WaitlistEntryCreationDTO waitlistEntryCreationDTO = WaitlistEntryFactory.getWaitlistEntryCreationDTO();
+        when(visitService.joinWaitlist(any(), any(), any())).thenThrow(new WaitlistEntryExistsException(exceptionMsg));
+        // Then
+        mockMvc.perform(post("/visits/doctor/{doctorId}/waitlist", 1L).content(objectMapper.writeValueAsString(waitlistEntryCreationDTO)).contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertInstanceOf(WaitlistEntryExistsException.class, result.getResolvedException()))
+                .andExpect(result -> assertEquals(exceptionMsg, result.getResponse().getContentAsString()));
+    }
+
+    @Test
+    void scrollVisits_WithStatusAvailable_CursorPageOfFreeVisitsReturned() throws Exception {
+        // Given
+        Visit visit = VisitFactory.getVisit();
+        when(visitService.getFreeVisits((VisitCursor) null, 1)).thenReturn(new SliceImpl<>(List.of(visit), PageRequest.ofSize(1), true));
+        // Then
+        mockMvc.perform(get("/visits/scroll")
+                        .param("status", VisitStatus.AVAILABLE.toString())
+                        .param("size", "1"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].appointmentStart").value(YEAR + "-01-01T12:00:00"))
+                .andExpect(jsonPath("$.next").value(VisitCursor.of(visit).encode()));
+    }
+
+    @Test
+    void getVisits_WithStatusAvailableAndTotalRequested_TotalCountHeaderReturned() throws Exception {
+        // Given
+        Visit visit = VisitFactory.getVisit();
+        when(visitService.getFreeVisits(any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(visit)));
+        when(visitService.countFreeVisits()).thenReturn(7L);
+        // Then
+        mockMvc.perform(get("/visits")
+                        .param("status", VisitStatus.AVAILABLE.toString())
+                        .param("withTotal", "true"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "7"))
+                .andExpect(jsonPath("$[0].appointmentStart").value(YEAR + "-01-01T12:00:00"));
+    }
+
+    @Test
+    void exportVisits_FormatCsv_CsvStreamed() throws Exception {
+        // Given
+        Visit visit = VisitFactory.getVisit();
+        when(visitExporter.export(any(), any())).thenAnswer(invocation -> {
+            Consumer<Visit> consumer = invocation.getArgument(1);
+            consumer.accept(visit);
+            return 1L;
+        });
+        // When
+        MvcResult mvcResult = mockMvc.perform(get("/visits/export")
+                        .param("format", ExportFormat.CSV.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // Then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(content().string("id,appointmentStart,appointmentEnd,doctorId,patientId\n" +
+                        "1," + YEAR + "-01-01T12:00," + YEAR + "-01-01T12:30,,\n"));
+    }
+
+    @Test
+    void exportVisits_FormatNdjson_JsonLineStreamed() throws Exception {
+        // Given
+        Visit visit = VisitFactory.getVisit();
+        when(visitExporter.export(any(), any())).thenAnswer(invocation -> {
+            Consumer<Visit> consumer = invocation.getArgument(1);
+            consumer.accept(visit);
+            return 1L;
+        });
+        // When
+        MvcResult mvcResult = mockMvc.perform(get("/visits/export")
+                        .param("format", ExportFormat.NDJSON.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // Then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(content().string("{\"id\":1,\"appointmentStart\":\"" + YEAR + "-01-01T12:00:00\"," +
+                        "\"appointmentEnd\":\"" + YEAR + "-01-01T12:30:00\",\"doctorId\":null,\"patientId\":null}\n"));
+    }
+
+    @Test
+    void exportVisits_EndTimeBeforeStartTime_ThenIsBadRequest() throws Exception {
+        // Given
+        String exceptionMsg = "Export end time should be after start time.";
+        doThrow(new InvalidDateTimeException(exceptionMsg)).when(visitExporter).validate(any());
+        // Then
+        mockMvc.perform(get("/visits/export")
+                        .param("format", ExportFormat.CSV.toString())
+                        .param("from", YEAR + "-01-02T00:00:00")
+                        .param("to", YEAR + "-01-01T00:00:00"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertInstanceOf(InvalidDateTimeException.class, result.getResolvedException()))
+                .andExpect(result -> assertEquals(exceptionMsg, result.getResponse().getContentAsString()));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.kustlik.medicalclinic.controller.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kustlik.medicalclinic.model.entity.Patient;
+import com.kustlik.medicalclinic.model.mapper.PatientMapper;
+import com.kustlik.medicalclinic.service.imports.PatientImportRow;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class PatientImportReaderTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final PatientMapper patientMapper = Mappers.getMapper(PatientMapper.class);
+
+    @Test
+    void next_NdjsonGiven_PatientsReadWithLineNumbers() {
+        // Given
+        String content = """
+                {"email":"jankow@gmail.com","idCardNo":"12345","firstName":"Jan","lastName":"Kowalski","password":"password123","birthday":"2000-01-01"}
+
+                {"email":"annnow@gmail.com","idCardNo":"54321","firstName":"Anna","lastName":"Nowak","password":"password123","birthday":"1990-05-05"}
+                """;
+        // When
+        List<PatientImportRow> rows = read(ImportFormat.NDJSON, content);
+        // Then
+        Assertions.assertEquals(2, rows.size());
+        Assertions.assertEquals(1, rows.get(0).getLine());
+        Assertions.assertEquals("jankow@gmail.com", rows.get(0).getPatient().getEmail());
+        Assertions.assertEquals(LocalDate.of(2000, 1, 1), rows.get(0).getPatient().getBirthday());
+        Assertions.assertEquals(3, rows.get(1).getLine());
+        Assertions.assertEquals("Nowak", rows.get(1).getPatient().getLastName());
+    }
+
+    @Test
+    void next_NdjsonLineIsMalformed_MalformedRowReturned() {
+        // Given
+        String content = "{\"email\":\"jankow@gmail.com\"\n";
+        // When
+        List<PatientImportRow> rows = read(ImportFormat.NDJSON, content);
+        // Then
+        Assertions.assertEquals(1, rows.size());
+        Assertions.assertNull(rows.get(0).getPatient());
+        Assertions.assertEquals("Malformed record.", rows.get(0).getError());
+    }
+
+    @Test
+    void next_CsvWithReorderedAndQuotedColumnsGiven_PatientsRead() {
+        // Given
+        String content = """
+                lastName,firstName,email,idCardNo,password,birthday
+                "Kowalski, Jr.",Jan,jankow@gmail.com,12345,"pass""word",2000-01-01
+                Nowak,Anna,annnow@gmail.com,,password123,1990-05-05
+                """;
+        // When
+        List<PatientImportRow> rows = read(ImportFormat.CSV, content);
+        // Then
+        Assertions.assertEquals(2, rows.size());
+        Patient first = rows.get(0).getPatient();
+        Assertions.assertEquals(2, rows.get(0).getLine());
+        Assertions.assertEquals("Kowalski, Jr.", first.getLastName());
+        Assertions.assertEquals("pass\"word", first.getPassword());
+        Assertions.assertEquals(LocalDate.of(2000, 1, 1), first.getBirthday());
+        Assertions.assertNull(rows.get(1).getPatient().getIdCardNo());
+    }
+
+    @Test
+    void next_CsvLineHasWrongColumnCountOrDate_MalformedRowsReturned() {
+        // Given
+        String content = """
+                email,idCardNo,firstName,lastName,password,birthday
+                jankow@gmail.com,12345,Jan,Kowalski,password123
+                annnow@gmail.com,54321,Anna,Nowak,password123,05.05.1990
+                karkow@gmail.com,"12345,Karol,Wojczyk,password123,1990-06-12
+                """;
+        // When
+        List<PatientImportRow> rows = read(ImportFormat.CSV, content);
+        // Then
+        Assertions.assertEquals(3, rows.size());
+        Assertions.assertTrue(rows.stream().allMatch(row -> row.getPatient() == null));
+        Assertions.assertEquals(List.of(2L, 3L, 4L), rows.stream().map(PatientImportRow::getLine).toList());
+    }
+
+    private List<PatientImportRow> read(ImportFormat format, String content) {
+        PatientImportReader reader = new PatientImportReader(format, objectMapper, patientMapper,
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+        List<PatientImportRow> rows = new ArrayList<>();
+        reader.forEachRemaining(rows::add);
+        return rows;
+    }
+}
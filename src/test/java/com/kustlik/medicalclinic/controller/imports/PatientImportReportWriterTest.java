@@ -0,0 +1,42 @@
+package com.kustlik.medicalclinic.controller.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kustlik.medicalclinic.model.dto.patient.PatientImportErrorDTO;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class PatientImportReportWriterTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void writeChunk_ErrorsGiven_LinesFlushedToOutputStream() {
+        // Given
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        PatientImportReportWriter writer = new PatientImportReportWriter(objectMapper, outputStream);
+        List<PatientImportErrorDTO> errors = List.of(
+                PatientImportErrorDTO.builder().line(2).reason("Malformed record.").build(),
+                PatientImportErrorDTO.builder().line(5).reason("Malformed record.").build());
+        // When
+        writer.writeChunk(errors);
+        // Then
+        Assertions.assertEquals("""
+                {"line":2,"email":null,"reason":"Malformed record."}
+                {"line":5,"email":null,"reason":"Malformed record."}
+                """, outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void write_LineGivenWithoutFlush_LineBuffered() {
+        // Given
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        PatientImportReportWriter writer = new PatientImportReportWriter(objectMapper, outputStream);
+        // When
+        writer.write(PatientImportErrorDTO.builder().line(2).reason("Malformed record.").build());
+        // Then
+        Assertions.assertEquals(0, outputStream.size());
+    }
+}
@@ -1,12 +1,16 @@
 package com.kustlik.medicalclinic.factory;
 
+import com.kustlik.medicalclinic.model.dto.doctor.DoctorAssignmentDTO;
 import com.kustlik.medicalclinic.model.dto.doctor.DoctorCreationDTO;
 import com.kustlik.medicalclinic.model.dto.doctor.DoctorDTO;
 import com.kustlik.medicalclinic.model.entity.Doctor;
 import com.kustlik.medicalclinic.model.entity.MedicalFacility;
+import com.kustlik.medicalclinic.model.projection.DoctorSummary;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class DoctorFactory {
     public static Doctor getDoctor() {
@@ -17,10 +21,10 @@ public class DoctorFactory {
                 "Kowalski",
                 "password123",
                 "Psychiatra",
-                new ArrayList<>());
+                new HashSet<>());
     }
 
-    public static Doctor getDoctor(Long id, String email, String firstName, String lastName, String password, String specialisation, List<MedicalFacility> medicalFacilities) {
+    public static Doctor getDoctor(Long id, String email, String firstName, String lastName, String password, String specialisation, Set<MedicalFacility> medicalFacilities) {
         return Doctor.builder()
                 .id(id)
                 .email(email)
@@ -70,4 +74,40 @@ public class DoctorFactory {
                 .specialisation(specialisation)
                 .build();
     }
+
+    public static DoctorSummary getDoctorSummary(Doctor doctor) {
+        return new DoctorSummary() {
+            @Override
+            public Long getId() {
+                return doctor.getId();
+            }
+
+            @Override
+            public String getEmail() {
+                return doctor.getEmail();
+            }
+
+            @Override
+            public String getFirstName() {
+                return doctor.getFirstName();
+            }
+
+            @Override
+            public String getLastName() {
+                return doctor.getLastName();
+            }
+
+            @Override
+            public String getSpecialisation() {
+                return doctor.getSpecialisation();
+            }
+        };
+    }
+
+    public static DoctorAssignmentDTO getDoctorAssignmentDTO(Long doctorId, Long medicalFacilityId) {
+        return DoctorAssignmentDTO.builder()
+                .doctorId(doctorId)
+                .medicalFacilityId(medicalFacilityId)
+                .build();
+    }
 }
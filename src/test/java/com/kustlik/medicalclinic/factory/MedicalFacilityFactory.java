@@ -3,9 +3,12 @@ package com.kustlik.medicalclinic.factory;
 import com.kustlik.medicalclinic.model.dto.medical_facility.MedicalFacilityDTO;
 import com.kustlik.medicalclinic.model.entity.Doctor;
 import com.kustlik.medicalclinic.model.entity.MedicalFacility;
+import com.kustlik.medicalclinic.model.projection.MedicalFacilitySummary;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class MedicalFacilityFactory {
     public static MedicalFacility getMedicalFacility() {
@@ -16,10 +19,10 @@ public class MedicalFacilityFactory {
                 "Covermedi",
                 "Opolska",
                 "65-346",
-                new ArrayList<>());
+                new HashSet<>());
     }
 
-    public static MedicalFacility getMedicalFacility(Long id, String buildingNumber, String city, String name, String street, String zipCode, List<Doctor> doctors) {
+    public static MedicalFacility getMedicalFacility(Long id, String buildingNumber, String city, String name, String street, String zipCode, Set<Doctor> doctors) {
         return MedicalFacility.builder()
                 .id(id)
                 .buildingNumber(buildingNumber)
@@ -51,4 +54,38 @@ public class MedicalFacilityFactory {
                 .doctorIds(doctorIds)
                 .build();
     }
+
+    public static MedicalFacilitySummary getMedicalFacilitySummary(MedicalFacility medicalFacility) {
+        return new MedicalFacilitySummary() {
+            @Override
+            public Long getId() {
+                return medicalFacility.getId();
+            }
+
+            @Override
+            public String getName() {
+                return medicalFacility.getName();
+            }
+
+            @Override
+            public String getCity() {
+                return medicalFacility.getCity();
+            }
+
+            @Override
+            public String getZipCode() {
+                return medicalFacility.getZipCode();
+            }
+
+            @Override
+            public String getStreet() {
+                return medicalFacility.getStreet();
+            }
+
+            @Override
+            public String getBuildingNumber() {
+                return medicalFacility.getBuildingNumber();
+            }
+        };
+    }
 }
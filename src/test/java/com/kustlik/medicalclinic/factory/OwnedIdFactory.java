@@ -0,0 +1,19 @@
+package com.kustlik.medicalclinic.factory;
+
+import com.kustlik.medicalclinic.model.projection.OwnedId;
+
+public class OwnedIdFactory {
+    public static OwnedId getOwnedId(Long ownerId, Long id) {
+        return new OwnedId() {
+            @Override
+            public Long getOwnerId() {
+                return ownerId;
+            }
+
+            @Override
+            public Long getId() {
+                return id;
+            }
+        };
+    }
+}
@@ -4,6 +4,7 @@ import com.kustlik.medicalclinic.model.dto.patient.PatientCreationDTO;
 import com.kustlik.medicalclinic.model.dto.patient.PatientDTO;
 import com.kustlik.medicalclinic.model.dto.patient.PatientPasswordDTO;
 import com.kustlik.medicalclinic.model.entity.Patient;
+import com.kustlik.medicalclinic.model.projection.PatientSummary;
 
 import java.time.LocalDate;
 
@@ -82,4 +83,33 @@ public class PatientFactory {
                 .password(password)
                 .build();
     }
+
+    public static PatientSummary getPatientSummary(Patient patient) {
+        return new PatientSummary() {
+            @Override
+            public Long getId() {
+                return patient.getId();
+            }
+
+            @Override
+            public String getEmail() {
+                return patient.getEmail();
+            }
+
+            @Override
+            public String getFirstName() {
+                return patient.getFirstName();
+            }
+
+            @Override
+            public String getLastName() {
+                return patient.getLastName();
+            }
+
+            @Override
+            public LocalDate getBirthday() {
+                return patient.getBirthday();
+            }
+        };
+    }
 }
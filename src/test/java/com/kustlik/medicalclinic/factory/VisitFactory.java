@@ -2,11 +2,16 @@ package com.kustlik.medicalclinic.factory;
 
 import com.kustlik.medicalclinic.model.dto.visit.VisitCreationDTO;
 import com.kustlik.medicalclinic.model.dto.visit.VisitDTO;
+import com.kustlik.medicalclinic.model.dto.visit.VisitScheduleDTO;
 import com.kustlik.medicalclinic.model.entity.Doctor;
 import com.kustlik.medicalclinic.model.entity.Patient;
 import com.kustlik.medicalclinic.model.entity.Visit;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Set;
 
 public class VisitFactory {
     private static int YEAR = 2029;
@@ -59,4 +64,25 @@ public class VisitFactory {
                 .appointmentEnd(appointmentEnd)
                 .build();
     }
-}
+
+    public static VisitScheduleDTO getVisitScheduleDTO() {
+        return getVisitScheduleDTO(
+                LocalDate.of(YEAR, 1, 1),
+                LocalDate.of(YEAR, 1, 7),
+                Set.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY),
+                LocalTime.of(9, 0),
+                LocalTime.of(11, 0),
+                30);
+    }
+
+    public static VisitScheduleDTO getVisitScheduleDTO(LocalDate startDate, LocalDate endDate, Set<DayOfWeek> daysOfWeek, LocalTime startTime, LocalTime endTime, Integer slotDurationInMinutes) {
+        return VisitScheduleDTO.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .daysOfWeek(daysOfWeek)
+                .startTime(startTime)
+                .endTime(endTime)
+                .slotDurationInMinutes(slotDurationInMinutes)
+                .build();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.kustlik.medicalclinic.factory;
+
+import com.kustlik.medicalclinic.model.dto.waitlist.WaitlistEntryCreationDTO;
+import com.kustlik.medicalclinic.model.entity.Doctor;
+import com.kustlik.medicalclinic.model.entity.Patient;
+import com.kustlik.medicalclinic.model.entity.WaitlistEntry;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class WaitlistEntryFactory {
+    private static final int YEAR = LocalDateTime.now().getYear() + 1;
+
+    public static WaitlistEntry getWaitlistEntry() {
+        return getWaitlistEntry(
+                1L,
+                DoctorFactory.getDoctor(),
+                PatientFactory.getPatient(),
+                LocalDate.of(YEAR, 1, 1));
+    }
+
+    public static WaitlistEntry getWaitlistEntry(Long id, Doctor doctor, Patient patient, LocalDate visitDate) {
+        return WaitlistEntry.builder()
+                .id(id)
+                .doctor(doctor)
+                .patient(patient)
+                .visitDate(visitDate)
+                .createdAt(LocalDateTime.of(YEAR - 1, 12, 1, 8, 0))
+                .build();
+    }
+
+    public static WaitlistEntryCreationDTO getWaitlistEntryCreationDTO() {
+        return getWaitlistEntryCreationDTO(1L, LocalDate.of(YEAR, 1, 1));
+    }
+
+    public static WaitlistEntryCreationDTO getWaitlistEntryCreationDTO(Long patientId, LocalDate visitDate) {
+        return WaitlistEntryCreationDTO.builder()
+                .patientId(patientId)
+                .visitDate(visitDate)
+                .build();
+    }
+}
@@ -0,0 +1,138 @@
+package com.kustlik.medicalclinic.integration;
+
+import com.kustlik.medicalclinic.model.entity.Doctor;
+import com.kustlik.medicalclinic.model.entity.Patient;
+import com.kustlik.medicalclinic.model.entity.Visit;
+import com.kustlik.medicalclinic.repository.PatientRepository;
+import com.kustlik.medicalclinic.repository.VisitRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.IntFunction;
+
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Sql(scripts = {"file:src/test/resources/sql/doctor_clear_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/doctor_insert_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/visit_clear_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/patient_clear_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@Sql(statements = "CREATE TABLE identity_patient (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+        "email VARCHAR(255), normalized_email VARCHAR(255) UNIQUE, id_card_no VARCHAR(255) UNIQUE, " +
+        "first_name VARCHAR(255), last_name VARCHAR(255), password VARCHAR(255), birthday DATE)",
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(statements = "DROP TABLE identity_patient",
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class BulkInsertBenchmarkTest {
+    private static final int ROWS = 100_000;
+    private static final int WARMUP_ROWS = 10_000;
+    private static final int FLUSH_INTERVAL = 1000;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private VisitRepository visitRepository;
+
+    @Test
+    void persist_Benchmark_BatchedInsertsFasterThanRowByRow() {
+        // Given
+        Doctor doctor = entityManager.getReference(Doctor.class, 1L);
+        persist(WARMUP_ROWS, null, i -> identityPatient("warmup-identity", i));
+        persist(WARMUP_ROWS, 1, i -> patient("warmup-single", i));
+        persist(WARMUP_ROWS, null, i -> patient("warmup-batched", i));
+        // When
+        long identityPatients = measure(null, i -> identityPatient("identity", i));
+        long rowByRowPatients = measure(1, i -> patient("single", i));
+        long rowByRowVisits = measure(1, i -> visit(doctor, i));
+        long batchedPatients = measure(null, i -> patient("batched", i));
+        long batchedVisits = measure(null, i -> visit(doctor, i + ROWS));
+        // Then
+        System.out.printf("Persisting %d rows: patients %d ms with IDENTITY ids, %d ms from the sequence row by row, " +
+                        "%d ms from the sequence batched (%.1fx over IDENTITY); " +
+                        "visits %d ms row by row, %d ms batched (%.1fx)%n",
+                ROWS, identityPatients, rowByRowPatients, batchedPatients, (double) identityPatients / batchedPatients,
+                rowByRowVisits, batchedVisits, (double) rowByRowVisits / batchedVisits);
+        Assertions.assertEquals((long) ROWS + WARMUP_ROWS, entityManager
+                .createQuery("SELECT COUNT(p) FROM IdentityPatient p", Long.class)
+                .getSingleResult());
+        Assertions.assertEquals(2L * ROWS + 2L * WARMUP_ROWS, patientRepository.count());
+        Assertions.assertEquals(2L * ROWS, visitRepository.count());
+    }
+
+    private long measure(Integer jdbcBatchSize, IntFunction<Object> entity) {
+        long start = System.nanoTime();
+        persist(ROWS, jdbcBatchSize, entity);
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private void persist(int rows, Integer jdbcBatchSize, IntFunction<Object> entity) {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+            for (int i = 0; i < rows; i++) {
+                entityManager.persist(entity.apply(i));
+                if ((i + 1) % FLUSH_INTERVAL == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        });
+    }
+
+    private static Patient patient(String prefix, int i) {
+        return Patient.builder()
+                .email(prefix + i + "@gmail.com")
+                .idCardNo(prefix + i)
+                .firstName("Jan")
+                .lastName("Kowalski")
+                .password("haslo123")
+                .birthday(LocalDate.of(1990, 1, 1))
+                .build();
+    }
+
+    private static IdentityPatient identityPatient(String prefix, int i) {
+        return IdentityPatient.builder()
+                .email(prefix + i + "@gmail.com")
+                .normalizedEmail(prefix + i + "@gmail.com")
+                .idCardNo(prefix + i)
+                .firstName("Jan")
+                .lastName("Kowalski")
+                .password("haslo123")
+                .birthday(LocalDate.of(1990, 1, 1))
+                .build();
+    }
+
+    private static Visit visit(Doctor doctor, int i) {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0).plusMinutes(30L * i);
+        return Visit.builder()
+                .appointmentStart(start)
+                .appointmentEnd(start.plusMinutes(30))
+                .doctor(doctor)
+                .build();
+    }
+}
@@ -0,0 +1,131 @@
+package com.kustlik.medicalclinic.integration;
+
+import com.kustlik.medicalclinic.model.entity.Doctor;
+import com.kustlik.medicalclinic.model.entity.MedicalFacility;
+import com.kustlik.medicalclinic.repository.DoctorRepository;
+import com.kustlik.medicalclinic.repository.MedicalFacilityRepository;
+import com.kustlik.medicalclinic.service.DoctorService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Sql(scripts = {"file:src/test/resources/sql/doctor_clear_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/doctor_insert_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/medical_facility_clear_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class DoctorAssignmentBenchmarkTest {
+    private static final Long DOCTOR_ID = 1L;
+    private static final int ASSIGNED_FACILITIES = 500;
+    private static final int ASSIGNMENTS = 100;
+    private static final int LOOKUPS = 1_000_000;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private MedicalFacilityRepository medicalFacilityRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void assignDoctorToMedicalFacility_Benchmark_SetAssignmentAndLookupScaleWithFacilities() {
+        // Given
+        List<MedicalFacility> facilities = new ArrayList<>();
+        for (int i = 0; i < ASSIGNED_FACILITIES + ASSIGNMENTS; i++) {
+            facilities.add(facility(i));
+        }
+        List<Long> facilityIds = medicalFacilityRepository.saveAll(facilities).stream()
+                .map(MedicalFacility::getId)
+                .toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            Doctor doctor = doctorRepository.findById(DOCTOR_ID).orElseThrow();
+            doctor.getMedicalFacilities().addAll(medicalFacilityRepository.findAllById(facilityIds.subList(0, ASSIGNED_FACILITIES)));
+        });
+        // When
+        List<String> statements = SqlStatementCapture.capture(() ->
+                doctorService.assignDoctorToMedicalFacility(DOCTOR_ID, facilityIds.get(ASSIGNED_FACILITIES)));
+        long start = System.nanoTime();
+        for (Long facilityId : facilityIds.subList(ASSIGNED_FACILITIES + 1, facilityIds.size())) {
+            doctorService.assignDoctorToMedicalFacility(DOCTOR_ID, facilityId);
+        }
+        long assignmentMicros = (System.nanoTime() - start) / 1000 / (ASSIGNMENTS - 1);
+
+        Set<MedicalFacility> assigned = transactionTemplate.execute(status ->
+                new HashSet<>(doctorRepository.findById(DOCTOR_ID).orElseThrow().getMedicalFacilities()));
+        List<MedicalFacility> probes = medicalFacilityRepository.findAllById(facilityIds);
+        List<MedicalFacility> bag = new ArrayList<>(assigned);
+        Set<ClassHashed> classHashed = new HashSet<>();
+        assigned.forEach(facility -> classHashed.add(new ClassHashed(facility)));
+        long setNanos = measure(probes, assigned::contains);
+        long bagNanos = measure(probes, probe -> bag.stream().anyMatch(facility -> Objects.equals(facility.getId(), probe.getId())));
+        long classHashedNanos = measure(probes, probe -> classHashed.contains(new ClassHashed(probe)));
+        // Then
+        System.out.printf("Doctor with %d facilities: assignment %d us, %d join table insert(s), %d delete(s); " +
+                        "membership check %d ns with natural-key hashing, %d ns by list scan, %d ns with class hashing%n",
+                assigned.size(), assignmentMicros,
+                statements.stream().filter(sql -> sql.startsWith("insert into doctor_medical_facility")).count(),
+                statements.stream().filter(sql -> sql.startsWith("delete from doctor_medical_facility")).count(),
+                setNanos, bagNanos, classHashedNanos);
+        Assertions.assertEquals(ASSIGNED_FACILITIES + ASSIGNMENTS, assigned.size());
+    }
+
+    private static long measure(List<MedicalFacility> probes, Predicate<MedicalFacility> contains) {
+        int found = 0;
+        for (int i = 0; i < LOOKUPS / 10; i++) {
+            found += contains.test(probes.get(i % probes.size())) ? 1 : 0;
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            found += contains.test(probes.get(i % probes.size())) ? 1 : 0;
+        }
+        long elapsed = System.nanoTime() - start;
+        Assertions.assertTrue(found > 0);
+        return elapsed / LOOKUPS;
+    }
+
+    private static MedicalFacility facility(int i) {
+        return MedicalFacility.builder()
+                .name("Facility " + i)
+                .city("Warszawa")
+                .zipCode("00-001")
+                .street("Marszałkowska")
+                .buildingNumber(String.valueOf(i))
+                .doctors(new HashSet<>())
+                .build();
+    }
+
+    private record ClassHashed(MedicalFacility facility) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ClassHashed other && facility.equals(other.facility);
+        }
+
+        @Override
+        public int hashCode() {
+            return MedicalFacility.class.hashCode();
+        }
+    }
+}
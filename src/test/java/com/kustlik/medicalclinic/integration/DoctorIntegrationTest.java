@@ -3,17 +3,32 @@ package com.kustlik.medicalclinic.integration;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kustlik.medicalclinic.exception.*;
 import com.kustlik.medicalclinic.factory.DoctorFactory;
+import com.kustlik.medicalclinic.factory.MedicalFacilityFactory;
+import com.kustlik.medicalclinic.model.cursor.IdCursor;
+import com.kustlik.medicalclinic.model.dto.doctor.DoctorAssignmentDTO;
 import com.kustlik.medicalclinic.model.dto.doctor.DoctorCreationDTO;
+import com.kustlik.medicalclinic.repository.MedicalFacilityRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.jdbc.SqlConfig;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -48,6 +63,15 @@ public class DoctorIntegrationTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private MedicalFacilityRepository medicalFacilityRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Test
     void getDoctors_DoctorsExists_ListOfDoctorDTOReturned() throws Exception {
         // Then
@@ -198,4 +222,208 @@ public class DoctorIntegrationTest {
                 .andExpect(jsonPath("$.specialisation").value("Ortopeda"))
                 .andExpect(jsonPath("$.medicalFacilityIds[0]").value("1"));
     }
+
+    @Test
+    void createDoctorAssignments_MixedAssignmentsAreGiven_NewOnesInsertedAndOthersReported() throws Exception {
+        // Given
+        List<DoctorAssignmentDTO> assignments = List.of(
+                DoctorFactory.getDoctorAssignmentDTO(1L, 1L),
+                DoctorFactory.getDoctorAssignmentDTO(1L, 2L),
+                DoctorFactory.getDoctorAssignmentDTO(2L, 1L),
+                DoctorFactory.getDoctorAssignmentDTO(1L, 1L),
+                DoctorFactory.getDoctorAssignmentDTO(5L, 1L),
+                DoctorFactory.getDoctorAssignmentDTO(1L, 5L));
+        // When
+        mockMvc.perform(post("/doctors/assignments").content(objectMapper.writeValueAsString(assignments)).contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.createdCount").value(2))
+                .andExpect(jsonPath("$.rejectedCount").value(4))
+                .andExpect(jsonPath("$.rejectedAssignments[0].reason").value("Doctor with given ID does not exist."))
+                .andExpect(jsonPath("$.rejectedAssignments[1].reason").value("Medical facility with given ID does not exist."))
+                .andExpect(jsonPath("$.rejectedAssignments[2].doctorId").value(2))
+                .andExpect(jsonPath("$.rejectedAssignments[2].reason").value("Doctor is already assigned to this facility."))
+                .andExpect(jsonPath("$.rejectedAssignments[3].doctorId").value(1))
+                .andExpect(jsonPath("$.rejectedAssignments[3].reason").value("Doctor is already assigned to this facility."));
+        // Then
+        mockMvc.perform(get("/doctors/{email}", "jankowski@gmail.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.medicalFacilityIds.length()").value(2));
+    }
+
+    @Test
+    void createDoctorAssignments_ConcurrentInsertWinsRace_ReportedAsAlreadyAssigned() throws Exception {
+        // Given
+        List<DoctorAssignmentDTO> assignments = List.of(
+                DoctorFactory.getDoctorAssignmentDTO(1L, 1L),
+                DoctorFactory.getDoctorAssignmentDTO(1L, 2L));
+        CountDownLatch inserted = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> concurrentInsert = executor.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO doctor_medical_facility (doctor_id, medical_facility_id) VALUES (1, 1)");
+            inserted.countDown();
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        inserted.await();
+        // When
+        mockMvc.perform(post("/doctors/assignments").content(objectMapper.writeValueAsString(assignments)).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.createdCount").value(1))
+                .andExpect(jsonPath("$.rejectedCount").value(1))
+                .andExpect(jsonPath("$.rejectedAssignments[0].medicalFacilityId").value(1))
+                .andExpect(jsonPath("$.rejectedAssignments[0].reason").value("Doctor is already assigned to this facility."));
+        // Then
+        concurrentInsert.get();
+        executor.shutdown();
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM doctor_medical_facility WHERE doctor_id = 1", Integer.class));
+    }
+
+    @Test
+    void createDoctorAssignments_AssignmentsAreGiven_NoCollectionLoaded() {
+        // Given
+        List<DoctorAssignmentDTO> assignments = List.of(
+                DoctorFactory.getDoctorAssignmentDTO(1L, 1L),
+                DoctorFactory.getDoctorAssignmentDTO(2L, 1L));
+        // When
+        List<String> statements = SqlStatementCapture.capture(() -> {
+            try {
+                mockMvc.perform(post("/doctors/assignments").content(objectMapper.writeValueAsString(assignments)).contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isCreated())
+                        .andExpect(jsonPath("$.createdCount").value(1));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        // Then
+        assertEquals(2, statements.size());
+        assertFalse(statements.stream().anyMatch(sql -> sql.contains("doctor_medical_facility")));
+    }
+
+    @Test
+    void scrollDoctors_DoctorsExist_DoctorsReturnedPageByPage() throws Exception {
+        // Given
+        mockMvc.perform(get("/doctors/scroll")
+                        .param("size", "1"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].email").value("jankowski@gmail.com"))
+                .andExpect(jsonPath("$.next").value(new IdCursor(1L).encode()));
+        // Then
+        mockMvc.perform(get("/doctors/scroll")
+                        .param("cursor", new IdCursor(1L).encode())
+                        .param("size", "1"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].email").value("baczynski@gmail.com"))
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    @Test
+    void getDoctors_PageRequested_ThreeStatementsExecutedRegardlessOfPageSize() {
+        // When
+        List<String> statements = SqlStatementCapture.capture(() -> {
+            try {
+                mockMvc.perform(get("/doctors"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.length()").value(2))
+                        .andExpect(jsonPath("$[1].medicalFacilityIds.length()").value(2));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        // Then
+        assertEquals(3, statements.size());
+    }
+
+    @Test
+    void getDoctorFields_ScalarFieldsRequested_SingleNarrowStatementExecuted() {
+        // When
+        List<String> statements = SqlStatementCapture.capture(() -> {
+            try {
+                mockMvc.perform(get("/doctors")
+                                .param("fields", "email,lastName"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$[1].email").value("baczynski@gmail.com"))
+                        .andExpect(jsonPath("$[1].lastName").value("Borczek"))
+                        .andExpect(jsonPath("$[1].firstName").doesNotExist())
+                        .andExpect(jsonPath("$[1].medicalFacilityIds").doesNotExist());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        // Then
+        assertEquals(1, statements.size());
+        assertFalse(statements.get(0).contains("specialisation"));
+        assertFalse(statements.get(0).contains("password"));
+    }
+
+    @Test
+    void getDoctorFields_SortedByLastName_RowsOrderedByLastName() throws Exception {
+        // Then
+        mockMvc.perform(get("/doctors")
+                        .param("fields", "lastName")
+                        .param("sort", "lastName"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].lastName").value("Borczek"))
+                .andExpect(jsonPath("$[1].lastName").value("Nowacki"));
+    }
+
+    @Test
+    void getDoctorFields_SortPropertyIsNotAField_ThenIsBadRequest() throws Exception {
+        // Then
+        mockMvc.perform(get("/doctors")
+                        .param("fields", "email")
+                        .param("sort", "password"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertInstanceOf(InvalidSortException.class, result.getResolvedException()))
+                .andExpect(result -> assertEquals("Cannot sort by: password.", result.getResponse().getContentAsString()));
+    }
+
+    @Test
+    void getDoctorFields_MedicalFacilityIdsRequested_OnlyFacilityIdsQueried() {
+        // When
+        List<String> statements = SqlStatementCapture.capture(() -> {
+            try {
+                mockMvc.perform(get("/doctors")
+                                .param("fields", "medicalFacilityIds"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$[1].medicalFacilityIds.length()").value(2))
+                        .andExpect(jsonPath("$[1].medicalFacilityIds[0]").value(1))
+                        .andExpect(jsonPath("$[1].medicalFacilityIds[1]").value(2))
+                        .andExpect(jsonPath("$[1].visitIds").doesNotExist());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        // Then
+        assertEquals(2, statements.size());
+        assertFalse(statements.stream().anyMatch(sql -> sql.contains("visit")));
+    }
+
+    @Test
+    void createDoctorAssignment_DoctorHasFacilities_SingleJoinRowInserted() {
+        // Given
+        Long doctorId = 2L;
+        Long medicalFacilityId = medicalFacilityRepository.save(MedicalFacilityFactory.getMedicalFacility(
+                null, "12", "Kraków", "Krakmed", "Długa", "30-001", new HashSet<>())).getId();
+        // When
+        List<String> statements = SqlStatementCapture.capture(() -> {
+            try {
+                mockMvc.perform(post("/doctors/{doctorId}/assign", doctorId).content(objectMapper.writeValueAsString(medicalFacilityId)).contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isCreated())
+                        .andExpect(jsonPath("$.medicalFacilityIds.length()").value(3));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        // Then
+        assertEquals(1, statements.stream().filter(sql -> sql.startsWith("insert into doctor_medical_facility")).count());
+        assertFalse(statements.stream().anyMatch(sql -> sql.startsWith("delete from doctor_medical_facility")));
+    }
 }
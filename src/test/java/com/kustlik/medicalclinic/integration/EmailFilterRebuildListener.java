@@ -0,0 +1,17 @@
+package com.kustlik.medicalclinic.integration;
+
+import com.kustlik.medicalclinic.service.filter.DoctorEmailFilter;
+import com.kustlik.medicalclinic.service.filter.EmailFilter;
+import com.kustlik.medicalclinic.service.filter.PatientEmailFilter;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+
+public class EmailFilterRebuildListener extends AbstractTestExecutionListener {
+    @Override
+    public void beforeTestMethod(TestContext testContext) {
+        ApplicationContext applicationContext = testContext.getApplicationContext();
+        applicationContext.getBeanProvider(DoctorEmailFilter.class).ifAvailable(EmailFilter::rebuild);
+        applicationContext.getBeanProvider(PatientEmailFilter.class).ifAvailable(EmailFilter::rebuild);
+    }
+}
@@ -0,0 +1,31 @@
+package com.kustlik.medicalclinic.integration;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Builder
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "identity_patient")
+public class IdentityPatient {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(nullable = false)
+    private Long id;
+    private String email;
+    @Column(unique = true)
+    private String normalizedEmail;
+    @Column(unique = true, updatable = false)
+    private String idCardNo;
+    private String firstName;
+    private String lastName;
+    private String password;
+    private LocalDate birthday;
+}
@@ -14,6 +14,7 @@ import org.springframework.test.context.jdbc.SqlConfig;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
@@ -205,6 +206,24 @@ public class MedicalFacilityIntegrationTest {
                 .andExpect(jsonPath("$.name").value("MediSun"))
                 .andExpect(jsonPath("$.street").value("Piotrkowska"))
                 .andExpect(jsonPath("$.zipCode").value("23-542"))
-                .andExpect(jsonPath("$.doctorIds.[0]").value("2"));
+                .andExpect(jsonPath("$.doctorIds.[0]").value("1"))
+                .andExpect(jsonPath("$.doctorIds.[1]").value("2"));
+    }
+
+    @Test
+    void getMedicalFacilities_PageRequested_TwoStatementsExecutedRegardlessOfPageSize() {
+        // When
+        List<String> statements = SqlStatementCapture.capture(() -> {
+            try {
+                mockMvc.perform(get("/medical_facilities"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.length()").value(2))
+                        .andExpect(jsonPath("$[0].doctorIds[0]").value(2));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        // Then
+        assertEquals(2, statements.size());
     }
 }
@@ -0,0 +1,75 @@
+package com.kustlik.medicalclinic.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kustlik.medicalclinic.controller.imports.ImportFormat;
+import com.kustlik.medicalclinic.controller.imports.PatientImportReader;
+import com.kustlik.medicalclinic.model.dto.patient.PatientImportErrorDTO;
+import com.kustlik.medicalclinic.model.mapper.PatientMapper;
+import com.kustlik.medicalclinic.repository.PatientRepository;
+import com.kustlik.medicalclinic.service.imports.PatientImporter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Sql(scripts = {"file:src/test/resources/sql/patient_clear_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class PatientImportBenchmarkTest {
+    private static final int ROWS = 200_000;
+    private static final int DUPLICATE_INTERVAL = 100;
+    private static final int MIN_ROWS_PER_SECOND = 10_000;
+
+    @Autowired
+    private PatientImporter patientImporter;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PatientMapper patientMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void importPatients_Benchmark_AtLeastTenThousandRowsPerSecond() {
+        // Given
+        byte[] content = ndjson(ROWS).getBytes(StandardCharsets.UTF_8);
+        List<PatientImportErrorDTO> errors = new ArrayList<>();
+        // When
+        long start = System.nanoTime();
+        var summary = patientImporter.importPatients(new PatientImportReader(
+                ImportFormat.NDJSON, objectMapper, patientMapper, new ByteArrayInputStream(content)), errors::addAll);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        // Then
+        long rowsPerSecond = ROWS * 1000L / Math.max(millis, 1);
+        System.out.printf("Importing %d NDJSON rows: %d ms (%d rows/s), %d imported, %d rejected%n",
+                ROWS, millis, rowsPerSecond, summary.getImportedCount(), summary.getRejectedCount());
+        Assertions.assertEquals(ROWS / DUPLICATE_INTERVAL, summary.getRejectedCount());
+        Assertions.assertEquals(summary.getImportedCount(), patientRepository.count());
+        Assertions.assertTrue(rowsPerSecond >= MIN_ROWS_PER_SECOND);
+    }
+
+    private static String ndjson(int rows) {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            int emailNo = i % DUPLICATE_INTERVAL == DUPLICATE_INTERVAL - 1 ? i - 1 : i;
+            content.append("{\"email\":\"patient").append(emailNo).append("@gmail.com\",")
+                    .append("\"idCardNo\":\"ID").append(i).append("\",")
+                    .append("\"firstName\":\"Jan\",\"lastName\":\"Kowalski\",\"password\":\"password123\",")
+                    .append("\"birthday\":\"2000-01-01\"}\n");
+        }
+        return content.toString();
+    }
+}
@@ -2,6 +2,8 @@ package com.kustlik.medicalclinic.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kustlik.medicalclinic.exception.EmptyFieldException;
+import com.kustlik.medicalclinic.exception.InvalidFieldSelectionException;
+import com.kustlik.medicalclinic.exception.InvalidSortException;
 import com.kustlik.medicalclinic.exception.PatientDoesNotExistException;
 import com.kustlik.medicalclinic.exception.PatientExistsException;
 import com.kustlik.medicalclinic.factory.PatientFactory;
@@ -17,17 +19,30 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.jdbc.SqlMergeMode;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -63,6 +78,12 @@ class PatientIntegrationTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Test
     void getPatients_PatientsExists_ListOfPatientDTOReturned() throws Exception {
         // Then
@@ -95,6 +116,74 @@ class PatientIntegrationTest {
                         Matchers.is(LocalDate.of(1980, 2, 2).toString())));
     }
 
+    @Test
+    void getPatients_FieldsAndVisitDateAreGiven_ThenIsBadRequest() throws Exception {
+        // Then
+        mockMvc.perform(get("/patients")
+                        .param("fields", "email")
+                        .param("visitDate", "2029-12-01"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertInstanceOf(InvalidFieldSelectionException.class, result.getResolvedException()))
+                .andExpect(result -> assertEquals("Field selection is not supported together with visitDate.", result.getResponse().getContentAsString()));
+    }
+
+    @Test
+    @SqlMergeMode(SqlMergeMode.MergeMode.MERGE)
+    @Sql(statements = "insert into VISIT (ID, APPOINTMENT_START, APPOINTMENT_END, DOCTOR_ID, PATIENT_ID) values (NEXT VALUE FOR visit_seq, '2029-12-01 14:00:00', '2029-12-01 14:30:00', 1, 2)",
+            config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED))
+    void getPatients_VisitDateAndSortAreGiven_PatientsReturnedInRequestedOrder() throws Exception {
+        // Then
+        mockMvc.perform(get("/patients")
+                        .param("visitDate", "2029-12-01"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].email").value("boczek@gmail.com"))
+                .andExpect(jsonPath("$[1].email").value("karkow@gmail.com"));
+        mockMvc.perform(get("/patients")
+                        .param("visitDate", "2029-12-01")
+                        .param("sort", "lastName,desc"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].email").value("karkow@gmail.com"))
+                .andExpect(jsonPath("$[1].email").value("boczek@gmail.com"));
+    }
+
+    @Test
+    void getPatients_VisitDateAndUnselectedSortPropertyAreGiven_ThenIsBadRequest() throws Exception {
+        // Then
+        mockMvc.perform(get("/patients")
+                        .param("visitDate", "2029-12-01")
+                        .param("sort", "idCardNo"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertInstanceOf(InvalidSortException.class, result.getResolvedException()))
+                .andExpect(result -> assertEquals("Cannot sort by: idCardNo.", result.getResponse().getContentAsString()));
+    }
+
+    @Test
+    @SqlMergeMode(SqlMergeMode.MergeMode.MERGE)
+    @Sql(statements = "insert into VISIT (ID, APPOINTMENT_START, APPOINTMENT_END, DOCTOR_ID, PATIENT_ID) values (NEXT VALUE FOR visit_seq, '2029-12-01 14:00:00', '2029-12-01 14:30:00', 1, 1)",
+            config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED))
+    void getPatients_PatientHasManyVisitsOnGivenDate_PatientReturnedOnceInSingleStatement() {
+        // When
+        List<String> statements = SqlStatementCapture.capture(() -> {
+            try {
+                mockMvc.perform(get("/patients")
+                                .param("visitDate", "2029-12-01")
+                                .param("size", "1"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.length()").value(1))
+                        .andExpect(jsonPath("$[0].email").value("boczek@gmail.com"))
+                        .andExpect(jsonPath("$[0].visitIds.length()").value(3));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        // Then
+        assertEquals(2, statements.size());
+    }
+
     @Test
     void getPatient_PatientDoesNotExist_ThenIsNotFound() throws Exception {
         // Given
@@ -123,6 +212,37 @@ class PatientIntegrationTest {
                         Matchers.is(LocalDate.of(1980, 2, 2).toString())));
     }
 
+    @Test
+    void getPatient_EmailDiffersInCaseAndWhitespace_PatientDTOReturned() throws Exception {
+        // Given
+        String email = " Boczek@GMAIL.com ";
+        // Then
+        mockMvc.perform(get("/patients/{email}", email))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("boczek@gmail.com"))
+                .andExpect(jsonPath("$.firstName").value("Jerzy"));
+    }
+
+    @Test
+    void createPatient_PatientWithSameEmailInDifferentCaseExists_ThenIsBadRequest() throws Exception {
+        // Given
+        String exceptionMsg = "Patient with given email exists.";
+        PatientCreationDTO patientDTO = PatientFactory.getPatientCreationDTO(
+                "BOCZEK@gmail.com",
+                "12345",
+                "Jan",
+                "Kowalski",
+                "password123",
+                LocalDate.of(2000, 1, 1));
+        // Then
+        mockMvc.perform(post("/patients").content(objectMapper.writeValueAsString(patientDTO)).contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertInstanceOf(PatientExistsException.class, result.getResolvedException()))
+                .andExpect(result -> assertEquals(exceptionMsg, result.getResponse().getContentAsString()));
+    }
+
     @Test
     void createPatient_PatientWithEmptyFieldsIsGiven_ThenIsBadRequest() throws Exception {
         // Given
@@ -313,4 +433,129 @@ class PatientIntegrationTest {
                 .andDo(print())
                 .andExpect(status().isNoContent());
     }
+
+    @Test
+    void getPatients_PageRequested_TwoStatementsExecutedRegardlessOfPageSize() {
+        // When
+        List<String> statements = SqlStatementCapture.capture(() -> {
+            try {
+                mockMvc.perform(get("/patients"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.length()").value(2))
+                        .andExpect(jsonPath("$[0].visitIds.length()").value(2));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        // Then
+        assertEquals(2, statements.size());
+    }
+
+    @Test
+    void createPatient_EmailIsNew_NoEmailLookupExecuted() {
+        // Given
+        PatientCreationDTO patientDTO = PatientFactory.getPatientCreationDTO();
+        // When
+        List<String> statements = SqlStatementCapture.capture(() -> {
+            try {
+                mockMvc.perform(post("/patients").content(objectMapper.writeValueAsString(patientDTO)).contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isCreated());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        // Then
+        assertTrue(statements.stream().noneMatch(sql -> sql.toLowerCase().startsWith("select")));
+    }
+
+    @Test
+    void importPatients_NdjsonWithValidDuplicateAndMalformedRows_ReportStreamedAndValidRowsImported() throws Exception {
+        // Given
+        String content = """
+                {"email":"annnow@gmail.com","idCardNo":"99999","firstName":"Anna","lastName":"Nowak","password":"password123","birthday":"1990-05-05"}
+                {"email":"BOCZEK@gmail.com","idCardNo":"88888","firstName":"Jerzy","lastName":"Bolek","password":"haslo123","birthday":"1980-02-02"}
+                {"email":"broken@gmail.com",
+                """;
+        // When
+        MvcResult mvcResult = mockMvc.perform(post("/patients/import").content(content).contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // Then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().string(
+                        "{\"line\":2,\"email\":\"BOCZEK@gmail.com\",\"reason\":\"Patient with given email exists.\"}\n" +
+                                "{\"line\":3,\"email\":null,\"reason\":\"Malformed record.\"}\n" +
+                                "{\"importedCount\":1,\"rejectedCount\":2}\n"));
+        mockMvc.perform(get("/patients/{email}", "annnow@gmail.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lastName").value("Nowak"));
+        mockMvc.perform(post("/patients").content(objectMapper.writeValueAsString(PatientFactory.getPatientCreationDTO())).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void importPatients_CsvWithDuplicateIdCardNo_ReportStreamedAndValidRowsImported() throws Exception {
+        // Given
+        String content = """
+                email,idCardNo,firstName,lastName,password,birthday
+                annnow@gmail.com,99999,Anna,Nowak,password123,1990-05-05
+                marnow@gmail.com,99999,Marek,Nowak,password123,1991-06-06
+                """;
+        // When
+        MvcResult mvcResult = mockMvc.perform(post("/patients/import").content(content).contentType("text/csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // Then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().string(
+                        "{\"line\":3,\"email\":\"marnow@gmail.com\",\"reason\":\"Patient with given ID card number exists.\"}\n" +
+                                "{\"importedCount\":1,\"rejectedCount\":1}\n"));
+    }
+
+    @Test
+    void importPatients_ConcurrentInsertWinsRace_LosingRowsReportedWithTheirConflictAndRemainingRowsImported() throws Exception {
+        // Given
+        String content = """
+                {"email":"annnow@gmail.com","idCardNo":"99999","firstName":"Anna","lastName":"Nowak","password":"password123","birthday":"1990-05-05"}
+                {"email":"marnow@gmail.com","idCardNo":"77777","firstName":"Marek","lastName":"Nowak","password":"password123","birthday":"1991-06-06"}
+                {"email":"ewanow@gmail.com","idCardNo":"55555","firstName":"Ewa","lastName":"Nowak","password":"password123","birthday":"1992-07-07"}
+                """;
+        CountDownLatch inserted = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> concurrentInsert = executor.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO patient (email, normalized_email, id_card_no, first_name, last_name, password, birthday) " +
+                    "VALUES ('annnow@gmail.com', 'annnow@gmail.com', '66666', 'Anna', 'Nowak', 'password123', '1990-05-05')");
+            jdbcTemplate.update("INSERT INTO patient (email, normalized_email, id_card_no, first_name, last_name, password, birthday) " +
+                    "VALUES ('kasnow@gmail.com', 'kasnow@gmail.com', '77777', 'Kasia', 'Nowak', 'password123', '1993-08-08')");
+            inserted.countDown();
+            try {
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        inserted.await();
+        // When
+        MvcResult mvcResult = mockMvc.perform(post("/patients/import").content(content).contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // Then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().string(
+                        "{\"line\":1,\"email\":\"annnow@gmail.com\",\"reason\":\"Patient with given email exists.\"}\n" +
+                                "{\"line\":2,\"email\":\"marnow@gmail.com\",\"reason\":\"Patient with given ID card number exists.\"}\n" +
+                                "{\"importedCount\":1,\"rejectedCount\":2}\n"));
+        concurrentInsert.get();
+        executor.shutdown();
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM patient WHERE normalized_email = 'annnow@gmail.com'", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM patient WHERE normalized_email = 'marnow@gmail.com'", Integer.class));
+        mockMvc.perform(get("/patients/{email}", "ewanow@gmail.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lastName").value("Nowak"));
+    }
 }
@@ -0,0 +1,284 @@
+package com.kustlik.medicalclinic.integration;
+
+import com.kustlik.medicalclinic.model.entity.Patient;
+import com.kustlik.medicalclinic.repository.DoctorRepository;
+import com.kustlik.medicalclinic.repository.MedicalFacilityRepository;
+import com.kustlik.medicalclinic.repository.PatientRepository;
+import com.kustlik.medicalclinic.repository.VisitRepository;
+import com.kustlik.medicalclinic.repository.WaitlistEntryRepository;
+import com.kustlik.medicalclinic.service.paging.StablePageable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@SpringBootTest
+public class QueryPlanTest {
+    private static final Long ID = 1L;
+    private static final LocalDateTime NOW = LocalDateTime.of(2029, 12, 1, 12, 0);
+    private static final Pageable PAGE = PageRequest.ofSize(10);
+    private static final Pageable STABLE_PAGE = StablePageable.of(PAGE);
+
+    @Autowired
+    private VisitRepository visitRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private MedicalFacilityRepository medicalFacilityRepository;
+
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void findByDoctorId_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> visitRepository.findByDoctorId(ID));
+    }
+
+    @Test
+    void findByDoctorIdAndPatientIdIsNull_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> visitRepository.findByDoctorIdAndPatientIdIsNull(ID));
+    }
+
+    @Test
+    void findAllBy_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> visitRepository.findAllBy(STABLE_PAGE));
+    }
+
+    @Test
+    void findByPatientIdIsNull_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> visitRepository.findByPatientIdIsNull(STABLE_PAGE));
+    }
+
+    @Test
+    void countByPatientIdIsNull_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> visitRepository.countByPatientIdIsNull());
+    }
+
+    @Test
+    void countDistinctPatients_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> visitRepository.countDistinctPatients(NOW, NOW.plusDays(1)));
+    }
+
+    @Test
+    void findByPatientId_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> visitRepository.findByPatientId(ID));
+    }
+
+    @Test
+    void findAllByOrderByAppointmentStartAscIdAsc_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> visitRepository.findAllByOrderByAppointmentStartAscIdAsc(PAGE));
+    }
+
+    @Test
+    void findByPatientIdIsNullOrderByAppointmentStartAscIdAsc_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> visitRepository.findByPatientIdIsNullOrderByAppointmentStartAscIdAsc(PAGE));
+    }
+
+    @Test
+    void findAllAfter_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> visitRepository.findAllAfter(NOW, ID, PAGE));
+    }
+
+    @Test
+    void findFreeAfter_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> visitRepository.findFreeAfter(NOW, ID, PAGE));
+    }
+
+    @Test
+    void existsByDoctorIdAndPatientIdIsNullAndAppointmentStartGreaterThanEqualAndAppointmentStartLessThan_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> visitRepository.existsByDoctorIdAndPatientIdIsNullAndAppointmentStartGreaterThanEqualAndAppointmentStartLessThan(
+                ID, NOW, NOW.plusDays(1)));
+    }
+
+    @Test
+    void findByDoctorIdAndAppointmentEndGreaterThanEqual_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> visitRepository.findByDoctorIdAndAppointmentEndGreaterThanEqual(ID, NOW));
+    }
+
+    @Test
+    void existsOverlapping_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> visitRepository.existsOverlapping(NOW, NOW.plusMinutes(30), ID));
+    }
+
+    @Test
+    void findFreeBySpecialisationAndCity_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> visitRepository.findFreeBySpecialisationAndCity(
+                "Ortopeda", "Łódź", NOW, ID, NOW.plusDays(30), PAGE));
+    }
+
+    @Test
+    void assignPatientIfFree_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> inTransaction(() -> visitRepository.assignPatientIfFree(ID, Patient.builder().id(ID).build(), NOW)));
+    }
+
+    @Test
+    void releasePatient_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> inTransaction(() -> visitRepository.releasePatient(ID, ID, NOW)));
+    }
+
+    @Test
+    void streamForExport_EachFilterCombinationExplained_NoTableScanForFilteredQuery() {
+        for (int filters = 1; filters < 16; filters++) {
+            Long doctorID = (filters & 1) != 0 ? ID : null;
+            Long patientID = (filters & 2) != 0 ? ID : null;
+            LocalDateTime from = (filters & 4) != 0 ? NOW : null;
+            LocalDateTime to = (filters & 8) != 0 ? NOW.plusDays(1) : null;
+            assertNoTableScan(() -> inTransaction(() -> visitRepository.streamForExport(doctorID, patientID, from, to).count()));
+        }
+    }
+
+    @Test
+    void findIdsByDoctorIds_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> visitRepository.findIdsByDoctorIds(List.of(ID)));
+    }
+
+    @Test
+    void findIdsByPatientIds_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> visitRepository.findIdsByPatientIds(List.of(ID)));
+    }
+
+    @Test
+    void doctorExistsByNormalizedEmail_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> doctorRepository.existsByNormalizedEmail("jankowski@gmail.com"));
+    }
+
+    @Test
+    void doctorFindSummariesBy_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> doctorRepository.findSummariesBy(STABLE_PAGE));
+    }
+
+    @Test
+    void doctorFindSummariesByIdGreaterThanOrderByIdAsc_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> doctorRepository.findSummariesByIdGreaterThanOrderByIdAsc(ID, PAGE));
+    }
+
+    @Test
+    void doctorFindMedicalFacilityIdsByDoctorIds_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> doctorRepository.findMedicalFacilityIdsByDoctorIds(List.of(ID)));
+    }
+
+    @Test
+    void doctorFindExistingIds_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> doctorRepository.findExistingIds(List.of(ID)));
+    }
+
+    @Test
+    void patientExistsByNormalizedEmail_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> patientRepository.existsByNormalizedEmail("boczek@gmail.com"));
+    }
+
+    @Test
+    void patientFindSummariesWithVisitsBetween_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> patientRepository.findSummariesWithVisitsBetween(NOW, NOW.plusDays(1), STABLE_PAGE));
+    }
+
+    @Test
+    void patientFindExistingNormalizedEmails_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> patientRepository.findExistingNormalizedEmails(List.of("boczek@gmail.com", "karkow@gmail.com")));
+    }
+
+    @Test
+    void patientFindExistingIdCardNos_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> patientRepository.findExistingIdCardNos(List.of("54321", "12345abc")));
+    }
+
+    @Test
+    void patientFindSummariesBy_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> patientRepository.findSummariesBy(STABLE_PAGE));
+    }
+
+    @Test
+    void patientFindSummariesByIdGreaterThanOrderByIdAsc_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> patientRepository.findSummariesByIdGreaterThanOrderByIdAsc(ID, PAGE));
+    }
+
+    @Test
+    void medicalFacilityFindSummariesBy_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> medicalFacilityRepository.findSummariesBy(STABLE_PAGE));
+    }
+
+    @Test
+    void medicalFacilityFindSummariesByIdGreaterThanOrderByIdAsc_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> medicalFacilityRepository.findSummariesByIdGreaterThanOrderByIdAsc(ID, PAGE));
+    }
+
+    @Test
+    void medicalFacilityFindDoctorIdsByMedicalFacilityIds_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> medicalFacilityRepository.findDoctorIdsByMedicalFacilityIds(List.of(ID)));
+    }
+
+    @Test
+    void medicalFacilityFindExistingIds_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> medicalFacilityRepository.findExistingIds(List.of(ID)));
+    }
+
+    @Test
+    void waitlistEntryExistsByDoctorIdAndPatientIdAndVisitDate_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> waitlistEntryRepository.existsByDoctorIdAndPatientIdAndVisitDate(ID, ID, NOW.toLocalDate()));
+    }
+
+    @Test
+    void waitlistEntryFindIdsByDoctorIdAndVisitDate_Explained_NoTableScanForFilteredQuery() {
+        assertNoTableScan(() -> waitlistEntryRepository.findIdsByDoctorIdAndVisitDate(ID, NOW.toLocalDate()));
+    }
+
+    private void assertNoTableScan(Runnable query) {
+        List<String> statements = SqlStatementCapture.capture(query);
+        Assertions.assertFalse(statements.isEmpty());
+        for (String sql : statements) {
+            String plan = explain(sql);
+            Assertions.assertFalse(plan.contains(".tableScan"),
+                    () -> "Query falls back to a full table scan:\n" + plan);
+        }
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute("EXPLAIN " + sql, (PreparedStatement statement) -> {
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            ParameterMetaData metaData = statement.getParameterMetaData();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setObject(i, representativeValue(metaData.getParameterType(i)));
+            }
+            try (ResultSet plan = statement.executeQuery()) {
+                plan.next();
+                return plan.getString(1);
+            }
+        });
+    }
+
+    private static Object representativeValue(int sqlType) {
+        return switch (sqlType) {
+            case Types.BIGINT, Types.INTEGER, Types.SMALLINT, Types.TINYINT -> ID;
+            case Types.TIMESTAMP -> NOW;
+            case Types.DATE -> NOW.toLocalDate();
+            case Types.BOOLEAN -> true;
+            default -> String.valueOf(ID);
+        };
+    }
+
+    private void inTransaction(Runnable action) {
+        transactionTemplate.executeWithoutResult(status -> action.run());
+    }
+}
@@ -0,0 +1,80 @@
+package com.kustlik.medicalclinic.integration;
+
+import com.kustlik.medicalclinic.remote.client.SchoolClient;
+import com.kustlik.medicalclinic.remote.resilience.CircuitBreaker;
+import com.kustlik.medicalclinic.service.billing.SchoolBillingAggregator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class SchoolBillingAggregationBenchmarkTest {
+    private static final int YEAR = 2020;
+    private static final int MONTH = 1;
+    private static final long STUB_DELAY_MILLIS = 50;
+    private static final SchoolServiceStub STUB = SchoolServiceStub.start(STUB_DELAY_MILLIS);
+
+    @Autowired
+    private SchoolClient schoolClient;
+    @Autowired
+    private CircuitBreaker circuitBreaker;
+
+    @DynamicPropertySource
+    static void schoolClientProperties(DynamicPropertyRegistry registry) {
+        registry.add("medical-clinic.school-client.url", STUB::url);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.stop();
+    }
+
+    @BeforeEach
+    void setup() {
+        STUB.reset();
+        circuitBreaker.reset();
+    }
+
+    @Test
+    void aggregate_Benchmark_NearLinearSpeedup() {
+        // Given
+        int calls = 32;
+        int parallelism = 8;
+        SchoolBillingAggregator sequential = new SchoolBillingAggregator(schoolClient, 1, Duration.ofSeconds(5));
+        SchoolBillingAggregator parallel = new SchoolBillingAggregator(schoolClient, parallelism, Duration.ofSeconds(5));
+        try {
+            sequential.aggregate(YEAR, MONTH, Map.of(1, List.of(0)));
+            // When
+            long sequentialStart = System.nanoTime();
+            sequential.aggregate(YEAR, MONTH, Map.of(1, parentIds(1, calls)));
+            long sequentialNanos = System.nanoTime() - sequentialStart;
+            long parallelStart = System.nanoTime();
+            parallel.aggregate(YEAR, MONTH, Map.of(2, parentIds(1, calls)));
+            long parallelNanos = System.nanoTime() - parallelStart;
+            // Then
+            double speedup = (double) sequentialNanos / parallelNanos;
+            System.out.printf("School billing fan-out: %d calls, sequential %d ms, parallelism %d %d ms, speedup %.1fx%n",
+                    calls, sequentialNanos / 1_000_000, parallelism, parallelNanos / 1_000_000, speedup);
+            Assertions.assertTrue(speedup >= parallelism * 0.6, "Speedup was " + speedup);
+        } finally {
+            sequential.shutdown();
+            parallel.shutdown();
+        }
+    }
+
+    private static List<Integer> parentIds(int from, int count) {
+        return IntStream.range(from, from + count).boxed().toList();
+    }
+}
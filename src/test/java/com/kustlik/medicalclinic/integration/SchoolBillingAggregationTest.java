@@ -0,0 +1,136 @@
+package com.kustlik.medicalclinic.integration;
+
+import com.kustlik.medicalclinic.remote.client.SchoolClient;
+import com.kustlik.medicalclinic.remote.resilience.CircuitBreaker;
+import com.kustlik.medicalclinic.service.billing.SchoolBillingAggregator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+@SpringBootTest
+public class SchoolBillingAggregationTest {
+    private static final int YEAR = 2020;
+    private static final int MONTH = 1;
+    private static final long STUB_DELAY_MILLIS = 50;
+    private static final int UNAVAILABLE_PARENT_ID = 503;
+    private static final SchoolServiceStub STUB = SchoolServiceStub.start(STUB_DELAY_MILLIS);
+
+    @Autowired
+    private SchoolClient schoolClient;
+    @Autowired
+    private CircuitBreaker circuitBreaker;
+
+    @DynamicPropertySource
+    static void schoolClientProperties(DynamicPropertyRegistry registry) {
+        registry.add("medical-clinic.school-client.url", STUB::url);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.stop();
+    }
+
+    @BeforeEach
+    void setup() {
+        STUB.reset();
+        circuitBreaker.reset();
+    }
+
+    @Test
+    void aggregate_CallsFannedOut_SameSummaryAsSequential() {
+        // Given
+        int calls = 32;
+        SchoolBillingAggregator sequential = new SchoolBillingAggregator(schoolClient, 1, Duration.ofSeconds(5));
+        SchoolBillingAggregator parallel = new SchoolBillingAggregator(schoolClient, 8, Duration.ofSeconds(5));
+        try {
+            // When
+            var sequentialResult = sequential.aggregate(YEAR, MONTH, Map.of(1, parentIds(1, calls)));
+            var parallelResult = parallel.aggregate(YEAR, MONTH, Map.of(2, parentIds(1, calls)));
+            // Then
+            Assertions.assertEquals(calls, sequentialResult.getParentBillingReports().size());
+            Assertions.assertEquals(calls, parallelResult.getParentBillingReports().size());
+            Assertions.assertEquals(sequentialResult.getTotalFees(), parallelResult.getTotalFees());
+            Assertions.assertTrue(parallelResult.getFailures().isEmpty());
+        } finally {
+            sequential.shutdown();
+            parallel.shutdown();
+        }
+    }
+
+    @Test
+    void aggregate_UpstreamUnavailableForOneParent_PartialSummaryReturned() {
+        // Given
+        STUB.replyAlways(UNAVAILABLE_PARENT_ID, SchoolServiceStub.Reply.failure(503));
+        SchoolBillingAggregator aggregator = new SchoolBillingAggregator(schoolClient, 4, Duration.ofSeconds(5));
+        try {
+            // When
+            var result = aggregator.aggregate(YEAR, MONTH, Map.of(3, List.of(1, UNAVAILABLE_PARENT_ID)));
+            // Then
+            Assertions.assertEquals(1, result.getParentBillingReports().size());
+            Assertions.assertEquals(10, result.getTotalFees());
+            Assertions.assertEquals(1, result.getFailures().size());
+            Assertions.assertEquals(UNAVAILABLE_PARENT_ID, result.getFailures().get(0).getParentId());
+            Assertions.assertTrue(result.getFailures().get(0).getReason().contains("503"));
+        } finally {
+            aggregator.shutdown();
+        }
+    }
+
+    @Test
+    void aggregate_StubSlowerThanTimeout_CallsTimedOutWithinTimeout() {
+        // Given
+        List<Integer> slowParentIds = parentIds(601, 4);
+        slowParentIds.forEach(parentId -> STUB.replyAlways(parentId, SchoolServiceStub.Reply.ok(2000)));
+        Duration timeout = Duration.ofMillis(300);
+        SchoolBillingAggregator aggregator = new SchoolBillingAggregator(schoolClient, 2, timeout);
+        try {
+            // When
+            long start = System.nanoTime();
+            var result = aggregator.aggregate(YEAR, MONTH, Map.of(5, slowParentIds));
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            // Then
+            Assertions.assertTrue(elapsed.compareTo(timeout.multipliedBy(2)) < 0, "Aggregation took " + elapsed);
+            Assertions.assertTrue(result.getParentBillingReports().isEmpty());
+            Assertions.assertEquals(4, result.getFailures().size());
+            result.getFailures().forEach(failure -> Assertions.assertEquals("Request timed out.", failure.getReason()));
+        } finally {
+            aggregator.shutdown();
+        }
+    }
+
+    @Test
+    void summarizeSchool_MoreStreamsThanPooledConnections_EachStreamReleasesItsConnection() {
+        // Given
+        int calls = 25;
+        SchoolBillingAggregator aggregator = new SchoolBillingAggregator(schoolClient, 1, Duration.ofSeconds(5));
+        try {
+            // When
+            var results = IntStream.range(0, calls)
+                    .mapToObj(call -> aggregator.summarizeSchool(4, YEAR, MONTH))
+                    .toList();
+            // Then
+            Assertions.assertEquals(calls, results.size());
+            results.forEach(result -> {
+                Assertions.assertEquals(2, result.getNumberOfParents());
+                Assertions.assertEquals(2, result.getNumberOfChildren());
+                Assertions.assertEquals(20, result.getTotalFees());
+            });
+        } finally {
+            aggregator.shutdown();
+        }
+    }
+
+    private static List<Integer> parentIds(int from, int count) {
+        return IntStream.range(from, from + count).boxed().toList();
+    }
+}
@@ -0,0 +1,185 @@
+package com.kustlik.medicalclinic.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kustlik.medicalclinic.remote.client.SchoolClient;
+import com.kustlik.medicalclinic.remote.model.dto.school.ParentBillingReportDto;
+import com.kustlik.medicalclinic.remote.model.dto.school.SchoolBillingReportDto;
+import com.kustlik.medicalclinic.remote.stream.StreamingSchoolBillingDecoder;
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class SchoolBillingStreamingBenchmarkTest {
+    private static final int PARENTS = 25_000;
+    private static final int CHILDREN_PER_PARENT = 2;
+    private static final int ATTENDANCES_PER_CHILD = 20;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void decode_Benchmark_StreamingDecodeRunsInConstantMemory() throws Exception {
+        // Given
+        HttpMessageConverters converters = new HttpMessageConverters(new MappingJackson2HttpMessageConverter(OBJECT_MAPPER));
+        StreamingSchoolBillingDecoder decoder = new StreamingSchoolBillingDecoder(new SpringDecoder(() -> converters),
+                OBJECT_MAPPER);
+        buffered(decoder, new AtomicLong());
+        streamed(decoder, new AtomicLong());
+        AtomicLong payloadBytes = new AtomicLong();
+        // When
+        Result bufferedResult = buffered(decoder, payloadBytes);
+        Result streamedResult = streamed(decoder, new AtomicLong());
+        // Then
+        System.out.printf("School billing report with %d children (%.1f MB JSON)%n",
+                PARENTS * CHILDREN_PER_PARENT, payloadBytes.get() / 1_048_576.0);
+        print("Buffered SchoolBillingReportDto", bufferedResult);
+        print("Streamed ParentBillingReportDto", streamedResult);
+        Assertions.assertEquals(bufferedResult.totals(), streamedResult.totals());
+        Assertions.assertEquals(PARENTS * CHILDREN_PER_PARENT, streamedResult.totals().children());
+        Assertions.assertTrue(streamedResult.retainedBytes() * 10 < bufferedResult.retainedBytes());
+    }
+
+    private static Result buffered(StreamingSchoolBillingDecoder decoder, AtomicLong payloadBytes) throws IOException {
+        long baseline = liveHeapBytes();
+        long start = System.nanoTime();
+        SchoolBillingReportDto report = (SchoolBillingReportDto) decoder.decode(response(payloadBytes),
+                SchoolBillingReportDto.class);
+        Totals totals = report.getParentBillingReports().stream().reduce(Totals.EMPTY, Totals::add, Totals::merge);
+        long elapsed = System.nanoTime() - start;
+        long retained = liveHeapBytes() - baseline;
+        Reference.reachabilityFence(report);
+        return new Result(totals, elapsed, retained);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Result streamed(StreamingSchoolBillingDecoder decoder, AtomicLong payloadBytes) throws IOException {
+        long baseline = liveHeapBytes();
+        long retained = 0;
+        long probeNanos = 0;
+        Totals totals = Totals.EMPTY;
+        long start = System.nanoTime();
+        try (Stream<ParentBillingReportDto> reports = (Stream<ParentBillingReportDto>) decoder.decode(
+                response(payloadBytes), streamType())) {
+            for (Iterator<ParentBillingReportDto> iterator = reports.iterator(); iterator.hasNext(); ) {
+                totals = totals.add(iterator.next());
+                if (totals.parents() == PARENTS / 2) {
+                    long probeStart = System.nanoTime();
+                    retained = liveHeapBytes() - baseline;
+                    probeNanos = System.nanoTime() - probeStart;
+                }
+            }
+        }
+        return new Result(totals, System.nanoTime() - start - probeNanos, retained);
+    }
+
+    private static void print(String mode, Result result) {
+        System.out.printf("%s: %d ms, %.1f MB retained while processing%n",
+                mode, result.elapsedNanos() / 1_000_000, Math.max(result.retainedBytes(), 0) / 1_048_576.0);
+    }
+
+    private static long liveHeapBytes() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static Response response(AtomicLong payloadBytes) {
+        return Response.builder()
+                .status(200)
+                .request(Request.create(Request.HttpMethod.GET, "http://localhost/school/1/billing?year=2020&month=1",
+                        Map.of(), null, StandardCharsets.UTF_8, null))
+                .headers(Map.of("Content-Type", List.of("application/json")))
+                .body(syntheticReport(payloadBytes), null)
+                .build();
+    }
+
+    private static InputStream syntheticReport(AtomicLong payloadBytes) {
+        return new SequenceInputStream(new Enumeration<>() {
+            private int part = -1;
+
+            @Override
+            public boolean hasMoreElements() {
+                return part <= PARENTS;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                String content;
+                if (part == -1) {
+                    content = "{\"totalFees\":" + PARENTS * 10.0 + ",\"parentBillingReports\":[";
+                } else if (part == PARENTS) {
+                    content = "]}";
+                } else {
+                    content = (part == 0 ? "" : ",") + parent(part);
+                }
+                part++;
+                byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+                payloadBytes.addAndGet(bytes.length);
+                return new ByteArrayInputStream(bytes);
+            }
+        });
+    }
+
+    private static String parent(int parentId) {
+        StringBuilder parent = new StringBuilder("{\"parentId\":").append(parentId)
+                .append(",\"totalFees\":10.0,\"numberOfPaidHours\":").append(CHILDREN_PER_PARENT * ATTENDANCES_PER_CHILD)
+                .append(",\"childrenReport\":[");
+        for (int child = 0; child < CHILDREN_PER_PARENT; child++) {
+            parent.append(child == 0 ? "" : ",")
+                    .append("{\"childId\":").append(parentId * CHILDREN_PER_PARENT + child)
+                    .append(",\"firstName\":\"Anna\",\"lastName\":\"Nowak\",\"attendances\":[");
+            for (int day = 1; day <= ATTENDANCES_PER_CHILD; day++) {
+                parent.append(day == 1 ? "" : ",")
+                        .append("{\"entryDate\":\"2020-01-%02d\",\"exitDate\":\"2020-01-%02d\"}".formatted(day, day));
+            }
+            parent.append("],\"numberOfPaidHours\":").append(ATTENDANCES_PER_CHILD).append('}');
+        }
+        return parent.append("]}").toString();
+    }
+
+    private static Type streamType() {
+        try {
+            return SchoolClient.class.getMethod("streamSchoolBilling", int.class, int.class, int.class)
+                    .getGenericReturnType();
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Totals(int parents, int children, long paidHours, double totalFees) {
+        private static final Totals EMPTY = new Totals(0, 0, 0, 0);
+
+        private Totals add(ParentBillingReportDto report) {
+            return new Totals(parents + 1, children + report.getChildrenReport().size(),
+                    paidHours + report.getNumberOfPaidHours(), totalFees + report.getTotalFees());
+        }
+
+        private Totals merge(Totals other) {
+            return new Totals(parents + other.parents, children + other.children, paidHours + other.paidHours,
+                    totalFees + other.totalFees);
+        }
+    }
+
+    private record Result(Totals totals, long elapsedNanos, long retainedBytes) {
+    }
+}
@@ -0,0 +1,159 @@
+package com.kustlik.medicalclinic.integration;
+
+import com.kustlik.medicalclinic.model.dto.resilience.CircuitBreakerTransitionDTO;
+import com.kustlik.medicalclinic.remote.client.SchoolClient;
+import com.kustlik.medicalclinic.remote.exception.BulkheadFullException;
+import com.kustlik.medicalclinic.remote.exception.CircuitBreakerOpenException;
+import com.kustlik.medicalclinic.remote.exception.InternalServerErrorException;
+import com.kustlik.medicalclinic.remote.exception.ServiceUnavailableException;
+import com.kustlik.medicalclinic.remote.resilience.Bulkhead;
+import com.kustlik.medicalclinic.remote.resilience.CircuitBreaker;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@SpringBootTest(properties = {
+        "medical-clinic.school-client.bulkhead.max-concurrent-calls=4",
+        "medical-clinic.school-client.circuit-breaker.failure-threshold=3",
+        "medical-clinic.school-client.circuit-breaker.open-duration=500ms"
+})
+public class SchoolClientResilienceTest {
+    private static final int YEAR = 2020;
+    private static final int MONTH = 1;
+    private static final SchoolServiceStub STUB = SchoolServiceStub.start(0);
+
+    @Autowired
+    @Qualifier("remoteSchoolClient")
+    private SchoolClient schoolClient;
+    @Autowired
+    private CircuitBreaker circuitBreaker;
+    @Autowired
+    private Bulkhead bulkhead;
+
+    @DynamicPropertySource
+    static void schoolClientProperties(DynamicPropertyRegistry registry) {
+        registry.add("medical-clinic.school-client.url", STUB::url);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.stop();
+    }
+
+    @BeforeEach
+    void setup() {
+        STUB.reset();
+        circuitBreaker.reset();
+    }
+
+    @Test
+    void getSchoolBilling_ServiceUnavailableWithRetryAfter_RetriedAfterRequestedDelay() {
+        // Given
+        STUB.replyOnce(1, SchoolServiceStub.Reply.unavailable("1"));
+        long start = System.nanoTime();
+        // When
+        var result = schoolClient.getSchoolBilling(1, 1, YEAR, MONTH);
+        // Then
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        Assertions.assertEquals(1, result.getParentId());
+        Assertions.assertEquals(2, STUB.requestCount(1));
+        Assertions.assertTrue(elapsedMillis >= 900, "Retried after " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void getSchoolBilling_RetryAfterBeyondMaxBackoff_ServiceUnavailableThrownWithoutRetry() {
+        // Given
+        STUB.replyAlways(2, SchoolServiceStub.Reply.unavailable("120"));
+        // When
+        Assertions.assertThrows(ServiceUnavailableException.class,
+                () -> schoolClient.getSchoolBilling(1, 2, YEAR, MONTH));
+        // Then
+        Assertions.assertEquals(1, STUB.requestCount(2));
+    }
+
+    @Test
+    void getSchoolBilling_ServiceUnavailableWithoutRetryAfter_RetriedWithBackoffUpToMaxAttempts() {
+        // Given
+        STUB.replyAlways(3, SchoolServiceStub.Reply.failure(503));
+        // When
+        Assertions.assertThrows(ServiceUnavailableException.class,
+                () -> schoolClient.getSchoolBilling(1, 3, YEAR, MONTH));
+        // Then
+        Assertions.assertEquals(3, STUB.requestCount(3));
+    }
+
+    @Test
+    void getSchoolBilling_RepeatedServerErrors_CircuitOpensFailsFastAndRecovers() throws InterruptedException {
+        // Given
+        STUB.replyAlways(4, SchoolServiceStub.Reply.failure(500));
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertThrows(InternalServerErrorException.class,
+                    () -> schoolClient.getSchoolBilling(1, 4, YEAR, MONTH));
+        }
+        // When
+        Assertions.assertThrows(CircuitBreakerOpenException.class,
+                () -> schoolClient.getSchoolBilling(1, 4, YEAR, MONTH));
+        // Then
+        Assertions.assertEquals(3, STUB.requestCount(4));
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        STUB.reset();
+        Thread.sleep(600);
+        Assertions.assertEquals(4, schoolClient.getSchoolBilling(1, 4, YEAR, MONTH).getParentId());
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        var transitions = circuitBreaker.getTransitions();
+        Assertions.assertEquals(List.of(CircuitBreaker.State.OPEN, CircuitBreaker.State.HALF_OPEN, CircuitBreaker.State.CLOSED),
+                transitions.subList(transitions.size() - 3, transitions.size()).stream().map(CircuitBreakerTransitionDTO::getTo).toList());
+    }
+
+    @Test
+    void getSchoolBilling_MoreConcurrentCallsThanBulkheadAllows_ExcessCallsRejected() throws Exception {
+        // Given
+        STUB.replyAlways(5, SchoolServiceStub.Reply.ok(500));
+        long rejectedBefore = bulkhead.getRejectedCount();
+        int callers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        List<Future<?>> calls = new ArrayList<>();
+        try {
+            for (int i = 0; i < callers; i++) {
+                calls.add(executor.submit(() -> {
+                    start.await();
+                    return schoolClient.getSchoolBilling(1, 5, YEAR, MONTH);
+                }));
+            }
+            // When
+            start.countDown();
+            int rejected = 0;
+            for (Future<?> call : calls) {
+                try {
+                    call.get(5, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    Assertions.assertInstanceOf(BulkheadFullException.class, e.getCause());
+                    rejected++;
+                }
+            }
+            // Then
+            Assertions.assertTrue(rejected > 0);
+            Assertions.assertEquals(callers - rejected, STUB.requestCount(5));
+            Assertions.assertEquals(rejected, bulkhead.getRejectedCount() - rejectedBefore);
+            Assertions.assertEquals(4, bulkhead.getAvailableConcurrentCalls());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.kustlik.medicalclinic.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kustlik.medicalclinic.remote.client.SchoolClient;
+import com.kustlik.medicalclinic.remote.transport.PooledHttpClient;
+import feign.Client;
+import feign.Feign;
+import feign.Request;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class SchoolClientTransportBenchmarkTest {
+    private static final int CALLERS = 200;
+    private static final int CALLS_PER_CALLER = 50;
+    private static final SchoolServiceStub STUB = SchoolServiceStub.start(2);
+    private static final Request.Options OPTIONS = new Request.Options(Duration.ofSeconds(5), Duration.ofSeconds(30), true);
+
+    @AfterAll
+    static void stopStub() {
+        STUB.stop();
+    }
+
+    @Test
+    void getSchoolBilling_Benchmark_PooledTransportReusesConnections() throws Exception {
+        // Given
+        SchoolClient defaultClient = schoolClient(new Client.Default(null, null));
+        SchoolClient pooledClient = schoolClient(new PooledHttpClient(CALLERS, Duration.ofSeconds(5), Duration.ofSeconds(5)));
+        measure(defaultClient);
+        measure(pooledClient);
+        // When
+        Result defaultResult = measure(defaultClient);
+        Result pooledResult = measure(pooledClient);
+        // Then
+        print("HttpURLConnection", defaultResult);
+        print("Pooled HTTP/1.1", pooledResult);
+        Assertions.assertTrue(pooledResult.connections() <= CALLERS);
+        Assertions.assertTrue(pooledResult.connections() < defaultResult.connections());
+    }
+
+    private static Result measure(SchoolClient schoolClient) throws Exception {
+        STUB.reset();
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<long[]>> callers = new ArrayList<>();
+            for (int caller = 0; caller < CALLERS; caller++) {
+                int parentId = caller;
+                callers.add(executor.submit(() -> {
+                    long[] latencies = new long[CALLS_PER_CALLER];
+                    start.await();
+                    for (int call = 0; call < CALLS_PER_CALLER; call++) {
+                        long callStart = System.nanoTime();
+                        schoolClient.getSchoolBilling(1, parentId, 2020, 1);
+                        latencies[call] = System.nanoTime() - callStart;
+                    }
+                    return latencies;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            long[] latencies = new long[CALLERS * CALLS_PER_CALLER];
+            int index = 0;
+            for (Future<long[]> caller : callers) {
+                for (long latency : caller.get(5, TimeUnit.MINUTES)) {
+                    latencies[index++] = latency;
+                }
+            }
+            long elapsed = System.nanoTime() - begin;
+            Arrays.sort(latencies);
+            return new Result(latencies.length * 1_000_000_000.0 / elapsed,
+                    Arrays.stream(latencies).average().orElse(0) / 1_000_000.0,
+                    latencies[latencies.length / 2] / 1_000_000.0,
+                    latencies[(int) (latencies.length * 0.99)] / 1_000_000.0,
+                    STUB.connectionCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void print(String transport, Result result) {
+        System.out.printf("%s with %d callers on %d CPUs: %.0f calls/s, mean %.2f ms, p50 %.2f ms, p99 %.2f ms, %d connections opened%n",
+                transport, CALLERS, Runtime.getRuntime().availableProcessors(), result.throughput(), result.meanMillis(),
+                result.p50Millis(), result.p99Millis(), result.connections());
+    }
+
+    private static SchoolClient schoolClient(Client client) {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        HttpMessageConverters converters = new HttpMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper));
+        return Feign.builder()
+                .client(client)
+                .contract(new SpringMvcContract())
+                .decoder(new SpringDecoder(() -> converters))
+                .options(OPTIONS)
+                .target(SchoolClient.class, STUB.url());
+    }
+
+    private record Result(double throughput, double meanMillis, double p50Millis, double p99Millis, int connections) {
+    }
+}
@@ -0,0 +1,197 @@
+package com.kustlik.medicalclinic.integration;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+public class SchoolServiceStub {
+    static {
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final long delayMillis;
+    private final Map<Integer, Queue<Reply>> scriptedReplies = new ConcurrentHashMap<>();
+    private final Map<Integer, Reply> fixedReplies = new ConcurrentHashMap<>();
+    private final Map<Integer, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+    private final AtomicInteger concurrentRequests = new AtomicInteger();
+    private final AtomicInteger maxConcurrentRequests = new AtomicInteger();
+    private final AtomicInteger gzippedResponses = new AtomicInteger();
+    private final Set<InetSocketAddress> connections = ConcurrentHashMap.newKeySet();
+    private volatile String schoolBillingReport = schoolReport(1, 2);
+
+    private SchoolServiceStub(long delayMillis) throws IOException {
+        this.delayMillis = delayMillis;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/school/", this::handle);
+        server.start();
+    }
+
+    public static SchoolServiceStub start(long delayMillis) {
+        try {
+            return new SchoolServiceStub(delayMillis);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    public void reset() {
+        scriptedReplies.clear();
+        fixedReplies.clear();
+        requestCounts.clear();
+        maxConcurrentRequests.set(0);
+        gzippedResponses.set(0);
+        connections.clear();
+        schoolBillingReport = schoolReport(1, 2);
+    }
+
+    public void replyAlways(int parentId, Reply reply) {
+        fixedReplies.put(parentId, reply);
+    }
+
+    public void replyOnce(int parentId, Reply reply) {
+        scriptedReplies.computeIfAbsent(parentId, id -> new ConcurrentLinkedQueue<>()).add(reply);
+    }
+
+    public void replySchoolBilling(String report) {
+        schoolBillingReport = report;
+    }
+
+    public int requestCount(int parentId) {
+        AtomicInteger count = requestCounts.get(parentId);
+        return count == null ? 0 : count.get();
+    }
+
+    public int maxConcurrentRequests() {
+        return maxConcurrentRequests.get();
+    }
+
+    public int gzippedResponses() {
+        return gzippedResponses.get();
+    }
+
+    public int connectionCount() {
+        return connections.size();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        connections.add(exchange.getRemoteAddress());
+        maxConcurrentRequests.accumulateAndGet(concurrentRequests.incrementAndGet(), Math::max);
+        try {
+            reply(exchange);
+        } finally {
+            concurrentRequests.decrementAndGet();
+        }
+    }
+
+    private void reply(HttpExchange exchange) throws IOException {
+        String[] path = exchange.getRequestURI().getPath().split("/");
+        if (path.length == 4) {
+            respond(exchange, 200, schoolBillingReport, 0);
+            return;
+        }
+        int parentId = Integer.parseInt(path[4]);
+        requestCounts.computeIfAbsent(parentId, id -> new AtomicInteger()).incrementAndGet();
+        Queue<Reply> scripted = scriptedReplies.get(parentId);
+        Reply scriptedReply = scripted == null ? null : scripted.poll();
+        Reply reply = scriptedReply != null ? scriptedReply : fixedReplies.getOrDefault(parentId, Reply.ok(delayMillis));
+        sleep(reply.delayMillis());
+        if (reply.retryAfter() != null) {
+            exchange.getResponseHeaders().add("Retry-After", reply.retryAfter());
+        }
+        respond(exchange, reply.status(), reply.status() == 200 ? report(parentId) : "Upstream failure.", reply.stallMillis());
+    }
+
+    private static String report(int parentId) {
+        return """
+                {"parentId":%d,"totalFees":10.0,"numberOfPaidHours":2,"childrenReport":[{"childId":%d,"firstName":"Anna","lastName":"Nowak","attendances":[{"entryDate":"2020-01-02","exitDate":"2020-01-02"}],"numberOfPaidHours":2}]}"""
+                .formatted(parentId, parentId * 10);
+    }
+
+    private static String schoolReport(int... parentIds) {
+        StringBuilder report = new StringBuilder("{\"totalFees\":").append(parentIds.length * 10.0)
+                .append(",\"parentBillingReports\":[");
+        for (int i = 0; i < parentIds.length; i++) {
+            report.append(i == 0 ? "" : ",").append(report(parentIds[i]));
+        }
+        return report.append("]}").toString();
+    }
+
+    private void respond(HttpExchange exchange, int status, String body, long stallMillis) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            bytes = gzip(bytes);
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            gzippedResponses.incrementAndGet();
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            if (stallMillis > 0) {
+                outputStream.write(bytes, 0, bytes.length / 2);
+                outputStream.flush();
+                sleep(stallMillis);
+                outputStream.write(bytes, bytes.length / 2, bytes.length - bytes.length / 2);
+            } else {
+                outputStream.write(bytes);
+            }
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream outputStream = new GZIPOutputStream(compressed)) {
+            outputStream.write(bytes);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public record Reply(int status, String retryAfter, long delayMillis, long stallMillis) {
+        public static Reply ok(long delayMillis) {
+            return new Reply(200, null, delayMillis, 0);
+        }
+
+        public static Reply stalledBody(long stallMillis) {
+            return new Reply(200, null, 0, stallMillis);
+        }
+
+        public static Reply failure(int status) {
+            return new Reply(status, null, 0, 0);
+        }
+
+        public static Reply unavailable(String retryAfter) {
+            return new Reply(503, retryAfter, 0, 0);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.kustlik.medicalclinic.integration;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+
+public class SecondLevelCacheEvictionListener extends AbstractTestExecutionListener {
+    @Override
+    public void beforeTestMethod(TestContext testContext) {
+        testContext.getApplicationContext()
+                .getBeanProvider(EntityManagerFactory.class)
+                .ifAvailable(entityManagerFactory -> entityManagerFactory.unwrap(SessionFactory.class)
+                        .getCache()
+                        .evictAllRegions());
+    }
+}
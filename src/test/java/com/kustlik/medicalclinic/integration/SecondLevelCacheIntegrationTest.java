@@ -0,0 +1,146 @@
+package com.kustlik.medicalclinic.integration;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kustlik.medicalclinic.factory.DoctorFactory;
+import com.kustlik.medicalclinic.model.dto.doctor.DoctorAssignmentDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Sql(scripts = {"file:src/test/resources/sql/doctor_clear_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/doctor_insert_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/medical_facility_clear_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/medical_facility_insert_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/doctor_medical_facility_clear_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/doctor_medical_facility_insert_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+public class SecondLevelCacheIntegrationTest {
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void getDoctor_DoctorReadBefore_DoctorAndFacilitiesServedFromCache() throws Exception {
+        // Given
+        mockMvc.perform(get("/doctors/{email}", "baczynski@gmail.com"))
+                .andExpect(status().isOk());
+        // When
+        List<String> statements = SqlStatementCapture.capture(() -> {
+            try {
+                mockMvc.perform(get("/doctors/{email}", "baczynski@gmail.com"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.medicalFacilityIds.length()").value(2));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        // Then
+        assertFalse(statements.stream().anyMatch(sql -> sql.contains(" from doctor ")));
+        assertFalse(statements.stream().anyMatch(sql -> sql.contains("doctor_medical_facility")));
+        assertFalse(statements.stream().anyMatch(sql -> sql.contains(" from medical_facility ")));
+    }
+
+    @Test
+    void createDoctorAssignment_FacilityDoctorsCached_FacilityReflectsNewAssignment() throws Exception {
+        // Given
+        mockMvc.perform(get("/medical_facilities/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.doctorIds.length()").value(1))
+                .andExpect(jsonPath("$.doctorIds[0]").value(2));
+        // When
+        mockMvc.perform(post("/doctors/{doctorId}/assign", 1L).content(objectMapper.writeValueAsString(1L)).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated());
+        // Then
+        mockMvc.perform(get("/medical_facilities/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.doctorIds.length()").value(2))
+                .andExpect(jsonPath("$.doctorIds[0]").value(1))
+                .andExpect(jsonPath("$.doctorIds[1]").value(2));
+    }
+
+    @Test
+    void createDoctorAssignments_AssignmentsCached_BothSidesReflectNewAssignments() throws Exception {
+        // Given
+        mockMvc.perform(get("/doctors/{email}", "jankowski@gmail.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.medicalFacilityIds").isEmpty());
+        mockMvc.perform(get("/medical_facilities/{id}", 2L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.doctorIds.length()").value(1))
+                .andExpect(jsonPath("$.doctorIds[0]").value(2));
+        List<DoctorAssignmentDTO> assignments = List.of(DoctorFactory.getDoctorAssignmentDTO(1L, 2L));
+        // When
+        mockMvc.perform(post("/doctors/assignments").content(objectMapper.writeValueAsString(assignments)).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.createdCount").value(1));
+        // Then
+        mockMvc.perform(get("/doctors/{email}", "jankowski@gmail.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.medicalFacilityIds.length()").value(1))
+                .andExpect(jsonPath("$.medicalFacilityIds[0]").value(2));
+        mockMvc.perform(get("/medical_facilities/{id}", 2L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.doctorIds.length()").value(2))
+                .andExpect(jsonPath("$.doctorIds[0]").value(1))
+                .andExpect(jsonPath("$.doctorIds[1]").value(2));
+    }
+
+    @Test
+    void getCacheRegionStatistics_DoctorReadTwice_HitsReportedPerRegion() throws Exception {
+        // Given
+        mockMvc.perform(get("/doctors/{email}", "baczynski@gmail.com"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/doctors/{email}", "baczynski@gmail.com"))
+                .andExpect(status().isOk());
+        // When
+        String response = mockMvc.perform(get("/cache_statistics"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        // Then
+        List<Map<String, Object>> regions = objectMapper.readValue(response, new TypeReference<>() {
+        });
+        assertTrue(hitCount(regions, "doctor") > 0);
+        assertTrue(hitCount(regions, "doctor-natural-id") > 0);
+        assertTrue(hitCount(regions, "doctor-medical-facilities") > 0);
+        assertTrue(hitCount(regions, "medical-facility") > 0);
+    }
+
+    private static long hitCount(List<Map<String, Object>> regions, String region) {
+        return regions.stream()
+                .filter(statistics -> region.equals(statistics.get("region")))
+                .mapToLong(statistics -> ((Number) statistics.get("hitCount")).longValue())
+                .findFirst()
+                .orElse(0L);
+    }
+}
@@ -0,0 +1,196 @@
+package com.kustlik.medicalclinic.integration;
+
+import com.kustlik.medicalclinic.exception.VisitAlreadyBookedException;
+import com.kustlik.medicalclinic.factory.PatientFactory;
+import com.kustlik.medicalclinic.model.entity.Patient;
+import com.kustlik.medicalclinic.model.entity.Visit;
+import com.kustlik.medicalclinic.repository.PatientRepository;
+import com.kustlik.medicalclinic.repository.VisitRepository;
+import com.kustlik.medicalclinic.service.VisitService;
+import com.kustlik.medicalclinic.service.index.VisitIntervalIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SpringBootTest
+@Sql(scripts = {"file:src/test/resources/sql/doctor_clear_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/doctor_insert_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/patient_clear_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/patient_insert_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/visit_clear_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/visit_insert_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/medical_facility_clear_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/medical_facility_insert_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/doctor_medical_facility_insert_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+public class VisitBookingConcurrencyTest {
+    private static final int THREADS = 64;
+    private static final Long VISIT_ID = 1L;
+    private static final int YEAR = LocalDateTime.now().getYear() + 2;
+    private static final int BENCHMARK_VISITS = 200;
+
+    @Autowired
+    private VisitService visitService;
+
+    @Autowired
+    private VisitRepository visitRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private VisitIntervalIndex visitIntervalIndex;
+
+    @AfterEach
+    void clearVisitIntervalIndex() {
+        visitIntervalIndex.invalidateAll();
+    }
+
+    @Test
+    void assignVisitToPatient_SameVisitBookedFromManyThreads_ExactlyOneBookingWins() throws Exception {
+        // Given
+        List<Long> patientIds = createPatients();
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        Queue<Long> winners = new ConcurrentLinkedQueue<>();
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        // When
+        for (Long patientId : patientIds) {
+            executor.submit(() -> {
+                ready.countDown();
+                try {
+                    start.await();
+                    visitService.assignVisitToPatient(VISIT_ID, patientId);
+                    winners.add(patientId);
+                } catch (VisitAlreadyBookedException e) {
+                    rejected.incrementAndGet();
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+        }
+        ready.await();
+        start.countDown();
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        // Then
+        Assertions.assertTrue(failures.isEmpty(), () -> "Unexpected failures: " + failures);
+        Assertions.assertEquals(1, winners.size());
+        Assertions.assertEquals(THREADS - 1, rejected.get());
+        Long bookedPatientId = visitRepository.findById(VISIT_ID).orElseThrow().getPatient().getId();
+        Assertions.assertEquals(winners.peek(), bookedPatientId);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void assignVisitToPatient_Benchmark_ReportsBookingThroughput() throws Exception {
+        // Given
+        List<Long> patientIds = createPatients();
+        List<Long> visitIds = new ArrayList<>();
+        for (int i = 0; i < BENCHMARK_VISITS; i++) {
+            visitIds.add(visitService.createVisit(slot(i), 1L).getId());
+        }
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicInteger booked = new AtomicInteger();
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        // When
+        for (Long patientId : patientIds) {
+            executor.submit(() -> {
+                ready.countDown();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (Long visitId : visitIds) {
+                    attempts.incrementAndGet();
+                    try {
+                        visitService.assignVisitToPatient(visitId, patientId);
+                        booked.incrementAndGet();
+                    } catch (VisitAlreadyBookedException ignored) {
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                }
+            });
+        }
+        ready.await();
+        long startTime = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+        double elapsedSeconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+        // Then
+        System.out.printf("Booked %d visits with %d attempts from %d threads in %.1f ms (%.0f attempts/s, %.0f bookings/s)%n",
+                booked.get(), attempts.get(), THREADS, elapsedSeconds * 1000, attempts.get() / elapsedSeconds, booked.get() / elapsedSeconds);
+        Assertions.assertTrue(failures.isEmpty(), () -> "Unexpected failures: " + failures);
+        Assertions.assertEquals(BENCHMARK_VISITS, booked.get());
+        for (Long visitId : visitIds) {
+            Assertions.assertNotNull(visitRepository.findById(visitId).orElseThrow().getPatient());
+        }
+    }
+
+    private List<Long> createPatients() {
+        List<Long> patientIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Patient patient = PatientFactory.getPatient(
+                    null,
+                    "patient" + i + "@gmail.com",
+                    "card" + i,
+                    "Jan",
+                    "Kowalski",
+                    "password123",
+                    LocalDate.of(2000, 1, 1));
+            patientIds.add(patientRepository.save(patient).getId());
+        }
+        return patientIds;
+    }
+
+    private static Visit slot(int index) {
+        LocalDateTime start = LocalDateTime.of(YEAR, 1, 1, 8, 0).plusMinutes(30L * index);
+        return Visit.builder()
+                .appointmentStart(start)
+                .appointmentEnd(start.plusMinutes(30))
+                .build();
+    }
+}
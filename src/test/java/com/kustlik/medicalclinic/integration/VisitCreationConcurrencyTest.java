@@ -0,0 +1,204 @@
+package com.kustlik.medicalclinic.integration;
+
+import com.kustlik.medicalclinic.exception.VisitExistsException;
+import com.kustlik.medicalclinic.factory.DoctorFactory;
+import com.kustlik.medicalclinic.model.entity.Visit;
+import com.kustlik.medicalclinic.repository.DoctorRepository;
+import com.kustlik.medicalclinic.repository.VisitRepository;
+import com.kustlik.medicalclinic.service.VisitService;
+import com.kustlik.medicalclinic.service.index.VisitIntervalIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+@SpringBootTest
+@Sql(scripts = {"file:src/test/resources/sql/doctor_clear_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/doctor_insert_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/patient_clear_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/patient_insert_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/visit_clear_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/visit_insert_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/medical_facility_clear_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/medical_facility_insert_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/doctor_medical_facility_insert_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+public class VisitCreationConcurrencyTest {
+    private static final int YEAR = LocalDateTime.now().getYear() + 2;
+    private static final int THREADS = 8;
+    private static final int SLOTS_PER_THREAD = 50;
+
+    @Autowired
+    private VisitService visitService;
+
+    @Autowired
+    private VisitRepository visitRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private VisitIntervalIndex visitIntervalIndex;
+
+    @AfterEach
+    void clearVisitIntervalIndex() {
+        visitIntervalIndex.invalidateAll();
+    }
+
+    @Test
+    void createVisit_SameSlotCreatedFromManyThreads_ExactlyOneVisitCreated() throws Exception {
+        // Given
+        int threads = 32;
+        Long doctorId = 1L;
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        // When
+        runConcurrently(threads, thread -> () -> {
+            try {
+                visitService.createVisit(slot(0), doctorId);
+                created.incrementAndGet();
+            } catch (VisitExistsException e) {
+                rejected.incrementAndGet();
+            } catch (Throwable e) {
+                failures.add(e);
+            }
+        });
+        // Then
+        Assertions.assertTrue(failures.isEmpty(), () -> "Unexpected failures: " + failures);
+        Assertions.assertEquals(1, created.get());
+        Assertions.assertEquals(threads - 1, rejected.get());
+        Assertions.assertEquals(0, countOverlaps(doctorId));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void createVisit_Benchmark_ThroughputScalesAcrossDoctorsWithoutOverlaps() throws Exception {
+        // Given
+        List<Long> doctorIds = createDoctors(THREADS + 2);
+        Long sharedDoctorId = doctorIds.get(THREADS);
+        Long contendedDoctorId = doctorIds.get(THREADS + 1);
+        // When
+        double sameDoctor = measureThroughput("same doctor", thread -> sharedDoctorId, thread -> thread * SLOTS_PER_THREAD);
+        double separateDoctors = measureThroughput("separate doctors", doctorIds::get, thread -> 0);
+        measureThroughput("same doctor, contended slots", thread -> contendedDoctorId, thread -> 0);
+        // Then
+        System.out.printf("Separate doctors speed-up over same doctor: %.2fx%n", separateDoctors / sameDoctor);
+        Assertions.assertEquals(THREADS * SLOTS_PER_THREAD, visitRepository.findByDoctorId(sharedDoctorId).size());
+        Assertions.assertEquals(SLOTS_PER_THREAD, visitRepository.findByDoctorId(contendedDoctorId).size());
+        for (Long doctorId : doctorIds) {
+            Assertions.assertEquals(0, countOverlaps(doctorId));
+        }
+    }
+
+    private double measureThroughput(String scenario, IntFunction<Long> doctorOfThread, IntFunction<Integer> firstSlotOfThread) throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        long elapsedNanos = runConcurrently(THREADS, thread -> () -> {
+            for (int i = 0; i < SLOTS_PER_THREAD; i++) {
+                attempts.incrementAndGet();
+                try {
+                    visitService.createVisit(slot(firstSlotOfThread.apply(thread) + i), doctorOfThread.apply(thread));
+                } catch (VisitExistsException ignored) {
+                }
+            }
+        });
+        double throughput = attempts.get() / (elapsedNanos / 1_000_000_000.0);
+        System.out.printf("%s: %d creations from %d threads in %.1f ms (%.0f creations/s)%n",
+                scenario, attempts.get(), THREADS, elapsedNanos / 1_000_000.0, throughput);
+        return throughput;
+    }
+
+    private static long runConcurrently(int threads, IntFunction<Runnable> task) throws Exception {
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int thread = 0; thread < threads; thread++) {
+            Runnable work = task.apply(thread);
+            executor.submit(() -> {
+                ready.countDown();
+                try {
+                    start.await();
+                    work.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        ready.await();
+        long startTime = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+        return System.nanoTime() - startTime;
+    }
+
+    private List<Long> createDoctors(int count) {
+        List<Long> doctorIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            doctorIds.add(doctorRepository.save(DoctorFactory.getDoctor(
+                    null,
+                    "doctor" + i + "@gmail.com",
+                    "Jan",
+                    "Kowalski",
+                    "password123",
+                    "Ortopeda",
+                    new HashSet<>())).getId());
+        }
+        return doctorIds;
+    }
+
+    private long countOverlaps(Long doctorId) {
+        List<Visit> visits = new ArrayList<>(visitRepository.findByDoctorId(doctorId));
+        visits.sort(Comparator.comparing(Visit::getAppointmentStart));
+        long overlaps = 0;
+        for (int i = 1; i < visits.size(); i++) {
+            if (visits.get(i).getAppointmentStart().isBefore(visits.get(i - 1).getAppointmentEnd())) {
+                overlaps++;
+            }
+        }
+        return overlaps;
+    }
+
+    private static Visit slot(int index) {
+        LocalDateTime start = LocalDateTime.of(YEAR, 1, 1, 8, 0).plusMinutes(30L * index);
+        return Visit.builder()
+                .appointmentStart(start)
+                .appointmentEnd(start.plusMinutes(30))
+                .build();
+    }
+}
@@ -0,0 +1,105 @@
+package com.kustlik.medicalclinic.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kustlik.medicalclinic.controller.export.ExportFormat;
+import com.kustlik.medicalclinic.controller.export.VisitExportWriter;
+import com.kustlik.medicalclinic.model.entity.Visit;
+import com.kustlik.medicalclinic.model.filter.VisitExportFilter;
+import com.kustlik.medicalclinic.model.mapper.VisitMapper;
+import com.kustlik.medicalclinic.repository.VisitRepository;
+import com.kustlik.medicalclinic.service.export.VisitExporter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Sql(scripts = {"file:src/test/resources/sql/doctor_clear_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/doctor_insert_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/visit_clear_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class VisitExportBenchmarkTest {
+    private static final int SMALL_EXPORT = 10_000;
+    private static final int LARGE_EXPORT = 500_000;
+    private static final int SAMPLE_INTERVAL = 5_000;
+
+    @Autowired
+    private VisitExporter visitExporter;
+
+    @Autowired
+    private VisitRepository visitRepository;
+
+    @Autowired
+    private VisitMapper visitMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void export_Benchmark_HeapDoesNotGrowWithRowCount() {
+        // Given
+        insertVisits(LARGE_EXPORT);
+        LocalDateTime start = firstStart();
+        VisitExportFilter small = VisitExportFilter.builder()
+                .from(start)
+                .to(start.plusMinutes(30L * SMALL_EXPORT))
+                .build();
+        VisitExportFilter large = VisitExportFilter.builder().build();
+        // When
+        long[] smallResult = measure(small);
+        long[] largeResult = measure(large);
+        // Then
+        System.out.printf("Visit export: %d rows peak heap %.1f MB in %d ms, %d rows peak heap %.1f MB in %d ms%n",
+                SMALL_EXPORT, smallResult[1] / 1_048_576.0, smallResult[2],
+                LARGE_EXPORT, largeResult[1] / 1_048_576.0, largeResult[2]);
+        Assertions.assertEquals(SMALL_EXPORT, smallResult[0]);
+        Assertions.assertEquals(LARGE_EXPORT, largeResult[0]);
+    }
+
+    private long[] measure(VisitExportFilter filter) {
+        Runtime runtime = Runtime.getRuntime();
+        long[] peak = {0};
+        long[] rows = {0};
+        VisitExportWriter writer = new VisitExportWriter(ExportFormat.NDJSON, objectMapper, OutputStream.nullOutputStream());
+        long begin = System.nanoTime();
+        visitExporter.export(filter, visit -> {
+            writer.write(visitMapper.toDto(visit));
+            if (++rows[0] % SAMPLE_INTERVAL == 0) {
+                System.gc();
+                peak[0] = Math.max(peak[0], runtime.totalMemory() - runtime.freeMemory());
+            }
+        });
+        writer.flush();
+        return new long[]{rows[0], peak[0], (System.nanoTime() - begin) / 1_000_000};
+    }
+
+    private LocalDateTime firstStart() {
+        return LocalDateTime.now().plusYears(1).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    private void insertVisits(int count) {
+        List<Visit> visits = new ArrayList<>();
+        LocalDateTime start = firstStart();
+        for (int i = 0; i < count; i++) {
+            visits.add(Visit.builder()
+                    .appointmentStart(start.plusMinutes(30L * i))
+                    .appointmentEnd(start.plusMinutes(30L * i + 30))
+                    .build());
+        }
+        visitRepository.insertAll(1L, visits);
+    }
+}
@@ -1,11 +1,18 @@
 package com.kustlik.medicalclinic.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kustlik.medicalclinic.controller.export.ExportFormat;
 import com.kustlik.medicalclinic.controller.status.VisitStatus;
 import com.kustlik.medicalclinic.exception.*;
 import com.kustlik.medicalclinic.factory.VisitFactory;
 import com.kustlik.medicalclinic.model.dto.visit.VisitDTO;
+import com.kustlik.medicalclinic.model.dto.visit.VisitScheduleDTO;
+import com.kustlik.medicalclinic.model.dto.waitlist.WaitlistEntryCreationDTO;
+import com.kustlik.medicalclinic.service.count.CountCache;
+import com.kustlik.medicalclinic.service.index.VisitIntervalIndex;
+import com.kustlik.medicalclinic.service.waitlist.VisitWaitlist;
 import org.hamcrest.core.IsNull;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -14,18 +21,31 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.jdbc.SqlConfig;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
 @AutoConfigureMockMvc
+@Sql(scripts = {"file:src/test/resources/sql/waitlist_entry_clear_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
 @Sql(scripts = {"file:src/test/resources/sql/doctor_clear_data.sql"},
         config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
         executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
@@ -44,6 +64,15 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @Sql(scripts = {"file:src/test/resources/sql/visit_insert_data.sql"},
         config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
         executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/medical_facility_clear_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/medical_facility_insert_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/doctor_medical_facility_insert_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
 public class VisitIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
@@ -51,6 +80,22 @@ public class VisitIntegrationTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private VisitIntervalIndex visitIntervalIndex;
+
+    @Autowired
+    private VisitWaitlist visitWaitlist;
+
+    @Autowired
+    private CountCache countCache;
+
+    @AfterEach
+    void clearVisitIntervalIndex() {
+        visitIntervalIndex.invalidateAll();
+        visitWaitlist.invalidateAll();
+        countCache.invalidateAll();
+    }
+
     @Test
     void getVisits_WithStatusAll_ListOfVisitDTOReturned() throws Exception {
         // Then
@@ -143,6 +188,89 @@ public class VisitIntegrationTest {
                 .andExpect(jsonPath("$[0].patientId").value("1"));
     }
 
+    @Test
+    void searchFreeVisits_MatchingFreeVisitExists_PageOfVisitDTOReturned() throws Exception {
+        // Then
+        mockMvc.perform(get("/visits/search")
+                        .param("specialisation", "Chiropraktyk")
+                        .param("city", "Warszawa")
+                        .param("from", "2029-11-30T00:00:00"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.content[0].appointmentStart").value(
+                        "2029-12-01T12:00:00"))
+                .andExpect(jsonPath("$.content[0].doctorId").value("2"))
+                .andExpect(jsonPath("$.next").value(IsNull.nullValue()));
+    }
+
+    @Test
+    void searchFreeVisits_MoreVisitsThanPageSize_NextCursorLeadsToFollowingPage() throws Exception {
+        // Given
+        Long doctorId = 2L;
+        VisitScheduleDTO scheduleDTO = VisitFactory.getVisitScheduleDTO(
+                LocalDate.of(2029, 12, 1),
+                LocalDate.of(2029, 12, 1),
+                Set.of(DayOfWeek.SATURDAY),
+                LocalTime.of(14, 0),
+                LocalTime.of(15, 0),
+                30);
+        mockMvc.perform(post("/visits/doctor/{doctorId}/schedule", doctorId).content(objectMapper.writeValueAsString(scheduleDTO)).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated());
+        // When
+        String firstPage = mockMvc.perform(get("/visits/search")
+                        .param("specialisation", "Chiropraktyk")
+                        .param("city", "Łódź")
+                        .param("from", "2029-11-30T00:00:00")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].appointmentStart").value("2029-12-01T12:00:00"))
+                .andExpect(jsonPath("$.content[1].appointmentStart").value("2029-12-01T14:00:00"))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(firstPage).get("next").asText();
+        // Then
+        mockMvc.perform(get("/visits/search")
+                        .param("specialisation", "Chiropraktyk")
+                        .param("city", "Łódź")
+                        .param("from", "2029-11-30T00:00:00")
+                        .param("size", "2")
+                        .param("cursor", cursor))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].appointmentStart").value("2029-12-01T14:30:00"))
+                .andExpect(jsonPath("$.next").value(IsNull.nullValue()));
+    }
+
+    @Test
+    void searchFreeVisits_NoDoctorInGivenCity_EmptyPageReturned() throws Exception {
+        // Then
+        mockMvc.perform(get("/visits/search")
+                        .param("specialisation", "Chiropraktyk")
+                        .param("city", "Kraków")
+                        .param("from", "2029-11-30T00:00:00"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(0));
+    }
+
+    @Test
+    void searchFreeVisits_InvalidCursorGiven_ThenIsBadRequest() throws Exception {
+        // Given
+        String exceptionMsg = "Given cursor is invalid.";
+        // Then
+        mockMvc.perform(get("/visits/search")
+                        .param("specialisation", "Chiropraktyk")
+                        .param("city", "Warszawa")
+                        .param("cursor", "not-a-cursor"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertInstanceOf(InvalidCursorException.class, result.getResolvedException()))
+                .andExpect(result -> assertEquals(exceptionMsg, result.getResponse().getContentAsString()));
+    }
+
     @Test
     void createVisit_DoctorWithGivenIdDoesNotExist_ThenIsNotFound() throws Exception {
         // Given
@@ -228,6 +356,47 @@ public class VisitIntegrationTest {
                 .andExpect(jsonPath("$.patientId").value(IsNull.nullValue()));
     }
 
+    @Test
+    void createVisitSchedule_SomeSlotsOverlapWithExistingVisits_SummaryReturned() throws Exception {
+        // Given
+        Long doctorId = 2L;
+        VisitScheduleDTO scheduleDTO = VisitFactory.getVisitScheduleDTO(
+                LocalDate.of(2029, 12, 1),
+                LocalDate.of(2029, 12, 1),
+                Set.of(DayOfWeek.SATURDAY),
+                LocalTime.of(11, 0),
+                LocalTime.of(14, 0),
+                30);
+        // Then
+        mockMvc.perform(post("/visits/doctor/{doctorId}/schedule", doctorId).content(objectMapper.writeValueAsString(scheduleDTO)).contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.createdCount").value(4))
+                .andExpect(jsonPath("$.rejectedCount").value(2))
+                .andExpect(jsonPath("$.rejectedVisits[0].appointmentStart").value(
+                        "2029-12-01T12:00:00"))
+                .andExpect(jsonPath("$.rejectedVisits[1].appointmentStart").value(
+                        "2029-12-01T13:00:00"));
+        mockMvc.perform(get("/visits/doctor/{doctorId}", doctorId)
+                        .param("status", VisitStatus.AVAILABLE.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(5));
+    }
+
+    @Test
+    void createVisitSchedule_DoctorWithGivenIdDoesNotExist_ThenIsNotFound() throws Exception {
+        // Given
+        Long doctorId = 5L;
+        String exceptionMsg = "Doctor with given ID does not exist.";
+        VisitScheduleDTO scheduleDTO = VisitFactory.getVisitScheduleDTO();
+        // Then
+        mockMvc.perform(post("/visits/doctor/{doctorId}/schedule", doctorId).content(objectMapper.writeValueAsString(scheduleDTO)).contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isNotFound())
+                .andExpect(result -> assertInstanceOf(DoctorDoesNotExistException.class, result.getResolvedException()))
+                .andExpect(result -> assertEquals(exceptionMsg, result.getResponse().getContentAsString()));
+    }
+
     @Test
     void assignVisitToPatient_PatientGivenToAssignmentDoesNotExist_ThenIsNotFound() throws Exception {
         // Given
@@ -286,4 +455,230 @@ public class VisitIntegrationTest {
                 .andExpect(jsonPath("$.doctorId").value("2"))
                 .andExpect(jsonPath("$.patientId").value("1"));
     }
+
+    @Test
+    void assignVisitToPatient_VisitGivenToAssignmentIsAlreadyBooked_ThenIsConflict() throws Exception {
+        // Given
+        String exceptionMsg = "Visit is already booked by another patient.";
+        Long visitId = 2L;
+        Long patientId = 2L;
+        // Then
+        mockMvc.perform(patch("/visits/patient/{patientId}", patientId).content(objectMapper.writeValueAsString(visitId)).contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isConflict())
+                .andExpect(result -> assertInstanceOf(VisitAlreadyBookedException.class, result.getResolvedException()))
+                .andExpect(result -> assertEquals(exceptionMsg, result.getResponse().getContentAsString()));
+        mockMvc.perform(get("/visits/patient/{patientId}", 1L))
+                .andExpect(jsonPath("$[0].id").value(2));
+    }
+
+    @Test
+    void cancelVisit_PatientIsWaitingForThatDay_VisitHandedToWaitingPatient() throws Exception {
+        // Given
+        WaitlistEntryCreationDTO waitlistEntryCreationDTO = WaitlistEntryCreationDTO.builder()
+                .patientId(2L)
+                .visitDate(LocalDate.of(2029, 12, 1))
+                .build();
+        mockMvc.perform(patch("/visits/patient/{patientId}", 1L).content(objectMapper.writeValueAsString(1L)).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/visits/doctor/{doctorId}/waitlist", 2L).content(objectMapper.writeValueAsString(waitlistEntryCreationDTO)).contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.doctorId").value(2))
+                .andExpect(jsonPath("$.patientId").value(2))
+                .andExpect(jsonPath("$.visitDate").value("2029-12-01"));
+        // When
+        mockMvc.perform(patch("/visits/patient/{patientId}/cancel", 1L).content(objectMapper.writeValueAsString(2L)).contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(2))
+                .andExpect(jsonPath("$.patientId").value(2));
+        // Then
+        mockMvc.perform(get("/visits/patient/{patientId}", 2L))
+                .andExpect(jsonPath("$[0].id").value(2));
+        mockMvc.perform(patch("/visits/patient/{patientId}/cancel", 2L).content(objectMapper.writeValueAsString(2L)).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.patientId").value(IsNull.nullValue()));
+    }
+
+    @Test
+    void cancelVisit_NobodyIsWaiting_VisitReleased() throws Exception {
+        // Then
+        mockMvc.perform(patch("/visits/patient/{patientId}/cancel", 1L).content(objectMapper.writeValueAsString(2L)).contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(2))
+                .andExpect(jsonPath("$.patientId").value(IsNull.nullValue()));
+    }
+
+    @Test
+    void cancelVisit_VisitBookedByAnotherPatient_ThenIsBadRequest() throws Exception {
+        // Given
+        String exceptionMsg = "Visit is not booked by given patient.";
+        // Then
+        mockMvc.perform(patch("/visits/patient/{patientId}/cancel", 2L).content(objectMapper.writeValueAsString(2L)).contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertInstanceOf(VisitNotBookedException.class, result.getResolvedException()))
+                .andExpect(result -> assertEquals(exceptionMsg, result.getResponse().getContentAsString()));
+    }
+
+    @Test
+    void joinWaitlist_DoctorHasFreeVisitsThatDay_ThenIsBadRequest() throws Exception {
+        // Given
+        String exceptionMsg = "Doctor has free visits on given day, please book one of them.";
+        WaitlistEntryCreationDTO waitlistEntryCreationDTO = WaitlistEntryCreationDTO.builder()
+                .patientId(2L)
+                .visitDate(LocalDate.of(2029, 12, 1))
+                .build();
+        // Then
+        mockMvc.perform(post("/visits/doctor/{doctorId}/waitlist", 2L).content(objectMapper.writeValueAsString(waitlistEntryCreationDTO)).contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertInstanceOf(VisitExistsException.class, result.getResolvedException()))
+                .andExpect(result -> assertEquals(exceptionMsg, result.getResponse().getContentAsString()));
+    }
+
+    @Test
+    void scrollVisits_WithStatusAll_AllVisitsReturnedPageByPage() throws Exception {
+        // Given
+        String response = mockMvc.perform(get("/visits/scroll")
+                        .param("status", VisitStatus.ALL.toString())
+                        .param("size", "2"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(3))
+                .andExpect(jsonPath("$.content[1].id").value(1))
+                .andExpect(jsonPath("$.next").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+        String next = objectMapper.readTree(response).get("next").asText();
+        // Then
+        mockMvc.perform(get("/visits/scroll")
+                        .param("status", VisitStatus.ALL.toString())
+                        .param("cursor", next)
+                        .param("size", "2"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(2))
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.next").value(IsNull.nullValue()));
+    }
+
+    @Test
+    void scrollVisits_WithStatusAvailable_FreeVisitsReturned() throws Exception {
+        // Then
+        mockMvc.perform(get("/visits/scroll")
+                        .param("status", VisitStatus.AVAILABLE.toString()))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.next").value(IsNull.nullValue()));
+    }
+
+    @Test
+    void getVisits_WithTotalRequested_TotalCountHeaderReturned() throws Exception {
+        // Then
+        mockMvc.perform(get("/visits")
+                        .param("status", VisitStatus.ALL.toString())
+                        .param("size", "1")
+                        .param("withTotal", "true"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "3"))
+                .andExpect(jsonPath("$.length()").value(1));
+        mockMvc.perform(get("/visits")
+                        .param("status", VisitStatus.AVAILABLE.toString())
+                        .param("withTotal", "true"))
+                .andExpect(header().string("X-Total-Count", "1"));
+        mockMvc.perform(get("/visits")
+                        .param("status", VisitStatus.ALL.toString()))
+                .andExpect(header().doesNotExist("X-Total-Count"));
+    }
+
+    @Test
+    void exportVisits_FormatCsvAndDoctorGiven_VisitsOrderedByStartStreamed() throws Exception {
+        // When
+        MvcResult mvcResult = mockMvc.perform(get("/visits/export")
+                        .param("format", ExportFormat.CSV.toString())
+                        .param("doctorId", "2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // Then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().string("id,appointmentStart,appointmentEnd,doctorId,patientId\n" +
+                        "3,2022-12-01T13:00,2022-12-01T13:30,2,1\n" +
+                        "1,2029-12-01T12:00,2029-12-01T12:30,2,\n" +
+                        "2,2029-12-01T13:00,2029-12-01T13:30,2,1\n"));
+    }
+
+    @Test
+    void exportVisits_FormatNdjsonWithPatientAndDateRangeGiven_MatchingVisitsStreamed() throws Exception {
+        // When
+        MvcResult mvcResult = mockMvc.perform(get("/visits/export")
+                        .param("format", ExportFormat.NDJSON.toString())
+                        .param("patientId", "1")
+                        .param("from", "2029-01-01T00:00:00")
+                        .param("to", "2030-01-01T00:00:00"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // Then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"id\":2,\"appointmentStart\":\"2029-12-01T13:00:00\"," +
+                        "\"appointmentEnd\":\"2029-12-01T13:30:00\",\"doctorId\":2,\"patientId\":1}\n"));
+    }
+
+    @Test
+    void exportVisits_NoVisitsMatchFilter_OnlyCsvHeaderStreamed() throws Exception {
+        // When
+        MvcResult mvcResult = mockMvc.perform(get("/visits/export")
+                        .param("format", ExportFormat.CSV.toString())
+                        .param("doctorId", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // Then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().string("id,appointmentStart,appointmentEnd,doctorId,patientId\n"));
+    }
+
+    @Test
+    void exportVisits_EndTimeBeforeStartTime_ThenIsBadRequest() throws Exception {
+        // Then
+        mockMvc.perform(get("/visits/export")
+                        .param("format", ExportFormat.CSV.toString())
+                        .param("from", "2029-01-02T00:00:00")
+                        .param("to", "2029-01-01T00:00:00"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertInstanceOf(InvalidDateTimeException.class, result.getResolvedException()));
+    }
+
+    @Test
+    void getVisitFields_FreeVisitsRequested_ForeignKeysReadWithoutJoins() {
+        // When
+        List<String> statements = SqlStatementCapture.capture(() -> {
+            try {
+                mockMvc.perform(get("/visits")
+                                .param("status", VisitStatus.AVAILABLE.toString())
+                                .param("fields", "id,doctorId,patientId"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.length()").value(1))
+                        .andExpect(jsonPath("$[0].doctorId").value(2))
+                        .andExpect(jsonPath("$[0].patientId").isEmpty())
+                        .andExpect(jsonPath("$[0].appointmentStart").doesNotExist());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        // Then
+        assertEquals(1, statements.size());
+        assertFalse(statements.get(0).contains(" join "));
+        assertFalse(statements.get(0).contains("appointment_start"));
+    }
 }
@@ -0,0 +1,78 @@
+package com.kustlik.medicalclinic.integration;
+
+import com.kustlik.medicalclinic.model.entity.Visit;
+import com.kustlik.medicalclinic.repository.VisitRepository;
+import com.kustlik.medicalclinic.service.VisitService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Sql(scripts = {"file:src/test/resources/sql/doctor_clear_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/doctor_insert_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {"file:src/test/resources/sql/visit_clear_data.sql"},
+        config = @SqlConfig(encoding = "utf-8", transactionMode = SqlConfig.TransactionMode.ISOLATED),
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class VisitListingBenchmarkTest {
+    private static final int VISITS = 100_000;
+    private static final int ITERATIONS = 200;
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private VisitService visitService;
+
+    @Autowired
+    private VisitRepository visitRepository;
+
+    @Test
+    void getVisits_Benchmark_SliceSkipsCountQuery() {
+        // Given
+        insertVisits();
+        // When
+        double withCount = measure(pageable -> visitRepository.findAll(pageable).getTotalElements());
+        double withoutCount = measure(pageable -> visitService.getVisits(pageable).hasNext());
+        // Then
+        System.out.printf("GET /visits over %d rows: page with count %.3f ms, slice %.3f ms, saved %.3f ms (%.0f%%)%n",
+                VISITS, withCount, withoutCount, withCount - withoutCount, 100 * (withCount - withoutCount) / withCount);
+        Assertions.assertTrue(visitService.getVisits(PageRequest.of(0, PAGE_SIZE)).hasNext());
+    }
+
+    private double measure(Consumer<Pageable> request) {
+        for (int i = 0; i < ITERATIONS; i++) {
+            request.accept(PageRequest.of(i % 50, PAGE_SIZE));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            request.accept(PageRequest.of(i % 50, PAGE_SIZE));
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+    }
+
+    private void insertVisits() {
+        List<Visit> visits = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.now().plusYears(1).withMinute(0).withSecond(0).withNano(0);
+        for (int i = 0; i < VISITS; i++) {
+            visits.add(Visit.builder()
+                    .appointmentStart(start.plusMinutes(30L * i))
+                    .appointmentEnd(start.plusMinutes(30L * i + 30))
+                    .build());
+        }
+        visitRepository.insertAll(1L, visits);
+    }
+}
@@ -0,0 +1,141 @@
+package com.kustlik.medicalclinic.remote.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ResponseCacheTest {
+    private static final Duration TTL = Duration.ofSeconds(10);
+    private AtomicLong ticker;
+    private AtomicInteger loads;
+    private ResponseCache<String, String> responseCache;
+
+    @BeforeEach
+    void setup() {
+        this.ticker = new AtomicLong();
+        this.loads = new AtomicInteger();
+        this.responseCache = new ResponseCache<>("test", 2, ticker::get);
+    }
+
+    @Test
+    void get_ResponseCached_LoaderCalledOnce() {
+        // Given
+        responseCache.get("a", TTL, () -> load("a"));
+        // When
+        var result = responseCache.get("a", TTL, () -> load("a"));
+        // Then
+        Assertions.assertEquals("a1", result);
+        Assertions.assertEquals(1, loads.get());
+        var statistics = responseCache.getStatistics();
+        Assertions.assertEquals(1, statistics.getHitCount());
+        Assertions.assertEquals(1, statistics.getMissCount());
+        Assertions.assertEquals(0.5, statistics.getHitRate());
+    }
+
+    @Test
+    void get_TimeToLivePassed_ResponseReloaded() {
+        // Given
+        responseCache.get("a", TTL, () -> load("a"));
+        ticker.addAndGet(TTL.toNanos());
+        // When
+        var result = responseCache.get("a", TTL, () -> load("a"));
+        // Then
+        Assertions.assertEquals("a2", result);
+    }
+
+    @Test
+    void get_ResponseCachedForever_ResponseNotReloaded() {
+        // Given
+        responseCache.get("a", ChronoUnit.FOREVER.getDuration(), () -> load("a"));
+        ticker.addAndGet(Long.MAX_VALUE / 2);
+        // When
+        var result = responseCache.get("a", ChronoUnit.FOREVER.getDuration(), () -> load("a"));
+        // Then
+        Assertions.assertEquals("a1", result);
+    }
+
+    @Test
+    void get_MaximumSizeExceeded_LeastRecentlyUsedEvicted() {
+        // Given
+        responseCache.get("a", TTL, () -> load("a"));
+        responseCache.get("b", TTL, () -> load("b"));
+        responseCache.get("a", TTL, () -> load("a"));
+        // When
+        responseCache.get("c", TTL, () -> load("c"));
+        // Then
+        Assertions.assertEquals("a1", responseCache.get("a", TTL, () -> load("a")));
+        Assertions.assertEquals("b4", responseCache.get("b", TTL, () -> load("b")));
+        Assertions.assertEquals(2, responseCache.getStatistics().getEvictionCount());
+        Assertions.assertEquals(2, responseCache.getStatistics().getSize());
+    }
+
+    @Test
+    void get_LoaderFails_ExceptionThrownAndNothingCached() {
+        // Given
+        IllegalStateException failure = new IllegalStateException("Upstream failed.");
+        // When
+        var exception = Assertions.assertThrows(IllegalStateException.class,
+                () -> responseCache.get("a", TTL, () -> {
+                    throw failure;
+                }));
+        // Then
+        Assertions.assertSame(failure, exception);
+        Assertions.assertEquals("a1", responseCache.get("a", TTL, () -> load("a")));
+        Assertions.assertEquals(1, responseCache.getStatistics().getLoadFailureCount());
+    }
+
+    @Test
+    void get_ConcurrentIdenticalCalls_SingleLoadShared() throws Exception {
+        // Given
+        int threads = 8;
+        CountDownLatch loaderEntered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            Future<String> leader = executor.submit(() -> responseCache.get("a", TTL, () -> {
+                loaderEntered.countDown();
+                await(release);
+                return load("a");
+            }));
+            Assertions.assertTrue(loaderEntered.await(5, TimeUnit.SECONDS));
+            List<Future<String>> followers = new ArrayList<>();
+            for (int i = 1; i < threads; i++) {
+                followers.add(executor.submit(() -> responseCache.get("a", TTL, () -> load("a"))));
+            }
+            // When
+            release.countDown();
+            // Then
+            Assertions.assertEquals("a1", leader.get(5, TimeUnit.SECONDS));
+            for (Future<String> follower : followers) {
+                Assertions.assertEquals("a1", follower.get(5, TimeUnit.SECONDS));
+            }
+            Assertions.assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private String load(String key) {
+        return key + loads.incrementAndGet();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
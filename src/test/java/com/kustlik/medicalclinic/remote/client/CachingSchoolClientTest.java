@@ -0,0 +1,110 @@
+package com.kustlik.medicalclinic.remote.client;
+
+import com.kustlik.medicalclinic.remote.model.dto.school.ParentBillingReportDto;
+import com.kustlik.medicalclinic.remote.model.dto.school.SchoolBillingReportDto;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CachingSchoolClientTest {
+    private static final YearMonth CURRENT_MONTH = YearMonth.now();
+    private static final YearMonth CLOSED_MONTH = CURRENT_MONTH.minusMonths(1);
+    private SchoolClient schoolClient;
+    private CachingSchoolClient cachingSchoolClient;
+
+    @BeforeEach
+    void setup() {
+        this.schoolClient = Mockito.mock(SchoolClient.class);
+        this.cachingSchoolClient = new CachingSchoolClient(schoolClient, Duration.ZERO, 100, 2);
+    }
+
+    @Test
+    void getSchoolBilling_ClosedMonthRequestedTwice_UpstreamCalledOnce() {
+        // Given
+        ParentBillingReportDto report = ParentBillingReportDto.builder().parentId(2).totalFees(100).build();
+        when(schoolClient.getSchoolBilling(1, 2, CLOSED_MONTH.getYear(), CLOSED_MONTH.getMonthValue()))
+                .thenReturn(report);
+        // When
+        cachingSchoolClient.getSchoolBilling(1, 2, CLOSED_MONTH.getYear(), CLOSED_MONTH.getMonthValue());
+        var result = cachingSchoolClient.getSchoolBilling(1, 2, CLOSED_MONTH.getYear(), CLOSED_MONTH.getMonthValue());
+        // Then
+        Assertions.assertEquals(report, result);
+        verify(schoolClient, times(1)).getSchoolBilling(1, 2, CLOSED_MONTH.getYear(), CLOSED_MONTH.getMonthValue());
+    }
+
+    @Test
+    void getSchoolBilling_1_CurrentMonthTimeToLivePassed_UpstreamCalledAgain() {
+        // Given
+        SchoolBillingReportDto report = SchoolBillingReportDto.builder().totalFees(100).parentBillingReports(List.of()).build();
+        when(schoolClient.getSchoolBilling_1(1, CURRENT_MONTH.getYear(), CURRENT_MONTH.getMonthValue()))
+                .thenReturn(report);
+        // When
+        cachingSchoolClient.getSchoolBilling_1(1, CURRENT_MONTH.getYear(), CURRENT_MONTH.getMonthValue());
+        var result = cachingSchoolClient.getSchoolBilling_1(1, CURRENT_MONTH.getYear(), CURRENT_MONTH.getMonthValue());
+        // Then
+        Assertions.assertEquals(report, result);
+        verify(schoolClient, times(2)).getSchoolBilling_1(1, CURRENT_MONTH.getYear(), CURRENT_MONTH.getMonthValue());
+    }
+
+    @Test
+    void streamSchoolBilling_ClosedMonthRequestedTwice_UpstreamCalledEachTime() {
+        // Given
+        ParentBillingReportDto report = ParentBillingReportDto.builder().parentId(2).totalFees(100).build();
+        when(schoolClient.streamSchoolBilling(1, CLOSED_MONTH.getYear(), CLOSED_MONTH.getMonthValue()))
+                .thenAnswer(invocation -> Stream.of(report));
+        // When
+        cachingSchoolClient.streamSchoolBilling(1, CLOSED_MONTH.getYear(), CLOSED_MONTH.getMonthValue()).close();
+        var result = cachingSchoolClient.streamSchoolBilling(1, CLOSED_MONTH.getYear(), CLOSED_MONTH.getMonthValue()).toList();
+        // Then
+        Assertions.assertEquals(List.of(report), result);
+        verify(schoolClient, times(2)).streamSchoolBilling(1, CLOSED_MONTH.getYear(), CLOSED_MONTH.getMonthValue());
+    }
+
+    @Test
+    void getSchoolBilling_1_MoreSchoolsThanSchoolReportLimit_EldestReportEvicted() {
+        // Given
+        when(schoolClient.getSchoolBilling_1(anyInt(), eq(CLOSED_MONTH.getYear()), eq(CLOSED_MONTH.getMonthValue())))
+                .thenReturn(SchoolBillingReportDto.builder().build());
+        when(schoolClient.getSchoolBilling(anyInt(), anyInt(), eq(CLOSED_MONTH.getYear()), eq(CLOSED_MONTH.getMonthValue())))
+                .thenReturn(ParentBillingReportDto.builder().build());
+        // When
+        for (int schoolId = 1; schoolId <= 3; schoolId++) {
+            cachingSchoolClient.getSchoolBilling_1(schoolId, CLOSED_MONTH.getYear(), CLOSED_MONTH.getMonthValue());
+            cachingSchoolClient.getSchoolBilling(schoolId, 2, CLOSED_MONTH.getYear(), CLOSED_MONTH.getMonthValue());
+        }
+        var result = cachingSchoolClient.getCacheStatistics();
+        // Then
+        Assertions.assertEquals(3, result.get(0).getSize());
+        Assertions.assertEquals(0, result.get(0).getEvictionCount());
+        Assertions.assertEquals(2, result.get(1).getSize());
+        Assertions.assertEquals(1, result.get(1).getEvictionCount());
+    }
+
+    @Test
+    void getCacheStatistics_ClosedMonthServedFromCache_HitCounted() {
+        // Given
+        when(schoolClient.getSchoolBilling_1(1, CLOSED_MONTH.getYear(), CLOSED_MONTH.getMonthValue()))
+                .thenReturn(SchoolBillingReportDto.builder().build());
+        cachingSchoolClient.getSchoolBilling_1(1, CLOSED_MONTH.getYear(), CLOSED_MONTH.getMonthValue());
+        cachingSchoolClient.getSchoolBilling_1(1, CLOSED_MONTH.getYear(), CLOSED_MONTH.getMonthValue());
+        // When
+        var result = cachingSchoolClient.getCacheStatistics();
+        // Then
+        Assertions.assertEquals("school-billing", result.get(1).getName());
+        Assertions.assertEquals(1, result.get(1).getHitCount());
+        Assertions.assertEquals(1, result.get(1).getMissCount());
+        Assertions.assertEquals(1, result.get(1).getSize());
+    }
+}
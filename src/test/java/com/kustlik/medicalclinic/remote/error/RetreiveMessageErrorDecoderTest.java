@@ -0,0 +1,73 @@
+package com.kustlik.medicalclinic.remote.error;
+
+import com.kustlik.medicalclinic.remote.exception.InternalServerErrorException;
+import com.kustlik.medicalclinic.remote.exception.ServiceUnavailableException;
+import feign.Request;
+import feign.Response;
+import feign.RetryableException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public class RetreiveMessageErrorDecoderTest {
+    private RetreiveMessageErrorDecoder errorDecoder;
+
+    @BeforeEach
+    void setup() {
+        this.errorDecoder = new RetreiveMessageErrorDecoder();
+    }
+
+    @Test
+    void decode_InternalServerError_InternalServerErrorExceptionReturned() {
+        // When
+        var result = errorDecoder.decode("SchoolClient#getSchoolBilling", response(500, Map.of()));
+        // Then
+        Assertions.assertInstanceOf(InternalServerErrorException.class, result);
+    }
+
+    @Test
+    void decode_ServiceUnavailableWithRetryAfterSeconds_RetryableExceptionWithRetryAfterReturned() {
+        // Given
+        long before = System.currentTimeMillis();
+        // When
+        var result = errorDecoder.decode("SchoolClient#getSchoolBilling",
+                response(503, Map.of("Retry-After", List.of("5"))));
+        // Then
+        RetryableException retryable = Assertions.assertInstanceOf(RetryableException.class, result);
+        Assertions.assertInstanceOf(ServiceUnavailableException.class, retryable.getCause());
+        Assertions.assertTrue(retryable.retryAfter() >= before + 5000);
+    }
+
+    @Test
+    void decode_ServiceUnavailableWithRetryAfterDate_RetryAfterParsed() {
+        // When
+        var result = errorDecoder.decode("SchoolClient#getSchoolBilling",
+                response(503, Map.of("Retry-After", List.of("Wed, 21 Oct 2015 07:28:00 GMT"))));
+        // Then
+        Assertions.assertEquals(1445412480000L, ((RetryableException) result).retryAfter());
+    }
+
+    @Test
+    void decode_ServiceUnavailableWithoutRetryAfter_RetryableExceptionWithoutRetryAfterReturned() {
+        // When
+        var result = errorDecoder.decode("SchoolClient#getSchoolBilling", response(503, Map.of()));
+        // Then
+        Assertions.assertNull(((RetryableException) result).retryAfter());
+    }
+
+    private static Response response(int status, Map<String, Collection<String>> headers) {
+        Request request = Request.create(Request.HttpMethod.GET, "http://localhost/school/1/billing", Map.of(),
+                null, StandardCharsets.UTF_8, null);
+        return Response.builder()
+                .status(status)
+                .request(request)
+                .headers(headers)
+                .body("Upstream failure.", StandardCharsets.UTF_8)
+                .build();
+    }
+}
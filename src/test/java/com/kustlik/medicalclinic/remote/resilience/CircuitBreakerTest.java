@@ -0,0 +1,106 @@
+package com.kustlik.medicalclinic.remote.resilience;
+
+import com.kustlik.medicalclinic.remote.exception.CircuitBreakerOpenException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CircuitBreakerTest {
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+    private AtomicLong ticker;
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setup() {
+        this.ticker = new AtomicLong();
+        this.circuitBreaker = new CircuitBreaker(3, OPEN_DURATION, ticker::get);
+    }
+
+    @Test
+    void onFailure_FailureThresholdReached_CircuitOpenedAndCallsRejected() {
+        // Given
+        failTimes(3);
+        // When
+        var exception = Assertions.assertThrows(CircuitBreakerOpenException.class, circuitBreaker::acquirePermission);
+        // Then
+        Assertions.assertEquals("School service is unavailable, calls are temporarily suspended.", exception.getMessage());
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        Assertions.assertEquals(1, circuitBreaker.getRejectedCount());
+    }
+
+    @Test
+    void onSuccess_SuccessBetweenFailures_ConsecutiveFailuresReset() {
+        // Given
+        failTimes(2);
+        circuitBreaker.acquirePermission();
+        circuitBreaker.onSuccess();
+        // When
+        failTimes(2);
+        // Then
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        Assertions.assertEquals(2, circuitBreaker.getConsecutiveFailures());
+    }
+
+    @Test
+    void acquirePermission_OpenDurationPassed_SingleTrialCallPermitted() {
+        // Given
+        failTimes(3);
+        ticker.addAndGet(OPEN_DURATION.toNanos());
+        // When
+        circuitBreaker.acquirePermission();
+        // Then
+        Assertions.assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        Assertions.assertThrows(CircuitBreakerOpenException.class, circuitBreaker::acquirePermission);
+    }
+
+    @Test
+    void onSuccess_TrialCallSucceeded_CircuitClosed() {
+        // Given
+        failTimes(3);
+        ticker.addAndGet(OPEN_DURATION.toNanos());
+        circuitBreaker.acquirePermission();
+        // When
+        circuitBreaker.onSuccess();
+        // Then
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        Assertions.assertEquals(3, circuitBreaker.getTransitions().size());
+        Assertions.assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getTransitions().get(2).getFrom());
+    }
+
+    @Test
+    void onFailure_TrialCallFailed_CircuitReopened() {
+        // Given
+        failTimes(3);
+        ticker.addAndGet(OPEN_DURATION.toNanos());
+        circuitBreaker.acquirePermission();
+        // When
+        circuitBreaker.onFailure();
+        // Then
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        Assertions.assertThrows(CircuitBreakerOpenException.class, circuitBreaker::acquirePermission);
+    }
+
+    @Test
+    void releasePermission_TrialCallNeverReachedService_NextTrialCallPermitted() {
+        // Given
+        failTimes(3);
+        ticker.addAndGet(OPEN_DURATION.toNanos());
+        circuitBreaker.acquirePermission();
+        // When
+        circuitBreaker.releasePermission();
+        // Then
+        Assertions.assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        Assertions.assertEquals(3, circuitBreaker.getConsecutiveFailures());
+        Assertions.assertDoesNotThrow(circuitBreaker::acquirePermission);
+    }
+
+    private void failTimes(int times) {
+        for (int i = 0; i < times; i++) {
+            circuitBreaker.acquirePermission();
+            circuitBreaker.onFailure();
+        }
+    }
+}
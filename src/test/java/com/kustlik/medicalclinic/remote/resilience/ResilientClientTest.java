@@ -0,0 +1,68 @@
+package com.kustlik.medicalclinic.remote.resilience;
+
+import com.kustlik.medicalclinic.remote.exception.ConnectionPoolExhaustedException;
+import feign.Client;
+import feign.Request;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ResilientClientTest {
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+    private static final Request REQUEST = Request.create(Request.HttpMethod.GET, "http://localhost/school/1/parent/1/billing",
+            Map.of(), null, StandardCharsets.UTF_8, null);
+    private static final Request.Options OPTIONS = new Request.Options(Duration.ofSeconds(2), Duration.ofSeconds(5), true);
+    private Client delegate;
+    private AtomicLong ticker;
+    private CircuitBreaker circuitBreaker;
+    private Bulkhead bulkhead;
+    private ResilientClient resilientClient;
+
+    @BeforeEach
+    void setup() {
+        this.delegate = mock(Client.class);
+        this.ticker = new AtomicLong();
+        this.circuitBreaker = new CircuitBreaker(2, OPEN_DURATION, ticker::get);
+        this.bulkhead = new Bulkhead(4, Duration.ZERO);
+        this.resilientClient = new ResilientClient(delegate, bulkhead, circuitBreaker);
+    }
+
+    @Test
+    void execute_ConnectionPoolExhausted_NotCountedAsUpstreamFailure() throws IOException {
+        // Given
+        when(delegate.execute(any(), any())).thenThrow(new ConnectionPoolExhaustedException("Timed out waiting for a pooled connection."));
+        // When
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertThrows(ConnectionPoolExhaustedException.class, () -> resilientClient.execute(REQUEST, OPTIONS));
+        }
+        // Then
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        Assertions.assertEquals(0, circuitBreaker.getConsecutiveFailures());
+        Assertions.assertEquals(4, bulkhead.getAvailableConcurrentCalls());
+    }
+
+    @Test
+    void execute_TrialCallFindsConnectionPoolExhausted_NextTrialCallPermitted() throws IOException {
+        // Given
+        when(delegate.execute(any(), any())).thenThrow(new IOException("Connection refused"));
+        Assertions.assertThrows(IOException.class, () -> resilientClient.execute(REQUEST, OPTIONS));
+        Assertions.assertThrows(IOException.class, () -> resilientClient.execute(REQUEST, OPTIONS));
+        ticker.addAndGet(OPEN_DURATION.toNanos());
+        when(delegate.execute(any(), any())).thenThrow(new ConnectionPoolExhaustedException("Timed out waiting for a pooled connection."));
+        // When
+        Assertions.assertThrows(ConnectionPoolExhaustedException.class, () -> resilientClient.execute(REQUEST, OPTIONS));
+        // Then
+        Assertions.assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        Assertions.assertDoesNotThrow(circuitBreaker::acquirePermission);
+    }
+}
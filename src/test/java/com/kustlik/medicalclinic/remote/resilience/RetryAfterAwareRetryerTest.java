@@ -0,0 +1,75 @@
+package com.kustlik.medicalclinic.remote.resilience;
+
+import com.kustlik.medicalclinic.remote.exception.ServiceUnavailableException;
+import feign.Request;
+import feign.RetryableException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+public class RetryAfterAwareRetryerTest {
+    private RetryAfterAwareRetryer retryer;
+
+    @BeforeEach
+    void setup() {
+        this.retryer = new RetryAfterAwareRetryer(3, Duration.ofMillis(1), Duration.ofSeconds(1));
+    }
+
+    @Test
+    void continueOrPropagate_MaxAttemptsReached_CauseThrown() {
+        // Given
+        ServiceUnavailableException cause = new ServiceUnavailableException("Unavailable.");
+        RetryableException exception = retryable(cause, null);
+        retryer.continueOrPropagate(exception);
+        retryer.continueOrPropagate(exception);
+        // When
+        var result = Assertions.assertThrows(ServiceUnavailableException.class,
+                () -> retryer.continueOrPropagate(exception));
+        // Then
+        Assertions.assertSame(cause, result);
+    }
+
+    @Test
+    void continueOrPropagate_RetryAfterBeyondMaxBackoff_ThrownWithoutWaiting() {
+        // Given
+        RetryableException exception = retryable(null, System.currentTimeMillis() + 60_000);
+        // When
+        var result = Assertions.assertThrows(RetryableException.class,
+                () -> retryer.continueOrPropagate(exception));
+        // Then
+        Assertions.assertSame(exception, result);
+    }
+
+    @Test
+    void continueOrPropagate_RetryAfterWithinMaxBackoff_WaitsUntilRetryAfter() {
+        // Given
+        long start = System.nanoTime();
+        RetryableException exception = retryable(null, System.currentTimeMillis() + 200);
+        // When
+        retryer.continueOrPropagate(exception);
+        // Then
+        Assertions.assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 150);
+    }
+
+    @Test
+    void clone_RetryerExhausted_FreshAttemptsAvailable() {
+        // Given
+        RetryableException exception = retryable(null, null);
+        retryer.continueOrPropagate(exception);
+        retryer.continueOrPropagate(exception);
+        // When
+        var result = retryer.clone();
+        // Then
+        Assertions.assertDoesNotThrow(() -> result.continueOrPropagate(exception));
+    }
+
+    private static RetryableException retryable(Throwable cause, Long retryAfter) {
+        Request request = Request.create(Request.HttpMethod.GET, "http://localhost/school/1/billing", Map.of(),
+                null, StandardCharsets.UTF_8, null);
+        return new RetryableException(503, "Unavailable.", Request.HttpMethod.GET, cause, retryAfter, request);
+    }
+}
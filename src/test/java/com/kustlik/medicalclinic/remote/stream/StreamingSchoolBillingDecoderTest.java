@@ -0,0 +1,200 @@
+package com.kustlik.medicalclinic.remote.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kustlik.medicalclinic.remote.client.SchoolClient;
+import com.kustlik.medicalclinic.remote.model.dto.school.ChildAttendanceDto;
+import com.kustlik.medicalclinic.remote.model.dto.school.ChildReportDto;
+import com.kustlik.medicalclinic.remote.model.dto.school.ParentBillingReportDto;
+import com.kustlik.medicalclinic.remote.model.dto.school.SchoolBillingReportDto;
+import feign.Request;
+import feign.Response;
+import feign.codec.Decoder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StreamingSchoolBillingDecoderTest {
+    private static final Type PARENT_BILLING_REPORT_STREAM = streamType();
+    private Decoder delegate;
+    private StreamingSchoolBillingDecoder decoder;
+
+    @BeforeEach
+    void setup() {
+        this.delegate = Mockito.mock(Decoder.class);
+        this.decoder = new StreamingSchoolBillingDecoder(delegate, new ObjectMapper().findAndRegisterModules());
+    }
+
+    @Test
+    void decode_ParentBillingReportStream_ReportsReadAndBodyClosedWhenExhausted() throws IOException {
+        // Given
+        TrackingInputStream body = new TrackingInputStream("""
+                {"totalFees":30.0,"school":{"name":"Primary","tags":[1,2]},"parentBillingReports":[
+                {"parentId":1,"totalFees":10.0,"numberOfPaidHours":2,"childrenReport":[{"childId":10,"firstName":"Anna","lastName":"Nowak","attendances":[{"entryDate":"2020-01-02","exitDate":"2020-01-02"}],"numberOfPaidHours":2}]},
+                {"parentId":2,"totalFees":20.0,"numberOfPaidHours":0,"childrenReport":[]}
+                ],"generatedAt":"2020-02-01"}""");
+        // When
+        Stream<ParentBillingReportDto> result = decode(body);
+        // Then
+        Assertions.assertEquals(List.of(report(1, 10.0, 2, List.of(ChildReportDto.builder()
+                        .childId(10)
+                        .firstName("Anna")
+                        .lastName("Nowak")
+                        .attendances(List.of(new ChildAttendanceDto(LocalDate.of(2020, 1, 2), LocalDate.of(2020, 1, 2))))
+                        .numberOfPaidHours(2)
+                        .build())),
+                report(2, 20.0, 0, List.of())), result.toList());
+        Assertions.assertTrue(body.closed);
+        verify(delegate, never()).decode(any(), any());
+    }
+
+    @Test
+    void decode_ParentBillingReportsNull_EmptyStreamReturnedAndBodyClosed() throws IOException {
+        // Given
+        TrackingInputStream body = new TrackingInputStream("{\"totalFees\":0.0,\"parentBillingReports\":null}");
+        // When
+        Stream<ParentBillingReportDto> result = decode(body);
+        // Then
+        Assertions.assertEquals(0, result.count());
+        Assertions.assertTrue(body.closed);
+    }
+
+    @Test
+    void decode_StreamClosedBeforeExhausted_BodyClosed() throws IOException {
+        // Given
+        TrackingInputStream body = new TrackingInputStream("{\"parentBillingReports\":[{\"parentId\":1},{\"parentId\":2}]}");
+        Stream<ParentBillingReportDto> result = decode(body);
+        // When
+        Assertions.assertEquals(1, result.iterator().next().getParentId());
+        result.close();
+        // Then
+        Assertions.assertTrue(body.closed);
+    }
+
+    @Test
+    void decode_MalformedParentBillingReport_UncheckedIOExceptionThrownAndBodyClosed() throws IOException {
+        // Given
+        TrackingInputStream body = new TrackingInputStream("{\"parentBillingReports\":[{\"parentId\":1},{\"parentId\":\"x\"}]}");
+        Stream<ParentBillingReportDto> result = decode(body);
+        // When
+        Assertions.assertThrows(UncheckedIOException.class, result::toList);
+        // Then
+        Assertions.assertTrue(body.closed);
+    }
+
+    @Test
+    void decode_NonObjectParentBillingReport_UncheckedIOExceptionThrownAndBodyClosed() throws IOException {
+        // Given
+        TrackingInputStream body = new TrackingInputStream("{\"parentBillingReports\":[{\"parentId\":1},2,{\"parentId\":3}]}");
+        Stream<ParentBillingReportDto> result = decode(body);
+        // When
+        Assertions.assertThrows(UncheckedIOException.class, result::toList);
+        // Then
+        Assertions.assertTrue(body.closed);
+    }
+
+    @Test
+    void decode_ParentBillingReportsTruncated_UncheckedIOExceptionThrownAndBodyClosed() throws IOException {
+        // Given
+        TrackingInputStream body = new TrackingInputStream("{\"parentBillingReports\":[{\"parentId\":1}");
+        Stream<ParentBillingReportDto> result = decode(body);
+        // When
+        Assertions.assertThrows(UncheckedIOException.class, result::toList);
+        // Then
+        Assertions.assertTrue(body.closed);
+    }
+
+    @Test
+    void decode_BodyCloseFails_StreamClosedWithoutException() throws IOException {
+        // Given
+        TrackingInputStream body = new TrackingInputStream("{\"parentBillingReports\":[{\"parentId\":1},{\"parentId\":2}]}");
+        body.failOnClose = true;
+        Stream<ParentBillingReportDto> result = decode(body);
+        result.iterator().next();
+        // When
+        Assertions.assertDoesNotThrow(result::close);
+        // Then
+        Assertions.assertTrue(body.closed);
+    }
+
+    @Test
+    void decode_OtherType_DelegatedAndBodyClosed() throws IOException {
+        // Given
+        TrackingInputStream body = new TrackingInputStream("{\"totalFees\":0.0,\"parentBillingReports\":[]}");
+        Response response = response(body);
+        SchoolBillingReportDto report = SchoolBillingReportDto.builder().totalFees(0).parentBillingReports(List.of()).build();
+        when(delegate.decode(response, SchoolBillingReportDto.class)).thenReturn(report);
+        // When
+        var result = decoder.decode(response, SchoolBillingReportDto.class);
+        // Then
+        Assertions.assertEquals(report, result);
+        Assertions.assertTrue(body.closed);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Stream<ParentBillingReportDto> decode(TrackingInputStream body) throws IOException {
+        return (Stream<ParentBillingReportDto>) decoder.decode(response(body), PARENT_BILLING_REPORT_STREAM);
+    }
+
+    private static Response response(TrackingInputStream body) {
+        return Response.builder()
+                .status(200)
+                .request(Request.create(Request.HttpMethod.GET, "http://localhost/school/1/billing", Map.of(), null,
+                        StandardCharsets.UTF_8, null))
+                .headers(Map.of())
+                .body(body, null)
+                .build();
+    }
+
+    private static ParentBillingReportDto report(int parentId, double totalFees, int numberOfPaidHours,
+                                                 List<ChildReportDto> children) {
+        return ParentBillingReportDto.builder()
+                .parentId(parentId)
+                .totalFees(totalFees)
+                .numberOfPaidHours(numberOfPaidHours)
+                .childrenReport(children)
+                .build();
+    }
+
+    private static Type streamType() {
+        try {
+            return SchoolClient.class.getMethod("streamSchoolBilling", int.class, int.class, int.class)
+                    .getGenericReturnType();
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class TrackingInputStream extends ByteArrayInputStream {
+        private boolean closed;
+        private boolean failOnClose;
+
+        private TrackingInputStream(String content) {
+            super(content.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            if (failOnClose) {
+                throw new IOException("Connection reset");
+            }
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.kustlik.medicalclinic.remote.transport;
+
+import com.kustlik.medicalclinic.integration.SchoolServiceStub;
+import com.kustlik.medicalclinic.remote.exception.ConnectionPoolExhaustedException;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class PooledHttpClientTest {
+    private static final SchoolServiceStub STUB = SchoolServiceStub.start(0);
+    private static final Request.Options OPTIONS = new Request.Options(Duration.ofSeconds(2), Duration.ofSeconds(5), true);
+
+    @BeforeEach
+    void setup() {
+        STUB.reset();
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.stop();
+    }
+
+    @Test
+    void execute_GzipEncodedResponse_BodyDecompressed() throws IOException {
+        // Given
+        PooledHttpClient client = new PooledHttpClient(2, Duration.ofSeconds(2), Duration.ofSeconds(2));
+        // When
+        try (Response response = client.execute(request(7), OPTIONS)) {
+            // Then
+            Assertions.assertEquals(200, response.status());
+            Assertions.assertTrue(Util.toString(response.body().asReader(StandardCharsets.UTF_8)).contains("\"parentId\":7"));
+            Assertions.assertFalse(response.headers().containsKey("Content-Encoding"));
+            Assertions.assertEquals(1, STUB.gzippedResponses());
+        }
+    }
+
+    @Test
+    void execute_MoreConcurrentCallsThanMaxConnections_ConcurrencyCapped() throws Exception {
+        // Given
+        STUB.replyAlways(8, SchoolServiceStub.Reply.ok(100));
+        PooledHttpClient client = new PooledHttpClient(2, Duration.ofSeconds(2), Duration.ofSeconds(2));
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<Integer>> calls = new ArrayList<>();
+            // When
+            for (int i = 0; i < 6; i++) {
+                calls.add(executor.submit(() -> {
+                    try (Response response = client.execute(request(8), OPTIONS)) {
+                        Util.toByteArray(response.body().asInputStream());
+                        return response.status();
+                    }
+                }));
+            }
+            // Then
+            for (Future<Integer> call : calls) {
+                Assertions.assertEquals(200, call.get(5, TimeUnit.SECONDS));
+            }
+            Assertions.assertEquals(6, STUB.requestCount(8));
+            Assertions.assertEquals(2, STUB.maxConcurrentRequests());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_ResponsesClosed_ConnectionReused() throws IOException {
+        // Given
+        PooledHttpClient client = new PooledHttpClient(1, Duration.ofMillis(200), Duration.ofSeconds(2));
+        // When
+        for (int i = 0; i < 3; i++) {
+            try (Response response = client.execute(request(9), OPTIONS)) {
+                Assertions.assertEquals(200, response.status());
+            }
+        }
+        // Then
+        Assertions.assertEquals(3, STUB.requestCount(9));
+        Assertions.assertEquals(1, STUB.connectionCount());
+    }
+
+    @Test
+    void execute_PooledConnectionNotReturned_TimedOutWaiting() throws IOException {
+        // Given
+        PooledHttpClient client = new PooledHttpClient(1, Duration.ofMillis(200), Duration.ofSeconds(2));
+        Response leaked = client.execute(request(10), OPTIONS);
+        // When
+        var exception = Assertions.assertThrows(ConnectionPoolExhaustedException.class, () -> client.execute(request(10), OPTIONS));
+        // Then
+        Assertions.assertEquals("Timed out waiting for a pooled connection.", exception.getMessage());
+        leaked.close();
+    }
+
+    @Test
+    void execute_BodyStallsLongerThanReadTimeout_ReadTimedOutAndConnectionReleased() throws IOException {
+        // Given
+        STUB.replyOnce(11, SchoolServiceStub.Reply.stalledBody(3000));
+        PooledHttpClient client = new PooledHttpClient(1, Duration.ofSeconds(2), Duration.ofSeconds(2));
+        Request.Options options = new Request.Options(Duration.ofSeconds(2), Duration.ofMillis(300), true);
+        long start = System.nanoTime();
+        // When
+        try (Response response = client.execute(request(11), options)) {
+            var exception = Assertions.assertThrows(SocketTimeoutException.class,
+                    () -> Util.toByteArray(response.body().asInputStream()));
+            // Then
+            Assertions.assertEquals("Read timed out.", exception.getMessage());
+        }
+        Assertions.assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(2)) < 0);
+        try (Response response = client.execute(request(11), OPTIONS)) {
+            Assertions.assertEquals(200, response.status());
+        }
+    }
+
+    private static Request request(int parentId) {
+        return Request.create(Request.HttpMethod.GET, STUB.url() + "/school/1/parent/" + parentId + "/billing?year=2020&month=1",
+                Map.of(), null, StandardCharsets.UTF_8, null);
+    }
+}
@@ -1,10 +1,24 @@
 package com.kustlik.medicalclinic.service;
 
+import com.kustlik.medicalclinic.exception.DoctorDoesNotExistException;
+import com.kustlik.medicalclinic.exception.EmptyFieldException;
 import com.kustlik.medicalclinic.factory.DoctorFactory;
 import com.kustlik.medicalclinic.factory.MedicalFacilityFactory;
+import com.kustlik.medicalclinic.factory.OwnedIdFactory;
+import com.kustlik.medicalclinic.model.cursor.CursorPaging;
+import com.kustlik.medicalclinic.model.cursor.IdCursor;
+import com.kustlik.medicalclinic.model.dto.doctor.DoctorAssignmentDTO;
 import com.kustlik.medicalclinic.model.entity.Doctor;
 import com.kustlik.medicalclinic.model.entity.MedicalFacility;
+import com.kustlik.medicalclinic.model.fields.FieldSelection;
+import com.kustlik.medicalclinic.model.fields.ResourceFields;
+import com.kustlik.medicalclinic.model.projection.DoctorSummary;
 import com.kustlik.medicalclinic.repository.DoctorRepository;
+import com.kustlik.medicalclinic.repository.VisitRepository;
+import com.kustlik.medicalclinic.service.cache.DoctorAssignmentCacheEvictor;
+import com.kustlik.medicalclinic.service.count.CountCache;
+import com.kustlik.medicalclinic.service.fields.SparseFieldReader;
+import com.kustlik.medicalclinic.service.filter.DoctorEmailFilter;
 import com.kustlik.medicalclinic.service.validator.DoctorValidator;
 import com.kustlik.medicalclinic.service.validator.MedicalFacilityValidator;
 import org.junit.jupiter.api.Assertions;
@@ -16,35 +30,53 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.sql.Statement;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.SliceImpl;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class DoctorServiceTest {
     private DoctorRepository doctorRepository;
+    private VisitRepository visitRepository;
     private DoctorValidator doctorValidator;
     private MedicalFacilityValidator medicalFacilityValidator;
+    private SparseFieldReader sparseFieldReader;
+    private DoctorAssignmentCacheEvictor doctorAssignmentCacheEvictor;
+    private DoctorEmailFilter doctorEmailFilter;
     private DoctorService doctorService;
 
     @BeforeEach
     void setup() {
         this.doctorRepository = Mockito.mock(DoctorRepository.class);
+        this.visitRepository = Mockito.mock(VisitRepository.class);
         this.doctorValidator = Mockito.mock(DoctorValidator.class);
         this.medicalFacilityValidator = Mockito.mock(MedicalFacilityValidator.class);
-        this.doctorService = new DoctorServiceImpl(doctorRepository, doctorValidator, medicalFacilityValidator);
+        this.sparseFieldReader = Mockito.mock(SparseFieldReader.class);
+        this.doctorAssignmentCacheEvictor = Mockito.mock(DoctorAssignmentCacheEvictor.class);
+        this.doctorEmailFilter = Mockito.mock(DoctorEmailFilter.class);
+        this.doctorService = new DoctorServiceImpl(doctorRepository, visitRepository, doctorValidator, medicalFacilityValidator, new CountCache(Duration.ofSeconds(5), 1000), sparseFieldReader, doctorAssignmentCacheEvictor, doctorEmailFilter);
     }
 
     @Test
-    void getDoctors_NoDoctorExists_PageOfDoctorReturned() {
+    void getDoctors_NoDoctorExists_SliceOfDoctorReturned() {
         // Given
         Pageable pageable = PageRequest.of(0, 10);
-        List<Doctor> doctors = new ArrayList<>();
-        Page<Doctor> doctorPage = new PageImpl<>(doctors);
-        when(doctorRepository.findAll(pageable)).thenReturn(doctorPage);
+        List<DoctorSummary> doctors = new ArrayList<>();
+        Page<DoctorSummary> doctorPage = new PageImpl<>(doctors);
+        when(doctorRepository.findSummariesBy(PageRequest.of(0, 10, Sort.by("id")))).thenReturn(doctorPage);
         // When
         var result = doctorService.getDoctors(pageable);
         // Then
@@ -53,15 +85,15 @@ public class DoctorServiceTest {
     }
 
     @Test
-    void getDoctors_DoctorsExists_PageOfDoctorReturned() {
+    void getDoctors_DoctorsExists_SliceOfDoctorReturned() {
         // Given
         Pageable pageable = PageRequest.of(0, 10);
-        List<Doctor> doctors = List.of(DoctorFactory.getDoctor());
-        Page<Doctor> doctorPage = new PageImpl<>(doctors, pageable, 1);
-        when(doctorRepository.findAll(pageable)).thenReturn(doctorPage);
+        List<DoctorSummary> doctors = List.of(DoctorFactory.getDoctorSummary(DoctorFactory.getDoctor()));
+        Page<DoctorSummary> doctorPage = new PageImpl<>(doctors, pageable, 1);
+        when(doctorRepository.findSummariesBy(PageRequest.of(0, 10, Sort.by("id")))).thenReturn(doctorPage);
 
         // When
-        Page<Doctor> result = doctorService.getDoctors(pageable);
+        Slice<DoctorSummary> result = doctorService.getDoctors(pageable);
 
         // Then
         Assertions.assertNotNull(result);
@@ -90,6 +122,7 @@ public class DoctorServiceTest {
         // Then
         Assertions.assertNotNull(result);
         Assertions.assertEquals(doctor, result);
+        verify(doctorEmailFilter).register(doctor.getEmail());
     }
 
     @Test
@@ -108,4 +141,160 @@ public class DoctorServiceTest {
         Assertions.assertNotNull(result);
         Assertions.assertTrue(result.getMedicalFacilities().contains(medicalFacility));
     }
+
+    @Test
+    void assignDoctorsToMedicalFacilities_SomeAssignmentsAreInvalidOrPresent_OnlyNewAssignmentsCounted() {
+        // Given
+        DoctorAssignmentDTO newAssignment = DoctorFactory.getDoctorAssignmentDTO(1L, 1L);
+        DoctorAssignmentDTO presentAssignment = DoctorFactory.getDoctorAssignmentDTO(1L, 2L);
+        DoctorAssignmentDTO missingDoctorAssignment = DoctorFactory.getDoctorAssignmentDTO(5L, 1L);
+        when(doctorValidator.doctorsExist(any())).thenReturn(Set.of(1L));
+        when(medicalFacilityValidator.medicalFacilitiesExist(any())).thenReturn(Set.of(1L, 2L));
+        Mockito.doThrow(new DoctorDoesNotExistException("Doctor with given ID does not exist."))
+                .when(doctorValidator).validateDoctorToMedicalFacilityAssignment(missingDoctorAssignment, Set.of(1L), Set.of(1L, 2L));
+        when(doctorRepository.insertAllIfAbsent(List.of(newAssignment, presentAssignment))).thenReturn(new int[]{1, 0});
+        // When
+        var result = doctorService.assignDoctorsToMedicalFacilities(List.of(newAssignment, presentAssignment, missingDoctorAssignment));
+        // Then
+        Assertions.assertEquals(1, result.getCreatedCount());
+        Assertions.assertEquals(2, result.getRejectedCount());
+        Assertions.assertEquals("Doctor with given ID does not exist.", result.getRejectedAssignments().get(0).getReason());
+        Assertions.assertEquals(5L, result.getRejectedAssignments().get(0).getDoctorId());
+        Assertions.assertEquals("Doctor is already assigned to this facility.", result.getRejectedAssignments().get(1).getReason());
+        Assertions.assertEquals(2L, result.getRejectedAssignments().get(1).getMedicalFacilityId());
+        verify(doctorRepository, never()).findById(any());
+        verify(doctorRepository, never()).save(any());
+        verify(doctorAssignmentCacheEvictor).evict(List.of(1L), List.of(1L));
+    }
+
+    @Test
+    void assignDoctorsToMedicalFacilities_UpdateCountUnknown_AssignmentNotReportedAsPresent() {
+        // Given
+        DoctorAssignmentDTO assignment = DoctorFactory.getDoctorAssignmentDTO(1L, 1L);
+        when(doctorValidator.doctorsExist(any())).thenReturn(Set.of(1L));
+        when(medicalFacilityValidator.medicalFacilitiesExist(any())).thenReturn(Set.of(1L));
+        when(doctorRepository.insertAllIfAbsent(List.of(assignment))).thenReturn(new int[]{Statement.SUCCESS_NO_INFO});
+        // When
+        var result = doctorService.assignDoctorsToMedicalFacilities(List.of(assignment));
+        // Then
+        Assertions.assertEquals(1, result.getCreatedCount());
+        Assertions.assertEquals(0, result.getRejectedCount());
+        verify(doctorAssignmentCacheEvictor).evict(List.of(1L), List.of(1L));
+    }
+
+    @Test
+    void assignDoctorsToMedicalFacilities_NoAssignmentIsValid_NothingInserted() {
+        // Given
+        DoctorAssignmentDTO assignment = DoctorFactory.getDoctorAssignmentDTO(null, 1L);
+        Mockito.doThrow(new EmptyFieldException("Doctor ID and medical facility ID cannot be empty."))
+                .when(doctorValidator).validateDoctorToMedicalFacilityAssignment(any(), any(), any());
+        // When
+        var result = doctorService.assignDoctorsToMedicalFacilities(List.of(assignment));
+        // Then
+        Assertions.assertEquals(0, result.getCreatedCount());
+        Assertions.assertEquals(1, result.getRejectedCount());
+        verify(doctorRepository, never()).insertAllIfAbsent(any());
+    }
+
+    @Test
+    void getDoctors_CursorIsGiven_SliceAfterCursorReturned() {
+        // Given
+        DoctorSummary doctor = DoctorFactory.getDoctorSummary(DoctorFactory.getDoctor());
+        Slice<DoctorSummary> doctorSlice = new SliceImpl<>(List.of(doctor), PageRequest.ofSize(5), true);
+        when(doctorRepository.findSummariesByIdGreaterThanOrderByIdAsc(7L, PageRequest.ofSize(5))).thenReturn(doctorSlice);
+        // When
+        var result = doctorService.getDoctors(new IdCursor(7L), 5);
+        // Then
+        Assertions.assertEquals(List.of(doctor), result.getContent());
+        Assertions.assertTrue(result.hasNext());
+    }
+
+    @Test
+    void getDoctors_NoCursorIsGivenAndSizeTooBig_FirstSliceOfMaxSizeReturned() {
+        // Given
+        when(doctorRepository.findSummariesByIdGreaterThanOrderByIdAsc(any(), any())).thenReturn(new SliceImpl<>(List.of()));
+        // When
+        doctorService.getDoctors(null, 1000);
+        // Then
+        verify(doctorRepository).findSummariesByIdGreaterThanOrderByIdAsc(0L, PageRequest.ofSize(CursorPaging.MAX_PAGE_SIZE));
+    }
+
+    @Test
+    void getMedicalFacilityIds_DoctorsHaveFacilities_IdsGroupedByDoctorReturned() {
+        // Given
+        List<Long> doctorIDs = List.of(1L, 2L);
+        when(doctorRepository.findMedicalFacilityIdsByDoctorIds(doctorIDs))
+                .thenReturn(List.of(OwnedIdFactory.getOwnedId(1L, 10L), OwnedIdFactory.getOwnedId(1L, 11L), OwnedIdFactory.getOwnedId(2L, 10L)));
+        // When
+        var result = doctorService.getMedicalFacilityIds(doctorIDs);
+        // Then
+        Assertions.assertEquals(Map.of(1L, List.of(10L, 11L), 2L, List.of(10L)), result);
+    }
+
+    @Test
+    void getVisitIds_DoctorsHaveVisits_IdsGroupedByDoctorReturned() {
+        // Given
+        List<Long> doctorIDs = List.of(1L, 2L);
+        when(visitRepository.findIdsByDoctorIds(doctorIDs))
+                .thenReturn(List.of(OwnedIdFactory.getOwnedId(1L, 5L), OwnedIdFactory.getOwnedId(2L, 6L), OwnedIdFactory.getOwnedId(2L, 7L)));
+        // When
+        var result = doctorService.getVisitIds(doctorIDs);
+        // Then
+        Assertions.assertEquals(Map.of(1L, List.of(5L), 2L, List.of(6L, 7L)), result);
+    }
+
+    @Test
+    void getVisitIds_NoDoctorIdsGiven_EmptyMapReturnedWithoutQuery() {
+        // Given
+        List<Long> doctorIDs = List.of();
+        // When
+        var result = doctorService.getVisitIds(doctorIDs);
+        // Then
+        Assertions.assertTrue(result.isEmpty());
+        verify(visitRepository, never()).findIdsByDoctorIds(any());
+    }
+
+    @Test
+    void getDoctorFields_OnlyColumnsRequested_AssociationsNotQueried() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10);
+        FieldSelection fields = FieldSelection.parse(ResourceFields.DOCTOR, "email");
+        when(sparseFieldReader.read(Doctor.class, fields, null, pageable))
+                .thenReturn(new SliceImpl<>(List.of(Map.<String, Object>of("id", 1L, "email", "jankow@gmail.com"))));
+        // When
+        var result = doctorService.getDoctorFields(fields, pageable);
+        // Then
+        Assertions.assertEquals(List.of(Map.of("email", "jankow@gmail.com")), result.getContent());
+        verify(doctorRepository, never()).findMedicalFacilityIdsByDoctorIds(any());
+        verify(visitRepository, never()).findIdsByDoctorIds(any());
+    }
+
+    @Test
+    void getDoctorFields_VisitIdsRequested_OnlyVisitIdsQueried() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10);
+        FieldSelection fields = FieldSelection.parse(ResourceFields.DOCTOR, "lastName,visitIds");
+        when(sparseFieldReader.read(Doctor.class, fields, null, pageable))
+                .thenReturn(new SliceImpl<>(List.of(Map.<String, Object>of("id", 1L, "lastName", "Kowalski"))));
+        when(visitRepository.findIdsByDoctorIds(List.of(1L)))
+                .thenReturn(List.of(OwnedIdFactory.getOwnedId(1L, 5L), OwnedIdFactory.getOwnedId(1L, 6L)));
+        // When
+        var result = doctorService.getDoctorFields(fields, pageable);
+        // Then
+        Assertions.assertEquals(List.of(Map.of("lastName", "Kowalski", "visitIds", List.of(5L, 6L))), result.getContent());
+        verify(doctorRepository, never()).findMedicalFacilityIdsByDoctorIds(any());
+    }
+
+    @Test
+    void countDoctors_CalledTwiceWithinTtl_CountQueriedOnce() {
+        // Given
+        when(doctorRepository.count()).thenReturn(2L);
+        // When
+        doctorService.countDoctors();
+        var result = doctorService.countDoctors();
+        // Then
+        Assertions.assertEquals(2L, result);
+        verify(doctorRepository, times(1)).count();
+    }
+
 }
@@ -2,10 +2,19 @@ package com.kustlik.medicalclinic.service;
 
 import com.kustlik.medicalclinic.factory.DoctorFactory;
 import com.kustlik.medicalclinic.factory.MedicalFacilityFactory;
+import com.kustlik.medicalclinic.factory.OwnedIdFactory;
+import com.kustlik.medicalclinic.model.cursor.CursorPaging;
+import com.kustlik.medicalclinic.model.cursor.IdCursor;
 import com.kustlik.medicalclinic.model.entity.Doctor;
 import com.kustlik.medicalclinic.model.entity.MedicalFacility;
+import com.kustlik.medicalclinic.model.fields.FieldSelection;
+import com.kustlik.medicalclinic.model.fields.ResourceFields;
+import com.kustlik.medicalclinic.model.projection.MedicalFacilitySummary;
 import com.kustlik.medicalclinic.repository.DoctorRepository;
 import com.kustlik.medicalclinic.repository.MedicalFacilityRepository;
+import com.kustlik.medicalclinic.service.cache.DoctorAssignmentCacheEvictor;
+import com.kustlik.medicalclinic.service.count.CountCache;
+import com.kustlik.medicalclinic.service.fields.SparseFieldReader;
 import com.kustlik.medicalclinic.service.validator.DoctorValidator;
 import com.kustlik.medicalclinic.service.validator.MedicalFacilityValidator;
 import org.junit.jupiter.api.Assertions;
@@ -17,12 +26,20 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.SliceImpl;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class MedicalFacilityServiceTest {
@@ -30,6 +47,8 @@ public class MedicalFacilityServiceTest {
     private MedicalFacilityValidator medicalFacilityValidator;
     private DoctorRepository doctorRepository;
     private DoctorValidator doctorValidator;
+    private SparseFieldReader sparseFieldReader;
+    private DoctorAssignmentCacheEvictor doctorAssignmentCacheEvictor;
     private MedicalFacilityService medicalFacilityService;
 
     @BeforeEach
@@ -38,16 +57,18 @@ public class MedicalFacilityServiceTest {
         this.medicalFacilityValidator = Mockito.mock(MedicalFacilityValidator.class);
         this.doctorRepository = Mockito.mock(DoctorRepository.class);
         this.doctorValidator = Mockito.mock(DoctorValidator.class);
-        this.medicalFacilityService = new MedicalFacilityServiceImpl(medicalFacilityRepository, medicalFacilityValidator, doctorRepository, doctorValidator);
+        this.sparseFieldReader = Mockito.mock(SparseFieldReader.class);
+        this.doctorAssignmentCacheEvictor = Mockito.mock(DoctorAssignmentCacheEvictor.class);
+        this.medicalFacilityService = new MedicalFacilityServiceImpl(medicalFacilityRepository, medicalFacilityValidator, doctorRepository, doctorValidator, new CountCache(Duration.ofSeconds(5), 1000), sparseFieldReader, doctorAssignmentCacheEvictor);
     }
 
     @Test
-    void getMedicalFacilities_NoMedicalFacilityExists_PageOfMedicalFacilityReturned() {
+    void getMedicalFacilities_NoMedicalFacilityExists_SliceOfMedicalFacilityReturned() {
         // Given
         Pageable pageable = PageRequest.of(0, 10);
-        List<MedicalFacility> medicalFacilities = new ArrayList<>();
-        Page<MedicalFacility> medicalFacilityPage = new PageImpl<>(medicalFacilities);
-        when(medicalFacilityRepository.findAll(pageable)).thenReturn(medicalFacilityPage);
+        List<MedicalFacilitySummary> medicalFacilities = new ArrayList<>();
+        Page<MedicalFacilitySummary> medicalFacilityPage = new PageImpl<>(medicalFacilities);
+        when(medicalFacilityRepository.findSummariesBy(PageRequest.of(0, 10, Sort.by("id")))).thenReturn(medicalFacilityPage);
         // When
         var result = medicalFacilityService.getMedicalFacilities(pageable);
         // Then
@@ -56,14 +77,14 @@ public class MedicalFacilityServiceTest {
     }
 
     @Test
-    void getMedicalFacilities_MedicalFacilitiesExists_PageOfMedicalFacilityReturned() {
+    void getMedicalFacilities_MedicalFacilitiesExists_SliceOfMedicalFacilityReturned() {
         // Given
         Pageable pageable = PageRequest.of(0, 10);
-        List<MedicalFacility> medicalFacilities = new ArrayList<>();
-        MedicalFacility medicalFacility = MedicalFacilityFactory.getMedicalFacility();
+        List<MedicalFacilitySummary> medicalFacilities = new ArrayList<>();
+        MedicalFacilitySummary medicalFacility = MedicalFacilityFactory.getMedicalFacilitySummary(MedicalFacilityFactory.getMedicalFacility());
         medicalFacilities.add(medicalFacility);
-        Page<MedicalFacility> medicalFacilityPage = new PageImpl<>(medicalFacilities);
-        when(medicalFacilityRepository.findAll(pageable)).thenReturn(medicalFacilityPage);
+        Page<MedicalFacilitySummary> medicalFacilityPage = new PageImpl<>(medicalFacilities);
+        when(medicalFacilityRepository.findSummariesBy(PageRequest.of(0, 10, Sort.by("id")))).thenReturn(medicalFacilityPage);
         // When
         var result = medicalFacilityService.getMedicalFacilities(pageable);
         // Then
@@ -110,5 +131,81 @@ public class MedicalFacilityServiceTest {
         // Then
         Assertions.assertNotNull(result);
         Assertions.assertTrue(doctor.getMedicalFacilities().contains(medicalFacility));
+        verify(doctorAssignmentCacheEvictor).evict(doctorID, medicalFacilityID);
+    }
+
+    @Test
+    void getMedicalFacilities_CursorIsGiven_SliceAfterCursorReturned() {
+        // Given
+        MedicalFacilitySummary medicalFacility = MedicalFacilityFactory.getMedicalFacilitySummary(MedicalFacilityFactory.getMedicalFacility());
+        Slice<MedicalFacilitySummary> medicalFacilitySlice = new SliceImpl<>(List.of(medicalFacility), PageRequest.ofSize(5), true);
+        when(medicalFacilityRepository.findSummariesByIdGreaterThanOrderByIdAsc(7L, PageRequest.ofSize(5))).thenReturn(medicalFacilitySlice);
+        // When
+        var result = medicalFacilityService.getMedicalFacilities(new IdCursor(7L), 5);
+        // Then
+        Assertions.assertEquals(List.of(medicalFacility), result.getContent());
+        Assertions.assertTrue(result.hasNext());
+    }
+
+    @Test
+    void getMedicalFacilities_NoCursorIsGivenAndSizeTooBig_FirstSliceOfMaxSizeReturned() {
+        // Given
+        when(medicalFacilityRepository.findSummariesByIdGreaterThanOrderByIdAsc(any(), any())).thenReturn(new SliceImpl<>(List.of()));
+        // When
+        medicalFacilityService.getMedicalFacilities(null, 1000);
+        // Then
+        verify(medicalFacilityRepository).findSummariesByIdGreaterThanOrderByIdAsc(0L, PageRequest.ofSize(CursorPaging.MAX_PAGE_SIZE));
+    }
+
+    @Test
+    void getDoctorIds_MedicalFacilitiesHaveDoctors_IdsGroupedByMedicalFacilityReturned() {
+        // Given
+        List<Long> medicalFacilityIDs = List.of(1L, 2L);
+        when(medicalFacilityRepository.findDoctorIdsByMedicalFacilityIds(medicalFacilityIDs))
+                .thenReturn(List.of(OwnedIdFactory.getOwnedId(1L, 3L), OwnedIdFactory.getOwnedId(2L, 3L)));
+        // When
+        var result = medicalFacilityService.getDoctorIds(medicalFacilityIDs);
+        // Then
+        Assertions.assertEquals(Map.of(1L, List.of(3L), 2L, List.of(3L)), result);
+    }
+
+    @Test
+    void getDoctorIds_NoMedicalFacilityIdsGiven_EmptyMapReturnedWithoutQuery() {
+        // Given
+        List<Long> medicalFacilityIDs = List.of();
+        // When
+        var result = medicalFacilityService.getDoctorIds(medicalFacilityIDs);
+        // Then
+        Assertions.assertTrue(result.isEmpty());
+        verify(medicalFacilityRepository, never()).findDoctorIdsByMedicalFacilityIds(any());
+    }
+
+    @Test
+    void getMedicalFacilityFields_DoctorIdsRequested_DoctorIdsMergedIntoRows() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10);
+        FieldSelection fields = FieldSelection.parse(ResourceFields.MEDICAL_FACILITY, "name,doctorIds");
+        when(sparseFieldReader.read(MedicalFacility.class, fields, null, pageable))
+                .thenReturn(new SliceImpl<>(List.of(Map.<String, Object>of("id", 1L, "name", "Covermedi"),
+                        Map.<String, Object>of("id", 2L, "name", "MediSun"))));
+        when(medicalFacilityRepository.findDoctorIdsByMedicalFacilityIds(List.of(1L, 2L)))
+                .thenReturn(List.of(OwnedIdFactory.getOwnedId(1L, 3L)));
+        // When
+        var result = medicalFacilityService.getMedicalFacilityFields(fields, pageable);
+        // Then
+        Assertions.assertEquals(List.of(Map.of("name", "Covermedi", "doctorIds", List.of(3L)),
+                Map.of("name", "MediSun", "doctorIds", List.of())), result.getContent());
+    }
+
+    @Test
+    void countMedicalFacilities_CalledTwiceWithinTtl_CountQueriedOnce() {
+        // Given
+        when(medicalFacilityRepository.count()).thenReturn(2L);
+        // When
+        medicalFacilityService.countMedicalFacilities();
+        var result = medicalFacilityService.countMedicalFacilities();
+        // Then
+        Assertions.assertEquals(2L, result);
+        verify(medicalFacilityRepository, times(1)).count();
     }
-}
+}
\ No newline at end of file
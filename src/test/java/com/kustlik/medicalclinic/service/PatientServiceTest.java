@@ -1,8 +1,21 @@
 package com.kustlik.medicalclinic.service;
 
+import com.kustlik.medicalclinic.exception.InvalidSortException;
+import com.kustlik.medicalclinic.exception.PatientExistsException;
+import com.kustlik.medicalclinic.factory.OwnedIdFactory;
 import com.kustlik.medicalclinic.factory.PatientFactory;
+import com.kustlik.medicalclinic.model.cursor.CursorPaging;
+import com.kustlik.medicalclinic.model.cursor.IdCursor;
 import com.kustlik.medicalclinic.model.entity.Patient;
+import com.kustlik.medicalclinic.model.fields.FieldSelection;
+import com.kustlik.medicalclinic.model.fields.ResourceFields;
+import com.kustlik.medicalclinic.model.projection.PatientSummary;
 import com.kustlik.medicalclinic.repository.PatientRepository;
+import com.kustlik.medicalclinic.repository.VisitRepository;
+import com.kustlik.medicalclinic.service.count.CountCache;
+import com.kustlik.medicalclinic.service.fields.SparseFieldReader;
+import com.kustlik.medicalclinic.service.filter.PatientEmailFilter;
+import com.kustlik.medicalclinic.service.imports.PatientImportRow;
 import com.kustlik.medicalclinic.service.validator.PatientValidator;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,33 +26,51 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.SliceImpl;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class PatientServiceTest {
     private PatientRepository patientRepository;
+    private VisitRepository visitRepository;
     private PatientValidator patientValidator;
+    private SparseFieldReader sparseFieldReader;
+    private PatientEmailFilter patientEmailFilter;
     private PatientService patientService;
 
     @BeforeEach
     void setup() {
         this.patientRepository = Mockito.mock(PatientRepository.class);
+        this.visitRepository = Mockito.mock(VisitRepository.class);
         this.patientValidator = Mockito.mock(PatientValidator.class);
-        this.patientService = new PatientServiceImpl(patientRepository, patientValidator);
+        this.sparseFieldReader = Mockito.mock(SparseFieldReader.class);
+        this.patientEmailFilter = Mockito.mock(PatientEmailFilter.class);
+        this.patientService = new PatientServiceImpl(patientRepository, visitRepository, patientValidator, new CountCache(Duration.ofSeconds(5), 1000), sparseFieldReader, patientEmailFilter);
     }
 
     @Test
-    void getPatients_NoPatientExists_PageOfPatientReturned() {
+    void getPatients_NoPatientExists_SliceOfPatientReturned() {
         // Given
         Pageable pageable = PageRequest.of(0, 10);
-        List<Patient> patients = new ArrayList<>();
-        Page<Patient> patientPage = new PageImpl<>(patients);
-        when(patientRepository.findAll(pageable)).thenReturn(patientPage);
+        List<PatientSummary> patients = new ArrayList<>();
+        Page<PatientSummary> patientPage = new PageImpl<>(patients);
+        when(patientRepository.findSummariesBy(PageRequest.of(0, 10, Sort.by("id")))).thenReturn(patientPage);
         // When
         var result = patientService.getPatients(pageable);
         // Then
@@ -48,14 +79,14 @@ public class PatientServiceTest {
     }
 
     @Test
-    void getPatients_PatientsExists_PageOfPatientReturned() {
+    void getPatients_PatientsExists_SliceOfPatientReturned() {
         // Given
         Pageable pageable = PageRequest.of(0, 10);
-        List<Patient> patients = new ArrayList<>();
-        Patient patient = PatientFactory.getPatient();
+        List<PatientSummary> patients = new ArrayList<>();
+        PatientSummary patient = PatientFactory.getPatientSummary(PatientFactory.getPatient());
         patients.add(patient);
-        Page<Patient> patientPage = new PageImpl<>(patients);
-        when(patientRepository.findAll(pageable)).thenReturn(patientPage);
+        Page<PatientSummary> patientPage = new PageImpl<>(patients);
+        when(patientRepository.findSummariesBy(PageRequest.of(0, 10, Sort.by("id")))).thenReturn(patientPage);
         // When
         var result = patientService.getPatients(pageable);
         // Then
@@ -87,6 +118,36 @@ public class PatientServiceTest {
         Assertions.assertEquals(patient, result);
     }
 
+    @Test
+    void getPatientsWithVisits_DateRangeGiven_RepositoryQueriedWithHalfOpenRange() {
+        // Given
+        LocalDate from = LocalDate.of(2029, 12, 1);
+        LocalDate to = LocalDate.of(2029, 12, 2);
+        Pageable pageable = PageRequest.of(0, 10);
+        PatientSummary patient = PatientFactory.getPatientSummary(PatientFactory.getPatient());
+        Slice<PatientSummary> expectedPage = new SliceImpl<>(List.of(patient), pageable, false);
+        when(patientRepository.findSummariesWithVisitsBetween(
+                LocalDateTime.of(2029, 12, 1, 0, 0), LocalDateTime.of(2029, 12, 3, 0, 0), PageRequest.of(0, 10, Sort.by("id"))))
+                .thenReturn(expectedPage);
+        // When
+        var result = patientService.getPatientsWithVisits(from, to, pageable);
+        // Then
+        Assertions.assertEquals(expectedPage, result);
+    }
+
+    @Test
+    void getPatientsWithVisits_SortByUnselectedProperty_InvalidSortExceptionThrown() {
+        // Given
+        LocalDate date = LocalDate.of(2029, 12, 1);
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("idCardNo"));
+        // When
+        var exception = Assertions.assertThrows(InvalidSortException.class,
+                () -> patientService.getPatientsWithVisits(date, date, pageable));
+        // Then
+        Assertions.assertEquals("Cannot sort by: idCardNo.", exception.getMessage());
+        verify(patientRepository, never()).findSummariesWithVisitsBetween(any(), any(), any());
+    }
+
     @Test
     void createPatient_PatientWithSameEmailDoesNotExist_PatientReturned() {
         // Given
@@ -97,6 +158,7 @@ public class PatientServiceTest {
         // Then
         Assertions.assertNotNull(result);
         Assertions.assertEquals(patient, result);
+        verify(patientEmailFilter).register(patient.getEmail());
     }
 
     @Test
@@ -156,4 +218,155 @@ public class PatientServiceTest {
         //Then
         Assertions.assertEquals(toEdit.getPassword(), patient.getPassword());
     }
+
+    @Test
+    void getPatients_CursorIsGiven_SliceAfterCursorReturned() {
+        // Given
+        PatientSummary patient = PatientFactory.getPatientSummary(PatientFactory.getPatient());
+        Slice<PatientSummary> patientSlice = new SliceImpl<>(List.of(patient), PageRequest.ofSize(5), true);
+        when(patientRepository.findSummariesByIdGreaterThanOrderByIdAsc(7L, PageRequest.ofSize(5))).thenReturn(patientSlice);
+        // When
+        var result = patientService.getPatients(new IdCursor(7L), 5);
+        // Then
+        Assertions.assertEquals(List.of(patient), result.getContent());
+        Assertions.assertTrue(result.hasNext());
+    }
+
+    @Test
+    void getPatients_NoCursorIsGivenAndSizeTooBig_FirstSliceOfMaxSizeReturned() {
+        // Given
+        when(patientRepository.findSummariesByIdGreaterThanOrderByIdAsc(any(), any())).thenReturn(new SliceImpl<>(List.of()));
+        // When
+        patientService.getPatients(null, 1000);
+        // Then
+        verify(patientRepository).findSummariesByIdGreaterThanOrderByIdAsc(0L, PageRequest.ofSize(CursorPaging.MAX_PAGE_SIZE));
+    }
+
+    @Test
+    void getVisitIds_PatientsHaveVisits_IdsGroupedByPatientReturned() {
+        // Given
+        List<Long> patientIDs = List.of(1L, 2L);
+        when(visitRepository.findIdsByPatientIds(patientIDs))
+                .thenReturn(List.of(OwnedIdFactory.getOwnedId(1L, 5L), OwnedIdFactory.getOwnedId(1L, 6L)));
+        // When
+        var result = patientService.getVisitIds(patientIDs);
+        // Then
+        Assertions.assertEquals(Map.of(1L, List.of(5L, 6L)), result);
+    }
+
+    @Test
+    void getVisitIds_NoPatientIdsGiven_EmptyMapReturnedWithoutQuery() {
+        // Given
+        List<Long> patientIDs = List.of();
+        // When
+        var result = patientService.getVisitIds(patientIDs);
+        // Then
+        Assertions.assertTrue(result.isEmpty());
+        verify(visitRepository, never()).findIdsByPatientIds(any());
+    }
+
+    @Test
+    void getPatientFields_VisitIdsNotRequested_VisitIdsNotQueried() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10);
+        FieldSelection fields = FieldSelection.parse(ResourceFields.PATIENT, "firstName,email");
+        when(sparseFieldReader.read(Patient.class, fields, null, pageable))
+                .thenReturn(new SliceImpl<>(List.of(Map.<String, Object>of("id", 1L, "firstName", "Jan", "email", "jankow@gmail.com"))));
+        // When
+        var result = patientService.getPatientFields(fields, pageable);
+        // Then
+        Assertions.assertEquals(List.of("firstName", "email"), List.copyOf(result.getContent().get(0).keySet()));
+        verify(visitRepository, never()).findIdsByPatientIds(any());
+    }
+
+    @Test
+    void countPatients_CalledTwiceWithinTtl_CountQueriedOnce() {
+        // Given
+        when(patientRepository.count()).thenReturn(2L);
+        // When
+        patientService.countPatients();
+        var result = patientService.countPatients();
+        // Then
+        Assertions.assertEquals(2L, result);
+        verify(patientRepository, times(1)).count();
+    }
+
+    @Test
+    void importPatients_RowsWithDuplicatesAndMalformedRecordGiven_OnlyValidRowsInserted() {
+        // Given
+        Patient first = PatientFactory.getPatient(null, "jankow@gmail.com", "12345", "Jan", "Kowalski", "password123", LocalDate.of(2000, 1, 1));
+        Patient duplicate = PatientFactory.getPatient(null, "JANKOW@gmail.com", "54321", "Jan", "Kowalski", "password123", LocalDate.of(2000, 1, 1));
+        List<PatientImportRow> rows = List.of(
+                PatientImportRow.of(1, first),
+                PatientImportRow.malformed(2),
+                PatientImportRow.of(3, duplicate));
+        when(patientValidator.patientEmailsExist(any())).thenReturn(Set.of());
+        when(patientValidator.patientIdCardNosExist(any())).thenReturn(Set.of());
+        doThrow(new PatientExistsException("Patient with given email exists."))
+                .when(patientValidator).validatePatientImport(eq(duplicate), any(), any());
+        when(patientRepository.insertAll(List.of(first))).thenReturn(new int[]{1});
+        // When
+        var result = patientService.importPatients(rows);
+        // Then
+        Assertions.assertEquals(2, result.size());
+        Assertions.assertEquals(2, result.get(0).getLine());
+        Assertions.assertEquals("Malformed record.", result.get(0).getReason());
+        Assertions.assertEquals(3, result.get(1).getLine());
+        Assertions.assertEquals("JANKOW@gmail.com", result.get(1).getEmail());
+        verify(patientRepository).insertAll(List.of(first));
+        verify(patientEmailFilter).register("jankow@gmail.com");
+    }
+
+    @Test
+    void importPatients_ConcurrentInsertWinsRace_LosingRowRejected() {
+        // Given
+        Patient first = PatientFactory.getPatient(null, "jankow@gmail.com", "12345", "Jan", "Kowalski", "password123", LocalDate.of(2000, 1, 1));
+        Patient second = PatientFactory.getPatient(null, "annnow@gmail.com", "54321", "Anna", "Nowak", "password123", LocalDate.of(1990, 5, 5));
+        List<PatientImportRow> rows = List.of(
+                PatientImportRow.of(1, first),
+                PatientImportRow.of(2, second),
+                PatientImportRow.malformed(3));
+        when(patientValidator.patientEmailsExist(any())).thenReturn(Set.of());
+        when(patientValidator.patientIdCardNosExist(any())).thenReturn(Set.of());
+        when(patientRepository.insertAll(List.of(first, second))).thenReturn(new int[]{0, 1});
+        // When
+        var result = patientService.importPatients(rows);
+        // Then
+        Assertions.assertEquals(2, result.size());
+        Assertions.assertEquals(1, result.get(0).getLine());
+        Assertions.assertEquals("jankow@gmail.com", result.get(0).getEmail());
+        Assertions.assertEquals("Patient with given email exists.", result.get(0).getReason());
+        Assertions.assertEquals(3, result.get(1).getLine());
+        verify(patientEmailFilter).register("annnow@gmail.com");
+        verify(patientEmailFilter, never()).register("jankow@gmail.com");
+    }
+
+    @Test
+    void importPatients_ConcurrentInsertTakesIdCardNo_LosingRowRejectedForIdCardNo() {
+        // Given
+        Patient first = PatientFactory.getPatient(null, "jankow@gmail.com", "12345", "Jan", "Kowalski", "password123", LocalDate.of(2000, 1, 1));
+        Patient second = PatientFactory.getPatient(null, "annnow@gmail.com", "54321", "Anna", "Nowak", "password123", LocalDate.of(1990, 5, 5));
+        List<PatientImportRow> rows = List.of(
+                PatientImportRow.of(1, first),
+                PatientImportRow.of(2, second));
+        when(patientValidator.patientEmailsExist(any())).thenReturn(Set.of());
+        when(patientValidator.patientIdCardNosExist(any())).thenReturn(Set.of(), Set.of("12345"));
+        when(patientRepository.insertAll(List.of(first, second))).thenReturn(new int[]{0, 0});
+        // When
+        var result = patientService.importPatients(rows);
+        // Then
+        Assertions.assertEquals(2, result.size());
+        Assertions.assertEquals("Patient with given ID card number exists.", result.get(0).getReason());
+        Assertions.assertEquals("Patient with given email exists.", result.get(1).getReason());
+        verify(patientEmailFilter, never()).register(any());
+    }
+
+    @Test
+    void importPatients_AllRowsRejected_NothingInserted() {
+        // When
+        var result = patientService.importPatients(List.of(PatientImportRow.malformed(1)));
+        // Then
+        Assertions.assertEquals(1, result.size());
+        verify(patientRepository, never()).insertAll(any());
+    }
 }
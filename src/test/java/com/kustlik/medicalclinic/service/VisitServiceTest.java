@@ -1,15 +1,29 @@
 package com.kustlik.medicalclinic.service;
 
+import com.kustlik.medicalclinic.exception.DoctorDoesNotExistException;
+import com.kustlik.medicalclinic.exception.VisitAlreadyBookedException;
+import com.kustlik.medicalclinic.exception.VisitExistsException;
+import com.kustlik.medicalclinic.exception.VisitNotBookedException;
+import com.kustlik.medicalclinic.exception.WaitlistEntryExistsException;
 import com.kustlik.medicalclinic.factory.DoctorFactory;
 import com.kustlik.medicalclinic.factory.PatientFactory;
 import com.kustlik.medicalclinic.factory.VisitFactory;
+import com.kustlik.medicalclinic.factory.WaitlistEntryFactory;
+import com.kustlik.medicalclinic.model.cursor.VisitCursor;
+import com.kustlik.medicalclinic.model.dto.visit.VisitScheduleDTO;
 import com.kustlik.medicalclinic.model.entity.Doctor;
 import com.kustlik.medicalclinic.model.entity.Patient;
 import com.kustlik.medicalclinic.model.entity.Visit;
+import com.kustlik.medicalclinic.model.entity.WaitlistEntry;
 import com.kustlik.medicalclinic.repository.DoctorRepository;
 import com.kustlik.medicalclinic.repository.PatientRepository;
 import com.kustlik.medicalclinic.repository.VisitRepository;
+import com.kustlik.medicalclinic.service.count.CountCache;
+import com.kustlik.medicalclinic.service.fields.SparseFieldReader;
+import com.kustlik.medicalclinic.service.index.VisitIntervalIndex;
+import com.kustlik.medicalclinic.service.lock.DoctorScheduleLock;
 import com.kustlik.medicalclinic.service.validator.VisitValidator;
+import com.kustlik.medicalclinic.service.waitlist.VisitWaitlist;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,18 +33,27 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 public class VisitServiceTest {
     private DoctorRepository doctorRepository;
     private PatientRepository patientRepository;
     private VisitRepository visitRepository;
     private VisitValidator visitValidator;
+    private VisitIntervalIndex visitIntervalIndex;
+    private DoctorScheduleLock doctorScheduleLock;
+    private VisitWaitlist visitWaitlist;
+    private SparseFieldReader sparseFieldReader;
     private VisitService visitService;
 
     @BeforeEach
@@ -39,17 +62,21 @@ public class VisitServiceTest {
         this.patientRepository = Mockito.mock(PatientRepository.class);
         this.visitRepository = Mockito.mock(VisitRepository.class);
         this.visitValidator = Mockito.mock(VisitValidator.class);
-        this.visitService = new VisitServiceImpl(doctorRepository, patientRepository, visitRepository, visitValidator);
+        this.visitIntervalIndex = Mockito.mock(VisitIntervalIndex.class);
+        this.doctorScheduleLock = Mockito.mock(DoctorScheduleLock.class);
+        this.visitWaitlist = Mockito.mock(VisitWaitlist.class);
+        this.sparseFieldReader = Mockito.mock(SparseFieldReader.class);
+        this.visitService = new VisitServiceImpl(doctorRepository, patientRepository, visitRepository, visitValidator, visitIntervalIndex, doctorScheduleLock, visitWaitlist, new CountCache(Duration.ofSeconds(5), 1000), sparseFieldReader);
     }
 
     @Test
-    void getVisits_ListOfVisitsExists_PageOfVisitReturned() {
+    void getVisits_ListOfVisitsExists_SliceOfVisitReturned() {
         // Given
         Pageable pageable = PageRequest.of(0, 10);
         Visit visit = VisitFactory.getVisit();
         List<Visit> visits = List.of(visit);
         Page<Visit> visitPage = new PageImpl<>(visits);
-        when(visitRepository.findAll(pageable)).thenReturn(visitPage);
+        when(visitRepository.findAllBy(PageRequest.of(0, 10, Sort.by("id")))).thenReturn(visitPage);
         // When
         var result = visitService.getVisits(pageable);
         // Then
@@ -58,55 +85,13 @@ public class VisitServiceTest {
     }
 
     @Test
-    public void getVisits_ListOfVisitsWithGivenVisitDateExists_PageOfVisitReturned() {
-        // Given
-        LocalDate searchDate = VisitFactory.getVisit().getAppointmentStart().toLocalDate();
-        Pageable pageable = PageRequest.of(0, 10);
-        List<Visit> expectedVisits = List.of(VisitFactory.getVisit());
-        Page<Visit> expectedPage = new PageImpl<>(expectedVisits, pageable, 1);
-        when(visitRepository.findByPatientIdIsNotNullAndAppointmentStartGreaterThanEqualAndAppointmentStartLessThan(pageable,
-                searchDate.atStartOfDay(), searchDate.plusDays(1).atStartOfDay()))
-                .thenReturn(expectedPage);
-
-        // When
-        var result = visitService.getVisits(pageable, searchDate);
-
-        // Then
-        Assertions.assertNotNull(result);
-        Assertions.assertEquals(expectedPage.getContent(), result.getContent());
-        Assertions.assertEquals(1, result.getContent().size());
-        Visit actualVisit = result.getContent().get(0);
-        Assertions.assertEquals(searchDate, actualVisit.getAppointmentStart().toLocalDate());
-    }
-
-    @Test
-    public void getVisits_ListOfVisitsWithGivenVisitDateDoesNotExist_EmptyPageReturned() {
-        // Given
-        LocalDate searchDate = VisitFactory.getVisit().getAppointmentStart().toLocalDate();
-        Pageable pageable = PageRequest.of(0, 10);
-        List<Visit> expectedVisits = List.of();
-        Page<Visit> expectedPage = new PageImpl<>(expectedVisits, pageable, 1);
-        when(visitRepository.findByPatientIdIsNotNullAndAppointmentStartGreaterThanEqualAndAppointmentStartLessThan(pageable,
-                searchDate.atStartOfDay(), searchDate.plusDays(1).atStartOfDay()))
-                .thenReturn(Page.empty());
-
-        // When
-        var result = visitService.getVisits(pageable, searchDate);
-
-        // Then
-        Assertions.assertNotNull(result);
-        Assertions.assertEquals(expectedPage.getContent(), result.getContent());
-        Assertions.assertEquals(0, result.getContent().size());
-    }
-
-    @Test
-    void getFreeVisits_ListOfFreeVisitsExists_PageOfVisitReturned() {
+    void getFreeVisits_ListOfFreeVisitsExists_SliceOfVisitReturned() {
         // Given
         Pageable pageable = PageRequest.of(0, 10);
         Visit visit = VisitFactory.getVisit();
         List<Visit> visits = List.of(visit);
         Page<Visit> visitPage = new PageImpl<>(visits);
-        when(visitRepository.findByPatientIdIsNull(pageable)).thenReturn(visitPage);
+        when(visitRepository.findByPatientIdIsNull(PageRequest.of(0, 10, Sort.by("id")))).thenReturn(visitPage);
         // When
         var result = visitService.getFreeVisits(pageable);
         // Then
@@ -153,6 +138,35 @@ public class VisitServiceTest {
         Assertions.assertEquals(visits, result);
     }
 
+    @Test
+    void searchFreeVisits_MoreVisitsThanPageSize_SliceWithNextReturned() {
+        // Given
+        Visit first = VisitFactory.getVisit();
+        Visit second = VisitFactory.getVisit(2L, first.getAppointmentEnd(), first.getAppointmentEnd().plusMinutes(30), null, null);
+        when(visitRepository.findFreeBySpecialisationAndCity(eq("Psychiatra"), eq("Warszawa"), any(), any(), any(),
+                eq(PageRequest.of(0, 2)))).thenReturn(List.of(first, second));
+        // When
+        var result = visitService.searchFreeVisits("Psychiatra", "Warszawa", null, null, null, 1);
+        // Then
+        Assertions.assertEquals(List.of(first), result.getContent());
+        Assertions.assertTrue(result.hasNext());
+    }
+
+    @Test
+    void searchFreeVisits_CursorGiven_SearchContinuesAfterCursor() {
+        // Given
+        Visit visit = VisitFactory.getVisit();
+        VisitCursor cursor = VisitCursor.of(visit);
+        when(visitRepository.findFreeBySpecialisationAndCity(any(), any(), any(), any(), any(), any())).thenReturn(List.of());
+        // When
+        var result = visitService.searchFreeVisits("Psychiatra", "Warszawa", null, null, cursor, 10);
+        // Then
+        Assertions.assertTrue(result.isEmpty());
+        Assertions.assertFalse(result.hasNext());
+        verify(visitRepository).findFreeBySpecialisationAndCity(eq("Psychiatra"), eq("Warszawa"),
+                eq(visit.getAppointmentStart()), eq(visit.getId()), any(), eq(PageRequest.of(0, 11)));
+    }
+
     @Test
     void createVisit_ValidVisitToCreationIsGiven_CreatedVisitReturned() {
         // Given
@@ -166,6 +180,57 @@ public class VisitServiceTest {
         Assertions.assertNotNull(result);
         Assertions.assertEquals(visit, result);
         Assertions.assertEquals(doctor, result.getDoctor());
+        verify(visitIntervalIndex).register(doctor.getId(), visit.getAppointmentStart(), visit.getAppointmentEnd());
+        var inOrder = inOrder(doctorScheduleLock, visitValidator, visitRepository);
+        inOrder.verify(doctorScheduleLock).lockUntilCompletion(doctor.getId());
+        inOrder.verify(visitValidator).validateVisitCreation(visit, doctor.getId());
+        inOrder.verify(visitRepository).save(visit);
+    }
+
+    @Test
+    void createVisitSchedule_ValidScheduleIsGiven_AllSlotsCreated() {
+        // Given
+        Doctor doctor = DoctorFactory.getDoctor();
+        VisitScheduleDTO schedule = VisitFactory.getVisitScheduleDTO();
+        when(doctorRepository.findById(any())).thenReturn(Optional.of(doctor));
+        // When
+        var result = visitService.createVisitSchedule(schedule, doctor.getId());
+        // Then
+        Assertions.assertEquals(8, result.getCreatedCount());
+        Assertions.assertEquals(0, result.getRejectedCount());
+        verify(visitRepository).insertAll(eq(doctor.getId()), argThat(visits -> visits.size() == 8));
+        verify(doctorScheduleLock).lockUntilCompletion(doctor.getId());
+    }
+
+    @Test
+    void createVisitSchedule_SomeSlotsOverlapWithExistingVisits_OverlappingSlotsRejected() {
+        // Given
+        Doctor doctor = DoctorFactory.getDoctor();
+        VisitScheduleDTO schedule = VisitFactory.getVisitScheduleDTO();
+        when(doctorRepository.findById(any())).thenReturn(Optional.of(doctor));
+        doThrow(new VisitExistsException("Visit could not be created, there will be another visit at this time."))
+                .when(visitValidator).validateVisitCreation(
+                        argThat(visit -> visit.getAppointmentStart().getHour() == 9), eq(doctor.getId()));
+        // When
+        var result = visitService.createVisitSchedule(schedule, doctor.getId());
+        // Then
+        Assertions.assertEquals(4, result.getCreatedCount());
+        Assertions.assertEquals(4, result.getRejectedCount());
+        Assertions.assertEquals("Visit could not be created, there will be another visit at this time.",
+                result.getRejectedVisits().get(0).getReason());
+        verify(visitRepository).insertAll(eq(doctor.getId()), argThat(visits -> visits.size() == 4));
+    }
+
+    @Test
+    void createVisitSchedule_DoctorDoesNotExist_DoctorDoesNotExistExceptionThrown() {
+        // Given
+        VisitScheduleDTO schedule = VisitFactory.getVisitScheduleDTO();
+        when(doctorRepository.findById(any())).thenReturn(Optional.empty());
+        // Then
+        Assertions.assertThrows(DoctorDoesNotExistException.class,
+                () -> visitService.createVisitSchedule(schedule, 1L));
+        verify(visitRepository, never()).insertAll(any(), any());
+        verify(doctorScheduleLock, never()).lockUntilCompletion(any());
     }
 
     @Test
@@ -173,14 +238,195 @@ public class VisitServiceTest {
         // Given
         Visit visit = VisitFactory.getVisit();
         Patient patient = PatientFactory.getPatient();
+        Visit assignedVisit = VisitFactory.getVisit(visit.getId(), visit.getAppointmentStart(), visit.getAppointmentEnd(), null, patient);
         when(patientRepository.findById(any())).thenReturn(Optional.of(patient));
-        when(visitValidator.visitExists(visit.getId())).thenReturn(visit);
-        when(visitRepository.save(visit)).thenReturn(visit);
+        when(visitRepository.assignPatientIfFree(eq(visit.getId()), eq(patient), any())).thenReturn(1);
+        when(visitValidator.visitExists(visit.getId())).thenReturn(assignedVisit);
         // When
         var result = visitService.assignVisitToPatient(visit.getId(), patient.getId());
         // Then
         Assertions.assertNotNull(result);
         Assertions.assertEquals(visit, result);
         Assertions.assertEquals(patient, result.getPatient());
+        verify(visitRepository, never()).save(any());
+    }
+
+    @Test
+    void assignVisitToPatient_VisitBookedConcurrently_VisitAlreadyBookedExceptionThrown() {
+        // Given
+        Patient patient = PatientFactory.getPatient();
+        Visit bookedVisit = VisitFactory.getVisit(1L, VisitFactory.getVisit().getAppointmentStart(),
+                VisitFactory.getVisit().getAppointmentEnd(), null, PatientFactory.getPatient());
+        when(patientRepository.findById(any())).thenReturn(Optional.of(patient));
+        when(visitRepository.assignPatientIfFree(any(), any(), any())).thenReturn(0);
+        when(visitValidator.visitExists(bookedVisit.getId())).thenReturn(bookedVisit);
+        // Then
+        var exception = Assertions.assertThrows(VisitAlreadyBookedException.class,
+                () -> visitService.assignVisitToPatient(bookedVisit.getId(), patient.getId()));
+        Assertions.assertEquals("Visit is already booked by another patient.", exception.getMessage());
+        verify(visitValidator).validateVisitAssignment(bookedVisit);
+    }
+
+    @Test
+    void cancelVisit_PatientIsWaitingForThatDay_VisitHandedToWaitingPatient() {
+        // Given
+        Doctor doctor = DoctorFactory.getDoctor();
+        Patient patient = PatientFactory.getPatient();
+        Visit visit = VisitFactory.getVisit(1L, VisitFactory.getVisit().getAppointmentStart(),
+                VisitFactory.getVisit().getAppointmentEnd(), doctor, patient);
+        WaitlistEntry waitlistEntry = WaitlistEntryFactory.getWaitlistEntry(3L, doctor,
+                PatientFactory.getPatient(2L, "karkow@gmail.com", "12345abc", "Karol", "Kowalski", "password123", LocalDate.of(2000, 1, 1)),
+                visit.getAppointmentStart().toLocalDate());
+        when(visitValidator.visitExists(visit.getId())).thenReturn(visit);
+        when(visitRepository.releasePatient(eq(visit.getId()), eq(patient.getId()), any())).thenReturn(1);
+        when(visitWaitlist.first(doctor.getId(), visit.getAppointmentStart().toLocalDate())).thenReturn(Optional.of(waitlistEntry));
+        when(visitRepository.assignPatientIfFree(eq(visit.getId()), eq(waitlistEntry.getPatient()), any())).thenReturn(1);
+        // When
+        visitService.cancelVisit(visit.getId(), patient.getId());
+        // Then
+        var inOrder = inOrder(doctorScheduleLock, visitRepository, visitWaitlist);
+        inOrder.verify(doctorScheduleLock).lockUntilCompletion(doctor.getId());
+        inOrder.verify(visitRepository).releasePatient(eq(visit.getId()), eq(patient.getId()), any());
+        inOrder.verify(visitRepository).assignPatientIfFree(eq(visit.getId()), eq(waitlistEntry.getPatient()), any());
+        inOrder.verify(visitWaitlist).leave(waitlistEntry);
+    }
+
+    @Test
+    void cancelVisit_NobodyIsWaiting_VisitReleased() {
+        // Given
+        Doctor doctor = DoctorFactory.getDoctor();
+        Patient patient = PatientFactory.getPatient();
+        Visit visit = VisitFactory.getVisit(1L, VisitFactory.getVisit().getAppointmentStart(),
+                VisitFactory.getVisit().getAppointmentEnd(), doctor, patient);
+        when(visitValidator.visitExists(visit.getId())).thenReturn(visit);
+        when(visitRepository.releasePatient(eq(visit.getId()), eq(patient.getId()), any())).thenReturn(1);
+        when(visitWaitlist.first(any(), any())).thenReturn(Optional.empty());
+        // When
+        visitService.cancelVisit(visit.getId(), patient.getId());
+        // Then
+        verify(visitRepository).releasePatient(eq(visit.getId()), eq(patient.getId()), any());
+        verify(visitRepository, never()).assignPatientIfFree(any(), any(), any());
+        verify(visitWaitlist, never()).leave(any());
+    }
+
+    @Test
+    void cancelVisit_VisitReleasedConcurrently_VisitNotBookedExceptionThrown() {
+        // Given
+        Doctor doctor = DoctorFactory.getDoctor();
+        Patient patient = PatientFactory.getPatient();
+        Visit visit = VisitFactory.getVisit(1L, VisitFactory.getVisit().getAppointmentStart(),
+                VisitFactory.getVisit().getAppointmentEnd(), doctor, patient);
+        when(visitValidator.visitExists(visit.getId())).thenReturn(visit);
+        when(visitRepository.releasePatient(any(), any(), any())).thenReturn(0);
+        // Then
+        var exception = Assertions.assertThrows(VisitNotBookedException.class,
+                () -> visitService.cancelVisit(visit.getId(), patient.getId()));
+        Assertions.assertEquals("Visit is not booked by given patient.", exception.getMessage());
+        verify(visitWaitlist, never()).first(any(), any());
+    }
+
+    @Test
+    void joinWaitlist_DoctorIsFullyBooked_WaitlistEntryReturned() {
+        // Given
+        Doctor doctor = DoctorFactory.getDoctor();
+        Patient patient = PatientFactory.getPatient();
+        WaitlistEntry waitlistEntry = WaitlistEntryFactory.getWaitlistEntry();
+        when(doctorRepository.findById(doctor.getId())).thenReturn(Optional.of(doctor));
+        when(patientRepository.findById(patient.getId())).thenReturn(Optional.of(patient));
+        when(visitWaitlist.join(any())).thenReturn(waitlistEntry);
+        // When
+        var result = visitService.joinWaitlist(doctor.getId(), patient.getId(), waitlistEntry.getVisitDate());
+        // Then
+        Assertions.assertEquals(waitlistEntry, result);
+        verify(doctorScheduleLock).lockUntilCompletion(doctor.getId());
+        verify(visitWaitlist).join(argThat(entry -> entry.getDoctor().equals(doctor)
+                && entry.getPatient().equals(patient)
+                && entry.getVisitDate().equals(waitlistEntry.getVisitDate())));
+    }
+
+    @Test
+    void joinWaitlist_DoctorHasFreeVisitsThatDay_VisitExistsExceptionThrown() {
+        // Given
+        Doctor doctor = DoctorFactory.getDoctor();
+        Patient patient = PatientFactory.getPatient();
+        LocalDate visitDate = WaitlistEntryFactory.getWaitlistEntry().getVisitDate();
+        when(doctorRepository.findById(doctor.getId())).thenReturn(Optional.of(doctor));
+        when(patientRepository.findById(patient.getId())).thenReturn(Optional.of(patient));
+        when(visitRepository.existsByDoctorIdAndPatientIdIsNullAndAppointmentStartGreaterThanEqualAndAppointmentStartLessThan
+                (eq(doctor.getId()), any(), any())).thenReturn(true);
+        // Then
+        var exception = Assertions.assertThrows(VisitExistsException.class,
+                () -> visitService.joinWaitlist(doctor.getId(), patient.getId(), visitDate));
+        Assertions.assertEquals("Doctor has free visits on given day, please book one of them.", exception.getMessage());
+        verify(visitWaitlist, never()).join(any());
+    }
+
+    @Test
+    void joinWaitlist_PatientAlreadyWaiting_WaitlistEntryExistsExceptionThrown() {
+        // Given
+        Doctor doctor = DoctorFactory.getDoctor();
+        Patient patient = PatientFactory.getPatient();
+        LocalDate visitDate = WaitlistEntryFactory.getWaitlistEntry().getVisitDate();
+        when(doctorRepository.findById(doctor.getId())).thenReturn(Optional.of(doctor));
+        when(patientRepository.findById(patient.getId())).thenReturn(Optional.of(patient));
+        when(visitWaitlist.contains(doctor.getId(), patient.getId(), visitDate)).thenReturn(true);
+        // Then
+        var exception = Assertions.assertThrows(WaitlistEntryExistsException.class,
+                () -> visitService.joinWaitlist(doctor.getId(), patient.getId(), visitDate));
+        Assertions.assertEquals("Patient is already waiting for a visit on given day.", exception.getMessage());
+        verify(visitWaitlist, never()).join(any());
+    }
+
+    @Test
+    void getVisits_NoCursorIsGiven_FirstSliceReturned() {
+        // Given
+        Visit visit = VisitFactory.getVisit();
+        when(visitRepository.findAllByOrderByAppointmentStartAscIdAsc(PageRequest.ofSize(10)))
+                .thenReturn(new SliceImpl<>(List.of(visit), PageRequest.ofSize(10), false));
+        // When
+        var result = visitService.getVisits((VisitCursor) null, 10);
+        // Then
+        Assertions.assertEquals(List.of(visit), result.getContent());
+        verify(visitRepository, never()).findAllAfter(any(), any(), any());
+    }
+
+    @Test
+    void getVisits_CursorIsGiven_SliceAfterCursorReturned() {
+        // Given
+        Visit visit = VisitFactory.getVisit();
+        VisitCursor cursor = VisitCursor.of(visit);
+        when(visitRepository.findAllAfter(visit.getAppointmentStart(), visit.getId(), PageRequest.ofSize(10)))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.ofSize(10), false));
+        // When
+        var result = visitService.getVisits(cursor, 10);
+        // Then
+        Assertions.assertTrue(result.getContent().isEmpty());
+        Assertions.assertFalse(result.hasNext());
+    }
+
+    @Test
+    void getFreeVisits_CursorIsGiven_FreeSliceAfterCursorReturned() {
+        // Given
+        Visit visit = VisitFactory.getVisit();
+        VisitCursor cursor = VisitCursor.of(visit);
+        when(visitRepository.findFreeAfter(visit.getAppointmentStart(), visit.getId(), PageRequest.ofSize(10)))
+                .thenReturn(new SliceImpl<>(List.of(visit), PageRequest.ofSize(10), true));
+        // When
+        var result = visitService.getFreeVisits(cursor, 10);
+        // Then
+        Assertions.assertEquals(List.of(visit), result.getContent());
+        Assertions.assertTrue(result.hasNext());
+    }
+
+    @Test
+    void countVisits_CalledTwiceWithinTtl_CountQueriedOnce() {
+        // Given
+        when(visitRepository.count()).thenReturn(2L);
+        // When
+        visitService.countVisits();
+        var result = visitService.countVisits();
+        // Then
+        Assertions.assertEquals(2L, result);
+        verify(visitRepository, times(1)).count();
     }
-}
+}
\ No newline at end of file
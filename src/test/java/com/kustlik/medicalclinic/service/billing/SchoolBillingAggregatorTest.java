@@ -0,0 +1,162 @@
+package com.kustlik.medicalclinic.service.billing;
+
+import com.kustlik.medicalclinic.remote.client.SchoolClient;
+import com.kustlik.medicalclinic.remote.exception.ServiceUnavailableException;
+import com.kustlik.medicalclinic.remote.model.dto.school.ChildAttendanceDto;
+import com.kustlik.medicalclinic.remote.model.dto.school.ChildReportDto;
+import com.kustlik.medicalclinic.remote.model.dto.school.ParentBillingReportDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.mockito.Mockito.when;
+
+public class SchoolBillingAggregatorTest {
+    private static final int YEAR = 2024;
+    private static final int MONTH = 1;
+    private SchoolClient schoolClient;
+    private SchoolBillingAggregator schoolBillingAggregator;
+
+    @BeforeEach
+    void setup() {
+        this.schoolClient = Mockito.mock(SchoolClient.class);
+        this.schoolBillingAggregator = new SchoolBillingAggregator(schoolClient, 4, Duration.ofMillis(200));
+    }
+
+    @AfterEach
+    void tearDown() {
+        schoolBillingAggregator.shutdown();
+    }
+
+    @Test
+    void aggregate_SameParentInTwoSchools_ReportsMerged() {
+        // Given
+        when(schoolClient.getSchoolBilling(1, 10, YEAR, MONTH)).thenReturn(report(10, 100, child(7, 5, 2)));
+        when(schoolClient.getSchoolBilling(2, 10, YEAR, MONTH)).thenReturn(report(10, 50, child(7, 3, 4), child(8, 2, 6)));
+        when(schoolClient.getSchoolBilling(2, 11, YEAR, MONTH)).thenReturn(report(11, 25, child(9, 1, 8)));
+        // When
+        var result = schoolBillingAggregator.aggregate(YEAR, MONTH, Map.of(1, List.of(10), 2, List.of(10, 11)));
+        // Then
+        Assertions.assertEquals(175, result.getTotalFees());
+        Assertions.assertEquals(11, result.getNumberOfPaidHours());
+        Assertions.assertEquals(List.of(10, 11), result.getParentBillingReports().stream()
+                .map(ParentBillingReportDto::getParentId).toList());
+        ParentBillingReportDto merged = result.getParentBillingReports().get(0);
+        Assertions.assertEquals(150, merged.getTotalFees());
+        Assertions.assertEquals(2, merged.getChildrenReport().size());
+        ChildReportDto child = merged.getChildrenReport().get(0);
+        Assertions.assertEquals(7, child.getChildId());
+        Assertions.assertEquals(8, child.getNumberOfPaidHours());
+        Assertions.assertEquals(2, child.getAttendances().size());
+        Assertions.assertTrue(result.getFailures().isEmpty());
+    }
+
+    @Test
+    void aggregate_OneCallFails_PartialSummaryWithFailureReturned() {
+        // Given
+        when(schoolClient.getSchoolBilling(1, 10, YEAR, MONTH)).thenReturn(report(10, 100, child(7, 5, 2)));
+        when(schoolClient.getSchoolBilling(1, 11, YEAR, MONTH))
+                .thenThrow(new ServiceUnavailableException("School service unavailable."));
+        // When
+        var result = schoolBillingAggregator.aggregate(YEAR, MONTH, Map.of(1, List.of(10, 11)));
+        // Then
+        Assertions.assertEquals(100, result.getTotalFees());
+        Assertions.assertEquals(1, result.getFailures().size());
+        Assertions.assertEquals(11, result.getFailures().get(0).getParentId());
+        Assertions.assertEquals("School service unavailable.", result.getFailures().get(0).getReason());
+    }
+
+    @Test
+    void aggregate_CallExceedsTimeout_TimeoutReportedAsFailure() {
+        // Given
+        when(schoolClient.getSchoolBilling(1, 10, YEAR, MONTH)).thenAnswer(invocation -> {
+            Thread.sleep(1000);
+            return report(10, 100);
+        });
+        // When
+        var result = schoolBillingAggregator.aggregate(YEAR, MONTH, Map.of(1, List.of(10)));
+        // Then
+        Assertions.assertTrue(result.getParentBillingReports().isEmpty());
+        Assertions.assertEquals("Request timed out.", result.getFailures().get(0).getReason());
+    }
+
+    @Test
+    void aggregate_MoreSlowCallsThanThreads_AllTimedOutWithinTimeoutAndWorkersInterrupted() throws InterruptedException {
+        // Given
+        List<Integer> parentIds = IntStream.rangeClosed(1, 8).boxed().toList();
+        CountDownLatch interrupted = new CountDownLatch(4);
+        when(schoolClient.getSchoolBilling(Mockito.eq(1), Mockito.anyInt(), Mockito.eq(YEAR), Mockito.eq(MONTH)))
+                .thenAnswer(invocation -> {
+                    try {
+                        Thread.sleep(1000);
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                        throw e;
+                    }
+                    return report(invocation.getArgument(1), 100);
+                });
+        // When
+        long start = System.nanoTime();
+        var result = schoolBillingAggregator.aggregate(YEAR, MONTH, Map.of(1, parentIds));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        // Then
+        Assertions.assertTrue(elapsedMillis < 500, "Aggregation took " + elapsedMillis + " ms");
+        Assertions.assertTrue(result.getParentBillingReports().isEmpty());
+        Assertions.assertEquals(8, result.getFailures().size());
+        result.getFailures().forEach(failure -> Assertions.assertEquals("Request timed out.", failure.getReason()));
+        Assertions.assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void summarizeSchool_ReportsStreamed_TotalsAccumulatedAndStreamClosed() {
+        // Given
+        AtomicBoolean closed = new AtomicBoolean();
+        when(schoolClient.streamSchoolBilling(1, YEAR, MONTH)).thenReturn(Stream.of(
+                        report(10, 100, child(7, 5, 2)),
+                        report(11, 25, child(8, 3, 4), child(9, 1, 8)))
+                .onClose(() -> closed.set(true)));
+        // When
+        var result = schoolBillingAggregator.summarizeSchool(1, YEAR, MONTH);
+        // Then
+        Assertions.assertEquals(1, result.getSchoolId());
+        Assertions.assertEquals(2, result.getNumberOfParents());
+        Assertions.assertEquals(3, result.getNumberOfChildren());
+        Assertions.assertEquals(9, result.getNumberOfPaidHours());
+        Assertions.assertEquals(125, result.getTotalFees());
+        Assertions.assertTrue(closed.get());
+    }
+
+    private static ParentBillingReportDto report(int parentId, double totalFees, ChildReportDto... children) {
+        return ParentBillingReportDto.builder()
+                .parentId(parentId)
+                .totalFees(totalFees)
+                .numberOfPaidHours(List.of(children).stream().mapToInt(ChildReportDto::getNumberOfPaidHours).sum())
+                .childrenReport(List.of(children))
+                .build();
+    }
+
+    private static ChildReportDto child(int childId, int numberOfPaidHours, int day) {
+        return ChildReportDto.builder()
+                .childId(childId)
+                .firstName("Child")
+                .lastName("Test")
+                .numberOfPaidHours(numberOfPaidHours)
+                .attendances(List.of(ChildAttendanceDto.builder()
+                        .entryDate(LocalDate.of(YEAR, MONTH, day))
+                        .exitDate(LocalDate.of(YEAR, MONTH, day))
+                        .build()))
+                .build();
+    }
+}
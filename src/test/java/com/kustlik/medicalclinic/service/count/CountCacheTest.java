@@ -0,0 +1,97 @@
+package com.kustlik.medicalclinic.service.count;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CountCacheTest {
+
+    @Test
+    void count_CalledWithinTtl_CachedValueReturned() {
+        // Given
+        CountCache countCache = new CountCache(Duration.ofMinutes(1), 100);
+        AtomicLong queries = new AtomicLong();
+        // When
+        countCache.count("visit", queries::incrementAndGet);
+        var result = countCache.count("visit", queries::incrementAndGet);
+        // Then
+        Assertions.assertEquals(1L, result);
+        Assertions.assertEquals(1L, queries.get());
+    }
+
+    @Test
+    void count_TtlExpired_CountRecomputed() {
+        // Given
+        CountCache countCache = new CountCache(Duration.ZERO, 100);
+        AtomicLong queries = new AtomicLong();
+        // When
+        countCache.count("visit", queries::incrementAndGet);
+        var result = countCache.count("visit", queries::incrementAndGet);
+        // Then
+        Assertions.assertEquals(2L, result);
+    }
+
+    @Test
+    void count_DifferentKeysGiven_CountedSeparately() {
+        // Given
+        CountCache countCache = new CountCache(Duration.ofMinutes(1), 100);
+        // When
+        var visits = countCache.count("visit", () -> 10L);
+        var freeVisits = countCache.count("visit:free", () -> 3L);
+        // Then
+        Assertions.assertEquals(10L, visits);
+        Assertions.assertEquals(3L, freeVisits);
+    }
+
+    @Test
+    void invalidateAll_ValueCached_CountRecomputed() {
+        // Given
+        CountCache countCache = new CountCache(Duration.ofMinutes(1), 100);
+        countCache.count("visit", () -> 10L);
+        // When
+        countCache.invalidateAll();
+        var result = countCache.count("visit", () -> 11L);
+        // Then
+        Assertions.assertEquals(11L, result);
+    }
+
+    @Test
+    void count_MaximumSizeReached_ExpiredEntriesRemoved() {
+        // Given
+        CountCache countCache = new CountCache(Duration.ZERO, 2);
+        countCache.count("visit:patients:2024-01-01", () -> 1L);
+        countCache.count("visit:patients:2024-01-02", () -> 2L);
+        // When
+        var result = countCache.count("visit:patients:2024-01-03", () -> 3L);
+        // Then
+        Assertions.assertEquals(3L, result);
+        Assertions.assertEquals(1, countCache.size());
+    }
+
+    @Test
+    void count_MaximumSizeReachedWithLiveEntries_NewKeyCountedButNotCached() {
+        // Given
+        CountCache countCache = new CountCache(Duration.ofMinutes(1), 2);
+        AtomicLong queries = new AtomicLong();
+        countCache.count("visit", () -> 10L);
+        countCache.count("visit:free", () -> 3L);
+        // When
+        countCache.count("visit:patients:2024-01-01", queries::incrementAndGet);
+        var result = countCache.count("visit:patients:2024-01-01", queries::incrementAndGet);
+        // Then
+        Assertions.assertEquals(2L, result);
+        Assertions.assertEquals(2, countCache.size());
+    }
+
+    @Test
+    void count_CounterUsesCache_CounterRunsOutsideMapLock() {
+        // Given
+        CountCache countCache = new CountCache(Duration.ofMinutes(1), 100);
+        // When
+        var result = countCache.count("visit", () -> countCache.count("visit", () -> 5L) + 1);
+        // Then
+        Assertions.assertEquals(6L, result);
+    }
+}
@@ -0,0 +1,97 @@
+package com.kustlik.medicalclinic.service.export;
+
+import com.kustlik.medicalclinic.exception.InvalidDateTimeException;
+import com.kustlik.medicalclinic.factory.VisitFactory;
+import com.kustlik.medicalclinic.model.entity.Visit;
+import com.kustlik.medicalclinic.model.filter.VisitExportFilter;
+import com.kustlik.medicalclinic.repository.VisitRepository;
+import com.kustlik.medicalclinic.service.validator.VisitValidator;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class VisitExporterTest {
+    private VisitRepository visitRepository;
+    private VisitValidator visitValidator;
+    private EntityManager entityManager;
+    private VisitExporter visitExporter;
+
+    @BeforeEach
+    void setup() {
+        this.visitRepository = Mockito.mock(VisitRepository.class);
+        this.visitValidator = Mockito.mock(VisitValidator.class);
+        this.entityManager = Mockito.mock(EntityManager.class);
+        this.visitExporter = new VisitExporter(visitRepository, visitValidator, entityManager);
+    }
+
+    @Test
+    void export_FilterGiven_VisitsPassedToConsumerInStreamOrder() {
+        // Given
+        Visit first = VisitFactory.getVisit();
+        Visit second = VisitFactory.getVisit(2L, first.getAppointmentStart().plusHours(1),
+                first.getAppointmentEnd().plusHours(1), null, null);
+        VisitExportFilter filter = VisitExportFilter.builder().doctorId(2L).patientId(1L).build();
+        when(visitRepository.streamForExport(2L, 1L, null, null)).thenReturn(Stream.of(first, second));
+        List<Visit> exported = new ArrayList<>();
+        // When
+        var result = visitExporter.export(filter, exported::add);
+        // Then
+        Assertions.assertEquals(2, result);
+        Assertions.assertEquals(List.of(first, second), exported);
+    }
+
+    @Test
+    void export_MoreVisitsThanClearInterval_PersistenceContextClearedPeriodically() {
+        // Given
+        int visits = VisitExporter.CLEAR_INTERVAL * 2 + 1;
+        when(visitRepository.streamForExport(any(), any(), any(), any()))
+                .thenReturn(Stream.generate(VisitFactory::getVisit).limit(visits));
+        // When
+        var result = visitExporter.export(VisitExportFilter.builder().build(), visit -> {
+        });
+        // Then
+        Assertions.assertEquals(visits, result);
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void export_ConsumerFails_StreamClosed() {
+        // Given
+        AtomicBoolean closed = new AtomicBoolean();
+        when(visitRepository.streamForExport(any(), any(), any(), any()))
+                .thenReturn(Stream.of(VisitFactory.getVisit()).onClose(() -> closed.set(true)));
+        // When
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> visitExporter.export(VisitExportFilter.builder().build(), visit -> {
+                    throw new IllegalStateException();
+                }));
+        // Then
+        Assertions.assertTrue(closed.get());
+    }
+
+    @Test
+    void export_InvalidFilterGiven_NothingQueried() {
+        // Given
+        VisitExportFilter filter = VisitExportFilter.builder()
+                .from(LocalDateTime.of(2029, 1, 2, 0, 0))
+                .to(LocalDateTime.of(2029, 1, 1, 0, 0))
+                .build();
+        doThrow(new InvalidDateTimeException("Export end time should be after start time."))
+                .when(visitValidator).validateVisitExport(filter);
+        // Then
+        Assertions.assertThrows(InvalidDateTimeException.class, () -> visitExporter.export(filter, visit -> {
+        }));
+        verify(visitRepository, never()).streamForExport(any(), any(), any(), any());
+    }
+}
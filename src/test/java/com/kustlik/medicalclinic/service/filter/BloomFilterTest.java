@@ -0,0 +1,50 @@
+package com.kustlik.medicalclinic.service.filter;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+public class BloomFilterTest {
+    private static final int INSERTIONS = 10_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Test
+    void mightContain_ValuesWerePut_TrueReturnedForEach() {
+        // Given
+        BloomFilter bloomFilter = new BloomFilter(INSERTIONS, FALSE_POSITIVE_RATE);
+        IntStream.range(0, INSERTIONS).mapToObj(BloomFilterTest::email).forEach(bloomFilter::put);
+        // When
+        var result = IntStream.range(0, INSERTIONS).mapToObj(BloomFilterTest::email).allMatch(bloomFilter::mightContain);
+        // Then
+        Assertions.assertTrue(result);
+    }
+
+    @Test
+    void mightContain_ValuesWereNotPut_FalsePositiveRateWithinBounds() {
+        // Given
+        BloomFilter bloomFilter = new BloomFilter(INSERTIONS, FALSE_POSITIVE_RATE);
+        IntStream.range(0, INSERTIONS).mapToObj(BloomFilterTest::email).forEach(bloomFilter::put);
+        // When
+        long falsePositives = IntStream.range(INSERTIONS, 2 * INSERTIONS)
+                .mapToObj(BloomFilterTest::email)
+                .filter(bloomFilter::mightContain)
+                .count();
+        // Then
+        Assertions.assertTrue(falsePositives < INSERTIONS * FALSE_POSITIVE_RATE * 2);
+    }
+
+    @Test
+    void mightContain_FilterIsEmpty_FalseReturned() {
+        // Given
+        BloomFilter bloomFilter = new BloomFilter(INSERTIONS, FALSE_POSITIVE_RATE);
+        // When
+        var result = bloomFilter.mightContain(email(1));
+        // Then
+        Assertions.assertFalse(result);
+    }
+
+    private static String email(int i) {
+        return "patient" + i + "@gmail.com";
+    }
+}
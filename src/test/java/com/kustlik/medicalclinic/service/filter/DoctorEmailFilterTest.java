@@ -0,0 +1,66 @@
+package com.kustlik.medicalclinic.service.filter;
+
+import com.kustlik.medicalclinic.repository.DoctorRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.stream.Stream;
+
+import static org.mockito.Mockito.when;
+
+public class DoctorEmailFilterTest {
+    private DoctorRepository doctorRepository;
+    private DoctorEmailFilter doctorEmailFilter;
+
+    @BeforeEach
+    void setup() {
+        this.doctorRepository = Mockito.mock(DoctorRepository.class);
+        this.doctorEmailFilter = new DoctorEmailFilter(doctorRepository, 1000, 0.01);
+    }
+
+    @Test
+    void mightExist_FilterIsNotBuilt_TrueReturned() {
+        // When
+        var result = doctorEmailFilter.mightExist("jankow@gmail.com");
+        // Then
+        Assertions.assertTrue(result);
+    }
+
+    @Test
+    void mightExist_EmailIsStored_TrueReturned() {
+        // Given
+        when(doctorRepository.count()).thenReturn(1L);
+        when(doctorRepository.streamAllNormalizedEmails()).thenReturn(Stream.of("jankow@gmail.com"));
+        doctorEmailFilter.rebuild();
+        // When
+        var result = doctorEmailFilter.mightExist("jankow@gmail.com");
+        // Then
+        Assertions.assertTrue(result);
+    }
+
+    @Test
+    void mightExist_EmailIsNotStored_FalseReturned() {
+        // Given
+        when(doctorRepository.count()).thenReturn(1L);
+        when(doctorRepository.streamAllNormalizedEmails()).thenReturn(Stream.of("jankow@gmail.com"));
+        doctorEmailFilter.rebuild();
+        // When
+        var result = doctorEmailFilter.mightExist("annnow@gmail.com");
+        // Then
+        Assertions.assertFalse(result);
+    }
+
+    @Test
+    void register_EmailCreatedAfterRebuild_TrueReturned() {
+        // Given
+        when(doctorRepository.count()).thenReturn(0L);
+        when(doctorRepository.streamAllNormalizedEmails()).thenReturn(Stream.empty());
+        doctorEmailFilter.rebuild();
+        // When
+        doctorEmailFilter.register("annnow@gmail.com");
+        // Then
+        Assertions.assertTrue(doctorEmailFilter.mightExist("annnow@gmail.com"));
+    }
+}
@@ -0,0 +1,97 @@
+package com.kustlik.medicalclinic.service.imports;
+
+import com.kustlik.medicalclinic.factory.PatientFactory;
+import com.kustlik.medicalclinic.model.dto.patient.PatientImportErrorDTO;
+import com.kustlik.medicalclinic.service.PatientService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class PatientImporterTest {
+    private static final int CHUNK_SIZE = 2;
+    private PatientService patientService;
+    private PatientImporter patientImporter;
+
+    @BeforeEach
+    void setup() {
+        this.patientService = Mockito.mock(PatientService.class);
+        this.patientImporter = new PatientImporter(patientService, CHUNK_SIZE);
+    }
+
+    @Test
+    void importPatients_RowsExceedChunkSize_RowsImportedInChunks() {
+        // Given
+        List<PatientImportRow> rows = IntStream.rangeClosed(1, 5)
+                .mapToObj(line -> PatientImportRow.of(line, PatientFactory.getPatient()))
+                .toList();
+        List<Integer> chunkSizes = new ArrayList<>();
+        when(patientService.importPatients(anyList())).thenAnswer(invocation -> {
+            chunkSizes.add(invocation.<List<PatientImportRow>>getArgument(0).size());
+            return List.of();
+        });
+        // When
+        var result = patientImporter.importPatients(rows.iterator(), errors -> {
+        });
+        // Then
+        Assertions.assertEquals(List.of(2, 2, 1), chunkSizes);
+        Assertions.assertEquals(5, result.getImportedCount());
+        Assertions.assertEquals(0, result.getRejectedCount());
+    }
+
+    @Test
+    void importPatients_SomeRowsRejected_ErrorsPassedToConsumerAndCounted() {
+        // Given
+        List<PatientImportRow> rows = List.of(
+                PatientImportRow.of(1, PatientFactory.getPatient()),
+                PatientImportRow.malformed(2));
+        PatientImportErrorDTO error = PatientImportErrorDTO.builder()
+                .line(2)
+                .reason("Malformed record.")
+                .build();
+        when(patientService.importPatients(rows)).thenReturn(List.of(error));
+        List<PatientImportErrorDTO> errors = new ArrayList<>();
+        // When
+        var result = patientImporter.importPatients(rows.iterator(), errors::addAll);
+        // Then
+        Assertions.assertEquals(List.of(error), errors);
+        Assertions.assertEquals(1, result.getImportedCount());
+        Assertions.assertEquals(1, result.getRejectedCount());
+    }
+
+    @Test
+    void importPatients_RowsExceedChunkSize_ErrorsPassedToConsumerOncePerChunk() {
+        // Given
+        List<PatientImportRow> rows = IntStream.rangeClosed(1, 3)
+                .mapToObj(PatientImportRow::malformed)
+                .toList();
+        when(patientService.importPatients(anyList())).thenAnswer(invocation -> invocation.<List<PatientImportRow>>getArgument(0).stream()
+                .map(row -> PatientImportErrorDTO.builder()
+                        .line(row.getLine())
+                        .reason("Malformed record.")
+                        .build())
+                .toList());
+        List<Integer> chunkErrorCounts = new ArrayList<>();
+        // When
+        patientImporter.importPatients(rows.iterator(), errors -> chunkErrorCounts.add(errors.size()));
+        // Then
+        Assertions.assertEquals(List.of(2, 1), chunkErrorCounts);
+    }
+
+    @Test
+    void importPatients_NoRowsGiven_ServiceNotCalled() {
+        // When
+        var result = patientImporter.importPatients(List.<PatientImportRow>of().iterator(), errors -> {
+        });
+        // Then
+        Assertions.assertEquals(0, result.getImportedCount());
+        verify(patientService, never()).importPatients(anyList());
+    }
+}
@@ -0,0 +1,157 @@
+package com.kustlik.medicalclinic.service.index;
+
+import com.kustlik.medicalclinic.model.projection.VisitTimeframe;
+import com.kustlik.medicalclinic.repository.VisitRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class VisitIntervalIndexTest {
+    private static final int YEAR = LocalDateTime.now().getYear() + 1;
+    private static final Long DOCTOR_ID = 1L;
+    private VisitRepository visitRepository;
+    private VisitIntervalIndex visitIntervalIndex;
+
+    @BeforeEach
+    void setup() {
+        this.visitRepository = Mockito.mock(VisitRepository.class);
+        this.visitIntervalIndex = new VisitIntervalIndex(visitRepository, true);
+    }
+
+    @Test
+    void isOverlapping_VisitOverlapsWithStoredOne_TrueReturned() {
+        // Given
+        when(visitRepository.findByDoctorIdAndAppointmentEndGreaterThanEqual(eq(DOCTOR_ID), any()))
+                .thenReturn(List.of(timeframe(12, 0, 12, 30)));
+        // When
+        var result = visitIntervalIndex.isOverlapping(DOCTOR_ID, at(12, 15), at(12, 45));
+        // Then
+        Assertions.assertTrue(result);
+    }
+
+    @Test
+    void isOverlapping_VisitDoesNotOverlapWithStoredOnes_FalseReturned() {
+        // Given
+        when(visitRepository.findByDoctorIdAndAppointmentEndGreaterThanEqual(eq(DOCTOR_ID), any()))
+                .thenReturn(List.of(timeframe(12, 0, 12, 30), timeframe(14, 0, 15, 0)));
+        // When
+        var result = visitIntervalIndex.isOverlapping(DOCTOR_ID, at(13, 0), at(13, 45));
+        // Then
+        Assertions.assertFalse(result);
+    }
+
+    @Test
+    void isOverlapping_VisitStartsWhenStoredOneEnds_FalseReturned() {
+        // Given
+        when(visitRepository.findByDoctorIdAndAppointmentEndGreaterThanEqual(eq(DOCTOR_ID), any()))
+                .thenReturn(List.of(timeframe(12, 0, 12, 30), timeframe(13, 0, 13, 30)));
+        // When
+        var result = visitIntervalIndex.isOverlapping(DOCTOR_ID, at(12, 30), at(13, 0));
+        // Then
+        Assertions.assertFalse(result);
+    }
+
+    @Test
+    void isOverlapping_VisitIsInsideLongerStoredOne_TrueReturned() {
+        // Given
+        when(visitRepository.findByDoctorIdAndAppointmentEndGreaterThanEqual(eq(DOCTOR_ID), any()))
+                .thenReturn(List.of(timeframe(12, 0, 13, 0), timeframe(13, 15, 13, 30)));
+        // When
+        var result = visitIntervalIndex.isOverlapping(DOCTOR_ID, at(12, 30), at(12, 45));
+        // Then
+        Assertions.assertTrue(result);
+    }
+
+    @Test
+    void isOverlapping_CalledManyTimes_ScheduleLoadedOnce() {
+        // Given
+        when(visitRepository.findByDoctorIdAndAppointmentEndGreaterThanEqual(eq(DOCTOR_ID), any()))
+                .thenReturn(List.of(timeframe(12, 0, 12, 30)));
+        // When
+        visitIntervalIndex.isOverlapping(DOCTOR_ID, at(13, 0), at(13, 30));
+        visitIntervalIndex.isOverlapping(DOCTOR_ID, at(14, 0), at(14, 30));
+        // Then
+        verify(visitRepository, times(1)).findByDoctorIdAndAppointmentEndGreaterThanEqual(eq(DOCTOR_ID), any());
+        verify(visitRepository, never()).existsOverlapping(any(), any(), any());
+    }
+
+    @Test
+    void register_VisitRegisteredForLoadedDoctor_VisitIsOverlapping() {
+        // Given
+        when(visitRepository.findByDoctorIdAndAppointmentEndGreaterThanEqual(eq(DOCTOR_ID), any()))
+                .thenReturn(List.of());
+        Assertions.assertFalse(visitIntervalIndex.isOverlapping(DOCTOR_ID, at(12, 0), at(12, 30)));
+        // When
+        visitIntervalIndex.register(DOCTOR_ID, at(12, 0), at(12, 30));
+        // Then
+        Assertions.assertTrue(visitIntervalIndex.isOverlapping(DOCTOR_ID, at(12, 0), at(12, 30)));
+    }
+
+    @Test
+    void isOverlapping_IndexDisabled_DatabaseQueried() {
+        // Given
+        VisitIntervalIndex disabledIndex = new VisitIntervalIndex(visitRepository, false);
+        when(visitRepository.existsOverlapping(at(12, 0), at(12, 30), DOCTOR_ID)).thenReturn(true);
+        // When
+        var result = disabledIndex.isOverlapping(DOCTOR_ID, at(12, 0), at(12, 30));
+        // Then
+        Assertions.assertTrue(result);
+        verify(visitRepository, never()).findByDoctorIdAndAppointmentEndGreaterThanEqual(any(), any());
+    }
+
+    @Test
+    void verify_IndexMatchesDatabase_TrueReturned() {
+        // Given
+        when(visitRepository.findByDoctorIdAndAppointmentEndGreaterThanEqual(eq(DOCTOR_ID), any()))
+                .thenReturn(List.of(timeframe(12, 0, 12, 30)));
+        visitIntervalIndex.isOverlapping(DOCTOR_ID, at(13, 0), at(13, 30));
+        // When
+        var result = visitIntervalIndex.verify(DOCTOR_ID);
+        // Then
+        Assertions.assertTrue(result);
+    }
+
+    @Test
+    void verify_IndexDiffersFromDatabase_FalseReturnedAndScheduleReloaded() {
+        // Given
+        List<VisitTimeframe> timeframes = new ArrayList<>(List.of(timeframe(12, 0, 12, 30)));
+        when(visitRepository.findByDoctorIdAndAppointmentEndGreaterThanEqual(eq(DOCTOR_ID), any()))
+                .thenAnswer(invocation -> List.copyOf(timeframes));
+        Assertions.assertFalse(visitIntervalIndex.isOverlapping(DOCTOR_ID, at(13, 0), at(13, 30)));
+        timeframes.add(timeframe(13, 0, 13, 30));
+        // When
+        var result = visitIntervalIndex.verify(DOCTOR_ID);
+        // Then
+        Assertions.assertFalse(result);
+        Assertions.assertTrue(visitIntervalIndex.isOverlapping(DOCTOR_ID, at(13, 0), at(13, 30)));
+    }
+
+    private static LocalDateTime at(int hour, int minute) {
+        return LocalDateTime.of(YEAR, 1, 1, hour, minute);
+    }
+
+    private static VisitTimeframe timeframe(int startHour, int startMinute, int endHour, int endMinute) {
+        LocalDateTime start = at(startHour, startMinute);
+        LocalDateTime end = at(endHour, endMinute);
+        return new VisitTimeframe() {
+            @Override
+            public LocalDateTime getAppointmentStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getAppointmentEnd() {
+                return end;
+            }
+        };
+    }
+}
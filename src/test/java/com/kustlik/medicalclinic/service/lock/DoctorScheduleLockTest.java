@@ -0,0 +1,92 @@
+package com.kustlik.medicalclinic.service.lock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class DoctorScheduleLockTest {
+    private DoctorScheduleLock doctorScheduleLock;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setup() {
+        this.doctorScheduleLock = new DoctorScheduleLock(1024);
+        this.executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void lockUntilCompletion_NoActiveTransaction_IllegalStateExceptionThrown() {
+        // Then
+        Assertions.assertThrows(IllegalStateException.class, () -> doctorScheduleLock.lockUntilCompletion(1L));
+    }
+
+    @Test
+    void lockUntilCompletion_SameDoctorLockedByAnotherTransaction_WaitsUntilCompletion() throws Exception {
+        // Given
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = lockInTransaction(1L, holding, release);
+        Assertions.assertTrue(holding.await(5, TimeUnit.SECONDS));
+        // When
+        Future<?> waiting = executor.submit(() -> runInTransaction(() -> doctorScheduleLock.lockUntilCompletion(1L)));
+        // Then
+        Assertions.assertThrows(TimeoutException.class, () -> waiting.get(200, TimeUnit.MILLISECONDS));
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        waiting.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void lockUntilCompletion_DifferentDoctorLockedByAnotherTransaction_DoesNotWait() throws Exception {
+        // Given
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = lockInTransaction(1L, holding, release);
+        Assertions.assertTrue(holding.await(5, TimeUnit.SECONDS));
+        // When
+        Future<?> other = executor.submit(() -> runInTransaction(() -> doctorScheduleLock.lockUntilCompletion(2L)));
+        // Then
+        other.get(1, TimeUnit.SECONDS);
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+    }
+
+    private CompletableFuture<Void> lockInTransaction(Long doctorID, CountDownLatch holding, CountDownLatch release) {
+        return CompletableFuture.runAsync(() -> runInTransaction(() -> {
+            doctorScheduleLock.lockUntilCompletion(doctorID);
+            holding.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+    }
+
+    private static void runInTransaction(Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+        } finally {
+            var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+            synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        }
+    }
+}
@@ -4,29 +4,39 @@ import com.kustlik.medicalclinic.exception.DoctorDoesNotExistException;
 import com.kustlik.medicalclinic.exception.DoctorExistsException;
 import com.kustlik.medicalclinic.exception.DoctorToMedicalFacilityAssignmentExistsException;
 import com.kustlik.medicalclinic.exception.EmptyFieldException;
+import com.kustlik.medicalclinic.exception.MedicalFacilityDoesNotExistException;
 import com.kustlik.medicalclinic.factory.DoctorFactory;
 import com.kustlik.medicalclinic.factory.MedicalFacilityFactory;
 import com.kustlik.medicalclinic.model.entity.Doctor;
 import com.kustlik.medicalclinic.model.entity.MedicalFacility;
 import com.kustlik.medicalclinic.repository.DoctorRepository;
+import com.kustlik.medicalclinic.service.filter.DoctorEmailFilter;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class DoctorValidatorTest {
     DoctorRepository doctorRepository;
+    DoctorEmailFilter doctorEmailFilter;
     DoctorValidator doctorValidator;
 
     @BeforeEach
     void setup() {
         this.doctorRepository = Mockito.mock(DoctorRepository.class);
-        this.doctorValidator = new DoctorValidator(doctorRepository);
+        this.doctorEmailFilter = Mockito.mock(DoctorEmailFilter.class);
+        this.doctorValidator = new DoctorValidator(doctorRepository, doctorEmailFilter);
     }
 
     @Test
@@ -62,7 +72,8 @@ public class DoctorValidatorTest {
     void validateDoctorCreation_DoctorWithSameEmailDoesExists_DoctorExistsExceptionThrown() {
         // Given
         Doctor doctor = DoctorFactory.getDoctor();
-        when(doctorRepository.findByEmail(doctor.getEmail())).thenReturn(Optional.of(doctor));
+        when(doctorEmailFilter.mightExist(doctor.getEmail())).thenReturn(true);
+        when(doctorRepository.existsByNormalizedEmail(doctor.getEmail())).thenReturn(true);
         // Then
         var exception = Assertions.assertThrows(DoctorExistsException.class,
                 () -> doctorValidator.validateDoctorCreation(doctor));
@@ -75,12 +86,24 @@ public class DoctorValidatorTest {
     void validateDoctorCreation_DoctorWithSameEmailDoesNotExist_NoExceptionThrown() {
         // Given
         Doctor doctor = DoctorFactory.getDoctor();
-        when(doctorRepository.findByEmail(doctor.getEmail())).thenReturn(Optional.empty());
+        when(doctorEmailFilter.mightExist(doctor.getEmail())).thenReturn(true);
+        when(doctorRepository.existsByNormalizedEmail(doctor.getEmail())).thenReturn(false);
 
         // When
         doctorValidator.validateDoctorCreation(doctor);
     }
 
+    @Test
+    void validateDoctorCreation_EmailRejectedByFilter_RepositoryNotQueried() {
+        // Given
+        Doctor doctor = DoctorFactory.getDoctor();
+        when(doctorEmailFilter.mightExist(doctor.getEmail())).thenReturn(false);
+        // When
+        doctorValidator.validateDoctorCreation(doctor);
+        // Then
+        verify(doctorRepository, never()).existsByNormalizedEmail(anyString());
+    }
+
     @Test
     void validateDoctorToMedicalFacilityAssignment_AssignmentIsPresent_DoctorToMedicalFacilityAssignmentExistsExceptionThrown() {
         // Given
@@ -172,7 +195,7 @@ public class DoctorValidatorTest {
     @Test
     void doctorExists_DoctorWithGivenEmailDoesNotExist_DoctorDoesNotExistExceptionThrown() {
         // Given
-        when(doctorRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+        when(doctorRepository.findBySimpleNaturalId(anyString())).thenReturn(Optional.empty());
         // Then
         var exception = Assertions.assertThrows(DoctorDoesNotExistException.class,
                 () -> doctorValidator.doctorExists(anyString()));
@@ -185,11 +208,44 @@ public class DoctorValidatorTest {
     void doctorExists_DoctorWithGivenEmailDoesExists_DoctorReturned() {
         // Given
         Doctor doctor = DoctorFactory.getDoctor();
-        when(doctorRepository.findByEmail(anyString())).thenReturn(Optional.of(doctor));
+        when(doctorRepository.findBySimpleNaturalId(anyString())).thenReturn(Optional.of(doctor));
         // When
         var result = doctorValidator.doctorExists(anyString());
         // Then
         Assertions.assertNotNull(result);
         Assertions.assertEquals(doctor, result);
     }
+
+    @Test
+    void validateDoctorToMedicalFacilityAssignment_AssignmentWithEmptyIdIsGiven_EmptyFieldExceptionThrown() {
+        // Then
+        var exception = Assertions.assertThrows(EmptyFieldException.class,
+                () -> doctorValidator.validateDoctorToMedicalFacilityAssignment(
+                        DoctorFactory.getDoctorAssignmentDTO(1L, null), Set.of(1L), Set.of(1L)));
+        String expectedMessage = "Doctor ID and medical facility ID cannot be empty.";
+        String actualMessage = exception.getMessage();
+        Assertions.assertTrue(actualMessage.contains(expectedMessage));
+    }
+
+    @Test
+    void validateDoctorToMedicalFacilityAssignment_MedicalFacilityDoesNotExist_MedicalFacilityDoesNotExistExceptionThrown() {
+        // Then
+        var exception = Assertions.assertThrows(MedicalFacilityDoesNotExistException.class,
+                () -> doctorValidator.validateDoctorToMedicalFacilityAssignment(
+                        DoctorFactory.getDoctorAssignmentDTO(1L, 5L), Set.of(1L), Set.of(1L)));
+        String expectedMessage = "Medical facility with given ID does not exist.";
+        String actualMessage = exception.getMessage();
+        Assertions.assertTrue(actualMessage.contains(expectedMessage));
+    }
+
+    @Test
+    void doctorsExist_OnlyEmptyIdsAreGiven_EmptySetReturnedWithoutQuery() {
+        // Given
+        List<Long> doctorIDs = Arrays.asList(null, null);
+        // When
+        var result = doctorValidator.doctorsExist(doctorIDs);
+        // Then
+        Assertions.assertTrue(result.isEmpty());
+        verify(doctorRepository, never()).findExistingIds(any());
+    }
 }
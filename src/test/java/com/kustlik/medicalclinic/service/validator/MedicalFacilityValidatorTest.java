@@ -58,7 +58,7 @@ public class MedicalFacilityValidatorTest {
     void validateMedicalFacilityCreation_MedicalFacilityWithSameNameDoesExists_MedicalFacilityExistsExceptionThrown() {
         // Given
         MedicalFacility medicalFacility = MedicalFacilityFactory.getMedicalFacility();
-        when(medicalFacilityRepository.findByName(medicalFacility.getName())).thenReturn(Optional.of(medicalFacility));
+        when(medicalFacilityRepository.findBySimpleNaturalId(medicalFacility.getName())).thenReturn(Optional.of(medicalFacility));
         // Then
         var exception = Assertions.assertThrows(MedicalFacilityExistsException.class,
                 () -> medicalFacilityValidator.validateMedicalFacilityCreation(medicalFacility));
@@ -71,7 +71,7 @@ public class MedicalFacilityValidatorTest {
     void validateMedicalFacilityCreation_MedicalFacilityWithSameNameDoesNotExist_NoExceptionThrown() {
         // Given
         MedicalFacility medicalFacility = MedicalFacilityFactory.getMedicalFacility();
-        when(medicalFacilityRepository.findByName(medicalFacility.getName())).thenReturn(Optional.empty());
+        when(medicalFacilityRepository.findBySimpleNaturalId(medicalFacility.getName())).thenReturn(Optional.empty());
         // When
         medicalFacilityValidator.validateMedicalFacilityCreation(medicalFacility);
     }
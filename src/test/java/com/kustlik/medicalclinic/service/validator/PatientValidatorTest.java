@@ -6,24 +6,33 @@ import com.kustlik.medicalclinic.exception.PatientExistsException;
 import com.kustlik.medicalclinic.factory.PatientFactory;
 import com.kustlik.medicalclinic.model.entity.Patient;
 import com.kustlik.medicalclinic.repository.PatientRepository;
+import com.kustlik.medicalclinic.service.filter.PatientEmailFilter;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class PatientValidatorTest {
     PatientRepository patientRepository;
+    PatientEmailFilter patientEmailFilter;
     PatientValidator patientValidator;
 
     @BeforeEach
     void setup() {
         this.patientRepository = Mockito.mock(PatientRepository.class);
-        this.patientValidator = new PatientValidator(patientRepository);
+        this.patientEmailFilter = Mockito.mock(PatientEmailFilter.class);
+        this.patientValidator = new PatientValidator(patientRepository, patientEmailFilter);
     }
 
     @Test
@@ -59,7 +68,8 @@ public class PatientValidatorTest {
     void validatePatientCreation_PatientWithSameEmailDoesExists_PatientExistsExceptionThrown() {
         // Given
         Patient patient = PatientFactory.getPatient();
-        when(patientRepository.findByEmail(patient.getEmail())).thenReturn(Optional.of(patient));
+        when(patientEmailFilter.mightExist(patient.getEmail())).thenReturn(true);
+        when(patientRepository.existsByNormalizedEmail(patient.getEmail())).thenReturn(true);
         // Then
         var exception = Assertions.assertThrows(PatientExistsException.class,
                 () -> patientValidator.validatePatientCreation(patient));
@@ -72,11 +82,35 @@ public class PatientValidatorTest {
     void validatePatientCreation_PatientWithSameEmailDoesNotExist_NoExceptionThrown() {
         // Given
         Patient patient = PatientFactory.getPatient();
-        when(patientRepository.findByEmail(patient.getEmail())).thenReturn(Optional.empty());
+        when(patientEmailFilter.mightExist(patient.getEmail())).thenReturn(true);
+        when(patientRepository.existsByNormalizedEmail(patient.getEmail())).thenReturn(false);
         // When
         patientValidator.validatePatientCreation(patient);
     }
 
+    @Test
+    void validatePatientCreation_EmailRejectedByFilter_RepositoryNotQueried() {
+        // Given
+        Patient patient = PatientFactory.getPatient();
+        when(patientEmailFilter.mightExist(patient.getEmail())).thenReturn(false);
+        // When
+        patientValidator.validatePatientCreation(patient);
+        // Then
+        verify(patientRepository, never()).existsByNormalizedEmail(anyString());
+    }
+
+    @Test
+    void validatePatientCreation_EmailDiffersOnlyInCase_PatientExistsExceptionThrown() {
+        // Given
+        Patient patient = PatientFactory.getPatient();
+        patient.setEmail(" JanKow@Gmail.com ");
+        when(patientEmailFilter.mightExist("jankow@gmail.com")).thenReturn(true);
+        when(patientRepository.existsByNormalizedEmail("jankow@gmail.com")).thenReturn(true);
+        // Then
+        Assertions.assertThrows(PatientExistsException.class,
+                () -> patientValidator.validatePatientCreation(patient));
+    }
+
     @Test
     void validateEditPatientData_PatientWithSomeEmptyFieldsIsGiven_EmptyFieldExceptionThrown() {
         // Given
@@ -100,7 +134,8 @@ public class PatientValidatorTest {
     void validateEditPatientData_PatientWithSameEmailDoesExists_PatientExistsExceptionThrown() {
         // Given
         Patient patient = PatientFactory.getPatient();
-        when(patientRepository.findByEmail(anyString())).thenReturn(Optional.of(patient));
+        when(patientEmailFilter.mightExist(anyString())).thenReturn(true);
+        when(patientRepository.existsByNormalizedEmail(anyString())).thenReturn(true);
         // Then
         var exception = Assertions.assertThrows(PatientExistsException.class,
                 () -> patientValidator.validateEditPatientData(anyString(), patient));
@@ -113,11 +148,22 @@ public class PatientValidatorTest {
     void validateEditPatientData_PatientWithValidDataToEditIsGiven_NoExceptionThrown() {
         // Given
         Patient patient = PatientFactory.getPatient();
-        when(patientRepository.findByEmail(patient.getEmail())).thenReturn(Optional.empty());
+        when(patientEmailFilter.mightExist(patient.getEmail())).thenReturn(true);
+        when(patientRepository.existsByNormalizedEmail(patient.getEmail())).thenReturn(false);
         // When
         patientValidator.validateEditPatientData(patient.getEmail(), patient);
     }
 
+    @Test
+    void validateEditPatientData_EmailChangedOnlyInCase_RepositoryNotQueried() {
+        // Given
+        Patient patient = PatientFactory.getPatient();
+        // When
+        patientValidator.validateEditPatientData("JANKOW@gmail.com", patient);
+        // Then
+        verify(patientRepository, never()).existsByNormalizedEmail(anyString());
+    }
+
     @Test
     void validatePasswordChange_PasswordToEditIsBlank_EmptyFieldExceptionThrown() {
         // Given
@@ -209,7 +255,7 @@ public class PatientValidatorTest {
     @Test
     void patientExists_PatientWithGivenEmailDoesNotExist_PatientDoesNotExistExceptionThrown() {
         // Given
-        when(patientRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+        when(patientRepository.findBySimpleNaturalId(anyString())).thenReturn(Optional.empty());
         // Then
         var exception = Assertions.assertThrows(PatientDoesNotExistException.class,
                 () -> patientValidator.patientExists(anyString()));
@@ -222,11 +268,64 @@ public class PatientValidatorTest {
     void patientExists_PatientWithGivenEmailDoesExists_PatientReturned() {
         // Given
         Patient patient = PatientFactory.getPatient();
-        when(patientRepository.findByEmail(anyString())).thenReturn(Optional.of(patient));
+        when(patientRepository.findBySimpleNaturalId(anyString())).thenReturn(Optional.of(patient));
         // When
         var result = patientValidator.patientExists(anyString());
         // Then
         Assertions.assertNotNull(result);
         Assertions.assertEquals(patient, result);
     }
+
+    @Test
+    void patientEmailsExist_SomeEmailsRejectedByFilter_OnlyCandidatesQueried() {
+        // Given
+        when(patientEmailFilter.mightExist("jankow@gmail.com")).thenReturn(true);
+        when(patientEmailFilter.mightExist("annnow@gmail.com")).thenReturn(false);
+        when(patientRepository.findExistingNormalizedEmails(Set.of("jankow@gmail.com"))).thenReturn(Set.of("jankow@gmail.com"));
+        // When
+        var result = patientValidator.patientEmailsExist(Arrays.asList(" JanKow@gmail.com", "annnow@gmail.com", null));
+        // Then
+        Assertions.assertEquals(Set.of("jankow@gmail.com"), result);
+    }
+
+    @Test
+    void patientEmailsExist_AllEmailsRejectedByFilter_RepositoryNotQueried() {
+        // Given
+        when(patientEmailFilter.mightExist(anyString())).thenReturn(false);
+        // When
+        var result = patientValidator.patientEmailsExist(List.of("jankow@gmail.com"));
+        // Then
+        Assertions.assertTrue(result.isEmpty());
+        verify(patientRepository, never()).findExistingNormalizedEmails(any());
+    }
+
+    @Test
+    void validatePatientImport_PatientWithTakenEmailIsGiven_PatientExistsExceptionThrown() {
+        // Given
+        Patient patient = PatientFactory.getPatient();
+        patient.setEmail("JANKOW@gmail.com");
+        // Then
+        var exception = Assertions.assertThrows(PatientExistsException.class,
+                () -> patientValidator.validatePatientImport(patient, Set.of("jankow@gmail.com"), Set.of()));
+        Assertions.assertEquals("Patient with given email exists.", exception.getMessage());
+    }
+
+    @Test
+    void validatePatientImport_PatientWithTakenIdCardNoIsGiven_PatientExistsExceptionThrown() {
+        // Given
+        Patient patient = PatientFactory.getPatient();
+        // Then
+        var exception = Assertions.assertThrows(PatientExistsException.class,
+                () -> patientValidator.validatePatientImport(patient, Set.of(), Set.of(patient.getIdCardNo())));
+        Assertions.assertEquals("Patient with given ID card number exists.", exception.getMessage());
+    }
+
+    @Test
+    void validatePatientImport_PatientWithEmptyFieldsIsGiven_EmptyFieldExceptionThrown() {
+        // Given
+        Patient patient = PatientFactory.getPatient(null, "jankow@gmail.com", null, "Jan", "Kowalski", "password123", null);
+        // Then
+        Assertions.assertThrows(EmptyFieldException.class,
+                () -> patientValidator.validatePatientImport(patient, Set.of(), Set.of()));
+    }
 }
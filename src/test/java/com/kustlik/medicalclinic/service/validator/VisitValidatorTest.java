@@ -2,18 +2,28 @@ package com.kustlik.medicalclinic.service.validator;
 
 import com.kustlik.medicalclinic.exception.EmptyFieldException;
 import com.kustlik.medicalclinic.exception.InvalidDateTimeException;
+import com.kustlik.medicalclinic.exception.VisitAlreadyBookedException;
 import com.kustlik.medicalclinic.exception.VisitDoesNotExistException;
 import com.kustlik.medicalclinic.exception.VisitExistsException;
+import com.kustlik.medicalclinic.exception.VisitNotBookedException;
+import com.kustlik.medicalclinic.factory.PatientFactory;
 import com.kustlik.medicalclinic.factory.VisitFactory;
+import com.kustlik.medicalclinic.factory.WaitlistEntryFactory;
+import com.kustlik.medicalclinic.model.dto.visit.VisitScheduleDTO;
 import com.kustlik.medicalclinic.model.entity.Visit;
+import com.kustlik.medicalclinic.model.filter.VisitExportFilter;
 import com.kustlik.medicalclinic.repository.VisitRepository;
+import com.kustlik.medicalclinic.service.index.VisitIntervalIndex;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.time.LocalTime;
+import java.util.Set;
 import java.util.Optional;
 
 import static org.mockito.Mockito.when;
@@ -21,12 +31,14 @@ import static org.mockito.Mockito.when;
 public class VisitValidatorTest {
     private static final int YEAR = LocalDateTime.now().getYear() + 1;
     private VisitRepository visitRepository;
+    private VisitIntervalIndex visitIntervalIndex;
     private VisitValidator visitValidator;
 
     @BeforeEach
     void setup() {
         this.visitRepository = Mockito.mock(VisitRepository.class);
-        this.visitValidator = new VisitValidator(visitRepository);
+        this.visitIntervalIndex = Mockito.mock(VisitIntervalIndex.class);
+        this.visitValidator = new VisitValidator(visitRepository, visitIntervalIndex);
     }
 
     @Test
@@ -145,10 +157,10 @@ public class VisitValidatorTest {
         // Given
         Long doctorID = 1L;
         Visit visit = VisitFactory.getVisit();
-        when(visitRepository.findAllOverlapping(
+        when(visitIntervalIndex.isOverlapping(
+                doctorID,
                 visit.getAppointmentStart(),
-                visit.getAppointmentEnd(),
-                doctorID)).thenReturn(List.of(visit));
+                visit.getAppointmentEnd())).thenReturn(true);
         // Then
         var exception = Assertions.assertThrows(VisitExistsException.class,
                 () -> visitValidator.validateVisitCreation(visit, doctorID));
@@ -162,14 +174,119 @@ public class VisitValidatorTest {
         // Given
         Long doctorID = 1L;
         Visit visit = VisitFactory.getVisit();
-        when(visitRepository.findAllOverlapping(
+        when(visitIntervalIndex.isOverlapping(
+                doctorID,
                 visit.getAppointmentStart(),
-                visit.getAppointmentEnd(),
-                doctorID)).thenReturn(List.of());
+                visit.getAppointmentEnd())).thenReturn(false);
         // When
         visitValidator.validateVisitCreation(visit, doctorID);
     }
 
+    @Test
+    void validateVisitSchedule_ScheduleWithSomeEmptyFieldsGiven_EmptyFieldExceptionThrown() {
+        // Given
+        VisitScheduleDTO schedule = VisitFactory.getVisitScheduleDTO(
+                LocalDate.of(YEAR, 1, 1),
+                LocalDate.of(YEAR, 1, 7),
+                null,
+                LocalTime.of(9, 0),
+                LocalTime.of(11, 0),
+                30);
+        // Then
+        var exception = Assertions.assertThrows(EmptyFieldException.class,
+                () -> visitValidator.validateVisitSchedule(schedule));
+        String expectedMessage = "Schedule has some null fields, please fill everything correctly.";
+        String actualMessage = exception.getMessage();
+        Assertions.assertTrue(actualMessage.contains(expectedMessage));
+    }
+
+    @Test
+    void validateVisitSchedule_ScheduleEndsBeforeStart_InvalidDateTimeExceptionThrown() {
+        // Given
+        VisitScheduleDTO schedule = VisitFactory.getVisitScheduleDTO(
+                LocalDate.of(YEAR, 1, 7),
+                LocalDate.of(YEAR, 1, 1),
+                Set.of(DayOfWeek.MONDAY),
+                LocalTime.of(9, 0),
+                LocalTime.of(11, 0),
+                30);
+        // Then
+        var exception = Assertions.assertThrows(InvalidDateTimeException.class,
+                () -> visitValidator.validateVisitSchedule(schedule));
+        String expectedMessage = "Schedule end date should not be before start date.";
+        String actualMessage = exception.getMessage();
+        Assertions.assertTrue(actualMessage.contains(expectedMessage));
+    }
+
+    @Test
+    void validateVisitSchedule_ScheduleHoursEndBeforeStart_InvalidDateTimeExceptionThrown() {
+        // Given
+        VisitScheduleDTO schedule = VisitFactory.getVisitScheduleDTO(
+                LocalDate.of(YEAR, 1, 1),
+                LocalDate.of(YEAR, 1, 7),
+                Set.of(DayOfWeek.MONDAY),
+                LocalTime.of(11, 0),
+                LocalTime.of(9, 0),
+                30);
+        // Then
+        var exception = Assertions.assertThrows(InvalidDateTimeException.class,
+                () -> visitValidator.validateVisitSchedule(schedule));
+        String expectedMessage = "Schedule end time should be after start time.";
+        String actualMessage = exception.getMessage();
+        Assertions.assertTrue(actualMessage.contains(expectedMessage));
+    }
+
+    @Test
+    void validateVisitSchedule_SlotDurationIsNotPositive_InvalidDateTimeExceptionThrown() {
+        // Given
+        VisitScheduleDTO schedule = VisitFactory.getVisitScheduleDTO(
+                LocalDate.of(YEAR, 1, 1),
+                LocalDate.of(YEAR, 1, 7),
+                Set.of(DayOfWeek.MONDAY),
+                LocalTime.of(9, 0),
+                LocalTime.of(11, 0),
+                0);
+        // Then
+        var exception = Assertions.assertThrows(InvalidDateTimeException.class,
+                () -> visitValidator.validateVisitSchedule(schedule));
+        String expectedMessage = "Slot duration should be between " + VisitValidator.MIN_VISIT_DURATION_IN_MINUTES +
+                " min and " + VisitValidator.MAX_VISIT_DURATION_IN_HOURS + " hours.";
+        String actualMessage = exception.getMessage();
+        Assertions.assertTrue(actualMessage.contains(expectedMessage));
+    }
+
+    @Test
+    void validateVisitSchedule_ValidScheduleIsGiven_ExceptionIsNotThrown() {
+        // Given
+        VisitScheduleDTO schedule = VisitFactory.getVisitScheduleDTO();
+        // When
+        visitValidator.validateVisitSchedule(schedule);
+    }
+
+    @Test
+    void validateFreeVisitSearch_BlankCityGiven_EmptyFieldExceptionThrown() {
+        // Given
+        LocalDateTime from = LocalDateTime.of(YEAR, 1, 1, 0, 0);
+        // Then
+        var exception = Assertions.assertThrows(EmptyFieldException.class,
+                () -> visitValidator.validateFreeVisitSearch("Psychiatra", " ", from, from.plusDays(1)));
+        String expectedMessage = "Specialisation and city cannot be empty.";
+        String actualMessage = exception.getMessage();
+        Assertions.assertTrue(actualMessage.contains(expectedMessage));
+    }
+
+    @Test
+    void validateFreeVisitSearch_SearchEndsBeforeStart_InvalidDateTimeExceptionThrown() {
+        // Given
+        LocalDateTime from = LocalDateTime.of(YEAR, 1, 2, 0, 0);
+        // Then
+        var exception = Assertions.assertThrows(InvalidDateTimeException.class,
+                () -> visitValidator.validateFreeVisitSearch("Psychiatra", "Warszawa", from, from.minusDays(1)));
+        String expectedMessage = "Search end time should be after start time.";
+        String actualMessage = exception.getMessage();
+        Assertions.assertTrue(actualMessage.contains(expectedMessage));
+    }
+
     @Test
     void validateVisitAssignment_VisitGivenIsPast_InvalidDateTimeExceptionThrown() {
         // Given
@@ -187,6 +304,23 @@ public class VisitValidatorTest {
         Assertions.assertTrue(actualMessage.contains(expectedMessage));
     }
 
+    @Test
+    void validateVisitAssignment_VisitGivenIsAlreadyBooked_VisitAlreadyBookedExceptionThrown() {
+        // Given
+        Visit visit = VisitFactory.getVisit(
+                1L,
+                LocalDateTime.of(YEAR, 1, 1, 12, 0),
+                LocalDateTime.of(YEAR, 1, 1, 12, 30),
+                null,
+                PatientFactory.getPatient());
+        // Then
+        var exception = Assertions.assertThrows(VisitAlreadyBookedException.class,
+                () -> visitValidator.validateVisitAssignment(visit));
+        String expectedMessage = "Visit is already booked by another patient.";
+        String actualMessage = exception.getMessage();
+        Assertions.assertTrue(actualMessage.contains(expectedMessage));
+    }
+
     @Test
     void validateVisitAssignment_ValidVisitIsGiven_ExceptionIsNotThrown() {
         // Given
@@ -220,4 +354,92 @@ public class VisitValidatorTest {
         Assertions.assertNotNull(result);
         Assertions.assertEquals(visit, result);
     }
-}
+
+    @Test
+    void validateVisitCancellation_VisitBookedByAnotherPatient_VisitNotBookedExceptionThrown() {
+        // Given
+        Visit visit = VisitFactory.getVisit(
+                1L,
+                LocalDateTime.of(YEAR, 1, 1, 12, 0),
+                LocalDateTime.of(YEAR, 1, 1, 12, 30),
+                null,
+                PatientFactory.getPatient());
+        // Then
+        var exception = Assertions.assertThrows(VisitNotBookedException.class,
+                () -> visitValidator.validateVisitCancellation(visit, 2L));
+        Assertions.assertEquals("Visit is not booked by given patient.", exception.getMessage());
+    }
+
+    @Test
+    void validateVisitCancellation_VisitIsInThePast_InvalidDateTimeExceptionThrown() {
+        // Given
+        Visit visit = VisitFactory.getVisit(
+                1L,
+                LocalDateTime.of(2020, 1, 1, 12, 0),
+                LocalDateTime.of(2020, 1, 1, 12, 30),
+                null,
+                PatientFactory.getPatient());
+        // Then
+        var exception = Assertions.assertThrows(InvalidDateTimeException.class,
+                () -> visitValidator.validateVisitCancellation(visit, 1L));
+        Assertions.assertEquals("Unable to cancel a past visit.", exception.getMessage());
+    }
+
+    @Test
+    void validateVisitCancellation_VisitBookedByGivenPatient_ExceptionIsNotThrown() {
+        // Given
+        Visit visit = VisitFactory.getVisit(
+                1L,
+                LocalDateTime.of(YEAR, 1, 1, 12, 0),
+                LocalDateTime.of(YEAR, 1, 1, 12, 30),
+                null,
+                PatientFactory.getPatient());
+        // Then
+        Assertions.assertDoesNotThrow(() -> visitValidator.validateVisitCancellation(visit, 1L));
+    }
+
+    @Test
+    void validateWaitlistEntry_VisitDateIsInThePast_InvalidDateTimeExceptionThrown() {
+        // Given
+        var waitlistEntry = WaitlistEntryFactory.getWaitlistEntry();
+        waitlistEntry.setVisitDate(LocalDate.of(2020, 1, 1));
+        // Then
+        var exception = Assertions.assertThrows(InvalidDateTimeException.class,
+                () -> visitValidator.validateWaitlistEntry(waitlistEntry));
+        Assertions.assertEquals("Unable to join a waitlist for past dates.", exception.getMessage());
+    }
+
+    @Test
+    void validateWaitlistEntry_VisitDateIsNull_EmptyFieldExceptionThrown() {
+        // Given
+        var waitlistEntry = WaitlistEntryFactory.getWaitlistEntry();
+        waitlistEntry.setVisitDate(null);
+        // Then
+        var exception = Assertions.assertThrows(EmptyFieldException.class,
+                () -> visitValidator.validateWaitlistEntry(waitlistEntry));
+        Assertions.assertEquals("Waitlist entry has some null fields, please fill everything correctly.", exception.getMessage());
+    }
+
+    @Test
+    void validateVisitExport_EndTimeIsBeforeStartTime_InvalidDateTimeExceptionThrown() {
+        // Given
+        VisitExportFilter filter = VisitExportFilter.builder()
+                .from(LocalDateTime.of(YEAR, 1, 2, 0, 0))
+                .to(LocalDateTime.of(YEAR, 1, 1, 0, 0))
+                .build();
+        // Then
+        var exception = Assertions.assertThrows(InvalidDateTimeException.class,
+                () -> visitValidator.validateVisitExport(filter));
+        Assertions.assertEquals("Export end time should be after start time.", exception.getMessage());
+    }
+
+    @Test
+    void validateVisitExport_OnlyStartTimeGiven_NoExceptionThrown() {
+        // Given
+        VisitExportFilter filter = VisitExportFilter.builder()
+                .from(LocalDateTime.of(YEAR, 1, 1, 0, 0))
+                .build();
+        // Then
+        Assertions.assertDoesNotThrow(() -> visitValidator.validateVisitExport(filter));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.kustlik.medicalclinic.service.waitlist;
+
+import com.kustlik.medicalclinic.factory.DoctorFactory;
+import com.kustlik.medicalclinic.factory.PatientFactory;
+import com.kustlik.medicalclinic.factory.WaitlistEntryFactory;
+import com.kustlik.medicalclinic.model.entity.WaitlistEntry;
+import com.kustlik.medicalclinic.repository.WaitlistEntryRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class VisitWaitlistTest {
+    private static final Long DOCTOR_ID = 1L;
+    private static final LocalDate VISIT_DATE = LocalDate.now().plusYears(1);
+    private WaitlistEntryRepository waitlistEntryRepository;
+    private VisitWaitlist visitWaitlist;
+
+    @BeforeEach
+    void setup() {
+        this.waitlistEntryRepository = Mockito.mock(WaitlistEntryRepository.class);
+        this.visitWaitlist = new VisitWaitlist(waitlistEntryRepository);
+    }
+
+    @Test
+    void first_PatientsAreWaiting_EarliestEntryReturned() {
+        // Given
+        WaitlistEntry entry = entry(3L);
+        when(waitlistEntryRepository.findIdsByDoctorIdAndVisitDate(DOCTOR_ID, VISIT_DATE)).thenReturn(List.of(3L, 5L));
+        when(waitlistEntryRepository.findById(3L)).thenReturn(Optional.of(entry));
+        // When
+        var result = visitWaitlist.first(DOCTOR_ID, VISIT_DATE);
+        // Then
+        Assertions.assertEquals(Optional.of(entry), result);
+    }
+
+    @Test
+    void first_NobodyIsWaiting_EmptyReturnedAndQueueLoadedOnce() {
+        // Given
+        when(waitlistEntryRepository.findIdsByDoctorIdAndVisitDate(DOCTOR_ID, VISIT_DATE)).thenReturn(List.of());
+        // When
+        visitWaitlist.first(DOCTOR_ID, VISIT_DATE);
+        var result = visitWaitlist.first(DOCTOR_ID, VISIT_DATE);
+        // Then
+        Assertions.assertTrue(result.isEmpty());
+        verify(waitlistEntryRepository, times(1)).findIdsByDoctorIdAndVisitDate(DOCTOR_ID, VISIT_DATE);
+        verify(waitlistEntryRepository, never()).findById(any());
+    }
+
+    @Test
+    void join_QueueAlreadyLoaded_EntryAddedToQueue() {
+        // Given
+        WaitlistEntry entry = entry(7L);
+        when(waitlistEntryRepository.findIdsByDoctorIdAndVisitDate(DOCTOR_ID, VISIT_DATE)).thenReturn(List.of());
+        when(waitlistEntryRepository.save(entry)).thenReturn(entry);
+        when(waitlistEntryRepository.findById(7L)).thenReturn(Optional.of(entry));
+        Assertions.assertTrue(visitWaitlist.first(DOCTOR_ID, VISIT_DATE).isEmpty());
+        // When
+        visitWaitlist.join(entry);
+        // Then
+        Assertions.assertEquals(Optional.of(entry), visitWaitlist.first(DOCTOR_ID, VISIT_DATE));
+        verify(waitlistEntryRepository, times(1)).findIdsByDoctorIdAndVisitDate(DOCTOR_ID, VISIT_DATE);
+    }
+
+    @Test
+    void leave_EntryIsFirstInQueue_NextEntryReturned() {
+        // Given
+        WaitlistEntry first = entry(3L);
+        WaitlistEntry second = entry(5L);
+        when(waitlistEntryRepository.findIdsByDoctorIdAndVisitDate(DOCTOR_ID, VISIT_DATE)).thenReturn(List.of(3L, 5L));
+        when(waitlistEntryRepository.findById(3L)).thenReturn(Optional.of(first));
+        when(waitlistEntryRepository.findById(5L)).thenReturn(Optional.of(second));
+        Assertions.assertEquals(Optional.of(first), visitWaitlist.first(DOCTOR_ID, VISIT_DATE));
+        // When
+        visitWaitlist.leave(first);
+        // Then
+        verify(waitlistEntryRepository).delete(first);
+        Assertions.assertEquals(Optional.of(second), visitWaitlist.first(DOCTOR_ID, VISIT_DATE));
+    }
+
+    @Test
+    void first_FirstEntryNoLongerStored_EntrySkipped() {
+        // Given
+        WaitlistEntry second = entry(5L);
+        when(waitlistEntryRepository.findIdsByDoctorIdAndVisitDate(DOCTOR_ID, VISIT_DATE)).thenReturn(List.of(3L, 5L));
+        when(waitlistEntryRepository.findById(3L)).thenReturn(Optional.empty());
+        when(waitlistEntryRepository.findById(5L)).thenReturn(Optional.of(second));
+        // When
+        var result = visitWaitlist.first(DOCTOR_ID, VISIT_DATE);
+        // Then
+        Assertions.assertEquals(Optional.of(second), result);
+    }
+
+    private static WaitlistEntry entry(Long id) {
+        return WaitlistEntryFactory.getWaitlistEntry(id, DoctorFactory.getDoctor(), PatientFactory.getPatient(), VISIT_DATE);
+    }
+}
@@ -1,3 +1,3 @@
 delete from doctor_medical_facility
 delete from doctor
-ALTER TABLE doctor ALTER COLUMN ID RESTART WITH 1
\ No newline at end of file
+ALTER SEQUENCE doctor_seq RESTART WITH 50
\ No newline at end of file
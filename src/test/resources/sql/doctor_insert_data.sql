@@ -1,2 +1,3 @@
-insert into doctor (ID, EMAIL, FIRST_NAME, LAST_NAME, PASSWORD, SPECIALISATION) values (default, 'jankowski@gmail.com', 'Arek', 'Nowacki', 'doctor123', 'Ortopeda')
-insert into doctor (ID, EMAIL, FIRST_NAME, LAST_NAME, PASSWORD, SPECIALISATION) values (default, 'baczynski@gmail.com', 'Damian', 'Borczek', 'trudnehaslo1', 'Chiropraktyk')
\ No newline at end of file
+insert into doctor (ID, EMAIL, NORMALIZED_EMAIL, FIRST_NAME, LAST_NAME, PASSWORD, SPECIALISATION) values (1, 'jankowski@gmail.com', 'jankowski@gmail.com', 'Arek', 'Nowacki', 'doctor123', 'Ortopeda')
+insert into doctor (ID, EMAIL, NORMALIZED_EMAIL, FIRST_NAME, LAST_NAME, PASSWORD, SPECIALISATION) values (2, 'baczynski@gmail.com', 'baczynski@gmail.com', 'Damian', 'Borczek', 'trudnehaslo1', 'Chiropraktyk')
+ALTER SEQUENCE doctor_seq RESTART WITH (SELECT COALESCE(MAX(ID), 0) + 50 FROM doctor)
\ No newline at end of file
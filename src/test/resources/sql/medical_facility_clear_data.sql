@@ -1,3 +1,3 @@
 delete from doctor_medical_facility
 delete from MEDICAL_FACILITY
-ALTER TABLE MEDICAL_FACILITY ALTER COLUMN ID RESTART WITH 1
\ No newline at end of file
+ALTER SEQUENCE medical_facility_seq RESTART WITH 50
\ No newline at end of file
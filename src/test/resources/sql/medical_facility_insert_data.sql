@@ -1,2 +1,3 @@
-insert into MEDICAL_FACILITY (ID, BUILDING_NUMBER, CITY, NAME, STREET, ZIP_CODE) values (default, '23', 'Łódź', 'MediSun', 'Piotrkowska', '23-542')
-insert into MEDICAL_FACILITY (ID, BUILDING_NUMBER, CITY, NAME, STREET, ZIP_CODE) values (default, '74', 'Warszawa', 'HospiDeli', 'Młyńska', '73-325')
\ No newline at end of file
+insert into MEDICAL_FACILITY (ID, BUILDING_NUMBER, CITY, NAME, STREET, ZIP_CODE) values (1, '23', 'Łódź', 'MediSun', 'Piotrkowska', '23-542')
+insert into MEDICAL_FACILITY (ID, BUILDING_NUMBER, CITY, NAME, STREET, ZIP_CODE) values (2, '74', 'Warszawa', 'HospiDeli', 'Młyńska', '73-325')
+ALTER SEQUENCE medical_facility_seq RESTART WITH (SELECT COALESCE(MAX(ID), 0) + 50 FROM MEDICAL_FACILITY)
\ No newline at end of file
@@ -1,2 +1,2 @@
 delete from patient
-ALTER TABLE patient ALTER COLUMN ID RESTART WITH 1
\ No newline at end of file
+ALTER SEQUENCE patient_seq RESTART WITH 50
\ No newline at end of file
@@ -1,2 +1,3 @@
-insert into patient (ID, EMAIL, ID_CARD_NO, FIRST_NAME, LAST_NAME, PASSWORD, BIRTHDAY) values (default, 'boczek@gmail.com', '54321', 'Jerzy', 'Bolek', 'haslo123', '1980-02-02')
-insert into patient (ID, EMAIL, ID_CARD_NO, FIRST_NAME, LAST_NAME, PASSWORD, BIRTHDAY) values (default, 'karkow@gmail.com', '12345abc', 'Karol', 'Wojczyk', 'piesek123', '1990-06-12')
\ No newline at end of file
+insert into patient (ID, EMAIL, NORMALIZED_EMAIL, ID_CARD_NO, FIRST_NAME, LAST_NAME, PASSWORD, BIRTHDAY) values (1, 'boczek@gmail.com', 'boczek@gmail.com', '54321', 'Jerzy', 'Bolek', 'haslo123', '1980-02-02')
+insert into patient (ID, EMAIL, NORMALIZED_EMAIL, ID_CARD_NO, FIRST_NAME, LAST_NAME, PASSWORD, BIRTHDAY) values (2, 'karkow@gmail.com', 'karkow@gmail.com', '12345abc', 'Karol', 'Wojczyk', 'piesek123', '1990-06-12')
+ALTER SEQUENCE patient_seq RESTART WITH (SELECT COALESCE(MAX(ID), 0) + 50 FROM patient)
\ No newline at end of file
@@ -1,2 +1,2 @@
 delete from visit
-ALTER TABLE VISIT ALTER COLUMN ID RESTART WITH 1
\ No newline at end of file
+ALTER SEQUENCE visit_seq RESTART WITH 50
\ No newline at end of file
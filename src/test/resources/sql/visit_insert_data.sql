@@ -1,3 +1,4 @@
-insert into VISIT (ID, APPOINTMENT_START, APPOINTMENT_END, DOCTOR_ID, PATIENT_ID) values (DEFAULT, '2029-12-01 12:00:00', '2029-12-01 12:30:00', 2, NULL)
-insert into VISIT (ID, APPOINTMENT_START, APPOINTMENT_END, DOCTOR_ID, PATIENT_ID) values (DEFAULT, '2029-12-01 13:00:00', '2029-12-01 13:30:00', 2, 1)
-insert into VISIT (ID, APPOINTMENT_START, APPOINTMENT_END, DOCTOR_ID, PATIENT_ID) values (DEFAULT, '2022-12-01 13:00:00', '2022-12-01 13:30:00', 2, 1)
\ No newline at end of file
+insert into VISIT (ID, APPOINTMENT_START, APPOINTMENT_END, DOCTOR_ID, PATIENT_ID) values (1, '2029-12-01 12:00:00', '2029-12-01 12:30:00', 2, NULL)
+insert into VISIT (ID, APPOINTMENT_START, APPOINTMENT_END, DOCTOR_ID, PATIENT_ID) values (2, '2029-12-01 13:00:00', '2029-12-01 13:30:00', 2, 1)
+insert into VISIT (ID, APPOINTMENT_START, APPOINTMENT_END, DOCTOR_ID, PATIENT_ID) values (3, '2022-12-01 13:00:00', '2022-12-01 13:30:00', 2, 1)
+ALTER SEQUENCE visit_seq RESTART WITH (SELECT COALESCE(MAX(ID), 0) + 50 FROM VISIT)
\ No newline at end of file
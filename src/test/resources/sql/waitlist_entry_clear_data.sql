@@ -0,0 +1,2 @@
+delete from waitlist_entry
+ALTER TABLE waitlist_entry ALTER COLUMN ID RESTART WITH 1
\ No newline at end of file